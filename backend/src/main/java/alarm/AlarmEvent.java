@@ -0,0 +1,62 @@
+package coinalarm.Coin_Alarm.alarm;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * ⭐ [신규 추가] 알람 이벤트 (append-only)
+ *
+ * - 기존 Coin.alarm(@ElementCollection)을 대체: 알람 1건 = 행 1개, 수정/삭제 없음
+ * - (symbol, event_time) 인덱스 → 심볼별 최신순 이력 조회를 인덱스만으로 처리
+ * - 저장은 AlarmEventRecorder가 모아서 JDBC 배치 INSERT (AlarmEventDaoImpl)
+ */
+@Entity
+@Table(name = "alarm_event", indexes = {
+        @Index(name = "idx_alarm_event_symbol_time", columnList = "symbol, event_time")
+})
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlarmEvent {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "exchange_id", nullable = false, length = 32)
+  private String exchangeId;   // 거래소 ID (예: UPBIT)
+
+  @Column(name = "symbol", nullable = false, length = 32)
+  private String symbol;       // 마켓 코드 (예: KRW-BTC)
+
+  @Column(name = "event_time", nullable = false)
+  private Long eventTime;      // 알람 발생 시각 (epoch 밀리초)
+
+  @Column(name = "alarm_type", nullable = false, length = 32)
+  private String alarmType;    // 알람 종류 (예: VOLUME_1M)
+
+  @Column(name = "volume")
+  private Double volume;       // 알람 기준 거래대금
+
+  @Column(name = "rvol")
+  private Double rvol;         // 시간대별 평소 대비 배수
+
+  @Column(name = "tier", length = 16)
+  private String tier;         // 시가총액 등급
+
+  @Column(name = "message", length = 255)
+  private String message;      // 표시용 메시지
+}
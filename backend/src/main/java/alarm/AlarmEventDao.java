@@ -0,0 +1,16 @@
+package coinalarm.Coin_Alarm.alarm;
+
+import java.util.List;
+
+// 알람 이벤트 저장/조회 (append-only: 수정/삭제 메서드 없음)
+public interface AlarmEventDao {
+
+  // 여러 건을 배치 INSERT 한 번으로 저장하는 메서드
+  int insertBatch(List<AlarmEvent> events);
+
+  /**
+   * 심볼별 알람 이력을 최신순으로 조회하는 메서드 (keyset 페이지네이션)
+   * 첫 페이지는 beforeTime/beforeId를 null로, 다음 페이지는 이전 페이지 마지막 행의 값으로 호출
+   */
+  List<AlarmEvent> findBySymbolBefore(String symbol, Long beforeTime, Long beforeId, int limit);
+}
@@ -0,0 +1,79 @@
+package coinalarm.Coin_Alarm.alarm;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ⭐ [신규 추가] 알람 이벤트 DAO (JdbcTemplate)
+ *
+ * - JPA persist는 IDENTITY 키 때문에 배치 INSERT가 안 되므로 JDBC batchUpdate 사용
+ * - 이력 조회는 OFFSET 대신 keyset (event_time, id) → 페이지가 깊어져도 인덱스 범위 스캔 한 번
+ */
+@Repository
+public class AlarmEventDaoImpl implements AlarmEventDao {
+
+  private static final String INSERT_SQL =
+          "INSERT INTO alarm_event (exchange_id, symbol, event_time, alarm_type, volume, rvol, tier, message) "
+                  + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String SELECT_COLUMNS =
+          "SELECT id, exchange_id, symbol, event_time, alarm_type, volume, rvol, tier, message FROM alarm_event ";
+
+  private static final RowMapper<AlarmEvent> ROW_MAPPER = (rs, rowNum) -> AlarmEvent.builder()
+          .id(rs.getLong("id"))
+          .exchangeId(rs.getString("exchange_id"))
+          .symbol(rs.getString("symbol"))
+          .eventTime(rs.getLong("event_time"))
+          .alarmType(rs.getString("alarm_type"))
+          .volume(rs.getObject("volume", Double.class))
+          .rvol(rs.getObject("rvol", Double.class))
+          .tier(rs.getString("tier"))
+          .message(rs.getString("message"))
+          .build();
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public AlarmEventDaoImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public int insertBatch(List<AlarmEvent> events) {
+    if (events.isEmpty()) {
+      return 0;
+    }
+    List<Object[]> batch = new ArrayList<>(events.size());
+    for (AlarmEvent event : events) {
+      batch.add(new Object[]{
+              event.getExchangeId(),
+              event.getSymbol(),
+              event.getEventTime(),
+              event.getAlarmType(),
+              event.getVolume(),
+              event.getRvol(),
+              event.getTier(),
+              event.getMessage()
+      });
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    return batch.size();
+  }
+
+  @Override
+  public List<AlarmEvent> findBySymbolBefore(String symbol, Long beforeTime, Long beforeId, int limit) {
+    if (beforeTime == null) {
+      return jdbcTemplate.query(
+              SELECT_COLUMNS + "WHERE symbol = ? ORDER BY event_time DESC, id DESC LIMIT ?",
+              ROW_MAPPER, symbol, limit);
+    }
+    long cursorId = (beforeId != null) ? beforeId : Long.MAX_VALUE;
+    return jdbcTemplate.query(
+            SELECT_COLUMNS + "WHERE symbol = ? AND (event_time < ? OR (event_time = ? AND id < ?)) "
+                    + "ORDER BY event_time DESC, id DESC LIMIT ?",
+            ROW_MAPPER, symbol, beforeTime, beforeTime, cursorId, limit);
+  }
+}
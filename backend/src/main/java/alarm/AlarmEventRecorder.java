@@ -0,0 +1,88 @@
+package coinalarm.Coin_Alarm.alarm;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] 알람 이벤트 기록기
+ *
+ * - 알람 경로(sendAlarmToFrontend)에서는 큐에 넣기만 함 → DB 지연이 알람 전송을 막지 않음
+ * - 1초마다 큐를 비워 배치 INSERT (최대 batch-size건씩)
+ * - 큐가 가득 차면 버리고 카운트 (알람 전송은 계속)
+ */
+@Component
+public class AlarmEventRecorder {
+
+  private static final Logger log = LoggerFactory.getLogger(AlarmEventRecorder.class);
+
+  private final AlarmEventDao alarmEventDao;
+  private final BlockingQueue<AlarmEvent> queue;
+  private final int batchSize;
+
+  private final AtomicLong recorded = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong inserted = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  public AlarmEventRecorder(AlarmEventDao alarmEventDao,
+                            @Value("${coinalarm.alarm-events.queue-capacity:10000}") int queueCapacity,
+                            @Value("${coinalarm.alarm-events.batch-size:500}") int batchSize) {
+    this.alarmEventDao = alarmEventDao;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+  }
+
+  //알람 1건 기록 (논블로킹)
+  public void record(AlarmEvent event) {
+    if (queue.offer(event)) {
+      recorded.incrementAndGet();
+    } else {
+      long count = dropped.incrementAndGet();
+      if (count % 1000 == 1) {
+        log.warn("⚠️ 알람 이벤트 큐 가득 참, 누적 {}건 버림", count);
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${coinalarm.alarm-events.flush-interval-ms:1000}")
+  public void flush() {
+    List<AlarmEvent> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      try {
+        inserted.addAndGet(alarmEventDao.insertBatch(batch));
+      } catch (RuntimeException e) {
+        //append-only 이력이므로 실패분은 재시도하지 않고 기록만 (중복 INSERT 방지)
+        failed.addAndGet(batch.size());
+        log.error("❌ 알람 이벤트 저장 실패 ({}건): {}", batch.size(), e.getMessage());
+      }
+      batch.clear();
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("queued", queue.size());
+    stats.put("recorded", recorded.get());
+    stats.put("inserted", inserted.get());
+    stats.put("dropped", dropped.get());
+    stats.put("failed", failed.get());
+    return stats;
+  }
+}
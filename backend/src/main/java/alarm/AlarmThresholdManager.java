@@ -4,8 +4,15 @@
 package coinalarm.Coin_Alarm.alarm;
 
 import coinalarm.Coin_Alarm.exchange.MarketCapTier;
+import coinalarm.Coin_Alarm.exchange.SymbolArray;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - LARGE (1조 초과): 3억원 이상 거래대금 시 알람
  * - MEDIUM (1조 미만): 1억원 이상 거래대금 시 알람
  */
+@Component
 public class AlarmThresholdManager {
   //**시가총액 등급별 알람**
   private final Map<MarketCapTier, Double> defaultThresholds;
@@ -26,21 +34,39 @@ public class AlarmThresholdManager {
   //**거래소별 알람 활성화**
   private final Map<String, Boolean> exchangeEnabled;
 
-  //**마켓별 커스텀 임계값(선택적으로 바꿔야함)**
-  private final Map<String, Double> customThresholds;
+  //⭐ [변경] 심볼 ID (거래소-마켓) → 인덱스 배열
+  private final SymbolRegistry symbolRegistry;
 
+  //**마켓별 커스텀 임계값(선택적으로 바꿔야함)** (심볼 ID 인덱스, 없으면 null)
+  private final SymbolArray<Double> customThresholds;
+
+  //⭐ [신규 추가] 자동 튜닝된 마켓별 임계값 (ThresholdAutoTuner가 통째로 교체, 읽기 전용 맵)
+  //틱 경로는 volatile 읽기 1번뿐 → 재계산 중에도 락/대기 없음
+  private volatile Map<String, Double> tunedThresholds = Map.of();
+
+  //튜닝 임계값의 심볼 ID 인덱스 버전 (없으면 NaN, 위 맵과 함께 교체)
+  private volatile double[] tunedById = new double[0];
+
+  //단독 사용 (백테스트 등): 자체 레지스트리
   public AlarmThresholdManager(){
+    this(new SymbolRegistry());
+  }
+
+  @Autowired
+  public AlarmThresholdManager(SymbolRegistry symbolRegistry){
+    this.symbolRegistry = symbolRegistry;
+
     //기본 임계값설정 나중에 클라이언트에서 받아올지 판단
     this.defaultThresholds = new HashMap<>();
     defaultThresholds.put(MarketCapTier.MEGA, 10_000_000_000_000.0); //10조
     defaultThresholds.put(MarketCapTier.LARGE, 1_000_000_000_000.0); //1조
-    defaultThresholds.put(MarketCapTier.MEDIUP, 999_999_999_999.0); //1조미만
+    defaultThresholds.put(MarketCapTier.MEDIUM, 999_999_999_999.0); //1조미만
 
     //거래소 활성화 상태
     this.exchangeEnabled = new ConcurrentHashMap<>();
 
     //커스텀 임계값
-    this.customThresholds = new ConcurrentHashMap<>();
+    this.customThresholds = new SymbolArray<>();
 
     System.out.println("✅ AlarmThresholdManager 초기화: " + defaultThresholds);
   }
@@ -59,27 +85,48 @@ public class AlarmThresholdManager {
           String marketCode,
           MarketCapTier marketCapTier,
           double volumeN
+  ){
+    return shouldTriggerAlarm(exchangeId, symbolRegistry.idOf(exchangeId, marketCode), marketCapTier, volumeN);
+  }
+
+  /**
+   * ⭐ 심볼 ID 버전 (틱 경로: 키 문자열 생성/해시 없음)
+   */
+  public boolean shouldTriggerAlarm(
+          String exchangeId,
+          int symbolId,
+          MarketCapTier marketCapTier,
+          double volumeN
   ){
     //거래소가 비활성화일 경우 알람X
     if(!isExchangeEnabled(exchangeId)){
       return false;
     }
 
-    //임계값 가져오기(커스텀>기본)
-    double threshold = getThreshold(exchangId, marketCode, marketCapTier);
-    
+    //임계값 가져오기(커스텀>튜닝>기본)
+    double threshold = getThreshold(symbolId, marketCapTier);
+
     //거래대금이 임계값 이상이면 알람 발생
     return volumeN >= threshold;
   }
 /**
- * 임계값 조회 (커스텀 우선, 없으면 기본값)
+ * 임계값 조회 (커스텀 > 자동 튜닝 > 기본값)
  */
   public double getThreshold(String exchangeId, String marketCode, MarketCapTier tier){
-    String key = exchangeId + ":" + marketCode;
+    return getThreshold(symbolRegistry.find(exchangeId, marketCode), tier);
+  }
 
+  public double getThreshold(int symbolId, MarketCapTier tier){
     //커스텀 임계값이 있으면 사용
-    if(customThresholds.containsKey(key)){
-      return customThresholds.get(key);
+    Double custom = customThresholds.get(symbolId);
+    if(custom != null){
+      return custom;
+    }
+
+    //자동 튜닝 값이 있으면 사용
+    double[] tuned = tunedById;
+    if(symbolId >= 0 && symbolId < tuned.length && !Double.isNaN(tuned[symbolId])){
+      return tuned[symbolId];
     }
 
     //없으면 시가총액 등급별 기본값
@@ -88,9 +135,8 @@ public class AlarmThresholdManager {
 
   //**커스텀 임계값 설정**
   public void setCustomThreshold(String exchangeId, String marketCode, double threshold){
-    String key = exchangeId + ":" + marketCode;
-    customThresholds.put(key, threshold);
-    System.out.println("📝 커스텀 임계값 설정: " + key + " = " + threshold);
+    customThresholds.set(symbolRegistry.idOf(exchangeId, marketCode), threshold);
+    System.out.println("📝 커스텀 임계값 설정: " + thresholdKey(exchangeId, marketCode) + " = " + threshold);
   }
 
   //거래소 활성화/비활성화
@@ -109,6 +155,110 @@ public class AlarmThresholdManager {
     defaultThresholds.put(tier, threshold);
     System.out.println("📝 기본 임계값 변경: " + tier + " = " + threshold);
   }
+
+  /**
+   * ⭐ [신규 추가] 자동 튜닝 임계값 일괄 교체 (키: "거래소:마켓")
+   * 새 맵을 복사해 한 번에 바꿔 끼움 → 조회 쪽은 이전 맵 또는 새 맵 중 하나를 온전히 봄
+   */
+  public void publishTunedThresholds(Map<String, Double> tuned){
+    Map<String, Double> copy = Map.copyOf(tuned);
+    double[] byId = new double[0];
+    for (Map.Entry<String, Double> entry : copy.entrySet()) {
+      int id = idOfKey(entry.getKey());
+      if (id < 0) {
+        continue;
+      }
+      if (id >= byId.length) {
+        int oldLength = byId.length;
+        byId = Arrays.copyOf(byId, Math.max(id + 1, symbolRegistry.size()));
+        Arrays.fill(byId, oldLength, byId.length, Double.NaN);
+      }
+      byId[id] = entry.getValue();
+    }
+    //배열을 먼저 바꾸고 맵 공개 (조회 경로는 배열만 봄)
+    this.tunedById = byId;
+    this.tunedThresholds = copy;
+  }
+
+  //현재 적용 중인 자동 튜닝 임계값 (읽기 전용)
+  public Map<String, Double> getTunedThresholds(){
+    return tunedThresholds;
+  }
+
+  //커스텀/튜닝 임계값 맵의 키
+  public static String thresholdKey(String exchangeId, String marketCode){
+    return exchangeId + ":" + marketCode;
+  }
+
+  //"거래소:마켓" 키 → 심볼 ID (형식이 틀리면 -1)
+  private int idOfKey(String key){
+    int separator = key.indexOf(':');
+    if (separator <= 0 || separator == key.length() - 1) {
+      return -1;
+    }
+    return symbolRegistry.idOf(key.substring(0, separator), key.substring(separator + 1));
+  }
+
+  /**
+   * ⭐ [체크포인트] 기본/커스텀 임계값과 거래소 활성화 상태 저장
+   * 형식: 각 맵마다 int 개수 + (키, 값) 반복
+   */
+  public void writeCheckpoint(DataOutputStream out) throws IOException {
+    Map<MarketCapTier, Double> defaults = new HashMap<>(defaultThresholds);
+    out.writeInt(defaults.size());
+    for (Map.Entry<MarketCapTier, Double> entry : defaults.entrySet()) {
+      out.writeUTF(entry.getKey().name());
+      out.writeDouble(entry.getValue());
+    }
+    //커스텀 임계값은 기존 형식 그대로 "거래소:마켓" 키로 저장 (ID는 실행마다 다를 수 있음)
+    Map<String, Double> customs = new HashMap<>();
+    for (int id = 0; id < customThresholds.capacity(); id++) {
+      Double threshold = customThresholds.get(id);
+      if (threshold != null) {
+        SymbolRegistry.SymbolInfo info = symbolRegistry.info(id);
+        customs.put(thresholdKey(info.getExchangeId(), info.getMarketCode()), threshold);
+      }
+    }
+    out.writeInt(customs.size());
+    for (Map.Entry<String, Double> entry : customs.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeDouble(entry.getValue());
+    }
+    Map<String, Boolean> exchanges = new HashMap<>(exchangeEnabled);
+    out.writeInt(exchanges.size());
+    for (Map.Entry<String, Boolean> entry : exchanges.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeBoolean(entry.getValue());
+    }
+  }
+
+  //체크포인트 복원 (WebSocket 연결 전에 호출)
+  public void readCheckpoint(DataInputStream in) throws IOException {
+    int defaultCount = in.readInt();
+    for (int i = 0; i < defaultCount; i++) {
+      String tier = in.readUTF();
+      double threshold = in.readDouble();
+      try {
+        defaultThresholds.put(MarketCapTier.valueOf(tier), threshold);
+      } catch (IllegalArgumentException e) {
+        System.out.println("⚠️ 알 수 없는 시가총액 등급 무시: " + tier);
+      }
+    }
+    int customCount = in.readInt();
+    for (int i = 0; i < customCount; i++) {
+      String key = in.readUTF();
+      double threshold = in.readDouble();
+      int id = idOfKey(key);
+      if (id >= 0) {
+        customThresholds.set(id, threshold);
+      }
+    }
+    int exchangeCount = in.readInt();
+    for (int i = 0; i < exchangeCount; i++) {
+      exchangeEnabled.put(in.readUTF(), in.readBoolean());
+    }
+    System.out.println("♻️ 알람 설정 복원: 커스텀 임계값 " + customCount + "개");
+  }
 }
 
 //대충 어떤구조인지 알겠네
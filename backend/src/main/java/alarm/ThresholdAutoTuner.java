@@ -0,0 +1,246 @@
+package coinalarm.Coin_Alarm.alarm;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.storage.CandleStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ⭐ [신규 추가] 마켓별 알람 임계값 자동 튜닝
+ *
+ * 목적: 등급별 고정 임계값(3개) 대신 마켓마다 자기 과거 거래대금 분포로 임계값을 정함
+ *
+ * 계산 (마켓별, CandleStore 1분봉 lookback-days일):
+ * 1. 1분 거래대금 = 1분봉 거래대금, ⭐ [변경] 캔들이 저장된 분(covered)만 표본으로 사용
+ *    (라운드로빈 수집은 방문마다 지난 방문 이후 분봉을 모두 받음 → 빠진 분은 서버 중단 구간과 체결 없는 분뿐
+ *     0으로 채우면 분위수가 0 쪽으로 내려가 알람 폭주)
+ * 2. 커버리지(저장된 분 / 기간 전체 분)가 min-coverage 미만이거나 저장된 분이 min-days일 미만이면 튜닝 안 함
+ *    → 등급별 기본 임계값 유지
+ * 3. 분위수 임계값: 저장된 분 중 percentile 위치의 값 (예: 99.5% → 하루 약 7분만 초과)
+ * 4. 목표 빈도 임계값: 하루 target-alarms-per-day번만 넘도록 하는 값 (저장된 분 기준 상위 k번째 값)
+ * 5. 둘 중 큰 값 + 최소 임계값 하한 → 두 조건을 모두 만족
+ *
+ * 성능:
+ * - 정렬 대신 quickselect (평균 O(n)) → 14일 = 약 2만 분, 마켓당 수 ms
+ * - 마켓 단위로 ForkJoinPool 병렬 실행
+ * - 결과는 새 맵으로 만든 뒤 AlarmThresholdManager에 한 번에 교체 → 틱 경로는 기다리지 않음
+ */
+@Component
+public class ThresholdAutoTuner {
+
+  private static final Logger log = LoggerFactory.getLogger(ThresholdAutoTuner.class);
+
+  private static final int MINUTES_PER_DAY = 1440;
+
+  private final CandleStore candleStore;
+  private final AlarmThresholdManager alarmManager;
+
+  private final boolean enabled;
+  private final String exchangeId;
+  private final int lookbackDays;
+  private final int minDays;
+  private final double minCoverage;
+  private final double percentile;
+  private final double targetAlarmsPerDay;
+  private final double minThreshold;
+  private final int parallelism;
+
+  // --- 통계 ---
+  private volatile long lastRunMillis;
+  private volatile long lastElapsedMillis;
+  private volatile int lastTunedMarkets;
+  private volatile int lastSkippedMarkets;
+
+  public ThresholdAutoTuner(CandleStore candleStore,
+                            AlarmThresholdManager alarmManager,
+                            @Value("${coinalarm.threshold-tuner.enabled:true}") boolean enabled,
+                            @Value("${coinalarm.threshold-tuner.exchange:UPBIT}") String exchangeId,
+                            @Value("${coinalarm.threshold-tuner.lookback-days:14}") int lookbackDays,
+                            @Value("${coinalarm.threshold-tuner.min-days:3}") int minDays,
+                            @Value("${coinalarm.threshold-tuner.min-coverage:0.8}") double minCoverage,
+                            @Value("${coinalarm.threshold-tuner.percentile:99.5}") double percentile,
+                            @Value("${coinalarm.threshold-tuner.target-alarms-per-day:5}") double targetAlarmsPerDay,
+                            @Value("${coinalarm.threshold-tuner.min-threshold:10000000}") double minThreshold,
+                            @Value("${coinalarm.threshold-tuner.parallelism:0}") int parallelism) {
+    this.candleStore = candleStore;
+    this.alarmManager = alarmManager;
+    this.enabled = enabled;
+    this.exchangeId = exchangeId;
+    this.lookbackDays = lookbackDays;
+    this.minDays = minDays;
+    this.minCoverage = minCoverage;
+    this.percentile = percentile;
+    this.targetAlarmsPerDay = targetAlarmsPerDay;
+    this.minThreshold = minThreshold;
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+  }
+
+  //주기적 재계산 (기본 6시간, 기동 1분 후 첫 실행)
+  @Scheduled(initialDelayString = "${coinalarm.threshold-tuner.initial-delay-ms:60000}",
+          fixedDelayString = "${coinalarm.threshold-tuner.interval-ms:21600000}")
+  public void scheduledTune() {
+    if (enabled) {
+      tune();
+    }
+  }
+
+  /**
+   * ⭐ [핵심] 전체 마켓 임계값 재계산 + 일괄 반영
+   * @return 튜닝된 마켓 수
+   */
+  public int tune() {
+    long started = System.nanoTime();
+    Instant end = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+    Instant start = end.minus(Duration.ofDays(lookbackDays));
+    List<String> markets = candleStore.listMarkets(exchangeId);
+
+    Map<String, Double> tuned = new ConcurrentHashMap<>();
+    AtomicInteger skipped = new AtomicInteger();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.submit(() -> markets.parallelStream().forEach(marketCode -> {
+        double threshold = tuneMarket(marketCode, start, end);
+        if (Double.isNaN(threshold)) {
+          skipped.incrementAndGet();
+        } else {
+          tuned.put(AlarmThresholdManager.thresholdKey(exchangeId, marketCode), threshold);
+        }
+      })).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("⚠️ 임계값 자동 튜닝 중단");
+      return 0;
+    } catch (ExecutionException e) {
+      log.error("❌ 임계값 자동 튜닝 실패 (이전 값 유지): {}", e.getCause().getMessage());
+      return 0;
+    } finally {
+      pool.shutdown();
+    }
+
+    //다른 거래소 튜닝 값은 유지하고 이 거래소 값만 교체
+    String prefix = exchangeId + ":";
+    Map<String, Double> merged = new HashMap<>(tuned);
+    alarmManager.getTunedThresholds().forEach((key, value) -> {
+      if (!key.startsWith(prefix)) {
+        merged.put(key, value);
+      }
+    });
+    alarmManager.publishTunedThresholds(merged);
+
+    lastRunMillis = System.currentTimeMillis();
+    lastElapsedMillis = (System.nanoTime() - started) / 1_000_000;
+    lastTunedMarkets = tuned.size();
+    lastSkippedMarkets = skipped.get();
+    log.info("🎯 임계값 자동 튜닝 완료: {} 마켓 {}개 (데이터/커버리지 부족 {}개), {}ms",
+            exchangeId, lastTunedMarkets, lastSkippedMarkets, lastElapsedMillis);
+    return lastTunedMarkets;
+  }
+
+  /**
+   * 마켓 1개 임계값 계산
+   * 저장된 분이 min-days일보다 적거나 커버리지가 min-coverage 미만이면 NaN → 튜닝하지 않음
+   */
+  double tuneMarket(String marketCode, Instant start, Instant end) {
+    List<CandleData> candles = candleStore.query(exchangeId, marketCode, start, end, 1);
+    if (candles.isEmpty()) {
+      return Double.NaN;
+    }
+    //상장/저장 시작이 lookback보다 늦으면 첫 캔들부터 센다
+    long firstMinute = Math.floorDiv(candles.get(0).getTimestamp().toEpochMilli(), 60_000L);
+    long spanMinutes = Math.floorDiv(end.toEpochMilli(), 60_000L) - firstMinute;
+
+    //저장된 분만 표본 (거래 0으로 저장된 캔들은 실제 0이므로 포함, 빠진 분은 채우지 않음)
+    double[] volumes = new double[candles.size()];
+    int count = 0;
+    for (CandleData candle : candles) {
+      Double value = candle.getAccTradePrice();
+      if (value != null) {
+        volumes[count++] = Math.max(0.0, value);
+      }
+    }
+    if (count < (long) minDays * MINUTES_PER_DAY || spanMinutes <= 0 || (double) count / spanMinutes < minCoverage) {
+      return Double.NaN;
+    }
+
+    //분위수 순위 (저장된 분 기준, 오름차순 0부터)
+    int percentileRank = (int) Math.min(count - 1, Math.max(0L, (long) Math.ceil(percentile / 100.0 * count) - 1));
+    //목표 빈도 순위: 상위 k번째 값 이상만 알람 (저장된 분을 일수로 환산)
+    long alarmMinutes = Math.max(1L, (long) Math.floor(targetAlarmsPerDay * count / MINUTES_PER_DAY));
+    int rateRank = (int) Math.max(0L, count - alarmMinutes);
+
+    double threshold = Math.max(select(volumes, count, percentileRank), select(volumes, count, rateRank));
+    return Math.max(threshold, minThreshold);
+  }
+
+  /**
+   * quickselect: 배열 앞 n개 중 오름차순 k번째 값 (배열 순서는 바뀜, 평균 O(n))
+   * 피벗은 3개 중앙값 → 이미 정렬된 입력에서도 O(n^2)로 떨어지지 않음
+   */
+  static double select(double[] values, int n, int k) {
+    int left = 0;
+    int right = n - 1;
+    while (left < right) {
+      int mid = (left + right) >>> 1;
+      double pivot = medianOf3(values[left], values[mid], values[right]);
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (values[i] < pivot) {
+          i++;
+        }
+        while (values[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          double tmp = values[i];
+          values[i] = values[j];
+          values[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return values[k];
+      }
+    }
+    return values[k];
+  }
+
+  private static double medianOf3(double a, double b, double c) {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+
+  //튜닝 상태 조회 (모니터링용)
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("enabled", enabled);
+    stats.put("exchangeId", exchangeId);
+    stats.put("lookbackDays", lookbackDays);
+    stats.put("minCoverage", minCoverage);
+    stats.put("percentile", percentile);
+    stats.put("targetAlarmsPerDay", targetAlarmsPerDay);
+    stats.put("tunedMarkets", lastTunedMarkets);
+    stats.put("skippedMarkets", lastSkippedMarkets);
+    stats.put("lastRunMillis", lastRunMillis);
+    stats.put("lastElapsedMillis", lastElapsedMillis);
+    return stats;
+  }
+}
@@ -0,0 +1,36 @@
+package coinalarm.Coin_Alarm.backtest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * ⭐ [신규 추가] 백테스트 API
+ * 예: POST /api/backtest
+ *     { "source": "JOURNAL", "from": "2025-10-01", "to": "2025-10-31",
+ *       "thresholds": { "MEGA": 500000000 }, "horizonMinutes": 5, "moveThresholdPct": 1.0 }
+ * 동기 실행 (한 달치 전체 KRW 마켓 기준 수 분 이내)
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173")
+public class BacktestController {
+
+  private final BacktestRunner backtestRunner;
+
+  @Autowired
+  public BacktestController(BacktestRunner backtestRunner) {
+    this.backtestRunner = backtestRunner;
+  }
+
+  @PostMapping("/backtest")
+  public ResponseEntity<?> runBacktest(@RequestBody BacktestRequest request) {
+    try {
+      return ResponseEntity.ok(backtestRunner.run(request));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+    }
+  }
+}
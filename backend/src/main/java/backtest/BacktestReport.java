@@ -0,0 +1,54 @@
+package coinalarm.Coin_Alarm.backtest;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * ⭐ [신규 추가] 백테스트 결과
+ *
+ * - alarmTicks: 라이브 코드처럼 조건을 만족한 틱 수 (checkAndTriggerAlarm 호출 기준)
+ * - alarmEpisodes: cooldown으로 묶은 알람 건수 (사용자가 실제로 체감하는 알람 수)
+ * - precision: horizon 안에 moveThresholdPct 이상 움직인 알람 비율
+ */
+@Getter
+@Builder
+@ToString
+public class BacktestReport {
+
+  private String source;
+  private String exchangeId;
+  private String from;
+  private String to;
+  private int days;
+
+  private int markets;
+  private long ticks;              // 버퍼에 들어간 스냅샷 수
+  private long alarmTicks;
+  private long alarmEpisodes;
+  private long resolvedEpisodes;   // horizon이 끝나서 판정된 알람
+  private long hitEpisodes;
+  private double precision;        // hitEpisodes / resolvedEpisodes
+  private double episodesPerMarketDay;
+
+  private long elapsedMillis;
+  private double ticksPerSecond;
+
+  private List<MarketResult> perMarket; // 알람 많은 순
+
+  @Getter
+  @Builder
+  @ToString
+  public static class MarketResult {
+    private String marketCode;
+    private String tier;
+    private long ticks;
+    private long alarmTicks;
+    private long alarmEpisodes;
+    private long hitEpisodes;
+    private double precision;
+    private double episodesPerDay;
+  }
+}
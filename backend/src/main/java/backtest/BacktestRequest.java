@@ -0,0 +1,61 @@
+package coinalarm.Coin_Alarm.backtest;
+
+import coinalarm.Coin_Alarm.exchange.MarketCapTier;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ⭐ [신규 추가] 백테스트 요청
+ *
+ * 예: 지난 한 달 업비트 저널로 MEGA 임계값 5억, LARGE 2억을 시험
+ * { "source": "JOURNAL", "from": "2025-10-01", "to": "2025-10-31",
+ *   "thresholds": { "MEGA": 500000000, "LARGE": 200000000 } }
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestRequest {
+
+  public enum Source {
+    JOURNAL, // 틱 저널 (실제 수신 틱, 1초 간격으로 버퍼에 들어가는 것과 동일)
+    CANDLES  // 1분봉 저장소 (분 단위 근사)
+  }
+
+  @Builder.Default
+  private Source source = Source.JOURNAL;
+
+  @Builder.Default
+  private String exchangeId = "UPBIT";
+
+  private LocalDate from;           // 시작일 (UTC, 포함)
+  private LocalDate to;             // 종료일 (UTC, 포함)
+  private List<String> markets;     // 비어 있으면 데이터가 있는 모든 마켓
+
+  //시험할 등급별 임계값 (없는 등급은 AlarmThresholdManager 기본값)
+  private Map<MarketCapTier, Double> thresholds;
+
+  //마켓별 시가총액 등급 (없으면 defaultTier)
+  private Map<String, MarketCapTier> tiers;
+
+  @Builder.Default
+  private MarketCapTier defaultTier = MarketCapTier.MEDIUM;
+
+  @Builder.Default
+  private int cooldownSeconds = 60;     // 같은 마켓 연속 알람을 1건으로 묶는 간격
+
+  @Builder.Default
+  private int horizonMinutes = 5;       // 알람 후 가격 움직임을 볼 기간
+
+  @Builder.Default
+  private double moveThresholdPct = 1.0; // 이 이상 움직이면 "맞은 알람"
+
+  @Builder.Default
+  private int parallelism = 0;          // 0이면 CPU 코어 수
+}
@@ -0,0 +1,372 @@
+package coinalarm.Coin_Alarm.backtest;
+
+import coinalarm.Coin_Alarm.alarm.AlarmThresholdManager;
+import coinalarm.Coin_Alarm.buffer.MultiTieredSnapshotBuffer;
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.MarketCapTier;
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import coinalarm.Coin_Alarm.storage.CandleStore;
+import coinalarm.Coin_Alarm.storage.TickJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ⭐ [신규 추가] 알람 규칙 백테스트 (가상 시계 재생)
+ *
+ * 목적: 임계값을 바꿨을 때 "알람이 몇 번 울리고, 그중 몇 번이 실제 가격 움직임으로 이어졌는지"를
+ *       라이브에 적용하기 전에 저장된 데이터로 확인
+ *
+ * 동작:
+ * 1. 라이브와 같은 코드 사용: 마켓마다 MultiTieredSnapshotBuffer + AlarmThresholdManager
+ *    (addSnapshot → calculateRollingVolume(1분) → shouldTriggerAlarm, checkAndTriggerAlarm과 동일한 순서)
+ * 2. 시계는 데이터의 타임스탬프 (가상 시계) → 봉인/정리도 maintain(가상 시각)으로 1분마다 실행
+ * 3. 하루 단위로 데이터를 읽고, 마켓별로 ForkJoinPool에서 병렬 재생 (마켓끼리는 상태 공유 없음)
+ * 4. 알람 발생 후 horizon 동안 최고/최저가를 추적 → moveThresholdPct 이상 움직였으면 적중
+ *
+ * 데이터 소스:
+ * - JOURNAL: TickJournal.scan()으로 하루치 세그먼트를 한 번 순차 스캔 → 마켓별 기본형 배열로 분배
+ *   (버퍼와 같은 1초 간격 규칙을 읽는 시점에 적용 → 저장되지 않는 틱은 직전 저장 틱과 같은 알람 판단을 내리므로 결과 동일)
+ * - CANDLES: CandleStore 1분봉 → 분마다 스냅샷 1개 (가격 = 종가, 누적 거래대금을 rolling24hVolume으로 사용)
+ */
+@Component
+public class BacktestRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(BacktestRunner.class);
+
+  private static final long TIER1_INTERVAL_MILLIS = 1_000L;   // 버퍼의 저장 간격과 동일
+  private static final long MAINTAIN_INTERVAL_MILLIS = 60_000L; // 라이브 purgeOldSnapshots 주기와 동일
+  private static final long CANDLE_SNAPSHOT_OFFSET_MILLIS = 59_000L; // 1분봉 스냅샷 시각 = 시작 + 59초
+  private static final long DAY_MILLIS = 86_400_000L;
+
+  private final TickJournal tickJournal;
+  private final CandleStore candleStore;
+
+  public BacktestRunner(TickJournal tickJournal, CandleStore candleStore) {
+    this.tickJournal = tickJournal;
+    this.candleStore = candleStore;
+  }
+
+  /**
+   * ⭐ [핵심] 백테스트 실행 (동기, CPU가 허용하는 만큼 빠르게)
+   */
+  public BacktestReport run(BacktestRequest request) {
+    if (request.getFrom() == null || request.getTo() == null || request.getTo().isBefore(request.getFrom())) {
+      throw new IllegalArgumentException("from/to 날짜가 올바르지 않습니다: " + request.getFrom() + " ~ " + request.getTo());
+    }
+    long started = System.nanoTime();
+    AlarmThresholdManager thresholds = buildThresholds(request);
+    Set<String> marketFilter = (request.getMarkets() == null || request.getMarkets().isEmpty())
+            ? null : new HashSet<>(request.getMarkets());
+    int parallelism = request.getParallelism() > 0
+            ? request.getParallelism() : Runtime.getRuntime().availableProcessors();
+
+    //마켓별 상태 (날짜가 바뀌어도 버퍼/미판정 알람은 이어짐)
+    Map<String, MarketRun> runs = new ConcurrentHashMap<>();
+    int days = (int) ChronoUnit.DAYS.between(request.getFrom(), request.getTo()) + 1;
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      for (LocalDate day = request.getFrom(); !day.isAfter(request.getTo()); day = day.plusDays(1)) {
+        if (request.getSource() == BacktestRequest.Source.CANDLES) {
+          replayCandleDay(pool, request, thresholds, marketFilter, runs, day);
+        } else {
+          replayJournalDay(pool, request, thresholds, marketFilter, runs, day);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    BacktestReport report = buildReport(request, runs, days, (System.nanoTime() - started) / 1_000_000);
+    log.info("🧪 백테스트 완료: {} {}~{} 마켓 {}개, 틱 {}개, 알람 {}건, 정밀도 {} ({}ms, {}틱/초)",
+            request.getSource(), request.getFrom(), request.getTo(), report.getMarkets(), report.getTicks(),
+            report.getAlarmEpisodes(), String.format("%.3f", report.getPrecision()),
+            report.getElapsedMillis(), String.format("%.0f", report.getTicksPerSecond()));
+    return report;
+  }
+
+  //요청 임계값을 적용한 별도 AlarmThresholdManager (라이브 인스턴스는 건드리지 않음)
+  private AlarmThresholdManager buildThresholds(BacktestRequest request) {
+    AlarmThresholdManager manager = new AlarmThresholdManager();
+    if (request.getThresholds() != null) {
+      request.getThresholds().forEach(manager::setDefaultThreshold);
+    }
+    return manager;
+  }
+
+  // --- 저널 재생 ---
+
+  /**
+   * 하루치 저널을 한 번 순차 스캔해 마켓별 배열로 나눈 뒤 마켓 단위로 병렬 재생
+   * (세그먼트는 여러 마켓이 섞여 있으므로 스캔은 1회, 재생만 병렬)
+   */
+  private void replayJournalDay(ForkJoinPool pool, BacktestRequest request, AlarmThresholdManager thresholds,
+                                Set<String> marketFilter, Map<String, MarketRun> runs, LocalDate day) {
+    String exchangeId = request.getExchangeId();
+    Map<String, TickColumns> columns = new HashMap<>();
+    tickJournal.scan(day, view -> {
+      if (!exchangeId.equals(view.exchangeId())) {
+        return;
+      }
+      String marketCode = view.marketCode();
+      if (marketFilter != null && !marketFilter.contains(marketCode)) {
+        return;
+      }
+      columns.computeIfAbsent(marketCode, k -> new TickColumns())
+              .add(view.timestamp(), view.currentPrice(), view.rolling24hVolume());
+    });
+
+    List<Map.Entry<String, TickColumns>> work = new ArrayList<>(columns.entrySet());
+    runParallel(pool, () -> work.parallelStream().forEach(entry -> {
+      MarketRun run = runs.computeIfAbsent(entry.getKey(), k -> newRun(request, k));
+      TickColumns ticks = entry.getValue();
+      for (int i = 0; i < ticks.size; i++) {
+        run.onTick(thresholds, ticks.timestamps[i], ticks.prices[i], ticks.volumes[i]);
+      }
+    }));
+  }
+
+  // --- 캔들 재생 ---
+
+  //마켓마다 해당 날짜 1분봉을 읽어 재생 (파일이 마켓별로 나뉘어 있으므로 읽기부터 병렬)
+  private void replayCandleDay(ForkJoinPool pool, BacktestRequest request, AlarmThresholdManager thresholds,
+                               Set<String> marketFilter, Map<String, MarketRun> runs, LocalDate day) {
+    List<String> markets = (marketFilter != null)
+            ? new ArrayList<>(marketFilter) : candleStore.listMarkets(request.getExchangeId());
+    Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    Instant dayEnd = dayStart.plusMillis(DAY_MILLIS);
+
+    runParallel(pool, () -> markets.parallelStream().forEach(marketCode -> {
+      List<CandleData> candles = candleStore.query(request.getExchangeId(), marketCode, dayStart, dayEnd, 1);
+      if (candles.isEmpty()) {
+        return;
+      }
+      MarketRun run = runs.computeIfAbsent(marketCode, k -> newRun(request, k));
+      for (CandleData candle : candles) {
+        if (candle.getClosePrice() == null) {
+          continue;
+        }
+        //누적 거래대금 → 1분 구간 차이 = 해당 분봉 거래대금 (라이브의 rolling24h 차이와 같은 계산)
+        run.cumulativeTradePrice += (candle.getAccTradePrice() != null) ? candle.getAccTradePrice() : 0.0;
+        run.onTick(thresholds, candle.getTimestamp().toEpochMilli() + CANDLE_SNAPSHOT_OFFSET_MILLIS,
+                candle.getClosePrice(), run.cumulativeTradePrice);
+      }
+    }));
+  }
+
+  private void runParallel(ForkJoinPool pool, Runnable task) {
+    try {
+      pool.submit(task).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("백테스트 중단", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("백테스트 실패: " + e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  private MarketRun newRun(BacktestRequest request, String marketCode) {
+    MarketCapTier tier = (request.getTiers() != null)
+            ? request.getTiers().getOrDefault(marketCode, request.getDefaultTier())
+            : request.getDefaultTier();
+    return new MarketRun(request, marketCode, tier);
+  }
+
+  // --- 결과 ---
+
+  private BacktestReport buildReport(BacktestRequest request, Map<String, MarketRun> runs, int days,
+                                     long elapsedMillis) {
+    List<BacktestReport.MarketResult> perMarket = new ArrayList<>(runs.size());
+    long ticks = 0, alarmTicks = 0, episodes = 0, resolved = 0, hits = 0;
+    for (MarketRun run : runs.values()) {
+      ticks += run.ticks;
+      alarmTicks += run.alarmTicks;
+      episodes += run.episodes;
+      resolved += run.resolved;
+      hits += run.hits;
+      perMarket.add(BacktestReport.MarketResult.builder()
+              .marketCode(run.marketCode)
+              .tier(run.tier.name())
+              .ticks(run.ticks)
+              .alarmTicks(run.alarmTicks)
+              .alarmEpisodes(run.episodes)
+              .hitEpisodes(run.hits)
+              .precision(ratio(run.hits, run.resolved))
+              .episodesPerDay((double) run.episodes / days)
+              .build());
+    }
+    perMarket.sort(Comparator.comparingLong(BacktestReport.MarketResult::getAlarmEpisodes).reversed()
+            .thenComparing(BacktestReport.MarketResult::getMarketCode));
+
+    return BacktestReport.builder()
+            .source(request.getSource().name())
+            .exchangeId(request.getExchangeId())
+            .from(request.getFrom().toString())
+            .to(request.getTo().toString())
+            .days(days)
+            .markets(runs.size())
+            .ticks(ticks)
+            .alarmTicks(alarmTicks)
+            .alarmEpisodes(episodes)
+            .resolvedEpisodes(resolved)
+            .hitEpisodes(hits)
+            .precision(ratio(hits, resolved))
+            .episodesPerMarketDay(runs.isEmpty() ? 0.0 : (double) episodes / ((double) runs.size() * days))
+            .elapsedMillis(elapsedMillis)
+            .ticksPerSecond(elapsedMillis > 0 ? ticks * 1000.0 / elapsedMillis : 0.0)
+            .perMarket(perMarket)
+            .build();
+  }
+
+  private static double ratio(long numerator, long denominator) {
+    return denominator > 0 ? (double) numerator / denominator : 0.0;
+  }
+
+  // --- 내부 구조 ---
+
+  //하루치 마켓 틱 (기본형 배열, 버퍼 저장 간격 규칙 적용)
+  private static final class TickColumns {
+    private long[] timestamps = new long[1024];
+    private double[] prices = new double[1024];
+    private double[] volumes = new double[1024];
+    private int size;
+
+    private void add(long timestamp, double price, double rolling24hVolume) {
+      if (size > 0 && timestamp - timestamps[size - 1] < TIER1_INTERVAL_MILLIS) {
+        return;
+      }
+      if (size == timestamps.length) {
+        int capacity = size * 2;
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+      }
+      timestamps[size] = timestamp;
+      prices[size] = price;
+      volumes[size] = rolling24hVolume;
+      size++;
+    }
+  }
+
+  //알람 발생 후 가격 추적 (horizon이 끝나면 판정)
+  private static final class PendingAlarm {
+    private final long firedAt;
+    private final double basePrice;
+    private double maxPrice;
+    private double minPrice;
+
+    private PendingAlarm(long firedAt, double basePrice) {
+      this.firedAt = firedAt;
+      this.basePrice = basePrice;
+      this.maxPrice = basePrice;
+      this.minPrice = basePrice;
+    }
+  }
+
+  //마켓 1개의 재생 상태 (한 번에 한 스레드만 접근)
+  private static final class MarketRun {
+    private final String exchangeId;
+    private final String marketCode;
+    private final MarketCapTier tier;
+    private final long cooldownMillis;
+    private final long horizonMillis;
+    private final double moveThreshold;
+
+    private final MultiTieredSnapshotBuffer buffer = new MultiTieredSnapshotBuffer(); // 단독 생성자 (마켓마다 초기화 로그 없음)
+    private final ArrayDeque<PendingAlarm> pending = new ArrayDeque<>();
+
+    private long lastStoredMillis = Long.MIN_VALUE;
+    private long lastMaintainMillis = Long.MIN_VALUE;
+    private long lastEpisodeMillis = Long.MIN_VALUE;
+    private double cumulativeTradePrice; // CANDLES 소스 전용
+
+    private long ticks;
+    private long alarmTicks;
+    private long episodes;
+    private long resolved;
+    private long hits;
+
+    private MarketRun(BacktestRequest request, String marketCode, MarketCapTier tier) {
+      this.exchangeId = request.getExchangeId();
+      this.marketCode = marketCode;
+      this.tier = tier;
+      this.cooldownMillis = request.getCooldownSeconds() * 1000L;
+      this.horizonMillis = request.getHorizonMinutes() * 60_000L;
+      this.moveThreshold = request.getMoveThresholdPct() / 100.0;
+    }
+
+    //스냅샷 1개 재생 (IntegratedMarketDataService.handleTickerSnapshot → checkAndTriggerAlarm과 같은 흐름)
+    private void onTick(AlarmThresholdManager thresholds, long timestamp, double price, double rolling24hVolume) {
+      //날짜 경계에서 이전 날 마지막 틱과 1초 안쪽이면 버퍼가 저장하지 않으므로 같은 규칙 적용
+      if (lastStoredMillis != Long.MIN_VALUE && timestamp - lastStoredMillis < TIER1_INTERVAL_MILLIS) {
+        return;
+      }
+      lastStoredMillis = timestamp;
+      ticks++;
+
+      buffer.addSnapshot(TickerSnapshot.builder()
+              .exchangeId(exchangeId)
+              .marketCode(marketCode)
+              .timestamp(Instant.ofEpochMilli(timestamp))
+              .currentPrice(price)
+              .rolling24hVolume(rolling24hVolume)
+              .build());
+
+      resolvePending(timestamp, price);
+
+      Double volume1m = buffer.calculateRollingVolume(exchangeId, marketCode, 1);
+      if (volume1m != null && volume1m != 0
+              && thresholds.shouldTriggerAlarm(exchangeId, marketCode, tier, volume1m)) {
+        alarmTicks++;
+        if (lastEpisodeMillis == Long.MIN_VALUE || timestamp - lastEpisodeMillis >= cooldownMillis) {
+          lastEpisodeMillis = timestamp;
+          episodes++;
+          pending.addLast(new PendingAlarm(timestamp, price));
+        }
+      }
+
+      //가상 시계 기준 1분마다 봉인/정리 (라이브 @Scheduled와 같은 주기)
+      if (lastMaintainMillis == Long.MIN_VALUE) {
+        lastMaintainMillis = timestamp;
+      } else if (timestamp - lastMaintainMillis >= MAINTAIN_INTERVAL_MILLIS) {
+        buffer.maintain(Instant.ofEpochMilli(timestamp));
+        lastMaintainMillis = timestamp;
+      }
+    }
+
+    //미판정 알람의 최고/최저가 갱신 + horizon이 지난 알람 판정 (발생 순서대로 쌓이므로 앞에서부터)
+    private void resolvePending(long timestamp, double price) {
+      while (!pending.isEmpty() && timestamp - pending.peekFirst().firedAt > horizonMillis) {
+        PendingAlarm alarm = pending.pollFirst();
+        resolved++;
+        double up = alarm.maxPrice / alarm.basePrice - 1.0;
+        double down = 1.0 - alarm.minPrice / alarm.basePrice;
+        if (alarm.basePrice > 0 && Math.max(up, down) >= moveThreshold) {
+          hits++;
+        }
+      }
+      for (PendingAlarm alarm : pending) {
+        alarm.maxPrice = Math.max(alarm.maxPrice, price);
+        alarm.minPrice = Math.min(alarm.minPrice, price);
+      }
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package coinalarm.Coin_Alarm.binance;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.ExchangeClient;
+import coinalarm.Coin_Alarm.exchange.LatestPerMarketTickerEmitter;
+import coinalarm.Coin_Alarm.exchange.MarketCapInfo;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import coinalarm.Coin_Alarm.market.TradeFlowWindows;
+import coinalarm.Coin_Alarm.storage.VolumeBaselineStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.stream.Collectors;
+
+/**
+ * ⭐ [신규 추가] 바이낸스 현물 거래소 클라이언트 (BINANCE_SPOT)
+ *
+ * - 마켓 목록: /api/v3/exchangeInfo 에서 TRADING 상태 + 설정된 견적 자산(기본 USDT) 심볼
+ * - 실시간: BinanceWSC combined stream (@ticker) → TickerSnapshot
+ *   · currentPrice = c (현재가), rolling24hVolume = q (롤링 24시간 견적 자산 거래대금)
+ *   · timestamp = E (거래소 이벤트 시각)
+ * - ⭐ [신규 추가] @aggTrade (coinalarm.binance.agg-trade-enabled) → 체결 방향별 거래대금 창 + RVOL 기준값
+ *   · 체결 금액 = p * q (견적 자산), 매수 체결 = !m (m이면 매도 주도)
+ * - 마켓 목록 조회 실패는 에러 그대로 전달 (빈 목록으로 바꾸지 않음 → 격벽 브레이커/재시도가 판단)
+ * - 캔들: /api/v3/klines → CandleData (즐겨찾기 프라이밍용)
+ * - URL은 설정값 → 테스트에서는 로컬 mock 서버로 교체
+ */
+@Component
+@ConditionalOnProperty(name = "coinalarm.binance.enabled", havingValue = "true", matchIfMissing = true)
+public class BinanceClient implements ExchangeClient {
+
+  private static final Logger log = LoggerFactory.getLogger(BinanceClient.class);
+
+  public static final String EXCHANGE_ID = "BINANCE_SPOT";
+
+  private static final int MAX_KLINES = 1000; // 바이낸스 klines 1회 최대 개수
+
+  private final WebClient webClient;
+  private final BinanceWSC binanceWSC;
+  private final Set<String> quoteAssets;
+  private final SymbolRegistry symbolRegistry;
+  private final TradeFlowWindows tradeFlow;
+  private final VolumeBaselineStore volumeBaselineStore;
+  private final Set<LatestPerMarketTickerEmitter> activeStreams = new CopyOnWriteArraySet<>();
+
+  public BinanceClient(WebClient.Builder webClientBuilder,
+                       BinanceWSC binanceWSC,
+                       SymbolRegistry symbolRegistry,
+                       TradeFlowWindows tradeFlow,
+                       VolumeBaselineStore volumeBaselineStore,
+                       @Value("${coinalarm.binance.rest-url:https://api.binance.com}") String restUrl,
+                       @Value("${coinalarm.binance.quote-assets:USDT}") String quoteAssets) {
+    this.webClient = webClientBuilder
+            .baseUrl(restUrl)
+            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) // exchangeInfo 응답이 큼
+            .build();
+    this.binanceWSC = binanceWSC;
+    this.symbolRegistry = symbolRegistry;
+    this.tradeFlow = tradeFlow;
+    this.volumeBaselineStore = volumeBaselineStore;
+    this.quoteAssets = Arrays.stream(quoteAssets.split(","))
+            .map(String::trim)
+            .filter(asset -> !asset.isEmpty())
+            .collect(Collectors.toSet());
+  }
+
+  @Override
+  public String getExchangeId() {
+    return EXCHANGE_ID;
+  }
+
+  @Override
+  public Mono<List<String>> getAllMarketCodes() {
+    return webClient.get()
+            .uri("/api/v3/exchangeInfo")
+            .retrieve()
+            .bodyToMono(BinanceExchangeInfoResponse.class)
+            .map(info -> {
+              if (info.getSymbols() == null) {
+                return Collections.<String>emptyList();
+              }
+              return info.getSymbols().stream()
+                      .filter(symbol -> "TRADING".equals(symbol.getStatus()))
+                      .filter(symbol -> quoteAssets.contains(symbol.getQuoteAsset()))
+                      .map(BinanceExchangeInfoResponse.SymbolInfo::getSymbol)
+                      .collect(Collectors.toList());
+            })
+            .doOnError(e -> log.error("Error fetching Binance exchangeInfo: {}", e.getMessage()));
+  }
+
+  /**
+   * ⭐ [핵심] 실시간 Ticker 스트림
+   * 여러 소켓 스레드에서 동시에 offer → 구독자 요청만큼만 발행, 밀리면 심볼별 최신 틱만 유지
+   * 구독 취소/종료 시 모든 샤드 소켓 해제
+   * ⭐ [변경] @aggTrade는 틱 스트림이 아니라 체결 흐름/RVOL 기준값으로 바로 반영 (소켓 스레드, 할당 없음)
+   */
+  @Override
+  public Flux<TickerSnapshot> subscribeTickerStream(List<String> marketCodes) {
+    return LatestPerMarketTickerEmitter.create(EXCHANGE_ID, emitter -> {
+      binanceWSC.connect(marketCodes, new BinanceStreamParser.Handler() {
+        @Override
+        public void onTicker(String symbol, long eventTime, double lastPrice, double quoteVolume24h) {
+          emitter.offer(TickerSnapshot.builder()
+                  .exchangeId(EXCHANGE_ID)
+                  .marketCode(symbol)
+                  .timestamp(Instant.ofEpochMilli(eventTime))
+                  .receivedAtMillis(System.currentTimeMillis())
+                  .currentPrice(lastPrice)
+                  .rolling24hVolume(quoteVolume24h)
+                  .build());
+        }
+
+        @Override
+        public void onAggTrade(String symbol, long aggTradeId, long tradeTime, double price, double quantity,
+                               boolean buyerMaker) {
+          onTrade(symbol, tradeTime, price * quantity, !buyerMaker);
+        }
+      });
+      return binanceWSC::disconnectStreams;
+    }, activeStreams);
+  }
+
+  //집계 체결 1건 → 체결 방향별 거래대금 창 + 시간대별 RVOL 기준값 (업비트 체결과 같은 경로)
+  void onTrade(String symbol, long tradeTime, double tradeValue, boolean buy) {
+    if (!(tradeValue > 0)) {
+      return;
+    }
+    tradeFlow.onTrade(symbolRegistry.idOf(EXCHANGE_ID, symbol), tradeTime, buy, tradeValue);
+    volumeBaselineStore.onTrade(EXCHANGE_ID, symbol, tradeTime, tradeValue);
+  }
+
+  @Override
+  public List<Map<String, Object>> getStreamStats() {
+    List<Map<String, Object>> stats = new ArrayList<>();
+    for (LatestPerMarketTickerEmitter stream : activeStreams) {
+      Map<String, Object> streamStats = stream.getStats();
+      streamStats.put("sockets", binanceWSC.getSocketCount());
+      stats.add(streamStats);
+    }
+    return stats;
+  }
+
+  /**
+   * 과거 캔들 조회 (/api/v3/klines)
+   * 응답 행: [시작시각, 시가, 고가, 저가, 종가, 거래량, 종료시각, 견적거래대금, 체결수, ...]
+   */
+  @Override
+  public Mono<List<CandleData>> getHistoricalCandles(String marketCode, int minutes, int count) {
+    String interval = toInterval(minutes);
+    if (interval == null) {
+      return Mono.error(new IllegalArgumentException("지원하지 않는 캔들 단위: " + minutes + "분"));
+    }
+    return webClient.get()
+            .uri(uriBuilder -> uriBuilder.path("/api/v3/klines")
+                    .queryParam("symbol", marketCode)
+                    .queryParam("interval", interval)
+                    .queryParam("limit", Math.max(1, Math.min(count, MAX_KLINES)))
+                    .build())
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<List<List<Object>>>() {})
+            .map(rows -> {
+              List<CandleData> candles = new ArrayList<>(rows.size());
+              for (List<Object> row : rows) {
+                if (row.size() >= 8) {
+                  candles.add(convertToCandleData(marketCode, row));
+                }
+              }
+              return candles;
+            });
+  }
+
+  //시가총액은 LiveMarketCapTracker에서 계산 (REST 조회 없음)
+  @Override
+  @Deprecated
+  public Mono<MarketCapInfo> getMarketCap(String marketCode) {
+    return Mono.empty();
+  }
+
+  //klines 행 1개 → 공통 CandleData
+  static CandleData convertToCandleData(String marketCode, List<Object> row) {
+    return CandleData.builder()
+            .marketCode(marketCode)
+            .timestamp(Instant.ofEpochMilli(toLong(row.get(0))))
+            .openPrice(toDouble(row.get(1)))
+            .highPrice(toDouble(row.get(2)))
+            .lowPrice(toDouble(row.get(3)))
+            .closePrice(toDouble(row.get(4)))
+            .accTradeVolume(toDouble(row.get(5)))
+            .accTradePrice(toDouble(row.get(7)))
+            .build();
+  }
+
+  //분 단위 → 바이낸스 interval 문자열 (지원하지 않으면 null)
+  static String toInterval(int minutes) {
+    switch (minutes) {
+      case 1: return "1m";
+      case 3: return "3m";
+      case 5: return "5m";
+      case 15: return "15m";
+      case 30: return "30m";
+      case 60: return "1h";
+      case 120: return "2h";
+      case 240: return "4h";
+      case 1440: return "1d";
+      default: return null;
+    }
+  }
+
+  //klines 값은 숫자(시각) 또는 문자열(가격/수량)
+  private static double toDouble(Object value) {
+    return (value instanceof Number) ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+  }
+
+  private static long toLong(Object value) {
+    return (value instanceof Number) ? ((Number) value).longValue() : Long.parseLong(value.toString());
+  }
+}
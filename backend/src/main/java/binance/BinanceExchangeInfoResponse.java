@@ -0,0 +1,31 @@
+package coinalarm.Coin_Alarm.binance;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Binance REST API /api/v3/exchangeInfo 응답 DTO (마켓 목록에 필요한 필드만)
+ */
+@Getter
+@Setter
+@ToString
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BinanceExchangeInfoResponse {
+
+  private List<SymbolInfo> symbols;
+
+  @Getter
+  @Setter
+  @ToString
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public static class SymbolInfo {
+    private String symbol;     // 예: BTCUSDT
+    private String status;     // TRADING, BREAK ...
+    private String baseAsset;  // 예: BTC
+    private String quoteAsset; // 예: USDT
+  }
+}
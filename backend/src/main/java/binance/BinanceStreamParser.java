@@ -0,0 +1,124 @@
+package coinalarm.Coin_Alarm.binance;
+
+import coinalarm.Coin_Alarm.codec.JsonScanner;
+
+import java.util.Collection;
+
+/**
+ * ⭐ [신규 추가] 바이낸스 combined stream 메시지 파서 (@ticker / @aggTrade)
+ *
+ * 메시지 형식: {"stream":"btcusdt@ticker","data":{"e":"24hrTicker","E":..., "s":"BTCUSDT", "c":"43000.1", "q":"1234567.8", ...}}
+ *            {"stream":"btcusdt@aggTrade","data":{"e":"aggTrade","E":...,"s":"BTCUSDT","a":123,"p":"43000.1","q":"0.01","T":...,"m":true}}
+ *
+ * 할당 최소화:
+ * - ObjectMapper 대신 JsonScanner로 필요한 필드만 원문에서 바로 읽음
+ * - 심볼 문자열은 구독 목록으로 만든 테이블에서 기존 String 인스턴스를 찾아 재사용
+ *   (String.hashCode와 같은 해시를 원문 구간에서 직접 계산 → 새 String 생성 없음)
+ *
+ * 스레드: 파서 자체는 상태가 없고 심볼 테이블은 생성 후 읽기 전용 → 여러 소켓 스레드가 공유 가능
+ */
+public class BinanceStreamParser {
+
+  //파싱 결과 콜백 (기본형 인자 → 중간 객체 없음)
+  public interface Handler {
+    /**
+     * @param eventTime     이벤트 시각 (E, epoch ms)
+     * @param lastPrice     현재가 (c)
+     * @param quoteVolume24h 롤링 24시간 견적 자산 거래대금 (q, USDT 마켓이면 USDT)
+     */
+    void onTicker(String symbol, long eventTime, double lastPrice, double quoteVolume24h);
+
+    /**
+     * @param aggTradeId  집계 체결 ID (a, 심볼별로 1씩 증가)
+     * @param tradeTime   체결 시각 (T, epoch ms)
+     * @param buyerMaker  true면 매도 주도 체결 (m)
+     */
+    default void onAggTrade(String symbol, long aggTradeId, long tradeTime, double price, double quantity,
+                            boolean buyerMaker) {
+    }
+  }
+
+  //처리 결과
+  public enum Result { TICKER, AGG_TRADE, IGNORED, MALFORMED }
+
+  private final String[] symbols;   // 열린 주소법 테이블
+  private final int mask;
+
+  public BinanceStreamParser(Collection<String> knownSymbols) {
+    int capacity = Integer.highestOneBit(Math.max(16, knownSymbols.size() * 2) - 1) << 1;
+    this.symbols = new String[capacity];
+    this.mask = capacity - 1;
+    for (String symbol : knownSymbols) {
+      int slot = symbol.hashCode() & mask;
+      while (symbols[slot] != null && !symbols[slot].equals(symbol)) {
+        slot = (slot + 1) & mask;
+      }
+      symbols[slot] = symbol;
+    }
+  }
+
+  /**
+   * ⭐ [핵심] 메시지 1개 파싱 → 핸들러 호출
+   */
+  public Result parse(CharSequence message, Handler handler) {
+    //combined stream이면 data 객체 안쪽부터, 단일 stream이면 처음부터
+    int data = JsonScanner.valueIndex(message, 0, "data");
+    int from = (data >= 0) ? data : 0;
+
+    int eventStart = JsonScanner.stringStart(message, JsonScanner.valueIndex(message, from, "e"));
+    if (eventStart < 0) {
+      return Result.MALFORMED;
+    }
+    int eventEnd = JsonScanner.stringEnd(message, eventStart);
+    boolean ticker = JsonScanner.regionEquals(message, eventStart, eventEnd, "24hrTicker");
+    boolean aggTrade = !ticker && JsonScanner.regionEquals(message, eventStart, eventEnd, "aggTrade");
+    if (!ticker && !aggTrade) {
+      return Result.IGNORED;
+    }
+
+    int symbolStart = JsonScanner.stringStart(message, JsonScanner.valueIndex(message, from, "s"));
+    if (symbolStart < 0) {
+      return Result.MALFORMED;
+    }
+    String symbol = resolveSymbol(message, symbolStart, JsonScanner.stringEnd(message, symbolStart));
+    long eventTime = JsonScanner.parseLong(message, JsonScanner.valueIndex(message, from, "E"), -1L);
+
+    if (ticker) {
+      double lastPrice = JsonScanner.parseDouble(message, JsonScanner.valueIndex(message, from, "c"), Double.NaN);
+      double quoteVolume = JsonScanner.parseDouble(message, JsonScanner.valueIndex(message, from, "q"), Double.NaN);
+      if (Double.isNaN(lastPrice) || Double.isNaN(quoteVolume) || eventTime < 0) {
+        return Result.MALFORMED;
+      }
+      handler.onTicker(symbol, eventTime, lastPrice, quoteVolume);
+      return Result.TICKER;
+    }
+
+    long aggTradeId = JsonScanner.parseLong(message, JsonScanner.valueIndex(message, from, "a"), -1L);
+    long tradeTime = JsonScanner.parseLong(message, JsonScanner.valueIndex(message, from, "T"), eventTime);
+    double price = JsonScanner.parseDouble(message, JsonScanner.valueIndex(message, from, "p"), Double.NaN);
+    double quantity = JsonScanner.parseDouble(message, JsonScanner.valueIndex(message, from, "q"), Double.NaN);
+    boolean buyerMaker = JsonScanner.parseBoolean(message, JsonScanner.valueIndex(message, from, "m"), false);
+    if (aggTradeId < 0 || Double.isNaN(price) || Double.isNaN(quantity)) {
+      return Result.MALFORMED;
+    }
+    handler.onAggTrade(symbol, aggTradeId, tradeTime, price, quantity, buyerMaker);
+    return Result.AGG_TRADE;
+  }
+
+  //원문 구간 → 구독 심볼 String (테이블에 없으면 새로 생성)
+  private String resolveSymbol(CharSequence message, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + message.charAt(i);
+    }
+    int slot = hash & mask;
+    String candidate;
+    while ((candidate = symbols[slot]) != null) {
+      if (JsonScanner.regionEquals(message, start, end, candidate)) {
+        return candidate;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return message.subSequence(start, end).toString();
+  }
+}
@@ -0,0 +1,245 @@
+package coinalarm.Coin_Alarm.binance;
+
+import jakarta.annotation.PreDestroy;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] 바이낸스 현물 combined stream WebSocket (여러 소켓으로 분할)
+ *
+ * 목적: 약 2000개 심볼의 @ticker(+선택적으로 @aggTrade) 스트림 수신
+ * - 한 소켓당 스트림 수 제한(1024)과 URL 길이 때문에 streams-per-socket개씩 나눠서 연결
+ *   예: wss://stream.binance.com:9443/stream?streams=btcusdt@ticker/ethusdt@ticker/...
+ * - 소켓마다 OkHttp 읽기 스레드가 따로 있으므로 파싱도 소켓 단위로 병렬
+ * - 바이낸스는 24시간마다 연결을 끊음 → 종료 코드와 상관없이 재연결 (disconnect() 호출 후 제외)
+ */
+@Component
+public class BinanceWSC {
+
+  private static final Logger log = LoggerFactory.getLogger(BinanceWSC.class);
+
+  private final OkHttpClient client;
+  private final ScheduledExecutorService scheduler;
+  private final String wsBaseUrl;
+  private final int streamsPerSocket;
+  private final boolean aggTradeEnabled;
+  private final long reconnectIntervalMillis; // 재연결 시도 간격
+
+  private final List<Shard> shards = new CopyOnWriteArrayList<>();
+  private volatile BinanceStreamParser parser;
+  private volatile BinanceStreamParser.Handler handler;
+  private volatile boolean closed = false;
+
+  // --- 통계 ---
+  private final AtomicLong tickerMessages = new AtomicLong();
+  private final AtomicLong aggTradeMessages = new AtomicLong();
+  private final AtomicLong ignoredMessages = new AtomicLong();
+  private final AtomicLong malformedMessages = new AtomicLong();
+  private final AtomicLong reconnects = new AtomicLong();
+
+  public BinanceWSC(@Value("${coinalarm.binance.ws-url:wss://stream.binance.com:9443}") String wsBaseUrl,
+                    @Value("${coinalarm.binance.streams-per-socket:200}") int streamsPerSocket,
+                    @Value("${coinalarm.binance.agg-trade-enabled:false}") boolean aggTradeEnabled,
+                    @Value("${coinalarm.binance.reconnect-interval-ms:5000}") long reconnectIntervalMillis) {
+    this.wsBaseUrl = wsBaseUrl;
+    this.streamsPerSocket = Math.max(1, Math.min(streamsPerSocket, 1024));
+    this.aggTradeEnabled = aggTradeEnabled;
+    this.reconnectIntervalMillis = reconnectIntervalMillis;
+    this.client = new OkHttpClient.Builder()
+            .readTimeout(Duration.ZERO)
+            .pingInterval(Duration.ofSeconds(20))
+            .build();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "binance-ws-reconnect");
+      thread.setDaemon(true); // 재연결 대기 중이어도 JVM 종료를 막지 않음
+      return thread;
+    });
+  }
+
+  /**
+   * ⭐ [핵심] 심볼 목록으로 소켓 분할 후 연결
+   * @param symbols 바이낸스 심볼 (예: BTCUSDT)
+   */
+  public synchronized void connect(List<String> symbols, BinanceStreamParser.Handler handler) {
+    disconnectShards();
+    closed = false;
+    this.parser = new BinanceStreamParser(symbols);
+    this.handler = handler;
+
+    List<String> streams = new ArrayList<>(symbols.size() * (aggTradeEnabled ? 2 : 1));
+    for (String symbol : symbols) {
+      String lower = symbol.toLowerCase(Locale.ROOT);
+      streams.add(lower + "@ticker");
+      if (aggTradeEnabled) {
+        streams.add(lower + "@aggTrade");
+      }
+    }
+    for (int from = 0; from < streams.size(); from += streamsPerSocket) {
+      List<String> part = streams.subList(from, Math.min(streams.size(), from + streamsPerSocket));
+      Shard shard = new Shard(shards.size(), wsBaseUrl + "/stream?streams=" + String.join("/", part), part.size());
+      shards.add(shard);
+      shard.open();
+    }
+    log.info("🔌 Binance WebSocket 연결: 심볼 {}개, 스트림 {}개, 소켓 {}개", symbols.size(), streams.size(), shards.size());
+  }
+
+  //수신 메시지 1개 처리 (소켓 읽기 스레드에서 호출)
+  void onMessage(CharSequence text) {
+    BinanceStreamParser.Result result;
+    try {
+      result = parser.parse(text, handler);
+    } catch (RuntimeException e) {
+      //예외가 OkHttp까지 올라가면 소켓이 끊기므로 여기서 막음
+      log.error("❌ Binance 메시지 처리 실패: {}", e.getMessage());
+      result = BinanceStreamParser.Result.MALFORMED;
+    }
+    switch (result) {
+      case TICKER: tickerMessages.incrementAndGet(); break;
+      case AGG_TRADE: aggTradeMessages.incrementAndGet(); break;
+      case IGNORED: ignoredMessages.incrementAndGet(); break;
+      default:
+        long malformed = malformedMessages.incrementAndGet();
+        if (malformed % 1000 == 1) {
+          log.warn("⚠️ Binance 메시지 형식 오류 (누적 {}건): {}", malformed,
+                  text.length() > 200 ? text.subSequence(0, 200) : text);
+        }
+    }
+  }
+
+  //연결 상태 조회 (모니터링용)
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    int connected = 0;
+    for (Shard shard : shards) {
+      if (shard.connected) {
+        connected++;
+      }
+    }
+    stats.put("sockets", shards.size());
+    stats.put("connectedSockets", connected);
+    stats.put("tickerMessages", tickerMessages.get());
+    stats.put("aggTradeMessages", aggTradeMessages.get());
+    stats.put("ignoredMessages", ignoredMessages.get());
+    stats.put("malformedMessages", malformedMessages.get());
+    stats.put("reconnects", reconnects.get());
+    return stats;
+  }
+
+  public int getSocketCount() {
+    return shards.size();
+  }
+
+  //스트림만 종료 (클라이언트/스케줄러는 유지 → 다시 connect 가능)
+  public synchronized void disconnectStreams() {
+    closed = true;
+    disconnectShards();
+  }
+
+  @PreDestroy
+  public synchronized void disconnect() {
+    closed = true;
+    disconnectShards();
+    scheduler.shutdownNow();
+    client.dispatcher().executorService().shutdown();
+    client.connectionPool().evictAll();
+    log.info("Binance WebSocket resources released.");
+  }
+
+  private void disconnectShards() {
+    for (Shard shard : shards) {
+      shard.close();
+    }
+    shards.clear();
+  }
+
+  //소켓 1개 (스트림 묶음)
+  private final class Shard {
+    private final int index;
+    private final String url;
+    private final int streamCount;
+    private volatile WebSocket webSocket;
+    private volatile boolean connected;
+    private volatile boolean shardClosed;
+
+    private Shard(int index, String url, int streamCount) {
+      this.index = index;
+      this.url = url;
+      this.streamCount = streamCount;
+    }
+
+    private void open() {
+      if (closed || shardClosed) {
+        return;
+      }
+      Request request = new Request.Builder().url(url).build();
+      webSocket = client.newWebSocket(request, new WebSocketListener() {
+        @Override
+        public void onOpen(WebSocket ws, Response response) {
+          connected = true;
+          log.info("Binance WebSocket #{} 연결 성공 (스트림 {}개)", index, streamCount);
+        }
+
+        @Override
+        public void onMessage(WebSocket ws, String text) {
+          BinanceWSC.this.onMessage(text);
+        }
+
+        @Override
+        public void onClosing(WebSocket ws, int code, String reason) {
+          ws.close(1000, null); // 서버 종료 요청에 응답해야 onClosed가 옴
+        }
+
+        @Override
+        public void onClosed(WebSocket ws, int code, String reason) {
+          connected = false;
+          log.warn("Binance WebSocket #{} closed. Code: {}, Reason: {}", index, code, reason);
+          scheduleReconnect();
+        }
+
+        @Override
+        public void onFailure(WebSocket ws, Throwable t, Response response) {
+          connected = false;
+          String responseInfo = (response != null) ? "Code: " + response.code() : "No HTTP Response";
+          log.error("Binance WebSocket #{} connection failed! Error: {}, Response: {}", index, t.getMessage(), responseInfo);
+          scheduleReconnect();
+        }
+      });
+    }
+
+    private void scheduleReconnect() {
+      if (closed || shardClosed || scheduler.isShutdown()) {
+        return;
+      }
+      reconnects.incrementAndGet();
+      scheduler.schedule(this::open, reconnectIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void close() {
+      shardClosed = true;
+      connected = false;
+      WebSocket ws = webSocket;
+      if (ws != null) {
+        ws.close(1000, "Client disconnect");
+      }
+    }
+  }
+}
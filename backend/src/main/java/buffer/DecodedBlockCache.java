@@ -0,0 +1,59 @@
+package coinalarm.Coin_Alarm.buffer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] 디코딩된 봉인 블록 LRU 캐시
+ *
+ * - 알람/보드 조회는 대부분 같은 시각대(1시간 전, 4시간 전, 24시간 전...)를 반복해서 보므로
+ *   최근에 푼 블록 몇 개만 들고 있어도 디코딩은 거의 발생하지 않음
+ * - 블록은 불변이므로 객체 자체를 키로 사용 (블록이 정리되면 자연스럽게 밀려남)
+ */
+final class DecodedBlockCache {
+
+    private final Map<MarketSeries.SealedBlock, MarketSeries.DecodedBlock> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    DecodedBlockCache(int maxBlocks) {
+        this.cache = new LinkedHashMap<>(maxBlocks * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MarketSeries.SealedBlock, MarketSeries.DecodedBlock> eldest) {
+                return size() > maxBlocks;
+            }
+        };
+    }
+
+    MarketSeries.DecodedBlock get(MarketSeries.SealedBlock block) {
+        synchronized (cache) {
+            MarketSeries.DecodedBlock decoded = cache.get(block);
+            if (decoded != null) {
+                hits.incrementAndGet();
+                return decoded;
+            }
+        }
+        //디코딩은 잠금 밖에서 (같은 블록을 동시에 두 번 풀 수는 있지만 결과는 동일)
+        misses.incrementAndGet();
+        MarketSeries.DecodedBlock decoded = block.decode();
+        synchronized (cache) {
+            cache.put(block, decoded);
+        }
+        return decoded;
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package coinalarm.Coin_Alarm.buffer;
+
+import coinalarm.Coin_Alarm.codec.BitReader;
+import coinalarm.Coin_Alarm.codec.BitWriter;
+import coinalarm.Coin_Alarm.codec.GorillaCodec;
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * ⭐ [신규 추가] 마켓 1개의 스냅샷 시계열 (hot 구간 + 압축 봉인 블록)
+ *
+ * 구조:
+ * - hot: 최근 구간 (ConcurrentSkipListMap, 객체 그대로) → 단기 조회/실시간 추가
+ * - sealed: 오래된 구간 (Gorilla 압축된 불변 블록 배열) → 필요할 때만 디코딩
+ *
+ * 동시성:
+ * - 추가(add)는 hot에만 기록 (⭐ 이벤트 시각 기준, 워터마크 안쪽의 늦은 틱은 제자리에 삽입)
+ * - 봉인/정리/복원은 synchronized, 블록 배열은 통째로 교체(volatile) → 읽기는 잠금 없음
+ * - 봉인 시 블록을 먼저 공개한 뒤 hot에서 제거 → 읽는 쪽에서 잠깐 중복으로 보일 수는 있어도 빈 구간은 없음
+ */
+final class MarketSeries {
+
+    //블록 최대 행 수 (1초 간격이면 약 17분)
+    static final int BLOCK_MAX_ROWS = 1024;
+
+    private static final SealedBlock[] NO_BLOCKS = new SealedBlock[0];
+
+    private final String exchangeId;
+    private final String marketCode;
+    private final ConcurrentSkipListMap<Instant, TickerSnapshot> hot = new ConcurrentSkipListMap<>();
+    private volatile SealedBlock[] blocks = NO_BLOCKS;
+
+    MarketSeries(String exchangeId, String marketCode) {
+        this.exchangeId = exchangeId;
+        this.marketCode = marketCode;
+    }
+
+    //add() 결과
+    static final int APPENDED = 0;      // 최신 시각으로 추가
+    static final int SAMPLED_OUT = 1;   // 직전 스냅샷과 간격이 좁아 버림 (정상)
+    static final int LATE_INSERTED = 2; // 늦게 도착했지만 워터마크 안 → 제 시각 자리에 끼워 넣음
+    static final int LATE_MERGED = 3;   // 늦게 도착, 이미 그 근처 스냅샷이 있어 버림
+    static final int TOO_LATE = 4;      // 워터마크보다 과거 → 버림
+
+    /**
+     * ⭐ [변경] 실시간 스냅샷 추가 (이벤트 시각 기준)
+     * - 최신 시각 이후: 마지막 스냅샷과 minIntervalMillis 이상 차이 날 때만 저장 (기존과 같음)
+     * - 최신 시각 이전(순서 뒤바뀜): 워터마크(최신 시각 - allowedLatenessMillis) 이후면
+     *   앞뒤 스냅샷과 minIntervalMillis 이상 떨어진 빈자리일 때만 끼워 넣음 → 롤링 조회(floor)가 그대로 찾음
+     *
+     * @return APPENDED / SAMPLED_OUT / LATE_INSERTED / LATE_MERGED / TOO_LATE
+     */
+    int add(TickerSnapshot snapshot, long minIntervalMillis, long allowedLatenessMillis) {
+        long millis = snapshot.getTimestamp().toEpochMilli();
+        long last = lastMillis();
+        if (last == Long.MIN_VALUE || millis - last >= minIntervalMillis) {
+            hot.put(snapshot.getTimestamp(), snapshot);
+            return APPENDED;
+        }
+        if (millis >= last) {
+            return SAMPLED_OUT;
+        }
+        if (millis < last - allowedLatenessMillis) {
+            return TOO_LATE;
+        }
+        Instant before = hot.floorKey(snapshot.getTimestamp());
+        Instant after = hot.ceilingKey(snapshot.getTimestamp());
+        if ((before != null && millis - before.toEpochMilli() < minIntervalMillis)
+                || (after != null && after.toEpochMilli() - millis < minIntervalMillis)) {
+            return LATE_MERGED;
+        }
+        hot.put(snapshot.getTimestamp(), snapshot);
+        return LATE_INSERTED;
+    }
+
+    //워터마크: 이 시각보다 과거 틱은 더 받지 않음 (아직 스냅샷이 없으면 Long.MIN_VALUE)
+    long watermark(long allowedLatenessMillis) {
+        long last = lastMillis();
+        return last == Long.MIN_VALUE ? Long.MIN_VALUE : last - allowedLatenessMillis;
+    }
+
+    //간격 검사 없이 저장 (프라이밍/저널 재생용) - 봉인 구간보다 과거면 다음 봉인 때 병합됨
+    void put(TickerSnapshot snapshot) {
+        hot.put(snapshot.getTimestamp(), snapshot);
+    }
+
+    //가장 최신 스냅샷 (없으면 null)
+    TickerSnapshot latest(DecodedBlockCache cache) {
+        Map.Entry<Instant, TickerSnapshot> entry = hot.lastEntry();
+        if (entry != null) {
+            return entry.getValue();
+        }
+        SealedBlock[] current = blocks;
+        if (current.length == 0) {
+            return null;
+        }
+        SealedBlock block = current[current.length - 1];
+        DecodedBlock decoded = cache.get(block);
+        return block.toSnapshot(this, decoded, decoded.size() - 1);
+    }
+
+    /**
+     * millis 이하 시각 중 가장 가까운 스냅샷 (없으면 null)
+     * hot → 봉인 블록 순서로 찾음 (블록은 캐시를 거쳐 디코딩)
+     */
+    TickerSnapshot floor(long millis, DecodedBlockCache cache) {
+        Map.Entry<Instant, TickerSnapshot> entry = hot.floorEntry(Instant.ofEpochMilli(millis));
+        if (entry != null) {
+            return entry.getValue();
+        }
+        SealedBlock[] current = blocks;
+        int index = floorBlock(current, millis);
+        if (index < 0) {
+            return null;
+        }
+        SealedBlock block = current[index];
+        DecodedBlock decoded = cache.get(block);
+        int row = Arrays.binarySearch(decoded.timestamps, 0, decoded.size(), millis);
+        if (row < 0) {
+            row = -(row + 1) - 1;
+        }
+        return row >= 0 ? block.toSnapshot(this, decoded, row) : null;
+    }
+
+    /**
+     * ⭐ [봉인] hotCutoff 이전 hot 스냅샷을 압축 블록으로 이동
+     * 봉인 구간보다 과거 데이터(프라이밍 등)가 섞여 있으면 겹치는 블록과 병합해서 다시 인코딩
+     *
+     * @return 봉인한 스냅샷 수
+     */
+    synchronized int seal(long hotCutoffMillis) {
+        Map<Instant, TickerSnapshot> pending = hot.headMap(Instant.ofEpochMilli(hotCutoffMillis));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<TickerSnapshot> sealing = new ArrayList<>(pending.values());
+        long firstPending = sealing.get(0).getTimestamp().toEpochMilli();
+
+        SealedBlock[] current = blocks;
+        int keep = current.length;
+        while (keep > 0 && current[keep - 1].lastMillis >= firstPending) {
+            keep--;
+        }
+
+        List<SealedBlock> rebuilt = new ArrayList<>(Arrays.asList(current).subList(0, keep));
+        if (keep == current.length) {
+            //일반적인 경우: 뒤에 이어 붙이기
+            encodeInto(rebuilt, sealing);
+        } else {
+            //과거 데이터가 섞인 경우: 겹치는 블록 + 새 데이터를 시각순으로 병합
+            TreeMap<Long, TickerSnapshot> merged = new TreeMap<>();
+            for (int b = keep; b < current.length; b++) {
+                DecodedBlock decoded = current[b].decode();
+                for (int r = 0; r < decoded.size(); r++) {
+                    merged.put(decoded.timestamps[r], current[b].toSnapshot(this, decoded, r));
+                }
+            }
+            for (TickerSnapshot snapshot : sealing) {
+                merged.put(snapshot.getTimestamp().toEpochMilli(), snapshot);
+            }
+            encodeInto(rebuilt, new ArrayList<>(merged.values()));
+        }
+        blocks = rebuilt.toArray(NO_BLOCKS);
+
+        //블록 공개 후 hot에서 제거
+        for (TickerSnapshot snapshot : sealing) {
+            hot.remove(snapshot.getTimestamp(), snapshot);
+        }
+        return sealing.size();
+    }
+
+    /**
+     * 보관 기간이 지난 데이터 삭제 (블록 단위 - 블록 전체가 cutoff 이전일 때만 삭제)
+     * @return 삭제한 스냅샷 수
+     */
+    synchronized int purge(long cutoffMillis) {
+        int before = hot.size();
+        hot.headMap(Instant.ofEpochMilli(cutoffMillis)).clear();
+        int purged = before - hot.size();
+
+        SealedBlock[] current = blocks;
+        int drop = 0;
+        while (drop < current.length && current[drop].lastMillis < cutoffMillis) {
+            purged += current[drop].count;
+            drop++;
+        }
+        if (drop > 0) {
+            blocks = Arrays.copyOfRange(current, drop, current.length);
+        }
+        return purged;
+    }
+
+    //가장 오래된 hot 스냅샷 시각 (없으면 Long.MAX_VALUE)
+    long oldestHotMillis() {
+        Map.Entry<Instant, TickerSnapshot> entry = hot.firstEntry();
+        return entry != null ? entry.getKey().toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    int hotSize() {
+        return hot.size();
+    }
+
+    int blockCount() {
+        return blocks.length;
+    }
+
+    long sealedPoints() {
+        long points = 0;
+        for (SealedBlock block : blocks) {
+            points += block.count;
+        }
+        return points;
+    }
+
+    long sealedBytes() {
+        long bytes = 0;
+        for (SealedBlock block : blocks) {
+            bytes += block.data.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * 체크포인트 저장: 봉인 블록은 압축된 그대로, hot은 원본 값으로
+     * 형식: int 블록 수, 블록 * (long 첫 시각, long 마지막 시각, int 개수, int 길이, byte[]),
+     *       int hot 개수, hot * (long 시각, double 가격, double 24h거래대금)
+     */
+    synchronized void writeCheckpoint(DataOutputStream out) throws IOException {
+        SealedBlock[] current = blocks;
+        List<TickerSnapshot> hotSnapshots = new ArrayList<>(hot.values());
+        out.writeInt(current.length);
+        for (SealedBlock block : current) {
+            out.writeLong(block.firstMillis);
+            out.writeLong(block.lastMillis);
+            out.writeInt(block.count);
+            out.writeInt(block.data.length);
+            out.write(block.data);
+        }
+        out.writeInt(hotSnapshots.size());
+        for (TickerSnapshot snapshot : hotSnapshots) {
+            out.writeLong(snapshot.getTimestamp().toEpochMilli());
+            out.writeDouble(snapshot.getCurrentPrice() != null ? snapshot.getCurrentPrice() : 0.0);
+            out.writeDouble(snapshot.getRolling24hVolume() != null ? snapshot.getRolling24hVolume() : 0.0);
+        }
+    }
+
+    //체크포인트 복원 (cutoff 이전 블록/스냅샷은 건너뜀) - 복원한 스냅샷 수 반환
+    synchronized int readCheckpoint(DataInputStream in, long cutoffMillis) throws IOException {
+        int restored = 0;
+        int blockCount = in.readInt();
+        List<SealedBlock> restoredBlocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            long first = in.readLong();
+            long last = in.readLong();
+            int count = in.readInt();
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            if (last >= cutoffMillis) {
+                restoredBlocks.add(new SealedBlock(first, last, count, data));
+                restored += count;
+            }
+        }
+        int hotCount = in.readInt();
+        for (int i = 0; i < hotCount; i++) {
+            long timestamp = in.readLong();
+            double price = in.readDouble();
+            double rollingVolume = in.readDouble();
+            if (timestamp >= cutoffMillis) {
+                hot.put(Instant.ofEpochMilli(timestamp), snapshot(timestamp, price, rollingVolume));
+                restored++;
+            }
+        }
+        blocks = restoredBlocks.toArray(NO_BLOCKS);
+        return restored;
+    }
+
+    private long lastMillis() {
+        Map.Entry<Instant, TickerSnapshot> entry = hot.lastEntry();
+        if (entry != null) {
+            return entry.getKey().toEpochMilli();
+        }
+        SealedBlock[] current = blocks;
+        return current.length > 0 ? current[current.length - 1].lastMillis : Long.MIN_VALUE;
+    }
+
+    private TickerSnapshot snapshot(long millis, double price, double rollingVolume) {
+        return TickerSnapshot.builder()
+                .exchangeId(exchangeId)
+                .marketCode(marketCode)
+                .timestamp(Instant.ofEpochMilli(millis))
+                .currentPrice(price)
+                .rolling24hVolume(rollingVolume)
+                .build();
+    }
+
+    //firstMillis <= millis 인 마지막 블록 인덱스 (없으면 -1)
+    private static int floorBlock(SealedBlock[] current, long millis) {
+        int low = 0;
+        int high = current.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (current[mid].firstMillis <= millis) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static void encodeInto(List<SealedBlock> target, List<TickerSnapshot> snapshots) {
+        BitWriter writer = new BitWriter(4096);
+        for (int start = 0; start < snapshots.size(); start += BLOCK_MAX_ROWS) {
+            int end = Math.min(snapshots.size(), start + BLOCK_MAX_ROWS);
+            writer.reset();
+            GorillaCodec.TimestampEncoder timeEncoder = new GorillaCodec.TimestampEncoder();
+            GorillaCodec.DoubleEncoder priceEncoder = new GorillaCodec.DoubleEncoder();
+            GorillaCodec.DoubleEncoder volumeEncoder = new GorillaCodec.DoubleEncoder();
+            for (int i = start; i < end; i++) {
+                TickerSnapshot snapshot = snapshots.get(i);
+                timeEncoder.encode(writer, snapshot.getTimestamp().toEpochMilli());
+                priceEncoder.encode(writer, snapshot.getCurrentPrice() != null ? snapshot.getCurrentPrice() : 0.0);
+                volumeEncoder.encode(writer, snapshot.getRolling24hVolume() != null ? snapshot.getRolling24hVolume() : 0.0);
+            }
+            target.add(new SealedBlock(
+                    snapshots.get(start).getTimestamp().toEpochMilli(),
+                    snapshots.get(end - 1).getTimestamp().toEpochMilli(),
+                    end - start,
+                    writer.toByteArray()));
+        }
+    }
+
+    /**
+     * 압축된 불변 블록 (시각/가격/24h거래대금을 행 단위로 교차 인코딩)
+     * - 시각: delta-of-delta, 가격/거래대금: Gorilla XOR
+     */
+    static final class SealedBlock {
+        final long firstMillis;
+        final long lastMillis;
+        final int count;
+        final byte[] data;
+
+        SealedBlock(long firstMillis, long lastMillis, int count, byte[] data) {
+            this.firstMillis = firstMillis;
+            this.lastMillis = lastMillis;
+            this.count = count;
+            this.data = data;
+        }
+
+        DecodedBlock decode() {
+            long[] timestamps = new long[count];
+            double[] prices = new double[count];
+            double[] volumes = new double[count];
+            BitReader reader = new BitReader(data);
+            GorillaCodec.TimestampDecoder timeDecoder = new GorillaCodec.TimestampDecoder();
+            GorillaCodec.DoubleDecoder priceDecoder = new GorillaCodec.DoubleDecoder();
+            GorillaCodec.DoubleDecoder volumeDecoder = new GorillaCodec.DoubleDecoder();
+            for (int i = 0; i < count; i++) {
+                timestamps[i] = timeDecoder.decode(reader);
+                prices[i] = priceDecoder.decode(reader);
+                volumes[i] = volumeDecoder.decode(reader);
+            }
+            return new DecodedBlock(timestamps, prices, volumes);
+        }
+
+        private TickerSnapshot toSnapshot(MarketSeries series, DecodedBlock decoded, int row) {
+            return series.snapshot(decoded.timestamps[row], decoded.prices[row], decoded.volumes[row]);
+        }
+    }
+
+    //디코딩된 블록 (읽기 전용으로만 사용)
+    static final class DecodedBlock {
+        final long[] timestamps;
+        final double[] prices;
+        final double[] volumes;
+
+        DecodedBlock(long[] timestamps, double[] prices, double[] volumes) {
+            this.timestamps = timestamps;
+            this.prices = prices;
+            this.volumes = volumes;
+        }
+
+        int size() {
+            return timestamps.length;
+        }
+    }
+}
@@ -1,21 +1,22 @@
-package buffer;
-
 package coinalarm.Coin_Alarm.buffer;
 
+import coinalarm.Coin_Alarm.exchange.SymbolArray;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
 import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
 import coinalarm.Coin_Alarm.exchange.CandleData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
 
-import static coinalarm.Coin_Alarm.AccessingDataJpaApplication.log;
-import static jdk.internal.net.http.common.Utils.accumulateBuffers;
-import static jdk.internal.net.http.common.Utils.getBuffer;
 
 
 //**다계층 스냅샷 버퍼 시스템**
@@ -23,83 +24,137 @@ import static jdk.internal.net.http.common.Utils.getBuffer;
  * ⭐⭐⭐ [핵심 신규 추가] 다계층 스냅샷 버퍼 시스템
  * 목적: 메모리 효율을 극대화하면서 정확한 롤링 계산 지원
  ㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡ
- * 전략:
- * - Tier 1 (1~5분): 1초 간격 스냅샷 → 정밀한 단기 계산
- * - Tier 2 (5분~1시간): 10초 간격 스냅샷 → 중기 계산
- * - Tier 3 (1~4시간): 1분 간격 스냅샷 → 장기 계산
- ㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡ
+ * ⭐ [변경] 계층 구조 → hot + 압축 봉인 블록 (Gorilla)
+ * - Hot (최근 5~15분): 1초 간격 스냅샷 객체 그대로 → 정밀한 단기 계산, 실시간 추가
+ * - Sealed (~25시간): 1초 간격 그대로 압축 → 가격은 거의 안 바뀌고 24h 누적 거래대금은
+ *   조금씩만 바뀌므로 XOR 압축 효율이 높음, 시각은 delta-of-delta로 거의 1비트
+ * - 봉인 블록은 조회할 때만 디코딩, 최근에 푼 블록은 작은 LRU 캐시에 보관
+ ㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡ
  * 메모리 절약 효과:
- * - 4시간 데이터를 1초 간격으로 저장 시: 14,400개 스냅샷
- * - 다계층 버퍼 사용 시: 약 810개 스냅샷
- * - 약 94% 메모리 절약!
+ * - 기존: 4시간 * 1초 = 14,400개 객체 (마켓당 약 2MB)
+ * - 변경: 24시간 * 1초 = 86,400개를 스냅샷당 약 8바이트로 압축 (마켓당 약 0.7MB)
+ *   → 같은 힙으로 24시간 이상 보관, sendFavoriteDataToFrontend의 1440분 조회도 정상 동작
  ㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡㅡ
  * 기술 설명:
- * - ConcurrentSkipListMap: 정렬된 Map + 동시성 보장
- *   장점: 시간순 정렬 자동, Thread-Safe, O(log N) 성능
+ * - ConcurrentSkipListMap(hot): 정렬된 Map + 동시성 보장, O(log N)
+ * - 봉인 블록 배열: 불변 블록을 통째로 교체 → 조회는 잠금 없이 이진 탐색
+ * - ⭐ [변경] 시계열 조회: 거래소/마켓 이중 맵 → 심볼 ID 인덱스 배열 (SymbolRegistry)
+ *   틱 경로는 int ID를 받는 오버로드 사용 (해시/equals 없음), String 버전은 ID로 변환 후 위임
+ * - ⭐ [변경] 이벤트 시각 처리: 스냅샷 키 = 거래소 이벤트 시각 (수신 시각 아님)
+ *   마켓별 워터마크(최신 이벤트 시각 - allowed-lateness) 안쪽으로 늦게 온 틱은 제 시각 자리에 삽입,
+ *   더 늦은 틱은 버리고 개수만 셈 / 수신 시각 - 이벤트 시각으로 지연·시계 차이 지표 기록
  */
 
 @Service
 public class MultiTieredSnapshotBuffer {
-    //거래소ID를 담을 버퍼
-    private final Map<String, Map<String, ConcurrentSkipListMap<Instant, TickerSnapshot>>> buffejs;
+    //구조: 심볼 ID → 시계열 (ID는 SymbolRegistry가 거래소-마켓마다 부여)
+    private final SymbolRegistry symbolRegistry;
+    private final SymbolArray<MarketSeries> buffers = new SymbolArray<>();
 
     // ⭐ [핵심] 스냅샷 저장 간격 정의
     private static final Duration TIER1_INTERVAL = Duration.ofSeconds(1);  //1초
-    private static final Duration TIER2_INTERVAL = Duration.ofSeconds(10); //10초
-    private static final Duration TIER3_INTERVAL = Duration.ofMinutes(1);  //1분
 
     // ⭐ [핵심] 보관 기간 정의
-    private static final Duration TIER1_RETENTION = Duration.ofMinutes(5);  // 5분
-    private static final Duration TIER2_RETENTION = Duration.ofHours(1);    // 1시간
-    private static final Duration TIER3_RETENTION = Duration.ofHours(4);    // 4시간
+    private static final Duration HOT_RETENTION = Duration.ofMinutes(5);   // 최소 5분은 압축하지 않음
+    private static final Duration SEAL_MIN_SPAN = Duration.ofMinutes(10); // 10분 이상 쌓이면 봉인
+    public static final Duration RETENTION = Duration.ofHours(25);        // 25시간 (24시간 조회 + 여유)
+
+    //디코딩 블록 캐시 크기 (블록당 최대 1024행, 약 24KB)
+    private static final int DECODED_CACHE_BLOCKS = 512;
+
+    // ⭐ [신규 추가] 늦게 도착한 틱 허용 범위 기본값 (마켓별 최신 이벤트 시각 기준)
+    private static final long DEFAULT_ALLOWED_LATENESS_MILLIS = 5_000L;
+
+    private final DecodedBlockCache decodedCache = new DecodedBlockCache(DECODED_CACHE_BLOCKS);
 
+    //워터마크 허용 범위 (hot 구간보다 길면 봉인된 구간에 끼워 넣게 되므로 HOT_RETENTION으로 제한)
+    private final long allowedLatenessMillis;
+
+    // ⭐ [신규 추가] 이벤트 시각 지표
+    private final LongAdder lateInserted = new LongAdder();  // 워터마크 안쪽, 제자리 삽입
+    private final LongAdder lateMerged = new LongAdder();    // 워터마크 안쪽, 근처 스냅샷이 있어 버림
+    private final LongAdder lateDropped = new LongAdder();   // 워터마크 밖, 버림
+    private volatile long lastDelayMillis;                   // 수신 시각 - 이벤트 시각 (네트워크 지연 + 시계 차이)
+    private volatile long maxDelayMillis;
+    private volatile long minDelayMillis = Long.MAX_VALUE;   // 주기(maintain) 내 최소 지연 → 시계 차이 추정값
+    private volatile long clockSkewMillis;                   // 직전 주기의 최소 지연 (음수면 거래소 시계가 앞섬)
+
+    //단독 사용 (백테스트 등): 자체 레지스트리
+    //⭐ [변경] 백테스트는 마켓마다 하나씩 만들므로 초기화 로그를 찍지 않음
     public MultiTieredSnapshotBuffer() {
-        this.buffers = new ConcurrentHashMap<>();
-        Systemp.out.println("MultiTieredSnapshotBuffer 초기화 완료");
+        this(new SymbolRegistry(), DEFAULT_ALLOWED_LATENESS_MILLIS, false);
+    }
+
+    @Autowired
+    public MultiTieredSnapshotBuffer(SymbolRegistry symbolRegistry,
+                                     @Value("${coinalarm.buffer.allowed-lateness-ms:5000}") long allowedLatenessMillis) {
+        this(symbolRegistry, allowedLatenessMillis, true);
+    }
+
+    private MultiTieredSnapshotBuffer(SymbolRegistry symbolRegistry, long allowedLatenessMillis, boolean announce) {
+        this.symbolRegistry = symbolRegistry;
+        this.allowedLatenessMillis = Math.max(0L, Math.min(allowedLatenessMillis, HOT_RETENTION.toMillis()));
+        if (announce) {
+            System.out.println("MultiTieredSnapshotBuffer 초기화 완료 (허용 지연 " + this.allowedLatenessMillis + "ms)");
+        }
     }
     /*
      * ⭐⭐ [핵심 메서드] 스냅샷 추가
      * 동작:
-     * 1. 마지막 스냅샷과의 시간 간격 확인
+     * 1. 마지막 스냅샷과의 시간 간격 확인 (⭐ [변경] 이벤트 시각 기준)
      * 2. 간격이 1초 이상이면 저장
-     * 3. 자동으로 계층별 간격 유지
+     * 3. ⭐ [변경] 더 과거 시각이면 워터마크 안쪽일 때만 제자리에 삽입 (빈자리일 때)
+     * 4. 오래된 구간은 maintain()에서 압축 블록으로 봉인
      */
 
     public void addSnapshot(TickerSnapshot snapshot) {
-        String exchangeId = snapshot.getExchangeId();
-        String marketCode = snapshot.getMarketCode();
-        Instant timestamp = snapshot.getTimestamp();
-
-        //버퍼 가져오기 (없으면 생성)
-        CouncurrentSkipListMap<Instant, TickerSnapshot> buffer = getOrCreateBuffer(exchangeId, marketCode);
+        addSnapshot(symbolRegistry.idOf(snapshot.getExchangeId(), snapshot.getMarketCode()), snapshot);
+    }
 
-        //마지막 스냅샷 확인
-        Map.Entry<Instant, TickerSnapshot> lastEntry = buffer.lastEntry();
+    //심볼 ID를 이미 알고 있는 경우 (틱 경로)
+    public void addSnapshot(int symbolId, TickerSnapshot snapshot) {
+        recordDelay(snapshot);
+        switch (getOrCreateSeries(symbolId).add(snapshot, TIER1_INTERVAL.toMillis(), allowedLatenessMillis)) {
+            case MarketSeries.LATE_INSERTED -> lateInserted.increment();
+            case MarketSeries.LATE_MERGED -> lateMerged.increment();
+            case MarketSeries.TOO_LATE -> lateDropped.increment();
+            default -> {
+            }
+        }
+    }
 
-        if (lastEntry == null) {
-            //첫번째 스냅샷은 무조건 저장
-            buffer.put(timestamp, snapshot);
+    //수신 시각이 있는 실시간 틱만 (저널 재생/프라이밍/백테스트는 0)
+    private void recordDelay(TickerSnapshot snapshot) {
+        if (snapshot.getReceivedAtMillis() == 0L) {
             return;
         }
-
-        //마지막 스냅샷과의 시간간격 확인
-        Duration elapsed = Duration.between(lastEntry.getKey(), timestamp);
-
-        //1초이상 경과 시 저장(Tier 1 기준) // => 뭐가 1초이상 경과?
-        if (elapsed.compareTo(TIER1_INTERVAL) >= 0) {
-            buffer.put(timestamp.snapshot);
+        long delay = snapshot.getReceivedAtMillis() - snapshot.getTimestamp().toEpochMilli();
+        lastDelayMillis = delay;
+        if (delay > maxDelayMillis) {
+            maxDelayMillis = delay;
+        }
+        if (delay < minDelayMillis) {
+            minDelayMillis = delay;
         }
     }
 
+    /**
+     * ⭐ [신규 추가] 마켓 워터마크 (이 시각보다 과거 틱은 버림, 아직 틱이 없으면 Long.MIN_VALUE)
+     */
+    public long getWatermark(String exchangeId, String marketCode) {
+        MarketSeries series = getSeries(symbolRegistry.find(exchangeId, marketCode));
+        return series != null ? series.watermark(allowedLatenessMillis) : Long.MIN_VALUE;
+    }
+
     /**
      * ⭐⭐ [핵심 메서드] N분 전 스냅샷 조회
      * 동작:
      * 1. 현재 시간 - N분 = 목표 시간
-     * 2. 목표 시간 이전의 가장 가까운 스냅샷 찾기
+     * 2. 목표 시간 이전의 가장 가까운 스냅샷 찾기 (hot → 봉인 블록 순서)
      * <p>
      * 기술 설명:
-     * - floorEntry(targetTime): targetTime 이하의 가장 큰 키를 가진 엔트리 반환
-     * (ConcurrentSkipListMap의 메서드, O(log N) 성능)
+     * - hot: floorEntry(targetTime), O(log N)
+     * - 봉인 블록: 블록 이진 탐색 → 디코딩(캐시) → 행 이진 탐색
      *
      * @param exchangeId  거래소 ID
      * @param marketCode  마켓 코드
@@ -113,9 +168,8 @@ public class MultiTieredSnapshotBuffer {
             Instant currentTime,
             int minutesAgo
     ) {
-        //거래소별 마켓코드 담기
-        ConcurrentSkipListMap<Instant, TickerSnapshot> buffer = getBuffer(exchangeId, marketCode);
-        if (buffer == null || buffer.isEmpty()) {
+        MarketSeries series = getSeries(symbolRegistry.find(exchangeId, marketCode));
+        if (series == null) {
             return Optional.empty();
         }
 
@@ -123,9 +177,7 @@ public class MultiTieredSnapshotBuffer {
         Instant targetTime = currentTime.minus(Duration.ofMinutes(minutesAgo));
 
         //TargetTime 이전의 가장 가까운 스냅샷
-        Map.Entry<Instant, TickerSnapshot> entry = buffer.floorEntry(targetTime);
-
-        return entry != null ? Optional.of(entry.getValue()) : Optional.empty();
+        return Optional.ofNullable(series.floor(targetTime.toEpochMilli(), decodedCache));
     }
 
     /**
@@ -152,22 +204,23 @@ public class MultiTieredSnapshotBuffer {
             String marketCode,
             int minutes
     ) {
-        ConcurrentSkipListMap<Instant, TickerSnapshot> buffer = getBuffer(exchangeId, marketCode);
-        if (buffer == null || buffer.isEmpty()) {
+        return calculateRollingVolume(symbolRegistry.find(exchangeId, marketCode), minutes);
+    }
+
+    //심볼 ID 버전 (틱 경로)
+    public Double calculateRollingVolume(int symbolId, int minutes) {
+        MarketSeries series = getSeries(symbolId);
+        TickerSnapshot current = (series != null) ? series.latest(decodedCache) : null;
+        if (current == null) {
             return 0.0;
         }
 
-        //현재 스냅샷(가장 최신)
-        TickerSnapshot current = buffer.lastEntry().getValue();
-
         //n분전 스냅샷
-        Optional<TickerSnapshot> beforeOpt = getSnapshotBefore(
-                exchangeId, marketCode, current.getTimestamp(), minutes
-        );
-        if (beforeOpt.isEmpty()) {
+        TickerSnapshot before = series.floor(
+                current.getTimestamp().toEpochMilli() - minutes * 60_000L, decodedCache);
+        if (before == null) {
             return 0.0;
         }
-        TickerSnapshot before = beforeOpt.get();
         //N분 거래대금 계산
         Double rollingVolume = current.getRolling24hVolume() - before.getRolling24hVolume();
 
@@ -189,19 +242,22 @@ public class MultiTieredSnapshotBuffer {
             String marketCode,
             int minutes
     ) {
-        ConcurrentSkipListMap<Instant, TickerSnapshot> buffer = getBuffer(exchangeId, marketCode);
-        if (buffer == null || buffer.isEmpty()) {
+        return calculateRollingPriceChange(symbolRegistry.find(exchangeId, marketCode), minutes);
+    }
+
+    //심볼 ID 버전
+    public Double calculateRollingPriceChange(int symbolId, int minutes) {
+        MarketSeries series = getSeries(symbolId);
+        TickerSnapshot current = (series != null) ? series.latest(decodedCache) : null;
+        if (current == null) {
             return 0.0;
         }
 
-        TickerSnapshot current = buffer.lastEntry().getValue();
-        Optional<TickerSnapshot> beforeOpt = getSnapshotBefore(
-                exchangeId, marketCode, current.getTimestamp(), minutes
-        );
-        if (beforeOpt.isEmpty()) {
+        TickerSnapshot before = series.floor(
+                current.getTimestamp().toEpochMilli() - minutes * 60_000L, decodedCache);
+        if (before == null) {
             return 0.0;
         }
-        TickerSnapshot before = beforeOpt.get();
 
         //N분 가격 변화율 계산
         Double priceChange = (current.getCurrentPrice() - before.getCurrentPrice()) / before.getCurrentPrice() * 100;
@@ -218,7 +274,7 @@ public class MultiTieredSnapshotBuffer {
      * 동작:
      * 1. REST API로 과거 240분(4시간) 캔들 데이터 조회
      * 2. 각 캔들을 TickerSnapshot으로 변환
-     * 3. 스냅샷 버퍼에 저장
+     * 3. 스냅샷 버퍼에 저장 (이미 봉인된 구간과 겹치면 다음 봉인 때 병합)
      * 4. 이후 실시간 데이터가 들어와도 연속성 유지
      *
      * @param exchangeId     거래소 ID
@@ -235,7 +291,7 @@ public class MultiTieredSnapshotBuffer {
             return;
         }
 
-        ConcurrentSkipListMap<Instant, TickerSnapshot> buffer = getBuffer(exchangeId, marketCode);
+        MarketSeries series = getOrCreateSeries(symbolRegistry.idOf(exchangeId, marketCode));
         System.out.println("🔄 프라이밍 시작: " + exchangeId + "/" + marketCode
                 + " (데이터 " + historicalData.size() + "개)");
 
@@ -250,101 +306,216 @@ public class MultiTieredSnapshotBuffer {
                     .currentPrice(candle.getClosePrice())
                     .rolling24hVolume(candle.getAccTradeVolume())
                     .build();
-            buffer.put(snapshot.getTimestamp(), snapshot);
+            series.put(snapshot);
             primeCount++;
         }
-        System.out.println("✅ 프라이밍 완료: " + primedCount + "개 스냅샷 저장, 버퍼 크기 = " + buffer.size());
+        System.out.println("✅ 프라이밍 완료: " + primeCount + "개 스냅샷 저장, hot 크기 = " + series.hotSize());
+    }
+
+    /**
+     * ⭐ [신규 추가] millis 이하 시각 중 가장 가까운 스냅샷 시각 (없으면 -1)
+     * 끊김 보충: 소켓이 끊기기 직전 이 마켓의 마지막 스냅샷 = 공백 시작
+     */
+    public long lastTimestampBefore(int symbolId, long millis) {
+        MarketSeries series = getSeries(symbolId);
+        TickerSnapshot before = (series != null) ? series.floor(millis, decodedCache) : null;
+        return (before != null) ? before.getTimestamp().toEpochMilli() : -1;
     }
 
     /**
-     * ⭐ [메모리 관리] 오래된 스냅샷 자동 제거
+     * ⭐ [신규 추가] 끊김 구간을 1분봉으로 보충
      * <p>
-     * 동작: 1분마다 실행되어 4시간(Tier 3 보관기간) 이전 데이터 삭제
+     * 문제: 소켓이 끊긴 동안 스냅샷이 없으면, 재연결 직후 N분 거래대금 = 현재 rolling24h - 끊기기 전 rolling24h
+     *      → 공백 전체 거래대금이 1분/5분 창에 몰림 (과대 집계, 거짓 알람) 또는 창 안에 기준점이 없음
+     * 보충: 공백 시작 스냅샷을 기준으로 분봉 거래대금을 누적해 분 경계마다 스냅샷 생성
+     *      rolling24h(분 끝) = 기준 rolling24h + 기준 이후 분봉 거래대금 합 (기준이 걸친 분봉은 남은 비율만큼)
+     *      (24시간 전 구간이 빠지는 만큼은 무시 - 공백이 수 분~수십 분이면 오차가 작음)
      * <p>
-     * 기술 설명:
-     * - @Scheduled(fixedRate = 60000): Spring의 스케줄러, 60초마다 실행
-     * - headMap(cutoff): cutoff 이전의 모든 엔트리를 포함하는 부분 맵 반환
-     * - clear(): 해당 부분 맵의 모든 엔트리 삭제
+     * 공백 끝(재연결 시각) 이후는 실시간 스냅샷이 있으므로 건드리지 않음
+     *
+     * @param gapStartMillis 공백 시작 (이 시각 이하 마지막 스냅샷이 기준)
+     * @param gapEndMillis   공백 끝 (이 시각 이후 분봉은 무시)
+     * @param minuteCandles  1분봉 (순서 무관, accTradePrice = 분봉 거래대금)
+     * @return 추가한 스냅샷 수
+     */
+    public int backfillGap(int symbolId, long gapStartMillis, long gapEndMillis, List<CandleData> minuteCandles) {
+        MarketSeries series = getSeries(symbolId);
+        TickerSnapshot anchor = (series != null) ? series.floor(gapStartMillis, decodedCache) : null;
+        if (anchor == null || anchor.getRolling24hVolume() == null || minuteCandles == null) {
+            return 0;
+        }
+        long anchorMillis = anchor.getTimestamp().toEpochMilli();
+        List<CandleData> candles = new ArrayList<>(minuteCandles);
+        candles.sort(Comparator.comparing(CandleData::getTimestamp));
+
+        double rolling24h = anchor.getRolling24hVolume();
+        int added = 0;
+        for (CandleData candle : candles) {
+            long start = candle.getTimestamp().toEpochMilli();
+            long end = start + 60_000L;
+            if (end <= anchorMillis) {
+                continue;
+            }
+            if (end >= gapEndMillis) {
+                break;
+            }
+            double tradePrice = (candle.getAccTradePrice() != null) ? candle.getAccTradePrice() : 0.0;
+            double fraction = (start < anchorMillis) ? (end - anchorMillis) / 60_000.0 : 1.0;
+            rolling24h += tradePrice * fraction;
+            series.put(TickerSnapshot.builder()
+                    .exchangeId(anchor.getExchangeId())
+                    .marketCode(anchor.getMarketCode())
+                    .timestamp(Instant.ofEpochMilli(end))
+                    .currentPrice((candle.getClosePrice() != null) ? candle.getClosePrice() : anchor.getCurrentPrice())
+                    .rolling24hVolume(rolling24h)
+                    .build());
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * ⭐ [메모리 관리] 봉인 + 오래된 스냅샷 자동 제거
+     * <p>
+     * 동작: 1분마다 실행
+     * 1. hot 구간에 10분 이상 쌓였으면 5분보다 오래된 스냅샷을 압축 블록으로 봉인
+     * 2. 25시간(보관기간) 이전 블록/스냅샷 삭제
      */
     @Scheduled(fixedRate = 60000)
     public void purgeOldSnapshots() {
-        Instant now = Instant.now();
-        Instant cutoff = now.minus(TIER3_RETENTION);
+        maintain(Instant.now(), true);
+        //시계 차이 추정: 직전 1분 동안의 최소 지연 (지연이 가장 짧았던 틱 ≈ 네트워크 지연 0에 가까움)
+        long min = minDelayMillis;
+        if (min != Long.MAX_VALUE) {
+            clockSkewMillis = min;
+            minDelayMillis = Long.MAX_VALUE;
+        }
+    }
 
+    /**
+     * 봉인/정리를 주어진 시각 기준으로 실행 (백테스트 등 가상 시계에서도 사용, 로그 없음)
+     */
+    public void maintain(Instant now) {
+        maintain(now, false);
+    }
+
+    private void maintain(Instant now, boolean report) {
+        long nowMillis = now.toEpochMilli();
+        long hotCutoff = nowMillis - HOT_RETENTION.toMillis();
+        long sealTrigger = hotCutoff - SEAL_MIN_SPAN.toMillis();
+        long purgeCutoff = nowMillis - RETENTION.toMillis();
+
+        int totalSealed = 0;
         int totalPurged = 0;
 
-        //모든 거래소, 모든 마켓의 버퍼를 순회
-        for (Map.Entry<String, Map<String, ConcurrentSkipListMap<Instant, TickerSnapshot>>> exchangeEntry : buffers.entrySet()) {
-            String exchangeId = exchangeEntry.getKey();
-            Map<String, ConcurrentSkipListMap<Instant, TickerSnapshot>> marketBuffer = exchangeEntry.getValue();
-
-            for (Map.Entry<String, ConcurrentSkipListMap<Instant, TickerSnapshot>> marketEntry : marketBuffers.entrySet()) {
-                String marketCode = marketEntry.getKey();
-                ConcurrentSkipListMap<Instant, TickerSnapshot> buffer = marketEntry.getValue();
-
-                //4시간 이전 데이터 제거
-                int beforeSize = buffer.size();
-                buffer.headMap(cutoff).clear(); // cutoff 이전 데이터 모두 삭제
-                int afterSize = buffer.size();
-                int purged = beforeSize - afterSize; //과거 기록 남는거 아닌가? 살짝 이해 안되넹 =? 아 cutoff할떄 이미 clear 했구나
-
-                if (purged > 0) {
-                    totalPurged += purged;
-                    System.out.println("🗑️ 스냅샷 정리: " + exchangeId + "/" + marketCode
-                            + " (" + purged + "개 삭제, 남은 개수: " + afterSize + ")")
-                }
+        //모든 시계열을 ID 순서로 순회
+        for (int id = 0; id < buffers.capacity(); id++) {
+            MarketSeries series = buffers.get(id);
+            if (series == null) {
+                continue;
+            }
+            if (series.oldestHotMillis() < sealTrigger) {
+                totalSealed += series.seal(hotCutoff);
             }
+            totalPurged += series.purge(purgeCutoff);
         }
-        if (totalPurged > 0) {
-            System.out.println("✅ 전체 스냅샷 정리 완료: " + totalPurged + "개 삭제");
+        if (report && (totalSealed > 0 || totalPurged > 0)) {
+            System.out.println("🗜️ 스냅샷 봉인/정리 완료: 봉인 " + totalSealed + "개, 삭제 " + totalPurged + "개");
         }
     }
 
-    /*버퍼 가져오기 - 없을경우 생성*/
-    private ConcurrentSkipListMap<Instant, TickerSnapshot> getOrCreateBuffer(
-            String exchangeId,
-            String marketCode
-    ) {
-        return buffers
-                .computeIfAbsent(exchangeId, k -> new ConcurrentHashMap<>())
-                .computeIfAbsent(marketCode, k -> new ConcurrentSkipListMap<>());
-        //compteIfAbsent: 키가 없으면 새로운 값을 생성하여 저장하고 반환
-        //Thread->Safe하게 동작함
+    /*시계열 가져오기 - 없을경우 생성 (ID당 한 번만 생성, 스레드 안전)*/
+    private MarketSeries getOrCreateSeries(int symbolId) {
+        MarketSeries series = buffers.get(symbolId);
+        if (series != null) {
+            return series;
+        }
+        SymbolRegistry.SymbolInfo info = symbolRegistry.info(symbolId);
+        return buffers.computeIfAbsent(symbolId, id -> new MarketSeries(info.getExchangeId(), info.getMarketCode()));
     }
 
 
-    /*버퍼 가져오기2 - 없을경우 null*/
-    private ConcurrentSkipListMap<Instant, TickerSnapshot> getBuffer(
-            String exchangeId,
-            String marketCode
-    ) {
-        Map<String, ConcurrentSkipListMap<Instant, TickerSnapshot>> marketBuffers = buffers.get(exchangeId);
-        if (marketBuffers == null) {
-            return null;
+    /*시계열 가져오기2 - 없을경우 null (미등록 ID -1 포함)*/
+    private MarketSeries getSeries(int symbolId) {
+        return buffers.get(symbolId);
+    }
+
+    /**
+     * ⭐ [체크포인트] 전체 시계열을 바이너리로 저장 (봉인 블록은 압축된 그대로)
+     * 형식: 반복 { true, UTF 거래소, UTF 마켓, 시계열 (MarketSeries.writeCheckpoint) }, false
+     */
+    public void writeCheckpoint(DataOutputStream out) throws IOException {
+        for (int id = 0; id < buffers.capacity(); id++) {
+            MarketSeries series = buffers.get(id);
+            if (series == null) {
+                continue;
+            }
+            SymbolRegistry.SymbolInfo info = symbolRegistry.info(id);
+            out.writeBoolean(true);
+            out.writeUTF(info.getExchangeId());
+            out.writeUTF(info.getMarketCode());
+            series.writeCheckpoint(out);
+        }
+        out.writeBoolean(false);
+    }
+
+    /**
+     * ⭐ [체크포인트] 저장된 시계열 복원 (보관 기간이 지난 블록/스냅샷은 건너뜀)
+     * @return 복원한 스냅샷 수
+     */
+    public int readCheckpoint(DataInputStream in) throws IOException {
+        long cutoff = Instant.now().minus(RETENTION).toEpochMilli();
+        int restored = 0;
+        while (in.readBoolean()) {
+            String exchangeId = in.readUTF();
+            String marketCode = in.readUTF();
+            restored += getOrCreateSeries(symbolRegistry.idOf(exchangeId, marketCode)).readCheckpoint(in, cutoff);
         }
-        return marketBuffers.get(MarketCode);
+        System.out.println("♻️ 스냅샷 버퍼 복원 완료: " + restored + "개 스냅샷");
+        return restored;
     }
 
     /*버퍼 상태 조회(디버깅용)*/  //20251028 나중에 로직확인
     public Map<String, Object> getBufferStatus() {
         Map<String, Object> status = new HashMap<>();
-        int totalSnapshots = 0;
+        long hotSnapshots = 0;
+        long sealedSnapshots = 0;
+        long sealedBytes = 0;
+        int sealedBlocks = 0;
         int totalMarkets = 0;
+        Set<String> exchanges = new HashSet<>();
 
-        for (Map.Entry<String, Map<String, ConcurrentSkipListMap<Instant, TickerSnapshot>>> exchangeEntry : buffers.entrySet()) {
-            String exchangId = exchangeEntry.getKey();
-            Map<String, ConcurrentSkipListMap<Instant, TickerSnapshot>> marketBuffers = exchangeEntry.getValue();
-
-            totalMarkets += marketBuffers.size();
-
-            for (ConcurrentSkipListMap<Instant, TickerSnapshot> buffer : marketBuffers.values()) {
-                totalSnapshots += buffer.size();
+        for (int id = 0; id < buffers.capacity(); id++) {
+            MarketSeries series = buffers.get(id);
+            if (series == null) {
+                continue;
             }
+            totalMarkets++;
+            exchanges.add(symbolRegistry.info(id).getExchangeId());
+            hotSnapshots += series.hotSize();
+            sealedSnapshots += series.sealedPoints();
+            sealedBytes += series.sealedBytes();
+            sealedBlocks += series.blockCount();
         }
 
-        status.put("totalExchange", buffers.size());
+        status.put("totalExchange", exchanges.size());
         status.put("totalMarkets", totalMarkets);
-        status.put("totalSnapshots", totalSnapshots);
+        status.put("totalSnapshots", hotSnapshots + sealedSnapshots);
+        status.put("hotSnapshots", hotSnapshots);
+        status.put("sealedSnapshots", sealedSnapshots);
+        status.put("sealedBlocks", sealedBlocks);
+        status.put("sealedBytes", sealedBytes);
+        status.put("bytesPerSealedSnapshot", sealedSnapshots > 0 ? (double) sealedBytes / sealedSnapshots : 0.0);
+        status.put("decodedCacheBlocks", decodedCache.size());
+        status.put("decodedCacheHits", decodedCache.getHits());
+        status.put("decodedCacheMisses", decodedCache.getMisses());
+        status.put("allowedLatenessMs", allowedLatenessMillis);
+        status.put("lateInserted", lateInserted.sum());
+        status.put("lateMerged", lateMerged.sum());
+        status.put("lateDropped", lateDropped.sum());
+        status.put("lastDelayMs", lastDelayMillis);
+        status.put("maxDelayMs", maxDelayMillis);
+        status.put("clockSkewMs", clockSkewMillis);
 
         return status;
 
@@ -0,0 +1,73 @@
+package coinalarm.Coin_Alarm.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ⭐ [신규 추가] 비트 단위 읽기 (BitWriter의 짝)
+ *
+ * - ByteBuffer의 [offset, offset + length) 구간을 절대 위치로 읽음
+ *   → 메모리 매핑된 파일 버퍼를 복사 없이 바로 디코딩 (position 변경 없음, 여러 스레드가 같은 버퍼 공유 가능)
+ */
+public final class BitReader {
+
+  private final ByteBuffer buffer;
+  private final int offset;
+  private final long limitBits;
+  private long bitPosition;
+
+  public BitReader(ByteBuffer buffer, int offset, int length) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.limitBits = (long) length << 3;
+  }
+
+  public BitReader(byte[] bytes) {
+    this(ByteBuffer.wrap(bytes), 0, bytes.length);
+  }
+
+  public boolean readBit() {
+    checkRemaining(1);
+    int index = offset + (int) (bitPosition >>> 3);
+    boolean bit = (buffer.get(index) & (0x80 >>> (bitPosition & 7))) != 0;
+    bitPosition++;
+    return bit;
+  }
+
+  //상위 비트부터 bits개를 읽어 long 하위 비트로 반환 (0~64)
+  public long readBits(int bits) {
+    checkRemaining(bits);
+    long value = 0;
+    for (int remaining = bits; remaining > 0; ) {
+      int index = offset + (int) (bitPosition >>> 3);
+      int availableInByte = 8 - (int) (bitPosition & 7);
+      int take = Math.min(availableInByte, remaining);
+      int chunk = (buffer.get(index) >>> (availableInByte - take)) & ((1 << take) - 1);
+      value = (value << take) | chunk;
+      bitPosition += take;
+      remaining -= take;
+    }
+    return value;
+  }
+
+  public long readVarLong() {
+    long zigzag = 0;
+    int shift = 0;
+    long b;
+    do {
+      b = readBits(8);
+      zigzag |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0 && shift < 70);
+    return (zigzag >>> 1) ^ -(zigzag & 1);
+  }
+
+  public boolean hasRemaining() {
+    return bitPosition < limitBits;
+  }
+
+  private void checkRemaining(int bits) {
+    if (bitPosition + bits > limitBits) {
+      throw new IllegalStateException("비트 스트림 범위 초과: " + (bitPosition + bits) + " > " + limitBits);
+    }
+  }
+}
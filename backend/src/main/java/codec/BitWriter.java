@@ -0,0 +1,89 @@
+package coinalarm.Coin_Alarm.codec;
+
+import java.util.Arrays;
+
+/**
+ * ⭐ [신규 추가] 비트 단위 쓰기 버퍼
+ *
+ * - Gorilla 압축(XOR 실수, delta-of-delta 시각)처럼 1~64비트 단위로 쓰는 인코더용
+ * - 내부는 byte[] 하나 (필요할 때만 2배로 증가), 빅엔디언 비트 순서
+ * - reset() 후 재사용 가능 → 블록마다 새로 할당하지 않음
+ */
+public final class BitWriter {
+
+  private byte[] bytes;
+  private long bitLength;
+
+  public BitWriter() {
+    this(256);
+  }
+
+  public BitWriter(int initialBytes) {
+    this.bytes = new byte[Math.max(8, initialBytes)];
+  }
+
+  public void writeBit(boolean bit) {
+    ensureCapacity(bitLength + 1);
+    if (bit) {
+      int index = (int) (bitLength >>> 3);
+      bytes[index] |= (byte) (0x80 >>> (bitLength & 7));
+    }
+    bitLength++;
+  }
+
+  /**
+   * value의 하위 bits개 비트를 상위 비트부터 기록
+   *
+   * @param bits 0~64
+   */
+  public void writeBits(long value, int bits) {
+    if (bits <= 0) {
+      return;
+    }
+    ensureCapacity(bitLength + bits);
+    for (int remaining = bits; remaining > 0; ) {
+      int index = (int) (bitLength >>> 3);
+      int freeInByte = 8 - (int) (bitLength & 7);
+      int take = Math.min(freeInByte, remaining);
+      int chunk = (int) ((value >>> (remaining - take)) & ((1 << take) - 1));
+      bytes[index] |= (byte) (chunk << (freeInByte - take));
+      bitLength += take;
+      remaining -= take;
+    }
+  }
+
+  //부호 있는 정수를 zigzag 변환 후 7비트 단위 가변 길이로 기록 (작은 값일수록 짧음)
+  public void writeVarLong(long value) {
+    long zigzag = (value << 1) ^ (value >> 63);
+    while ((zigzag & ~0x7FL) != 0) {
+      writeBits((zigzag & 0x7F) | 0x80, 8);
+      zigzag >>>= 7;
+    }
+    writeBits(zigzag, 8);
+  }
+
+  public long bitLength() {
+    return bitLength;
+  }
+
+  public int byteLength() {
+    return (int) ((bitLength + 7) >>> 3);
+  }
+
+  //기록된 바이트만 복사해서 반환
+  public byte[] toByteArray() {
+    return Arrays.copyOf(bytes, byteLength());
+  }
+
+  public void reset() {
+    Arrays.fill(bytes, 0, byteLength(), (byte) 0);
+    bitLength = 0;
+  }
+
+  private void ensureCapacity(long bits) {
+    long needed = (bits + 7) >>> 3;
+    if (needed > bytes.length) {
+      bytes = Arrays.copyOf(bytes, (int) Math.max(needed, (long) bytes.length * 2));
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package coinalarm.Coin_Alarm.codec;
+
+/**
+ * ⭐ [신규 추가] Gorilla 방식 시계열 압축 (Facebook Gorilla TSDB 논문 방식)
+ *
+ * 1. 실수(double): 직전 값과 XOR → 같으면 1비트, 다르면 의미 있는 비트 구간만 기록
+ *    - 가격/거래량처럼 인접 값이 비슷한 시계열은 값당 평균 수 비트~20비트 내외로 압축
+ * 2. 시각(long): delta-of-delta → 간격이 일정하면(1분봉, 정기 스냅샷) 값당 1비트
+ *
+ * 사용법:
+ * - 인코더/디코더 객체는 블록 하나에 대응 (블록마다 새로 만들거나 reset)
+ * - 같은 순서로 encode/decode 해야 함 (상태가 직전 값에 의존)
+ */
+public final class GorillaCodec {
+
+  private GorillaCodec() {
+  }
+
+  //XOR 실수 인코더
+  public static final class DoubleEncoder {
+    private long previous;
+    private int previousLeading = -1;
+    private int previousTrailing;
+    private boolean first = true;
+
+    public void encode(BitWriter out, double value) {
+      long bits = Double.doubleToRawLongBits(value);
+      if (first) {
+        out.writeBits(bits, 64);
+        previous = bits;
+        first = false;
+        return;
+      }
+      long xor = bits ^ previous;
+      previous = bits;
+      if (xor == 0) {
+        out.writeBit(false);
+        return;
+      }
+      out.writeBit(true);
+      int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+      int trailing = Long.numberOfTrailingZeros(xor);
+      if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+        //직전 구간 안에 들어가면 구간 정보 생략
+        out.writeBit(false);
+        out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+      } else {
+        int significant = 64 - leading - trailing;
+        out.writeBit(true);
+        out.writeBits(leading, 5);
+        out.writeBits(significant == 64 ? 0 : significant, 6); //64는 0으로 기록
+        out.writeBits(xor >>> trailing, significant);
+        previousLeading = leading;
+        previousTrailing = trailing;
+      }
+    }
+  }
+
+  //XOR 실수 디코더
+  public static final class DoubleDecoder {
+    private long previous;
+    private int previousLeading;
+    private int previousTrailing;
+    private boolean first = true;
+
+    public double decode(BitReader in) {
+      if (first) {
+        previous = in.readBits(64);
+        first = false;
+        return Double.longBitsToDouble(previous);
+      }
+      if (!in.readBit()) {
+        return Double.longBitsToDouble(previous);
+      }
+      if (in.readBit()) {
+        previousLeading = (int) in.readBits(5);
+        int significant = (int) in.readBits(6);
+        if (significant == 0) {
+          significant = 64;
+        }
+        previousTrailing = 64 - previousLeading - significant;
+      }
+      int significant = 64 - previousLeading - previousTrailing;
+      long xor = in.readBits(significant) << previousTrailing;
+      previous ^= xor;
+      return Double.longBitsToDouble(previous);
+    }
+  }
+
+  /**
+   * delta-of-delta 시각 인코더
+   * - 첫 값: 가변 길이 원본, 두 번째: 가변 길이 delta
+   * - 이후 dod 크기별: '0' / '10'+7비트 / '110'+9비트 / '1110'+12비트 / '1111'+가변 길이
+   */
+  public static final class TimestampEncoder {
+    private long previous;
+    private long previousDelta;
+    private int count;
+
+    public void encode(BitWriter out, long value) {
+      if (count == 0) {
+        out.writeVarLong(value);
+      } else if (count == 1) {
+        previousDelta = value - previous;
+        out.writeVarLong(previousDelta);
+      } else {
+        long delta = value - previous;
+        long dod = delta - previousDelta;
+        if (dod == 0) {
+          out.writeBit(false);
+        } else if (dod >= -64 && dod <= 63) {
+          out.writeBits(0b10, 2);
+          out.writeBits(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+          out.writeBits(0b110, 3);
+          out.writeBits(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+          out.writeBits(0b1110, 4);
+          out.writeBits(dod, 12);
+        } else {
+          out.writeBits(0b1111, 4);
+          out.writeVarLong(dod);
+        }
+        previousDelta = delta;
+      }
+      previous = value;
+      count++;
+    }
+  }
+
+  //delta-of-delta 시각 디코더
+  public static final class TimestampDecoder {
+    private long previous;
+    private long previousDelta;
+    private int count;
+
+    public long decode(BitReader in) {
+      long value;
+      if (count == 0) {
+        value = in.readVarLong();
+      } else if (count == 1) {
+        previousDelta = in.readVarLong();
+        value = previous + previousDelta;
+      } else {
+        long dod;
+        if (!in.readBit()) {
+          dod = 0;
+        } else if (!in.readBit()) {
+          dod = signExtend(in.readBits(7), 7);
+        } else if (!in.readBit()) {
+          dod = signExtend(in.readBits(9), 9);
+        } else if (!in.readBit()) {
+          dod = signExtend(in.readBits(12), 12);
+        } else {
+          dod = in.readVarLong();
+        }
+        previousDelta += dod;
+        value = previous + previousDelta;
+      }
+      previous = value;
+      count++;
+      return value;
+    }
+
+    private static long signExtend(long value, int bits) {
+      return (value << (64 - bits)) >> (64 - bits);
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package coinalarm.Coin_Alarm.codec;
+
+/**
+ * ⭐ [신규 추가] 할당 없는 JSON 필드 스캐너 (CharSequence 기반)
+ *
+ * 목적: 초당 수천 건의 스트림 메시지에서 필요한 필드 몇 개만 꺼낼 때
+ *       ObjectMapper로 전체 객체를 만들지 않고 원문에서 바로 숫자를 읽음
+ *
+ * 전제 (거래소 스트림 메시지 기준):
+ * - 키에 이스케이프 문자가 없음, 찾는 키가 원문에 한 번만 나옴 (중첩 객체의 같은 키는 from으로 범위를 좁혀서 회피)
+ * - 숫자는 "123.45" 처럼 따옴표로 감싸져 있어도 됨
+ *
+ * 반환 규칙: 위치를 돌려주는 메서드는 못 찾으면 -1
+ */
+public final class JsonScanner {
+
+  //10^0 ~ 10^22: double로 정확히 표현되는 10의 거듭제곱 (빠른 경로 나눗셈이 정확히 반올림되는 범위)
+  private static final double[] POWERS_OF_TEN = {
+          1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+          1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  private JsonScanner() {
+  }
+
+  /**
+   * "key": 다음 값의 시작 위치 (공백 건너뜀, 따옴표가 있으면 따옴표 위치)
+   */
+  public static int valueIndex(CharSequence json, int from, String key) {
+    int keyLength = key.length();
+    int last = json.length() - keyLength - 3; // "key": 최소 길이
+    for (int i = Math.max(0, from); i <= last; i++) {
+      if (json.charAt(i) != '"' || json.charAt(i + keyLength + 1) != '"') {
+        continue;
+      }
+      if (!regionMatches(json, i + 1, key)) {
+        continue;
+      }
+      int pos = skipWhitespace(json, i + keyLength + 2);
+      if (pos < json.length() && json.charAt(pos) == ':') {
+        return skipWhitespace(json, pos + 1);
+      }
+    }
+    return -1;
+  }
+
+  //문자열 값의 내용 시작 위치 (여는 따옴표 다음), 문자열이 아니면 -1
+  public static int stringStart(CharSequence json, int valueIndex) {
+    if (valueIndex < 0 || valueIndex >= json.length() || json.charAt(valueIndex) != '"') {
+      return -1;
+    }
+    return valueIndex + 1;
+  }
+
+  //문자열 값의 끝 위치 (닫는 따옴표 위치, 미포함 끝)
+  public static int stringEnd(CharSequence json, int stringStart) {
+    for (int i = stringStart; i < json.length(); i++) {
+      if (json.charAt(i) == '"') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  //json[start, end)가 text와 같은지
+  public static boolean regionEquals(CharSequence json, int start, int end, String text) {
+    return end - start == text.length() && regionMatches(json, start, text);
+  }
+
+  /**
+   * 정수 값 읽기 (따옴표 허용), 숫자가 아니면 fallback
+   */
+  public static long parseLong(CharSequence json, int valueIndex, long fallback) {
+    if (valueIndex < 0) {
+      return fallback;
+    }
+    int i = valueIndex;
+    int length = json.length();
+    if (i < length && json.charAt(i) == '"') {
+      i++;
+    }
+    boolean negative = false;
+    if (i < length && json.charAt(i) == '-') {
+      negative = true;
+      i++;
+    }
+    long value = 0;
+    int digits = 0;
+    while (i < length) {
+      char c = json.charAt(i);
+      if (c < '0' || c > '9') {
+        break;
+      }
+      value = value * 10 + (c - '0');
+      digits++;
+      i++;
+    }
+    if (digits == 0) {
+      return fallback;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * 실수 값 읽기 (따옴표 허용)
+   * 빠른 경로: 가수 ≤ 2^53, 소수 자릿수 ≤ 22, 지수 표기 없음 → 가수 / 10^n (정확히 반올림, 할당 없음)
+   * 그 외(아주 긴 소수, 지수 표기)는 Double.parseDouble로 위임
+   */
+  public static double parseDouble(CharSequence json, int valueIndex, double fallback) {
+    if (valueIndex < 0) {
+      return fallback;
+    }
+    int start = valueIndex;
+    int length = json.length();
+    if (start < length && json.charAt(start) == '"') {
+      start++;
+    }
+    int i = start;
+    boolean negative = false;
+    if (i < length && json.charAt(i) == '-') {
+      negative = true;
+      i++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int scale = 0;
+    boolean fraction = false;
+    boolean exact = true;
+    while (i < length) {
+      char c = json.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (mantissa < MAX_EXACT_MANTISSA / 10) {
+          mantissa = mantissa * 10 + (c - '0');
+          if (fraction) {
+            scale++;
+          }
+        } else if (c != '0' || !fraction) {
+          exact = false; // 유효 자릿수 초과 (소수부의 뒤쪽 0은 무시해도 값이 같음)
+        }
+        digits++;
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else if (c == 'e' || c == 'E') {
+        exact = false;
+        i++;
+        while (i < length && "+-0123456789".indexOf(json.charAt(i)) >= 0) {
+          i++;
+        }
+        break;
+      } else {
+        break;
+      }
+      i++;
+    }
+    if (digits == 0) {
+      return fallback;
+    }
+    if (exact && scale < POWERS_OF_TEN.length) {
+      double value = mantissa / POWERS_OF_TEN[scale];
+      return negative ? -value : value;
+    }
+    try {
+      return Double.parseDouble(json.subSequence(start, i).toString());
+    } catch (NumberFormatException e) {
+      return fallback;
+    }
+  }
+
+  //true/false 값 읽기
+  public static boolean parseBoolean(CharSequence json, int valueIndex, boolean fallback) {
+    if (valueIndex < 0 || valueIndex >= json.length()) {
+      return fallback;
+    }
+    char c = json.charAt(valueIndex);
+    if (c == 't') {
+      return true;
+    }
+    if (c == 'f') {
+      return false;
+    }
+    return fallback;
+  }
+
+  private static boolean regionMatches(CharSequence json, int offset, String text) {
+    for (int k = 0; k < text.length(); k++) {
+      if (json.charAt(offset + k) != text.charAt(k)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int skipWhitespace(CharSequence json, int pos) {
+    while (pos < json.length()) {
+      char c = json.charAt(pos);
+      if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+        break;
+      }
+      pos++;
+    }
+    return pos;
+  }
+}
@@ -1,10 +1,10 @@
 package coinalarm.Coin_Alarm.coin;
 
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.NoArgsConstructor; // JPA 필요: 인자 없는 기본 생성자 자동 생성
 import lombok.Setter;
@@ -28,8 +28,11 @@ public class Coin {
   private String priceChange; // 가격 변동률 (예: "+2.3%") - CoinService의 "+2.3%" 위치
   private Long tradeVolume; // 거래량 - CoinService의 20_000_000_000L 위치
 
-  @ElementCollection // 컬렉션 타입 필드를 엔티티에 매핑 (알람 메시지 리스트)
-  private List<String> alarm; // 알람 메시지 리스트 - CoinService의 List.of(...) 위치
+  // ⭐ [변경] @ElementCollection → @Transient
+  // 컬렉션 매핑은 변경 시 전체 삭제/재삽입 + findAll() 때 N+1 조회를 일으킴
+  // 알람 이력은 alarm_event 테이블(AlarmEvent, append-only)에 저장하고, Coin 조회 경로에서는 로드하지 않음
+  @Transient
+  private List<String> alarm; // 알람 메시지 리스트 - CoinService의 List.of(...) 위치 (DB 미저장)
 
   // *** [추가] symbol 필드 (DB 저장용) ***
   private String symbol; // <-- [새롭게 추가] 코인 심볼 (예: KRW-BTC) - 나중에 CoinService의 saveInitialCoins()에 추가할 예정
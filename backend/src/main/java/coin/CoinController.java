@@ -17,7 +17,10 @@ import java.util.stream.Collectors;
 
 
 
+import coinalarm.Coin_Alarm.alarm.AlarmEvent;
+import coinalarm.Coin_Alarm.alarm.AlarmEventDao;
 import coinalarm.Coin_Alarm.alarm.AlarmThresholdManager;
+import coinalarm.Coin_Alarm.alarm.ThresholdAutoTuner;
 import coinalarm.Coin_Alarm.exchange.MarketCapTier;
 import coinalarm.Coin_Alarm.market.IntegratedMarketDataService;
 import org.springframework.http.ResponseEntity;
@@ -53,16 +56,22 @@ public class CoinController {
 
 //  private final CoinService coinService; //DEL 인터페이스 수정으로 인한 코드 전체 수정 및 삭제
 
-  private final IntergratedMarketDataService marketDataService;
+  private final IntegratedMarketDataService marketDataService;
   private final AlarmThresholdManager alarmManager;
+  private final AlarmEventDao alarmEventDao;
+  private final ThresholdAutoTuner thresholdAutoTuner;
 
   @Autowired
   public CoinController(
-          IntergratedMarketDataService marketDataService,
-          AlarmThresholdManager alarmManager
+          IntegratedMarketDataService marketDataService,
+          AlarmThresholdManager alarmManager,
+          AlarmEventDao alarmEventDao,
+          ThresholdAutoTuner thresholdAutoTuner
   ){
         this.marketDataService = marketDataService;
         this.alarmManager = alarmManager;
+        this.alarmEventDao = alarmEventDao;
+        this.thresholdAutoTuner = thresholdAutoTuner;
   }
 
   // ============================================================================
@@ -138,7 +147,7 @@ public class CoinController {
           @PathVariable MarketCapTier tier,
           @RequestParam Double value
   ) {
-    alarmManager.setThreshold(tier, value);
+    alarmManager.setDefaultThreshold(tier, value);
 
     Map<String, Object> response = new HashMap<>();
     response.put("success", true);
@@ -168,25 +177,68 @@ public class CoinController {
     return ResponseEntity.ok(response);
   }
 
-  // ============================================================================
-  // 시스템 상태 API
-  // ============================================================================
+  /**
+   * ⭐ [신규] 자동 튜닝 임계값 조회 (키: "거래소:마켓")
+   * GET /api/alarm/tuned
+   */
+  @GetMapping("/alarm/tuned")
+  public ResponseEntity<Map<String, Object>> getTunedThresholds() {
+    Map<String, Object> response = new HashMap<>();
+    response.put("thresholds", alarmManager.getTunedThresholds());
+    response.put("tuner", thresholdAutoTuner.getStats());
+
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * ⭐ [신규] 자동 튜닝 즉시 실행
+   * POST /api/alarm/tuned/run
+   */
+  @PostMapping("/alarm/tuned/run")
+  public ResponseEntity<Map<String, Object>> runThresholdTuning() {
+    int tuned = thresholdAutoTuner.tune();
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("success", true);
+    response.put("tunedMarkets", tuned);
+
+    return ResponseEntity.ok(response);
+  }
 
   /**
-   * ⭐ 시스템 상태 조회
-   * GET /api/system/status
+   * ⭐ [신규] 알람 이력 조회 (최신순, keyset 페이지네이션)
+   * GET /api/alarm/history?symbol=KRW-BTC&limit=50
+   * 다음 페이지: 응답의 nextBeforeTime / nextBeforeId를 beforeTime / beforeId로 전달
    */
+  @GetMapping("/alarm/history")
+  public ResponseEntity<Map<String, Object>> getAlarmHistory(
+          @RequestParam String symbol,
+          @RequestParam(required = false) Long beforeTime,
+          @RequestParam(required = false) Long beforeId,
+          @RequestParam(defaultValue = "50") int limit
+  ) {
+    int pageSize = Math.max(1, Math.min(limit, 500));
+    List<AlarmEvent> events = alarmEventDao.findBySymbolBefore(symbol, beforeTime, beforeId, pageSize);
 
-  @GetMapping("/system/status")
-  public ResponseEntity<Map<String, Object>> getSystemStatus() {
-    // TODO: MultiTieredSnapshotBuffer의 상태 조회 메서드 호출
-    Map<String, Object> status = new HashMap<>();
-    status.put("status", "running");
-    status.put("message", "시스템 정상 작동 중");
+    Map<String, Object> response = new HashMap<>();
+    response.put("symbol", symbol);
+    response.put("events", events);
+    if (events.size() == pageSize) {
+      AlarmEvent last = events.get(events.size() - 1);
+      response.put("nextBeforeTime", last.getEventTime());
+      response.put("nextBeforeId", last.getId());
+    }
 
-    return ResponseEntity.ok(status);
+    return ResponseEntity.ok(response);
   }
 
+  // ============================================================================
+  // 시스템 상태 API
+  // ============================================================================
+
+  //⭐ [변경] GET /api/system/status 는 MarketDataController에서 거래소별 격벽 상태로 응답
+  //  (같은 경로를 두 컨트롤러가 매핑하면 컨텍스트 기동 실패)
+
   //20251103 DEL STR
 //
 //  /**
@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString; // <-- Lombok @ToString 어노테이션을 위해 필요합니다.
 
+import java.util.Map;
+
 /**
  * 프론트엔드(App.tsx)로 전송될 코인 데이터 응답 객체
  * MarketDataService에서 WebSocket을 통해 전송되는 데이터의 포맷을 정의합니다.
@@ -31,6 +33,15 @@ public class CoinResponseDto {
   private Double volume15m;   // 15분봉 거래대금 - App.tsx의 volume15m
   private Double volume1h;    // 1시간봉 거래대금 - App.tsx의 volume1h
 
+  // 시간대별 상대 거래대금 (RVOL): 1.0 = 평소 이 시간대 수준, 3.0 = 평소의 3배 (기준값 부족 시 0)
+  private Double rvol1m;      // 1분 거래대금 / 해당 시간대 평소 1분 거래대금
+  private Double rvol5m;      // 5분 거래대금 / 해당 시간대 평소 5분 거래대금
+
+  // ⭐ [신규 추가] 거래소 통합 거래대금 (같은 기초 자산의 모든 거래소 합계, 원화 환산, 없으면 0)
+  private Double consolidatedVolume1m;
+  private Double consolidatedVolume5m;
+  private Double consolidatedVolume1h;
+
   // Upbit Ticker API의 acc_trade_price_24h 필드와 매핑되며,
   // 프론트엔드 App.tsx에서는 'volume24h'로 사용됩니다.
   private Double accTradePrice24h; // 24시간 누적 거래대금 //20251030 추후 확인후 수정필요성 
@@ -41,10 +52,16 @@ public class CoinResponseDto {
   private Double change5m;             // 5분 가격 변화율 (%)
   private Double change24h;            // 24시간 가격 변화율 (%)
 
-//20251030 일단 주석처리
-  // 매수/매도 거래대금 (MarketDataService에서 계산되나 현재는 0으로 전달될 수 있음)
-//  private Double buyVolume;
-//  private Double sellVolume;
+  // ⭐ [변경] 매수/매도 체결 거래대금 (1분, 체결 메시지 ask_bid 기준 테이커 방향) - 기존 24h 절반 값 대체
+  private Double buyVolume;
+  private Double sellVolume;
+
+  // ⭐ [신규 추가] 창별 체결 방향 흐름 ("1m", "5m", "15m", "1h" → 매수/매도 거래대금, 체결 건수)
+  private Map<String, TradeFlowDto> tradeFlow;
+
+  // ⭐ [신규 추가] 호가 지표 (호가 구독 중인 마켓만, 아니면 null)
+  private Double spreadBps;            // (최우선 매도 - 최우선 매수) / 중간가, bp
+  private Double orderBookImbalance;   // 중간가 ±depth-pct% 이내 (매수 - 매도) / (매수 + 매도) 잔량 금액
 
   // Upbit Ticker API의 trade_timestamp 또는 데이터 발생 시점의 타임스탬프 (밀리초)
   private Long timestamp;
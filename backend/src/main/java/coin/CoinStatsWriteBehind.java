@@ -0,0 +1,252 @@
+package coinalarm.Coin_Alarm.coin;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] Coin 통계 write-behind 저장기
+ *
+ * 목적: coin 테이블의 marketCap / priceChange / tradeVolume을 실시간 값으로 유지하되,
+ *       틱마다 CoinDaoImpl.save(persist/merge)를 호출하지 않음
+ *
+ * 동작:
+ * 1. record(): 심볼별 최신 값만 메모리에 덮어씀 (같은 심볼의 틱 1000개 → 행 1개)
+ * 2. 일정 주기마다 변경된(dirty) 심볼만 모아 JDBC batch UPDATE 한 번으로 반영
+ * 3. dirty 개수에 상한 → 상한을 넘는 새 심볼은 버리고 카운트만 남김 (기존 심볼은 계속 덮어씀)
+ * 4. 저장 실패 시 다음 주기에 재시도 (그 사이 들어온 더 최신 값이 있으면 필드별로 그 값을 우선, 없는 필드는 실패분으로 채움)
+ *
+ * 동시성: flush가 떼어낸 항목은 detached 표시 → 그 뒤에 도착한 record는 새 항목에 다시 기록 (값 유실 없음)
+ *
+ * 비용: DB 쓰기는 "주기당 배치 1회 + 심볼 수만큼의 행"으로 고정 (틱 수와 무관)
+ */
+@Component
+public class CoinStatsWriteBehind {
+
+  private static final Logger log = LoggerFactory.getLogger(CoinStatsWriteBehind.class);
+
+  //값이 없는 필드는 COALESCE로 기존 값 유지
+  private static final String UPDATE_SQL =
+          "UPDATE coin SET market_cap = COALESCE(?, market_cap), "
+                  + "price_change = COALESCE(?, price_change), "
+                  + "trade_volume = COALESCE(?, trade_volume) "
+                  + "WHERE symbol = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int maxDirty;
+
+  //심볼별 아직 저장되지 않은 최신 값
+  private final ConcurrentHashMap<String, PendingStats> dirty = new ConcurrentHashMap<>();
+
+  // --- 통계 ---
+  private final AtomicLong recordedUpdates = new AtomicLong();
+  private final AtomicLong droppedUpdates = new AtomicLong();
+  private final AtomicLong flushedRows = new AtomicLong();
+  private final AtomicLong unmatchedRows = new AtomicLong();
+  private final AtomicLong flushCount = new AtomicLong();
+  private final AtomicLong failedFlushes = new AtomicLong();
+  private volatile long lastFlushMillis;
+  private volatile long maxFlushMillis;
+  private volatile double avgFlushMillis;
+  private volatile int lastBatchSize;
+
+  public CoinStatsWriteBehind(JdbcTemplate jdbcTemplate,
+                              @Value("${coinalarm.coin-stats.max-dirty:5000}") int maxDirty) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.maxDirty = maxDirty;
+  }
+
+  /**
+   * 가격 변동률 / 24시간 거래대금 기록 (틱마다 호출해도 됨)
+   *
+   * @param changeRate 전일 대비 변동률 (0.023 = +2.3%)
+   */
+  public void recordTicker(String symbol, double changeRate, double tradeVolume) {
+    recordedUpdates.incrementAndGet();
+    while (true) {
+      PendingStats stats = pendingFor(symbol);
+      if (stats == null) {
+        return;
+      }
+      synchronized (stats) {
+        if (!stats.detached) {
+          stats.changeRate = changeRate;
+          stats.tradeVolume = (long) tradeVolume;
+          return;
+        }
+      }
+      //flush가 막 떼어낸 항목 → 새 항목으로 다시
+    }
+  }
+
+  //시가총액 기록
+  public void recordMarketCap(String symbol, double marketCap) {
+    recordedUpdates.incrementAndGet();
+    while (true) {
+      PendingStats stats = pendingFor(symbol);
+      if (stats == null) {
+        return;
+      }
+      synchronized (stats) {
+        if (!stats.detached) {
+          stats.marketCap = (long) marketCap;
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * ⭐ [핵심] dirty 심볼 일괄 저장
+   * 저장 대상을 맵에서 먼저 떼어낸 뒤 쓰기 → 쓰는 동안 들어온 값은 다음 주기에 반영
+   * 떼어낸 항목은 잠금 안에서 detached 표시 + 값 복사 → 표시 전에 쓴 값은 이번 배치, 후에 쓴 값은 새 항목
+   */
+  @Scheduled(fixedDelayString = "${coinalarm.coin-stats.flush-interval-ms:5000}")
+  public void flush() {
+    if (dirty.isEmpty()) {
+      return;
+    }
+    List<String> symbols = new ArrayList<>(dirty.size());
+    List<Object[]> batch = new ArrayList<>(dirty.size());
+    List<PendingStats> taken = new ArrayList<>(dirty.size());
+    for (String symbol : dirty.keySet()) {
+      PendingStats stats = dirty.remove(symbol);
+      if (stats == null) {
+        continue;
+      }
+      synchronized (stats) {
+        stats.detached = true;
+        batch.add(new Object[]{
+                stats.marketCap != PendingStats.NONE ? stats.marketCap : null,
+                !Double.isNaN(stats.changeRate) ? String.format("%+.2f%%", stats.changeRate * 100) : null,
+                stats.tradeVolume != PendingStats.NONE ? stats.tradeVolume : null,
+                symbol
+        });
+      }
+      symbols.add(symbol);
+      taken.add(stats);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    long started = System.nanoTime();
+    try {
+      int[] results = jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+      long elapsed = (System.nanoTime() - started) / 1_000_000;
+      int unmatched = 0;
+      for (int result : results) {
+        if (result == 0) {
+          unmatched++; //coin 테이블에 없는 심볼
+        }
+      }
+      recordFlush(elapsed, batch.size(), unmatched);
+      log.debug("💾 Coin 통계 저장: {}행 ({}ms, 미등록 심볼 {}개)", batch.size(), elapsed, unmatched);
+    } catch (RuntimeException e) {
+      failedFlushes.incrementAndGet();
+      //실패분은 되돌려 놓되, 그 사이 더 최신 값이 들어온 필드는 그 값을 유지 (필드 단위 병합)
+      for (int i = 0; i < symbols.size(); i++) {
+        dirty.merge(symbols.get(i), taken.get(i).copy(), PendingStats::fillMissingFrom);
+      }
+      log.error("❌ Coin 통계 저장 실패 ({}행, 다음 주기에 재시도): {}", batch.size(), e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  //저장 상태 조회 (모니터링용)
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("dirtySymbols", dirty.size());
+    stats.put("maxDirty", maxDirty);
+    stats.put("recordedUpdates", recordedUpdates.get());
+    stats.put("droppedUpdates", droppedUpdates.get());
+    stats.put("flushCount", flushCount.get());
+    stats.put("flushedRows", flushedRows.get());
+    stats.put("unmatchedRows", unmatchedRows.get());
+    stats.put("failedFlushes", failedFlushes.get());
+    stats.put("lastBatchSize", lastBatchSize);
+    stats.put("lastFlushMillis", lastFlushMillis);
+    stats.put("avgFlushMillis", avgFlushMillis);
+    stats.put("maxFlushMillis", maxFlushMillis);
+    return stats;
+  }
+
+  //dirty 항목 조회/생성 (상한 초과 시 새 심볼은 null)
+  private PendingStats pendingFor(String symbol) {
+    PendingStats stats = dirty.get(symbol);
+    if (stats != null) {
+      return stats;
+    }
+    if (dirty.size() >= maxDirty) {
+      long dropped = droppedUpdates.incrementAndGet();
+      if (dropped % 1000 == 1) {
+        log.warn("⚠️ Coin 통계 dirty 상한({}) 초과, 누적 {}건 버림", maxDirty, dropped);
+      }
+      return null;
+    }
+    return dirty.computeIfAbsent(symbol, k -> new PendingStats());
+  }
+
+  private void recordFlush(long elapsedMillis, int rows, int unmatched) {
+    long flushes = flushCount.incrementAndGet();
+    flushedRows.addAndGet(rows);
+    unmatchedRows.addAndGet(unmatched);
+    lastBatchSize = rows;
+    lastFlushMillis = elapsedMillis;
+    maxFlushMillis = Math.max(maxFlushMillis, elapsedMillis);
+    //지수 이동평균 (처음 한 번은 그대로)
+    avgFlushMillis = (flushes == 1) ? elapsedMillis : avgFlushMillis + 0.1 * (elapsedMillis - avgFlushMillis);
+  }
+
+  //심볼 1개의 대기 중인 값 (NONE/NaN = 이번 주기에 값 없음 → DB 값 유지)
+  private static final class PendingStats {
+    private static final long NONE = Long.MIN_VALUE;
+    private long marketCap = NONE;
+    private double changeRate = Double.NaN;
+    private long tradeVolume = NONE;
+    private boolean detached; // flush가 맵에서 떼어냄 → 더 기록하지 않음
+
+    //재시도용 복사본 (detached 아님, 떼어낸 뒤에는 값이 바뀌지 않으므로 잠금 불필요)
+    private PendingStats copy() {
+      PendingStats copy = new PendingStats();
+      copy.marketCap = marketCap;
+      copy.changeRate = changeRate;
+      copy.tradeVolume = tradeVolume;
+      return copy;
+    }
+
+    //this(더 최신)에 값이 없는 필드만 failed 값으로 채움 (this가 이미 다른 flush에 떼어졌으면 failed로 교체)
+    private PendingStats fillMissingFrom(PendingStats failed) {
+      synchronized (this) {
+        if (detached) {
+          return failed;
+        }
+        if (marketCap == NONE) {
+          marketCap = failed.marketCap;
+        }
+        if (Double.isNaN(changeRate)) {
+          changeRate = failed.changeRate;
+        }
+        if (tradeVolume == NONE) {
+          tradeVolume = failed.tradeVolume;
+        }
+      }
+      return this;
+    }
+  }
+}
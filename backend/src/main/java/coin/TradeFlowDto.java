@@ -0,0 +1,21 @@
+package coinalarm.Coin_Alarm.coin;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ⭐ [신규 추가] 창 1개의 체결 방향 흐름 (CoinResponseDto.tradeFlow 값)
+ * 테이커 기준: 매수 = 매도 호가를 긁은 체결 (업비트 ask_bid = BID)
+ */
+@Getter
+@Builder
+@ToString
+public class TradeFlowDto {
+
+  private double buyVolume;   // 매수 체결 거래대금
+  private double sellVolume;  // 매도 체결 거래대금
+  private long buyTrades;     // 매수 체결 건수
+  private long sellTrades;    // 매도 체결 건수
+  private double buyRatio;    // 매수 / (매수 + 매도) 거래대금, 체결이 없으면 0.5
+}
@@ -0,0 +1,34 @@
+package coinalarm.Coin_Alarm.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * ⭐ [신규 추가] @Scheduled 작업용 스케줄러 (스레드 풀)
+ *
+ * 기본 스케줄러는 스레드 1개 → 느린 작업(REST 캔들 수집, 체크포인트 등)이
+ * 1초 푸시(pushLatestMarketDataToClients)까지 밀어냄
+ * → 풀로 바꿔서 작업끼리 서로 기다리지 않게 함 (같은 작업은 여전히 겹쳐 실행되지 않음)
+ */
+@Configuration
+public class SchedulingConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(SchedulingConfig.class);
+
+  //빈 이름 taskScheduler → @EnableScheduling이 이 스케줄러를 사용
+  @Bean
+  public ThreadPoolTaskScheduler taskScheduler(@Value("${coinalarm.scheduling.pool-size:4}") int poolSize) {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(poolSize);
+    scheduler.setThreadNamePrefix("coinalarm-sched-");
+    scheduler.setErrorHandler(error -> log.error("❌ 스케줄 작업 실패", error));
+    scheduler.setWaitForTasksToCompleteOnShutdown(true);
+    scheduler.setAwaitTerminationSeconds(10);
+    log.info("⏱️ 스케줄러 스레드 풀: {}개", poolSize);
+    return scheduler;
+  }
+}
@@ -1,4 +1,20 @@
-package exchange;
+package coinalarm.Coin_Alarm.exchange;
 
-public class CandleData {
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class CandleData{
+  //캔들데이터
+  private String marketCode;
+  private Instant timestamp;
+  private Double openPrice;
+  private Double closePrice;
+  private Double highPrice;
+  private Double lowPrice;
+  private Double accTradePrice;
+  private Double accTradeVolume;
 }
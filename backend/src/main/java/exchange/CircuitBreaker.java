@@ -0,0 +1,100 @@
+package coinalarm.Coin_Alarm.exchange;
+
+/**
+ * ⭐ [신규 추가] 거래소 REST 호출용 서킷 브레이커 (ExchangeBulkhead 안에서 사용)
+ *
+ * 상태:
+ * - CLOSED: 정상, 연속 실패가 failureThreshold에 닿으면 OPEN
+ * - OPEN: openMillis 동안 호출하지 않고 바로 실패 (느린/죽은 거래소에 스레드를 묶지 않음)
+ * - HALF_OPEN: openMillis가 지나면 시험 호출 1개만 허용 → 성공 CLOSED, 실패 다시 OPEN
+ *
+ * 호출 빈도가 낮아서(초당 수 회) 단순 synchronized로 충분
+ */
+public final class CircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final int failureThreshold;
+  private final long openMillis;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAtMillis;
+  private boolean trialInFlight;
+  private long totalFailures;
+  private long rejectedCalls;
+
+  public CircuitBreaker(int failureThreshold, long openMillis) {
+    this.failureThreshold = Math.max(1, failureThreshold);
+    this.openMillis = openMillis;
+  }
+
+  //호출해도 되는지 (false면 호출하지 말고 바로 실패 처리)
+  public synchronized boolean tryAcquire(long nowMillis) {
+    switch (state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (nowMillis - openedAtMillis < openMillis) {
+          rejectedCalls++;
+          return false;
+        }
+        state = State.HALF_OPEN;
+        trialInFlight = true;
+        return true;
+      default: // HALF_OPEN: 시험 호출 1개만
+        if (trialInFlight) {
+          rejectedCalls++;
+          return false;
+        }
+        trialInFlight = true;
+        return true;
+    }
+  }
+
+  public synchronized void onSuccess() {
+    state = State.CLOSED;
+    consecutiveFailures = 0;
+    trialInFlight = false;
+  }
+
+  public synchronized void onFailure(long nowMillis) {
+    totalFailures++;
+    consecutiveFailures++;
+    trialInFlight = false;
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAtMillis = nowMillis;
+    }
+  }
+
+  //결과 없이 취소된 호출 (HALF_OPEN 시험 호출이 취소되면 다음 호출에 기회를 줌)
+  public synchronized void onCancel() {
+    trialInFlight = false;
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  public synchronized int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+
+  public synchronized long getTotalFailures() {
+    return totalFailures;
+  }
+
+  public synchronized long getRejectedCalls() {
+    return rejectedCalls;
+  }
+
+  //OPEN 상태에서 호출을 거절할 때 돌려주는 예외
+  public static final class OpenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public OpenException(String name) {
+      super("서킷 브레이커 OPEN: " + name);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] 거래소 1개의 격벽 (스레드/큐/장애를 거래소끼리 분리)
+ *
+ * - 스트림: 거래소 전용 스레드 1개 + 고정 크기 큐 (publishOn 프리페치만큼만 요청)
+ *   → 한 거래소 처리가 밀려도 다른 거래소 틱은 자기 스레드에서 그대로 처리
+ *   → 밀린 동안은 요청이 끊기므로 ExchangeClient 스트림이 마켓별 최신 틱으로 병합 (큐는 늘지 않음)
+ * - REST: 거래소 전용 bounded-elastic (스레드/대기 작업 상한) + 타임아웃 + 서킷 브레이커
+ *   → 느린 REST 응답이 스케줄러 스레드나 다른 거래소 호출을 붙잡지 않음
+ * - 상태: 마지막 틱 시각, 처리한 틱 수, 스트림 에러, 브레이커 상태 → /api/system/status
+ *
+ * 생성은 ExchangeBulkheads가 거래소마다 한 번
+ */
+public final class ExchangeBulkhead {
+
+  private static final Logger log = LoggerFactory.getLogger(ExchangeBulkhead.class);
+
+  public enum Health { STARTING, HEALTHY, DEGRADED, STALLED, DOWN }
+
+  private final String exchangeId;
+  private final int streamQueueSize;
+  private final Duration restTimeout;
+  private final long stallTimeoutMillis;
+
+  private final Scheduler streamScheduler;
+  private final Scheduler restScheduler;
+  private final CircuitBreaker breaker;
+
+  //백그라운드 작업 (예: 라운드 로빈 캔들 수집) 중복 실행 방지
+  private final AtomicBoolean backgroundRunning = new AtomicBoolean();
+
+  private volatile long lastTickMillis;
+  private volatile long ticksHandled;          // 스트림 스레드만 씀
+  private final AtomicLong handlerErrors = new AtomicLong();
+  private final AtomicLong streamErrors = new AtomicLong();
+  private final AtomicLong backgroundSkipped = new AtomicLong();
+  private final AtomicLong rateLimited = new AtomicLong();
+  private volatile boolean streamUp;
+  private volatile String lastError;
+
+  ExchangeBulkhead(String exchangeId, int streamQueueSize, int restThreads, int restQueueSize,
+                   Duration restTimeout, int breakerFailureThreshold, long breakerOpenMillis,
+                   long stallTimeoutMillis) {
+    this.exchangeId = exchangeId;
+    this.streamQueueSize = streamQueueSize;
+    this.restTimeout = restTimeout;
+    this.stallTimeoutMillis = stallTimeoutMillis;
+    this.streamScheduler = Schedulers.newSingle("bulkhead-" + exchangeId + "-stream", true);
+    this.restScheduler = Schedulers.newBoundedElastic(restThreads, restQueueSize, "bulkhead-" + exchangeId + "-rest");
+    this.breaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenMillis);
+  }
+
+  public String getExchangeId() {
+    return exchangeId;
+  }
+
+  /**
+   * ⭐ [핵심] 실시간 스트림 격리
+   * 소켓 스레드 → (고정 크기 큐, 요청은 큐 크기만큼만) → 거래소 전용 스레드
+   * 큐가 차면 요청이 멈추고, 버림/병합은 스트림 쪽(LatestPerMarketTickerEmitter)에서 마켓별 최신 값으로 처리
+   */
+  public <T> Flux<T> isolate(Flux<T> stream) {
+    return stream
+            .doOnSubscribe(subscription -> streamUp = true)
+            .publishOn(streamScheduler, streamQueueSize)
+            .doOnNext(item -> {
+              lastTickMillis = System.currentTimeMillis();
+              ticksHandled++;
+            })
+            .doOnError(error -> {
+              streamUp = false;
+              streamErrors.incrementAndGet();
+              lastError = error.getMessage();
+            })
+            .doOnComplete(() -> streamUp = false);
+  }
+
+  //틱 처리 중 예외 (스트림은 유지, 다음 틱 계속 처리)
+  public void recordHandlerError(Throwable error) {
+    long count = handlerErrors.incrementAndGet();
+    lastError = error.getMessage();
+    if (count == 1 || count % 1000 == 0) {
+      log.warn("⚠️ {} 틱 처리 에러 {}건째: {}", exchangeId, count, error.toString());
+    }
+  }
+
+  /**
+   * ⭐ [핵심] REST 호출 보호: 서킷 브레이커 → 타임아웃 → 거래소 전용 REST 스레드
+   * 브레이커가 OPEN이면 호출하지 않고 CircuitBreaker.OpenException으로 바로 실패
+   * ⭐ [변경] 429(요청 한도 초과)는 거래소 장애가 아니므로 브레이커 실패로 세지 않음 → 호출 쪽에서 백오프 재시도
+   */
+  public <T> Mono<T> protect(Mono<T> call) {
+    return Mono.defer(() -> {
+      if (!breaker.tryAcquire(System.currentTimeMillis())) {
+        return Mono.<T>error(new CircuitBreaker.OpenException(exchangeId));
+      }
+      return call
+              .timeout(restTimeout)
+              .doOnSuccess(value -> breaker.onSuccess())
+              .doOnError(error -> {
+                lastError = error.getMessage();
+                if (isRateLimited(error)) {
+                  rateLimited.incrementAndGet();
+                  breaker.onCancel(); // HALF_OPEN 시험 호출이었으면 다음 호출에 기회
+                } else {
+                  breaker.onFailure(System.currentTimeMillis());
+                }
+              })
+              .doOnCancel(breaker::onCancel);
+    }).subscribeOn(restScheduler);
+  }
+
+  //요청 한도 초과 응답인지 (429)
+  public static boolean isRateLimited(Throwable error) {
+    return error instanceof WebClientResponseException.TooManyRequests;
+  }
+
+  /**
+   * 블로킹 백그라운드 작업을 REST 스레드에서 실행 (이전 실행이 안 끝났으면 건너뜀)
+   * @return 실행을 넘겼으면 true, 이전 실행 중이라 건너뛰었으면 false
+   */
+  public boolean runExclusive(Runnable task) {
+    if (!backgroundRunning.compareAndSet(false, true)) {
+      backgroundSkipped.incrementAndGet();
+      return false;
+    }
+    try {
+      restScheduler.schedule(() -> {
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          lastError = e.getMessage();
+          log.warn("⚠️ {} 백그라운드 작업 실패: {}", exchangeId, e.toString());
+        } finally {
+          backgroundRunning.set(false);
+        }
+      });
+    } catch (RuntimeException e) { // 대기 작업 상한 초과 (RejectedExecutionException)
+      backgroundRunning.set(false);
+      backgroundSkipped.incrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  public Health getHealth(long nowMillis) {
+    if (!streamUp) {
+      return (streamErrors.get() > 0 || ticksHandled > 0) ? Health.DOWN : Health.STARTING;
+    }
+    if (lastTickMillis > 0 && nowMillis - lastTickMillis > stallTimeoutMillis) {
+      return Health.STALLED;
+    }
+    if (breaker.getState() != CircuitBreaker.State.CLOSED) {
+      return Health.DEGRADED;
+    }
+    return Health.HEALTHY;
+  }
+
+  public Map<String, Object> getStatus() {
+    long now = System.currentTimeMillis();
+    Map<String, Object> status = new HashMap<>();
+    status.put("health", getHealth(now));
+    status.put("streamUp", streamUp);
+    status.put("lastTickAgeMs", (lastTickMillis > 0) ? now - lastTickMillis : -1);
+    status.put("ticksHandled", ticksHandled);
+    status.put("handlerErrors", handlerErrors.get());
+    status.put("streamErrors", streamErrors.get());
+    status.put("backgroundSkipped", backgroundSkipped.get());
+    status.put("breakerState", breaker.getState());
+    status.put("breakerConsecutiveFailures", breaker.getConsecutiveFailures());
+    status.put("breakerTotalFailures", breaker.getTotalFailures());
+    status.put("breakerRejectedCalls", breaker.getRejectedCalls());
+    status.put("rateLimitedCalls", rateLimited.get());
+    status.put("lastError", lastError);
+    return status;
+  }
+
+  void dispose() {
+    streamScheduler.dispose();
+    restScheduler.dispose();
+  }
+}
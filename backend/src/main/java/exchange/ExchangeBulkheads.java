@@ -0,0 +1,71 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ⭐ [신규 추가] 거래소별 격벽(ExchangeBulkhead) 모음
+ *
+ * 거래소 ID마다 격벽 1개 (처음 요청할 때 생성), 설정은 모든 거래소 공통
+ * 종료 시 거래소 전용 스레드 정리
+ */
+@Component
+public class ExchangeBulkheads {
+
+  private static final Logger log = LoggerFactory.getLogger(ExchangeBulkheads.class);
+
+  private final int streamQueueSize;
+  private final int restThreads;
+  private final int restQueueSize;
+  private final Duration restTimeout;
+  private final int breakerFailureThreshold;
+  private final long breakerOpenMillis;
+  private final long stallTimeoutMillis;
+
+  private final Map<String, ExchangeBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  public ExchangeBulkheads(@Value("${coinalarm.bulkhead.stream-queue-size:1024}") int streamQueueSize,
+                           @Value("${coinalarm.bulkhead.rest-threads:4}") int restThreads,
+                           @Value("${coinalarm.bulkhead.rest-queue-size:256}") int restQueueSize,
+                           @Value("${coinalarm.bulkhead.rest-timeout-ms:10000}") long restTimeoutMillis,
+                           @Value("${coinalarm.bulkhead.breaker-failure-threshold:5}") int breakerFailureThreshold,
+                           @Value("${coinalarm.bulkhead.breaker-open-ms:30000}") long breakerOpenMillis,
+                           @Value("${coinalarm.bulkhead.stall-timeout-ms:30000}") long stallTimeoutMillis) {
+    this.streamQueueSize = streamQueueSize;
+    this.restThreads = restThreads;
+    this.restQueueSize = restQueueSize;
+    this.restTimeout = Duration.ofMillis(restTimeoutMillis);
+    this.breakerFailureThreshold = breakerFailureThreshold;
+    this.breakerOpenMillis = breakerOpenMillis;
+    this.stallTimeoutMillis = stallTimeoutMillis;
+  }
+
+  //거래소 격벽 (없으면 생성)
+  public ExchangeBulkhead forExchange(String exchangeId) {
+    return bulkheads.computeIfAbsent(exchangeId, id -> {
+      log.info("🧱 거래소 격벽 생성: {} (스트림 큐 {}, REST 스레드 {})", id, streamQueueSize, restThreads);
+      return new ExchangeBulkhead(id, streamQueueSize, restThreads, restQueueSize, restTimeout,
+              breakerFailureThreshold, breakerOpenMillis, stallTimeoutMillis);
+    });
+  }
+
+  //거래소 ID 순서로 상태 모음
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new TreeMap<>();
+    bulkheads.forEach((exchangeId, bulkhead) -> status.put(exchangeId, bulkhead.getStatus()));
+    return status;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    bulkheads.values().forEach(ExchangeBulkhead::dispose);
+  }
+}
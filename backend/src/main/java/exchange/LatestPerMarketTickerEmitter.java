@@ -0,0 +1,187 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * ⭐ [신규 추가] 수요 기반 Ticker 스트림 (마켓별 최신 값 병합)
+ *
+ * ExchangeClient.subscribeTickerStream 구현용: 소켓 콜백(push) → 구독자 요청(request)만큼만 발행
+ *
+ * 동작:
+ * - offer(): 마켓별 대기 슬롯에 최신 틱 저장
+ *   · 그 마켓이 이미 대기 중이면 값만 교체 (병합, 이전 틱은 버림) → 대기열에 다시 넣지 않음
+ *     (⭐ 이벤트 시각이 더 과거인 늦은 틱이면 대기 중이던 새 틱을 유지)
+ *   · 대기 중이 아니면 마켓 코드를 대기열 끝에 추가
+ * - drain(): 구독자 요청이 남아 있는 동안 대기열 순서(먼저 밀린 마켓 먼저)로 발행
+ *   → 구독자가 느려도 버퍼는 마켓 수를 넘지 않음 (힙이 늘지 않고 오래된 틱만 버려짐)
+ * - 무제한 요청(subscribe(consumer) 등) 구독자는 병합 없이 바로 발행 (FluxSink가 동시 next 직렬화)
+ * - 구독 취소/완료/에러 → 소켓 해제 콜백 1번 (onDispose), 대기 틱 정리
+ *
+ * 지표: 받은/발행/병합으로 버린 틱, 대기 마켓 수, 발행 시점 기준 이벤트 지연 (마지막/최대)
+ * 여러 소켓 스레드에서 offer 동시 호출 가능 (drain은 한 번에 한 스레드)
+ */
+public final class LatestPerMarketTickerEmitter {
+
+  private final String exchangeId;
+  private final long createdAtMillis = System.currentTimeMillis();
+
+  private final Map<String, TickerSnapshot> pending = new ConcurrentHashMap<>();
+  private final Queue<String> order = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private final AtomicLong offered = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong emitted = new AtomicLong();
+  private volatile long lastLagMillis;
+  private volatile long maxLagMillis;
+
+  private volatile FluxSink<TickerSnapshot> sink;
+  private volatile boolean terminated;
+
+  private LatestPerMarketTickerEmitter(String exchangeId) {
+    this.exchangeId = exchangeId;
+  }
+
+  /**
+   * ⭐ [핵심] 수요 기반 Ticker Flux 생성
+   *
+   * @param exchangeId    지표 표시용 거래소 ID
+   * @param connect       구독 시작 시 호출: 틱마다 emitter.offer()를 부르도록 소켓 연결, 해제 핸들 반환
+   * @param activeStreams 살아 있는 스트림 모음 (클라이언트의 지표 조회용, 종료 시 자동 제거)
+   */
+  public static Flux<TickerSnapshot> create(String exchangeId,
+                                            Function<LatestPerMarketTickerEmitter, Disposable> connect,
+                                            Set<LatestPerMarketTickerEmitter> activeStreams) {
+    return Flux.create(sink -> {
+      LatestPerMarketTickerEmitter emitter = new LatestPerMarketTickerEmitter(exchangeId);
+      emitter.sink = sink;
+      activeStreams.add(emitter);
+      sink.onRequest(n -> emitter.drain());
+      Disposable connection = connect.apply(emitter);
+      sink.onDispose(() -> {
+        emitter.terminated = true;
+        activeStreams.remove(emitter);
+        connection.dispose();       // 소켓 해제 (취소/완료/에러 모두)
+        emitter.pending.clear();
+        emitter.order.clear();
+      });
+    }, FluxSink.OverflowStrategy.LATEST); // 요청 수만큼만 next → 이 버퍼는 실제로 쌓이지 않음
+  }
+
+  //틱 1개 (소켓 스레드에서 호출)
+  public void offer(TickerSnapshot snapshot) {
+    if (terminated) {
+      return;
+    }
+    offered.incrementAndGet();
+    FluxSink<TickerSnapshot> current = sink;
+    if (current != null && current.requestedFromDownstream() == Long.MAX_VALUE && pending.isEmpty()) {
+      recordLag(snapshot);
+      emitted.incrementAndGet();
+      current.next(snapshot); // 무제한 요청: 밀릴 일이 없으므로 바로 발행 (할당 없음)
+      return;
+    }
+    //⭐ [변경] 병합을 compute 한 번으로 (put 후 replace로 되돌리면 그 사이 다른 소켓 스레드의 더 새 틱을 덮을 수 있음)
+    //  - 대기 중이 아니면 넣고 대기열 끝에 추가 (drain의 remove는 같은 키 잠금을 기다리므로 순서 안전)
+    //  - 대기 중이면 이벤트 시각이 더 새 쪽만 남김 (순서가 뒤바뀐 늦은 틱은 버림)
+    pending.compute(snapshot.getMarketCode(), (market, previous) -> {
+      if (previous == null) {
+        order.offer(market);
+        return snapshot;
+      }
+      coalesced.incrementAndGet(); // 발행 전에 두 틱이 겹쳐 하나는 버림
+      return isOlder(snapshot, previous) ? previous : snapshot;
+    });
+    drain();
+  }
+
+  //소켓 쪽 에러 → 구독자에게 전달 (스트림 종료)
+  public void error(Throwable error) {
+    FluxSink<TickerSnapshot> current = sink;
+    if (current != null && !terminated) {
+      current.error(error);
+    }
+  }
+
+  //소켓 쪽 정상 종료 → 구독자에게 완료 전달
+  public void complete() {
+    FluxSink<TickerSnapshot> current = sink;
+    if (current != null && !terminated) {
+      current.complete();
+    }
+  }
+
+  //요청이 남아 있는 만큼 발행 (WIP: 동시에 한 스레드만 발행, 나머지는 다시 돌도록 표시만)
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      FluxSink<TickerSnapshot> current = sink;
+      while (current != null && !terminated && current.requestedFromDownstream() > 0) {
+        String market = order.poll();
+        if (market == null) {
+          break;
+        }
+        TickerSnapshot snapshot = pending.remove(market);
+        if (snapshot == null) {
+          continue;
+        }
+        recordLag(snapshot);
+        emitted.incrementAndGet();
+        current.next(snapshot);
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private static boolean isOlder(TickerSnapshot snapshot, TickerSnapshot than) {
+    return snapshot.getTimestamp() != null && than.getTimestamp() != null
+            && snapshot.getTimestamp().isBefore(than.getTimestamp());
+  }
+
+  //⭐ [변경] 수신 시각이 있으면 수신 → 발행 지연 (이벤트 시각은 거래소 시계라 네트워크 지연/시계 차이가 섞임)
+  private void recordLag(TickerSnapshot snapshot) {
+    long base;
+    if (snapshot.getReceivedAtMillis() != 0L) {
+      base = snapshot.getReceivedAtMillis();
+    } else if (snapshot.getTimestamp() != null) {
+      base = snapshot.getTimestamp().toEpochMilli();
+    } else {
+      return;
+    }
+    long lag = System.currentTimeMillis() - base;
+    lastLagMillis = lag;
+    if (lag > maxLagMillis) {
+      maxLagMillis = lag;
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("exchangeId", exchangeId);
+    stats.put("uptimeMs", System.currentTimeMillis() - createdAtMillis);
+    stats.put("offered", offered.get());
+    stats.put("emitted", emitted.get());
+    stats.put("coalesced", coalesced.get());
+    stats.put("pendingMarkets", pending.size());
+    FluxSink<TickerSnapshot> current = sink;
+    stats.put("requested", (current != null) ? current.requestedFromDownstream() : 0L);
+    stats.put("lastLagMs", lastLagMillis);
+    stats.put("maxLagMs", maxLagMillis);
+    return stats;
+  }
+}
@@ -1,4 +1,12 @@
-package exchange;
+package coinalarm.Coin_Alarm.exchange;
 
-public class MarketCapInfo {
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MarketCapInfo{
+  private String marketCode;
+  private Double marketCap;
+  private MarketCapTier tier; //아 이런식으로 코딩하는게 있구나 C랑 비슷하네 구조체
 }
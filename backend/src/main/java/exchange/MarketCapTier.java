@@ -1,4 +1,39 @@
-package exchange;
+package coinalarm.Coin_Alarm.exchange;
 
-public class MarketCapTier {
+public enum MarketCapTier{
+  MEGA(20_000_000_000_000L, "15조 이상"),
+  LARGE(1_000_000_000_000L, "1조 이상"),
+  MEDIUM(0L, "1조 미만");
+
+  private final long threshold;
+  private final String description;
+
+  MarketCapTier(long threshold, String description){
+    this.threshold = threshold;
+    this.description = description;
+  }
+
+  public static MarketCapTier fromMarketCap(double marketCap) {
+   if(marketCap >= MEGA.threshold) return MEGA;
+   if(marketCap >= LARGE.threshold) return LARGE;
+   return MEDIUM;
+   //일부러 순서도 이렇게 한이유 큰값-> 작은값
+  }
+
+  public long getThreshold(){
+    return threshold;
+  }
+
+  //⭐ [신규 추가] 등급 상한 시가총액 (미포함, MEGA는 무한대) → [threshold, upperBound) 구간이면 이 등급
+  public double getUpperBound(){
+    switch (this) {
+      case MEDIUM: return LARGE.threshold;
+      case LARGE: return MEGA.threshold;
+      default: return Double.POSITIVE_INFINITY;
+    }
+  }
+
+  public String getDescription(){
+    return description;
+  }
 }
@@ -0,0 +1,40 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ⭐ [신규 추가] 재연결 대기 시간 (지수 백오프 + 지터)
+ *
+ * 기존: 고정 5초 간격 → 거래소 장애가 길면 5초마다 계속 두드리고, 여러 소켓이 같은 순간에 몰려 재접속
+ * 변경: 시도마다 상한을 2배씩 (base → max), 실제 대기는 [상한/2, 상한) 구간에서 무작위
+ *   → 짧은 끊김은 빨리 복구, 긴 장애는 간격이 벌어지고, 소켓끼리 재접속 시각이 흩어짐
+ * 연결 성공 시 reset()
+ */
+public final class ReconnectBackoff {
+
+  private final long baseMillis;
+  private final long maxMillis;
+  private int attempts;
+
+  public ReconnectBackoff(long baseMillis, long maxMillis) {
+    this.baseMillis = Math.max(1, baseMillis);
+    this.maxMillis = Math.max(this.baseMillis, maxMillis);
+  }
+
+  //다음 재연결까지 대기 시간 (호출할 때마다 시도 횟수 +1)
+  public synchronized long nextDelayMillis() {
+    int shift = Math.min(attempts, 30);
+    long ceiling = Math.min(maxMillis, baseMillis << shift);
+    attempts++;
+    long half = ceiling / 2;
+    return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+  }
+
+  public synchronized void reset() {
+    attempts = 0;
+  }
+
+  public synchronized int getAttempts() {
+    return attempts;
+  }
+}
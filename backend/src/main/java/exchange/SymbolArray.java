@@ -0,0 +1,87 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * ⭐ [신규 추가] 심볼 ID(SymbolRegistry) 인덱스 배열
+ *
+ * String 키 ConcurrentHashMap 대체: get()은 volatile 배열 읽기 1번 (해시/equals 없음)
+ * - 신규 상장으로 ID가 늘면 배열을 두 배로 키워 교체 (쓰기 쪽만 잠금)
+ * - 요소 읽기/쓰기는 AtomicReferenceArray → 다른 스레드가 넣은 객체도 안전하게 보임
+ */
+public final class SymbolArray<T> {
+
+  private volatile AtomicReferenceArray<T> values;
+
+  public SymbolArray() {
+    this(256);
+  }
+
+  public SymbolArray(int initialCapacity) {
+    this.values = new AtomicReferenceArray<>(Math.max(16, initialCapacity));
+  }
+
+  //ID의 값 (없으면 null)
+  public T get(int id) {
+    AtomicReferenceArray<T> current = values;
+    return (id >= 0 && id < current.length()) ? current.get(id) : null;
+  }
+
+  //ID의 값 (없으면 생성, 생성은 ID당 한 번)
+  public T computeIfAbsent(int id, IntFunction<T> factory) {
+    T value = get(id);
+    if (value != null) {
+      return value;
+    }
+    synchronized (this) {
+      AtomicReferenceArray<T> current = ensureCapacity(id);
+      value = current.get(id);
+      if (value == null) {
+        value = factory.apply(id);
+        current.set(id, value);
+      }
+      return value;
+    }
+  }
+
+  //쓰기는 확장과 같은 잠금 (확장 중 복사와 겹쳐서 값이 사라지지 않도록)
+  public synchronized void set(int id, T value) {
+    ensureCapacity(id).set(id, value);
+  }
+
+  //현재 배열 길이 (ID 순회 상한, 등록 수보다 클 수 있음)
+  public int capacity() {
+    return values.length();
+  }
+
+  //null이 아닌 값만 ID 순서로 순회
+  public void forEach(Consumer<T> action) {
+    AtomicReferenceArray<T> current = values;
+    for (int id = 0; id < current.length(); id++) {
+      T value = current.get(id);
+      if (value != null) {
+        action.accept(value);
+      }
+    }
+  }
+
+  //잠금 안에서 호출: id가 들어가도록 배열 확장 (기존 값은 새 배열로 복사 후 교체)
+  private AtomicReferenceArray<T> ensureCapacity(int id) {
+    AtomicReferenceArray<T> current = values;
+    if (id < current.length()) {
+      return current;
+    }
+    int length = current.length();
+    while (length <= id) {
+      length *= 2;
+    }
+    AtomicReferenceArray<T> grown = new AtomicReferenceArray<>(length);
+    for (int i = 0; i < current.length(); i++) {
+      grown.set(i, current.get(i));
+    }
+    values = grown;
+    return grown;
+  }
+}
@@ -0,0 +1,187 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * ⭐ [신규 추가] 거래소 간 심볼 레지스트리 (거래소-마켓 → 조밀한 int ID)
+ *
+ * 목적: 틱 경로의 마켓 코드 String 키 맵(해시 + equals)을 ID 인덱스 배열(SymbolArray)로 대체
+ * - 틱 입구에서 idOf() 1번 → 이후 버퍼/시가총액/임계값/보드는 배열 인덱스 접근
+ * - ID는 0부터 빈틈없이 증가 (거래소-마켓 쌍마다 1개, 한 번 부여되면 바뀌지 않음)
+ *
+ * 정규화: 거래소별 표기 → (기초 자산, 견적 자산)
+ * - KRW-BTC (견적-기초, 업비트) → BTC / KRW
+ * - BTCUSDT (접미사, 바이낸스)  → BTC / USDT (알려진 견적 자산 중 가장 긴 접미사)
+ * - BTC/USDT, BTC_USDT          → BTC / USDT
+ * 같은 (기초, 견적) 쌍은 거래소가 달라도 같은 canonicalId → 거래소 간 조인 키
+ *
+ * 런타임 추가: 처음 보는 마켓은 idOf()에서 바로 등록 (신규 상장), 리스너로 알림
+ */
+@Component
+public class SymbolRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(SymbolRegistry.class);
+
+  //접미사 표기 분해용 견적 자산 (긴 것부터 비교 → FDUSD가 USD로 잘리지 않도록)
+  private static final List<String> SUFFIX_QUOTES = List.of(
+          "FDUSD", "USDT", "USDC", "TUSD", "BUSD", "KRW", "BTC", "ETH", "BNB", "EUR", "TRY", "BRL", "JPY", "DAI");
+
+  //거래소 → 마켓 코드 → ID (조회 전용, 등록은 register 잠금 안에서)
+  private final Map<String, Map<String, Integer>> ids = new ConcurrentHashMap<>();
+
+  //"기초/견적" → canonicalId (register 잠금 안에서만 접근)
+  private final Map<String, Integer> canonicalIds = new HashMap<>();
+
+  //ID → 심볼 정보 (등록 시 배열 교체/추가 후 size 공개 → 읽을 때는 size 먼저, 배열은 그 뒤에)
+  private volatile SymbolInfo[] symbols = new SymbolInfo[256];
+  private volatile int size;
+
+  private final List<Consumer<SymbolInfo>> listeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * ⭐ [핵심] 거래소-마켓 ID (없으면 등록)
+   * 이미 있는 마켓은 맵 조회 2번 (할당 없음)
+   */
+  public int idOf(String exchangeId, String marketCode) {
+    Map<String, Integer> markets = ids.get(exchangeId);
+    if (markets != null) {
+      Integer id = markets.get(marketCode);
+      if (id != null) {
+        return id;
+      }
+    }
+    return register(exchangeId, marketCode);
+  }
+
+  //등록된 ID (없으면 -1, 등록하지 않음)
+  public int find(String exchangeId, String marketCode) {
+    Map<String, Integer> markets = ids.get(exchangeId);
+    if (markets == null) {
+      return -1;
+    }
+    Integer id = markets.get(marketCode);
+    return (id != null) ? id : -1;
+  }
+
+  //ID → 심볼 정보 (범위 밖이면 null)
+  public SymbolInfo info(int id) {
+    //⭐ [변경] size를 먼저 읽어야 그 size를 공개한 쓰기 이전의 배열 교체도 보임
+    //  (배열을 먼저 읽으면 커지기 전 배열 + 커진 뒤 size 조합으로 null이 나올 수 있음)
+    int published = size;
+    SymbolInfo[] current = symbols;
+    return (id >= 0 && id < published && id < current.length) ? current[id] : null;
+  }
+
+  //등록된 심볼 수 (ID는 0 ~ size-1)
+  public int size() {
+    return size;
+  }
+
+  //신규 심볼 등록 알림 (등록 스레드에서 호출됨 → 가볍게)
+  public void addListener(Consumer<SymbolInfo> listener) {
+    listeners.add(listener);
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    Map<String, Integer> perExchange = new HashMap<>();
+    ids.forEach((exchangeId, markets) -> perExchange.put(exchangeId, markets.size()));
+    stats.put("symbols", size);
+    stats.put("exchanges", perExchange);
+    synchronized (this) {
+      stats.put("canonicalPairs", canonicalIds.size());
+    }
+    return stats;
+  }
+
+  //신규 마켓 등록 (마켓당 한 번)
+  private synchronized int register(String exchangeId, String marketCode) {
+    Map<String, Integer> markets = ids.computeIfAbsent(exchangeId, k -> new ConcurrentHashMap<>());
+    Integer existing = markets.get(marketCode);
+    if (existing != null) {
+      return existing;
+    }
+    String[] pair = normalize(marketCode);
+    String canonical = pair[0] + "/" + pair[1];
+    Integer canonicalId = canonicalIds.get(canonical);
+    if (canonicalId == null) {
+      canonicalId = canonicalIds.size();
+      canonicalIds.put(canonical, canonicalId);
+    }
+
+    int id = size;
+    SymbolInfo[] current = symbols;
+    if (id == current.length) {
+      current = Arrays.copyOf(current, current.length * 2);
+    }
+    SymbolInfo info = new SymbolInfo(id, exchangeId, marketCode, pair[0], pair[1], canonicalId);
+    current[id] = info;
+    symbols = current;       // 배열 먼저 공개
+    size = id + 1;           // 그 다음 size (info()는 size → 배열 순서로 읽음)
+    markets.put(marketCode, id);
+
+    for (Consumer<SymbolInfo> listener : listeners) {
+      listener.accept(info);
+    }
+    if (id > 0 && id % 1000 == 0) {
+      log.info("🔢 심볼 등록 {}개 (마지막: {})", id, info);
+    }
+    return id;
+  }
+
+  /**
+   * 마켓 코드 → {기초 자산, 견적 자산} (대문자)
+   * 분해할 수 없으면 {마켓 코드, ""}
+   */
+  static String[] normalize(String marketCode) {
+    String code = marketCode.toUpperCase(Locale.ROOT);
+    int dash = code.indexOf('-');
+    if (dash > 0) {
+      return new String[]{code.substring(dash + 1), code.substring(0, dash)}; // 견적-기초
+    }
+    int separator = Math.max(code.indexOf('/'), code.indexOf('_'));
+    if (separator > 0) {
+      return new String[]{code.substring(0, separator), code.substring(separator + 1)}; // 기초/견적
+    }
+    for (String quote : SUFFIX_QUOTES) {
+      if (code.length() > quote.length() && code.endsWith(quote)) {
+        return new String[]{code.substring(0, code.length() - quote.length()), quote};
+      }
+    }
+    return new String[]{code, ""};
+  }
+
+  //등록된 심볼 1개 (불변)
+  @Getter
+  @ToString
+  public static final class SymbolInfo {
+    private final int id;
+    private final String exchangeId;
+    private final String marketCode;
+    private final String base;        // 기초 자산 (예: BTC)
+    private final String quote;       // 견적 자산 (예: KRW, USDT)
+    private final int canonicalId;    // (기초, 견적) 쌍 ID, 거래소 무관
+
+    private SymbolInfo(int id, String exchangeId, String marketCode, String base, String quote, int canonicalId) {
+      this.id = id;
+      this.exchangeId = exchangeId;
+      this.marketCode = marketCode;
+      this.base = base;
+      this.quote = quote;
+      this.canonicalId = canonicalId;
+    }
+  }
+}
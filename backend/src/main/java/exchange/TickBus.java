@@ -0,0 +1,237 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * ⭐ [신규 추가] 프로세스 내 틱 버스 (소켓 1개 → 소비자 여러 개)
+ *
+ * 기존: 소켓 클라이언트에 콜백 필드 1개 → 마지막에 등록한 쪽이 피드 전체를 가져감
+ * 변경: 소비자마다 자기 링 버퍼(고정 크기) + 전용 전달 스레드
+ * - publish(): 소비자마다 링에 넣기만 함 (잠금 구간은 배열 쓰기 1번, 할당 없음) → 소비자 처리 시간과 무관
+ * - 링이 가득 차면 소비자별 정책: DROP_OLDEST(오래된 것 버림) / DROP_NEWEST(새로 온 것 버림)
+ *   → 느린 소비자는 자기 틱만 잃고, 생산자나 다른 소비자는 기다리지 않음
+ * - 소비자 예외는 세고 로그만 남김 (전달 스레드는 계속 동작)
+ *
+ * 지표 (소비자별): 받은/전달/버린 틱, 현재 대기 수, 최대 대기 수, 전달 지연 (publish → 핸들러 시작, 마지막/최대)
+ */
+public final class TickBus<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(TickBus.class);
+
+  public enum DropPolicy { DROP_OLDEST, DROP_NEWEST }
+
+  private final String name;
+  private final List<ConsumerQueue> consumers = new CopyOnWriteArrayList<>();
+
+  public TickBus(String name) {
+    this.name = name;
+  }
+
+  /**
+   * 소비자 등록 (전용 데몬 스레드 시작)
+   * @param consumerName 지표/스레드 이름 (예: board, exchangeClient)
+   * @param capacity     링 크기 (대기 틱 상한)
+   */
+  public Subscription subscribe(String consumerName, int capacity, DropPolicy policy, Consumer<T> handler) {
+    ConsumerQueue queue = new ConsumerQueue(consumerName, Math.max(16, capacity), policy, handler);
+    consumers.add(queue);
+    queue.thread.start();
+    log.info("🚌 틱 버스 소비자 등록: {}/{} (링 {}, {})", name, consumerName, queue.items.length, policy);
+    return new Subscription(queue);
+  }
+
+  //틱 1개 발행 (소켓 스레드)
+  public void publish(T item) {
+    long now = System.nanoTime();
+    for (ConsumerQueue consumer : consumers) {
+      consumer.offer(item, now);
+    }
+  }
+
+  public int consumerCount() {
+    return consumers.size();
+  }
+
+  public List<Map<String, Object>> getStats() {
+    List<Map<String, Object>> stats = new ArrayList<>();
+    for (ConsumerQueue consumer : consumers) {
+      stats.add(consumer.getStats());
+    }
+    return stats;
+  }
+
+  //등록 해제 핸들 (여러 번 호출해도 한 번만 해제)
+  public final class Subscription {
+    private final ConsumerQueue queue;
+
+    private Subscription(ConsumerQueue queue) {
+      this.queue = queue;
+    }
+
+    public void close() {
+      if (consumers.remove(queue)) {
+        queue.close();
+        log.info("🚌 틱 버스 소비자 해제: {}/{}", name, queue.consumerName);
+      }
+    }
+
+    public boolean isClosed() {
+      return queue.closed;
+    }
+  }
+
+  //소비자 1개: 링 버퍼 + 전달 스레드
+  private final class ConsumerQueue implements Runnable {
+    private final String consumerName;
+    private final DropPolicy policy;
+    private final Consumer<T> handler;
+    private final Thread thread;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Object[] items;
+    private final long[] publishedAtNanos;
+    private int head;
+    private int size;
+    private int maxDepth;
+    private volatile boolean closed;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long delivered;          // 전달 스레드만 씀
+    private volatile long handlerErrors;      // 전달 스레드만 씀
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+
+    private ConsumerQueue(String consumerName, int capacity, DropPolicy policy, Consumer<T> handler) {
+      this.consumerName = consumerName;
+      this.policy = policy;
+      this.handler = handler;
+      this.items = new Object[capacity];
+      this.publishedAtNanos = new long[capacity];
+      this.thread = new Thread(this, "tickbus-" + name + "-" + consumerName);
+      this.thread.setDaemon(true);
+    }
+
+    private void offer(T item, long nowNanos) {
+      received.incrementAndGet();
+      lock.lock();
+      try {
+        if (closed) {
+          return;
+        }
+        if (size == items.length) {
+          dropped.incrementAndGet();
+          if (policy == DropPolicy.DROP_NEWEST) {
+            return;
+          }
+          items[head] = null; // DROP_OLDEST: 가장 오래된 칸을 비우고 한 칸 전진
+          head = (head + 1) % items.length;
+          size--;
+        }
+        int tail = (head + size) % items.length;
+        items[tail] = item;
+        publishedAtNanos[tail] = nowNanos;
+        size++;
+        if (size > maxDepth) {
+          maxDepth = size;
+        }
+        if (size == 1) {
+          notEmpty.signal(); // 비어 있을 때만 전달 스레드가 대기 중
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+      while (true) {
+        T item;
+        long publishedAt;
+        lock.lock();
+        try {
+          while (size == 0 && !closed) {
+            notEmpty.await(1, TimeUnit.SECONDS);
+          }
+          if (closed) {
+            return;
+          }
+          item = (T) items[head];
+          publishedAt = publishedAtNanos[head];
+          items[head] = null;
+          head = (head + 1) % items.length;
+          size--;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        } finally {
+          lock.unlock();
+        }
+        deliver(item, publishedAt);
+      }
+    }
+
+    private void deliver(T item, long publishedAt) {
+      long lag = System.nanoTime() - publishedAt;
+      lastLagNanos = lag;
+      if (lag > maxLagNanos) {
+        maxLagNanos = lag;
+      }
+      try {
+        handler.accept(item);
+      } catch (RuntimeException e) {
+        handlerErrors++;
+        if (handlerErrors == 1 || handlerErrors % 1000 == 0) {
+          log.warn("⚠️ 틱 버스 소비자 에러 {}/{} {}건째: {}", name, consumerName, handlerErrors, e.toString());
+        }
+      }
+      delivered++;
+    }
+
+    private void close() {
+      lock.lock();
+      try {
+        closed = true;
+        notEmpty.signal();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private Map<String, Object> getStats() {
+      Map<String, Object> stats = new HashMap<>();
+      lock.lock();
+      try {
+        stats.put("depth", size);
+        stats.put("maxDepth", maxDepth);
+      } finally {
+        lock.unlock();
+      }
+      stats.put("bus", name);
+      stats.put("consumer", consumerName);
+      stats.put("capacity", items.length);
+      stats.put("policy", policy);
+      stats.put("received", received.get());
+      stats.put("delivered", delivered);
+      stats.put("dropped", dropped.get());
+      stats.put("handlerErrors", handlerErrors);
+      stats.put("lastLagMicros", lastLagNanos / 1_000);
+      stats.put("maxLagMicros", maxLagNanos / 1_000);
+      return stats;
+    }
+  }
+}
@@ -1,4 +1,20 @@
-package exchange;
+package coinalarm.Coin_Alarm.exchange;
 
-public class TickerSnapshot {
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+//실시간 Ticker 스냅샷
+
+@Data
+@Builder
+public class TickerSnapshot{
+  private String exchangeId; //거래소ID
+  private String marketCode; //거래페어
+  private Instant timestamp; //⭐ [변경] 거래소 이벤트 시각 (체결 시각, 거래소가 안 주면 수신 시각) → 버퍼 키
+  private long receivedAtMillis; //⭐ [신규 추가] 로컬 수신 시각 (0 = 모름: 저널 재생/프라이밍/백테스트)
+  private long sequentialId; //⭐ [신규 추가] 거래소 체결 번호 (업비트 sequential_id, 0 = 없음)
+  private Double currentPrice; //현재가
+  private Double rolling24hVolume; //코인게코에서 가져오게 변경할 예정
 }
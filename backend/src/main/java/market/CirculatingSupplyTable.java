@@ -0,0 +1,144 @@
+package coinalarm.Coin_Alarm.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ⭐ [신규 추가] 유통 공급량 테이블 (로컬 CSV, 실행 중 재로딩)
+ *
+ * 목적: 시가총액 = 현재가 × 유통 공급량 을 REST 호출 없이 계산하기 위한 공급량 원본
+ *
+ * 파일 형식 (data/circulating-supply.csv):
+ *   # 주석
+ *   BTC,19900000
+ *   ETH,120700000
+ * - 심볼은 기초 자산 기준 (KRW-BTC → BTC), 대소문자 무시
+ * - 파일이 없으면 클래스패스의 기본 파일(circulating-supply.csv) 사용
+ *
+ * 재로딩: 주기적으로 파일 수정 시각을 확인 → 바뀌었으면 새 맵을 만들어 통째로 교체 후 리스너 호출
+ */
+@Component
+public class CirculatingSupplyTable {
+
+  private static final Logger log = LoggerFactory.getLogger(CirculatingSupplyTable.class);
+
+  private static final String CLASSPATH_SEED = "/circulating-supply.csv";
+
+  private final Path file;
+
+  //심볼 → 유통 공급량 (읽기 전용 맵, 재로딩 시 교체)
+  private volatile Map<String, Double> supplies = Map.of();
+  private volatile long loadedModifiedMillis = Long.MIN_VALUE;
+
+  //재로딩 후 호출 (LiveMarketCapTracker 등급 재계산)
+  private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+
+  public CirculatingSupplyTable(@Value("${coinalarm.market-cap.supply-file:data/circulating-supply.csv}") String file) {
+    this.file = Paths.get(file);
+    reload();
+  }
+
+  //유통 공급량 조회 (없으면 NaN, 대소문자 무시 - 키는 대문자로 저장)
+  public double getSupply(String assetSymbol) {
+    Double supply = supplies.get(assetSymbol.toUpperCase(Locale.ROOT));
+    return supply != null ? supply : Double.NaN;
+  }
+
+  public int size() {
+    return supplies.size();
+  }
+
+  public void addReloadListener(Runnable listener) {
+    reloadListeners.add(listener);
+  }
+
+  //파일이 바뀌었으면 재로딩
+  @Scheduled(fixedDelayString = "${coinalarm.market-cap.reload-interval-ms:30000}")
+  public void reloadIfChanged() {
+    try {
+      if (Files.exists(file) && Files.getLastModifiedTime(file).toMillis() != loadedModifiedMillis) {
+        reload();
+      }
+    } catch (IOException e) {
+      log.warn("⚠️ 유통 공급량 파일 확인 실패 {}: {}", file, e.getMessage());
+    }
+  }
+
+  /**
+   * ⭐ [핵심] 공급량 파일 다시 읽기 (읽기 실패 시 기존 테이블 유지)
+   */
+  public synchronized void reload() {
+    Map<String, Double> loaded;
+    try {
+      if (Files.exists(file)) {
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+          loaded = parse(reader);
+        }
+        loadedModifiedMillis = modified;
+      } else {
+        InputStream seed = CirculatingSupplyTable.class.getResourceAsStream(CLASSPATH_SEED);
+        if (seed == null) {
+          log.warn("⚠️ 유통 공급량 파일 없음: {} (시가총액 계산 불가, 모든 마켓 기본 등급)", file);
+          return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(seed, StandardCharsets.UTF_8))) {
+          loaded = parse(reader);
+        }
+      }
+    } catch (IOException e) {
+      log.error("❌ 유통 공급량 파일 읽기 실패 {} (기존 값 유지): {}", file, e.getMessage());
+      return;
+    }
+
+    supplies = Map.copyOf(loaded);
+    log.info("📄 유통 공급량 로드: {}개 자산 ({})", loaded.size(), Files.exists(file) ? file : "classpath:" + CLASSPATH_SEED);
+    for (Runnable listener : reloadListeners) {
+      listener.run();
+    }
+  }
+
+  private Map<String, Double> parse(BufferedReader reader) throws IOException {
+    Map<String, Double> loaded = new HashMap<>();
+    String line;
+    int lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      int comma = line.indexOf(',');
+      if (comma <= 0) {
+        log.warn("⚠️ 유통 공급량 {}행 형식 오류, 건너뜀: {}", lineNumber, line);
+        continue;
+      }
+      try {
+        double supply = Double.parseDouble(line.substring(comma + 1).trim().replace("_", ""));
+        if (supply > 0) {
+          loaded.put(line.substring(0, comma).trim().toUpperCase(Locale.ROOT), supply);
+        }
+      } catch (NumberFormatException e) {
+        log.warn("⚠️ 유통 공급량 {}행 숫자 오류, 건너뜀: {}", lineNumber, line);
+      }
+    }
+    return loaded;
+  }
+}
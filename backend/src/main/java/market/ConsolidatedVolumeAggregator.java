@@ -0,0 +1,329 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.buffer.MultiTieredSnapshotBuffer;
+import coinalarm.Coin_Alarm.exchange.SymbolArray;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry.SymbolInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ⭐ [신규 추가] 거래소 통합 거래대금 (자산별 1분/5분/1시간, 원화 환산)
+ *
+ * 목적: "BTC 전체 1분 거래대금"처럼 거래소를 합친 값 (업비트 KRW-BTC + 바이낸스 BTCUSDT + ...)
+ *
+ * 구조:
+ * - 마켓 1개 = Contribution (그 마켓의 창별 원화 거래대금, 마지막으로 합계에 더한 값)
+ * - 같은 기초 자산의 Contribution들이 AssetVolume 1개를 공유 (SymbolRegistry base 기준)
+ * - onTicker(): 스냅샷 버퍼에서 그 마켓의 롤링 거래대금만 다시 계산 → (새 값 - 이전 값)을 합계에 반영
+ *   → 틱당 다른 거래소 마켓은 건드리지 않음, 조회는 volatile 읽기 1번 (O(1))
+ * - 5분/1시간 창은 마켓당 slow-refresh-ms마다만 갱신 (봉인 블록 디코딩을 틱마다 하지 않도록)
+ *
+ * 환산: 견적 자산 KRW → 그대로, USD 스테이블(USDT/USDC/...) → FxRateProvider 환율
+ *       그 외 견적(BTC 마켓 등)은 합산하지 않음, 환율이 없으면 해당 마켓은 0으로 둠
+ *
+ * 보정: resync-interval-ms마다 전 마켓 재계산 + 합계를 Contribution 합으로 다시 만듦
+ *       (증분 덧셈 오차 제거, 환율 변동 반영, max-venue-age-ms 동안 틱이 없는 마켓은 0)
+ * ⭐ [변경] 창별 만료: 마켓의 마지막 틱이 창 길이보다 오래되면 그 창 기여분은 0
+ *       (1분 창은 1분, 5분 창은 5분 뒤) → 같은 자산의 다른 마켓 틱/보정 때 바로 합계에서 뺌
+ *
+ * 사용처: 보드(MarketDataService, CoinResponseDto.consolidatedVolume*), 알람(alarm-enabled 시 1분 값으로 판정)
+ */
+@Component
+public class ConsolidatedVolumeAggregator {
+
+  private static final Logger log = LoggerFactory.getLogger(ConsolidatedVolumeAggregator.class);
+
+  private static final String KRW = "KRW";
+
+  //창 인덱스 (Contribution.values / AssetVolume 합계 순서)
+  private static final int W1M = 0;
+  private static final int W5M = 1;
+  private static final int W1H = 2;
+  private static final int[] WINDOW_MINUTES = {1, 5, 60};
+  private static final long[] WINDOW_MILLIS = {60_000L, 5 * 60_000L, 60 * 60_000L};
+
+  //합산 대상이 아닌 마켓 표시 (다음 틱부터 배열 조회 후 바로 반환)
+  private static final Contribution IGNORED = new Contribution(null, false, null);
+
+  private final MultiTieredSnapshotBuffer snapshotBuffer;
+  private final SymbolRegistry symbolRegistry;
+  private final FxRateProvider fxRateProvider;
+
+  private final long slowRefreshMillis;
+  private final long maxVenueAgeMillis;
+  private final boolean alarmEnabled;
+
+  //심볼 ID → Contribution (틱 경로 조회용)
+  private final SymbolArray<Contribution> contributions = new SymbolArray<>();
+
+  //기초 자산 → 통합 합계 (Contribution 생성 시에만 추가)
+  private final Map<String, AssetVolume> assets = new ConcurrentHashMap<>();
+
+  public ConsolidatedVolumeAggregator(MultiTieredSnapshotBuffer snapshotBuffer,
+                                      SymbolRegistry symbolRegistry,
+                                      FxRateProvider fxRateProvider,
+                                      @Value("${coinalarm.consolidated.slow-refresh-ms:1000}") long slowRefreshMillis,
+                                      @Value("${coinalarm.consolidated.max-venue-age-ms:300000}") long maxVenueAgeMillis,
+                                      @Value("${coinalarm.consolidated.alarm-enabled:false}") boolean alarmEnabled) {
+    this.snapshotBuffer = snapshotBuffer;
+    this.symbolRegistry = symbolRegistry;
+    this.fxRateProvider = fxRateProvider;
+    this.slowRefreshMillis = slowRefreshMillis;
+    this.maxVenueAgeMillis = maxVenueAgeMillis;
+    this.alarmEnabled = alarmEnabled;
+  }
+
+  /**
+   * ⭐ [핵심] 마켓 1개 틱 반영 (스냅샷 버퍼에 넣은 뒤 호출)
+   * 1분 창은 매 틱, 5분/1시간 창은 slow-refresh-ms마다
+   */
+  public void onTicker(int symbolId, long eventTimeMillis) {
+    Contribution contribution = contributions.computeIfAbsent(symbolId, this::createContribution);
+    if (contribution == IGNORED) {
+      return;
+    }
+    contribution.lastTickMillis = eventTimeMillis;
+    boolean slow = eventTimeMillis - contribution.slowRefreshedAtMillis >= slowRefreshMillis;
+    refresh(contribution, eventTimeMillis, slow);
+  }
+
+  //심볼이 속한 자산의 통합 N분 거래대금 (원화, 1/5/60분만, 없으면 NaN)
+  public double getVolumeKrw(int symbolId, int minutes) {
+    Contribution contribution = contributions.get(symbolId);
+    if (contribution == null || contribution == IGNORED) {
+      return Double.NaN;
+    }
+    return contribution.asset.get(windowIndex(minutes));
+  }
+
+  //기초 자산의 통합 N분 거래대금 (원화, 없으면 NaN)
+  public double getVolumeKrw(String asset, int minutes) {
+    AssetVolume volume = assets.get(asset);
+    return (volume != null) ? volume.get(windowIndex(minutes)) : Double.NaN;
+  }
+
+  /**
+   * 알람 판정용 1분 거래대금
+   * alarm-enabled면 거래소 통합 값 (아직 없으면 거래소 단독 값), 아니면 거래소 단독 값 그대로
+   */
+  public double alarmVolume1m(int symbolId, double venueVolume1m) {
+    if (!alarmEnabled) {
+      return venueVolume1m;
+    }
+    double consolidated = getVolumeKrw(symbolId, 1);
+    return (consolidated > 0) ? consolidated : venueVolume1m;
+  }
+
+  /**
+   * ⭐ 주기 보정: 전 마켓 재계산 + 합계 재구성
+   * 틱 경로와 같은 자산 잠금을 잡으므로 자산 단위로만 잠깐 막힘
+   */
+  @Scheduled(fixedDelayString = "${coinalarm.consolidated.resync-interval-ms:30000}")
+  public void resync() {
+    long now = System.currentTimeMillis();
+    for (AssetVolume asset : assets.values()) {
+      synchronized (asset) {
+        double[] totals = new double[WINDOW_MINUTES.length];
+        int venues = 0;
+        for (Contribution contribution : asset.members) {
+          long age = now - contribution.lastTickMillis;
+          if (age > maxVenueAgeMillis) {
+            Arrays.fill(contribution.values, 0.0); // 끊긴 거래소는 합계에서 뺌
+          } else {
+            recompute(contribution, now, true);
+            for (int w = 0; w < WINDOW_MILLIS.length; w++) {
+              if (age > WINDOW_MILLIS[w]) {
+                contribution.values[w] = 0.0; // 이 창 안에 틱이 없음
+              }
+            }
+            venues++;
+          }
+          for (int w = 0; w < totals.length; w++) {
+            totals[w] += contribution.values[w];
+          }
+        }
+        asset.volume1m = totals[W1M];
+        asset.volume5m = totals[W5M];
+        asset.volume1h = totals[W1H];
+        asset.venues = venues;
+      }
+    }
+  }
+
+  //통합 거래대금 목록 (1분 거래대금 큰 순서)
+  public List<ConsolidatedVolumeDto> getVolumes() {
+    List<ConsolidatedVolumeDto> result = new ArrayList<>(assets.size());
+    for (AssetVolume asset : assets.values()) {
+      List<String> markets = new ArrayList<>();
+      synchronized (asset) {
+        for (Contribution contribution : asset.members) {
+          markets.add(contribution.info.getExchangeId() + ":" + contribution.info.getMarketCode());
+        }
+      }
+      result.add(ConsolidatedVolumeDto.builder()
+              .asset(asset.asset)
+              .volume1m(asset.volume1m)
+              .volume5m(asset.volume5m)
+              .volume1h(asset.volume1h)
+              .venues(asset.venues)
+              .markets(markets)
+              .timestamp(asset.updatedAtMillis)
+              .build());
+    }
+    result.sort(Comparator.comparingDouble(ConsolidatedVolumeDto::getVolume1m).reversed());
+    return result;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    int[] markets = {0};
+    contributions.forEach(contribution -> {
+      if (contribution != IGNORED) {
+        markets[0]++;
+      }
+    });
+    stats.put("assets", assets.size());
+    stats.put("markets", markets[0]);
+    stats.put("alarmEnabled", alarmEnabled);
+    return stats;
+  }
+
+  //틱 경로 갱신: 바뀐 창만 차이를 합계에 반영
+  private void refresh(Contribution contribution, long nowMillis, boolean slow) {
+    AssetVolume asset = contribution.asset;
+    synchronized (asset) {
+      double old1m = contribution.values[W1M];
+      double old5m = contribution.values[W5M];
+      double old1h = contribution.values[W1H];
+      recompute(contribution, nowMillis, slow);
+      asset.volume1m += contribution.values[W1M] - old1m;
+      asset.volume5m += contribution.values[W5M] - old5m;
+      asset.volume1h += contribution.values[W1H] - old1h;
+      //같은 자산의 다른 마켓 중 창 길이보다 오래 틱이 없는 창은 지금 뺌 (보정 주기까지 기다리지 않음)
+      for (Contribution member : asset.members) {
+        if (member != contribution) {
+          expireWindows(member, nowMillis);
+        }
+      }
+      asset.updatedAtMillis = nowMillis;
+    }
+  }
+
+  //자산 잠금 안에서 호출: 마지막 틱이 창 길이보다 오래된 창의 기여분을 합계에서 빼고 0으로
+  private static void expireWindows(Contribution contribution, long nowMillis) {
+    long age = nowMillis - contribution.lastTickMillis;
+    for (int w = 0; w < WINDOW_MILLIS.length; w++) {
+      if (age > WINDOW_MILLIS[w] && contribution.values[w] != 0.0) {
+        contribution.asset.add(w, -contribution.values[w]);
+        contribution.values[w] = 0.0;
+      }
+    }
+  }
+
+  //자산 잠금 안에서 호출: 스냅샷 버퍼 → 원화 환산 값
+  private void recompute(Contribution contribution, long nowMillis, boolean slow) {
+    double toKrw = contribution.usdQuoted ? fxRateProvider.getRate(nowMillis) : 1.0;
+    if (Double.isNaN(toKrw)) {
+      toKrw = 0.0; // 환율이 생기면 다음 보정에서 반영
+    }
+    contribution.values[W1M] = snapshotBuffer.calculateRollingVolume(contribution.info.getId(), 1) * toKrw;
+    if (slow) {
+      contribution.values[W5M] = snapshotBuffer.calculateRollingVolume(contribution.info.getId(), 5) * toKrw;
+      contribution.values[W1H] = snapshotBuffer.calculateRollingVolume(contribution.info.getId(), 60) * toKrw;
+      contribution.slowRefreshedAtMillis = nowMillis;
+    }
+  }
+
+  //마켓을 처음 볼 때 한 번 (견적 자산 판정 + 자산 합계에 연결)
+  private Contribution createContribution(int symbolId) {
+    SymbolInfo info = symbolRegistry.info(symbolId);
+    if (info == null) {
+      return IGNORED;
+    }
+    boolean krwQuoted = KRW.equals(info.getQuote());
+    boolean usdQuoted = FxRateProvider.isUsdQuote(info.getQuote());
+    if (!krwQuoted && !usdQuoted) {
+      return IGNORED; // BTC 마켓 등은 합산하지 않음
+    }
+    if (usdQuoted && FxRateProvider.isUsdQuote(info.getBase())) {
+      return IGNORED; // USDCUSDT 같은 스테이블끼리 마켓 제외
+    }
+    AssetVolume asset = assets.computeIfAbsent(info.getBase(), AssetVolume::new);
+    Contribution contribution = new Contribution(info, usdQuoted, asset);
+    synchronized (asset) {
+      asset.members.add(contribution);
+      asset.venues = asset.members.size();
+    }
+    log.debug("📊 통합 거래대금 합산 시작: {} ← {}/{}", info.getBase(), info.getExchangeId(), info.getMarketCode());
+    return contribution;
+  }
+
+  private static int windowIndex(int minutes) {
+    switch (minutes) {
+      case 1: return W1M;
+      case 5: return W5M;
+      case 60: return W1H;
+      default: throw new IllegalArgumentException("지원하지 않는 창: " + minutes + "분 (1/5/60만 지원)");
+    }
+  }
+
+  //마켓 1개의 기여분 (values는 자산 잠금 안에서만 변경)
+  private static final class Contribution {
+    private final SymbolInfo info;
+    private final boolean usdQuoted;
+    private final AssetVolume asset;
+    private final double[] values = new double[WINDOW_MINUTES.length];
+    private volatile long lastTickMillis;
+    private long slowRefreshedAtMillis = Long.MIN_VALUE / 2;
+
+    private Contribution(SymbolInfo info, boolean usdQuoted, AssetVolume asset) {
+      this.info = info;
+      this.usdQuoted = usdQuoted;
+      this.asset = asset;
+    }
+  }
+
+  //자산 1개의 통합 합계 (쓰기는 this 잠금, 읽기는 volatile → 잠금 없음)
+  private static final class AssetVolume {
+    private final String asset;
+    private final List<Contribution> members = new ArrayList<>();
+    private volatile double volume1m;
+    private volatile double volume5m;
+    private volatile double volume1h;
+    private volatile int venues;
+    private volatile long updatedAtMillis;
+
+    private AssetVolume(String asset) {
+      this.asset = asset;
+    }
+
+    //this 잠금 안에서만 호출
+    private void add(int window, double delta) {
+      switch (window) {
+        case W1M: volume1m += delta; break;
+        case W5M: volume5m += delta; break;
+        default: volume1h += delta;
+      }
+    }
+
+    private double get(int window) {
+      switch (window) {
+        case W1M: return volume1m;
+        case W5M: return volume5m;
+        default: return volume1h;
+      }
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package coinalarm.Coin_Alarm.market;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * ⭐ [신규 추가] 자산 1개의 거래소 통합 거래대금 (/api/volume/consolidated 응답)
+ *
+ * 모든 거래대금은 원화 환산 (USDT 마켓은 실시간 환율 적용)
+ */
+@Getter
+@Builder
+@ToString
+public class ConsolidatedVolumeDto {
+  private String asset;          // 기초 자산 (예: BTC)
+  private double volume1m;       // 거래소 합계 1분 거래대금 (원화)
+  private double volume5m;
+  private double volume1h;
+  private int venues;            // 합산에 들어간 마켓 수 (끊긴 거래소 제외)
+  private List<String> markets;  // 예: UPBIT:KRW-BTC, BINANCE_SPOT:BTCUSDT
+  private long timestamp;        // 마지막 갱신 이벤트 시각 (epoch ms)
+}
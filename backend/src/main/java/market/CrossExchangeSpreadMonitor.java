@@ -0,0 +1,364 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.alarm.AlarmEvent;
+import coinalarm.Coin_Alarm.alarm.AlarmEventRecorder;
+import coinalarm.Coin_Alarm.alarm.AlarmThresholdManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ⭐ [신규 추가] 거래소 간 스프레드 / 프리미엄 모니터 (스트리밍 조인)
+ *
+ * 목적: 같은 기초 자산의 원화 마켓(KRW-BTC @ UPBIT)과 USDT 마켓(BTCUSDT @ BINANCE_SPOT)을
+ *       실시간 환율(FxRateProvider)로 맞춰서 프리미엄을 계속 갱신
+ *
+ * 구조:
+ * - 마켓 1개 = Leg (마지막 가격/시각), 자산이 같고 거래소가 다른 원화 Leg × USDT Leg = AssetSpread
+ * - Leg와 AssetSpread는 마켓을 처음 볼 때 한 번만 생성 (마켓 코드 해석도 그때 한 번)
+ * - onTicker(): 맵 조회 2번 → Leg 갱신 → 그 Leg가 속한 스프레드(보통 1개)만 재계산
+ *   → 틱당 O(1), 할당 없음, 자산 쌍이 수천 개여도 틱 비용은 같음
+ *
+ * 신선도 보호:
+ * - 두 Leg의 이벤트 시각 차이가 max-leg-skew-ms를 넘으면 stale (한쪽 스트림이 끊긴 경우)
+ * - 환율이 오래됐으면 fallback 환율, 그것도 없으면 계산하지 않음
+ * - stale 스프레드는 알람을 보내지 않음
+ *
+ * 출력:
+ * - /topic/spread: publish-interval-ms마다 바뀐 스프레드만 전송
+ * - 알람 입력: |프리미엄| ≥ alarm-premium-pct → /topic/spreadAlarm + 알람 이력(PREMIUM), 자산 쌍별 쿨다운
+ * - getPremium(): 다른 알람 규칙에서 조회 (할당 없음)
+ *
+ * 마켓 코드 해석: KRW-X → 원화 X, USDT-X / XUSDT → USDT X (USDT 자체는 환율 마켓이라 제외)
+ */
+@Component
+public class CrossExchangeSpreadMonitor {
+
+  private static final Logger log = LoggerFactory.getLogger(CrossExchangeSpreadMonitor.class);
+
+  private static final String KRW_PREFIX = "KRW-";
+  private static final String USDT_PREFIX = "USDT-";
+  private static final String USDT = "USDT";
+
+  //조인 대상이 아닌 마켓 표시 (다음 틱부터 맵 조회 후 바로 반환)
+  private static final Leg IGNORED = new Leg(null, null, null, false);
+
+  private final FxRateProvider fxRateProvider;
+  private final AlarmThresholdManager alarmManager;
+  private final AlarmEventRecorder alarmEventRecorder;
+  private final SimpMessagingTemplate messagingTemplate;
+
+  private final long maxLegSkewMillis;
+  private final long maxLegAgeMillis;
+  private final double alarmPremiumPct;
+  private final long alarmCooldownMillis;
+
+  //거래소 → 마켓 → Leg (틱 경로 조회용)
+  private final Map<String, Map<String, Leg>> legs = new ConcurrentHashMap<>();
+
+  //자산 → Leg 목록 (Leg 생성 시 짝 찾기용, createLeg 잠금 안에서만 접근)
+  private final Map<String, List<Leg>> legsByAsset = new HashMap<>();
+
+  //전체 스프레드 (추가는 드묾 → 발행 스레드가 잠금 없이 순회)
+  private final List<AssetSpread> spreads = new CopyOnWriteArrayList<>();
+
+  public CrossExchangeSpreadMonitor(FxRateProvider fxRateProvider,
+                                    AlarmThresholdManager alarmManager,
+                                    AlarmEventRecorder alarmEventRecorder,
+                                    SimpMessagingTemplate messagingTemplate,
+                                    @Value("${coinalarm.spread.max-leg-skew-ms:10000}") long maxLegSkewMillis,
+                                    @Value("${coinalarm.spread.max-leg-age-ms:30000}") long maxLegAgeMillis,
+                                    @Value("${coinalarm.spread.alarm-premium-pct:5.0}") double alarmPremiumPct,
+                                    @Value("${coinalarm.spread.alarm-cooldown-ms:300000}") long alarmCooldownMillis) {
+    this.fxRateProvider = fxRateProvider;
+    this.alarmManager = alarmManager;
+    this.alarmEventRecorder = alarmEventRecorder;
+    this.messagingTemplate = messagingTemplate;
+    this.maxLegSkewMillis = maxLegSkewMillis;
+    this.maxLegAgeMillis = maxLegAgeMillis;
+    this.alarmPremiumPct = alarmPremiumPct;
+    this.alarmCooldownMillis = alarmCooldownMillis;
+  }
+
+  /**
+   * ⭐ [핵심] Ticker 1개 반영 (틱마다 호출)
+   */
+  public void onTicker(String exchangeId, String marketCode, double price, long eventTimeMillis) {
+    if (!(price > 0)) {
+      return;
+    }
+    Leg leg = legFor(exchangeId, marketCode);
+    if (leg == IGNORED) {
+      return;
+    }
+    leg.timeMillis = eventTimeMillis;
+    leg.price = price;
+    for (AssetSpread spread : leg.spreads) {
+      update(spread, eventTimeMillis);
+    }
+  }
+
+  //원화 마켓 기준 현재 프리미엄 % (스프레드가 없거나 stale이면 NaN, 여러 개면 첫 번째)
+  public double getPremium(String exchangeId, String marketCode) {
+    Map<String, Leg> markets = legs.get(exchangeId);
+    Leg leg = (markets != null) ? markets.get(marketCode) : null;
+    if (leg == null || leg == IGNORED || leg.spreads.length == 0) {
+      return Double.NaN;
+    }
+    AssetSpread spread = leg.spreads[0];
+    synchronized (spread) {
+      return spread.stale ? Double.NaN : spread.premiumPct;
+    }
+  }
+
+  //스프레드 재계산 + 알람 조건 체크
+  private void update(AssetSpread spread, long nowMillis) {
+    double fx = fxRateProvider.getRate(nowMillis);
+    boolean fxLive = fxRateProvider.isLive(nowMillis);
+    double premium;
+    boolean alarm = false;
+    synchronized (spread) {
+      double krwPrice = spread.krwLeg.price;
+      double usdtPrice = spread.usdtLeg.price;
+      if (!(krwPrice > 0) || !(usdtPrice > 0) || Double.isNaN(fx)) {
+        spread.stale = true; // 반대쪽 가격이나 환율이 아직 없음
+        return;
+      }
+      premium = (krwPrice / (usdtPrice * fx) - 1.0) * 100.0;
+      spread.premiumPct = premium;
+      spread.fxRate = fx;
+      spread.fxLive = fxLive;
+      spread.stale = Math.abs(spread.krwLeg.timeMillis - spread.usdtLeg.timeMillis) > maxLegSkewMillis;
+      spread.updatedAtMillis = nowMillis;
+      spread.dirty = true;
+      if (!spread.stale && Math.abs(premium) >= alarmPremiumPct
+              && nowMillis - spread.lastAlarmMillis >= alarmCooldownMillis) {
+        spread.lastAlarmMillis = nowMillis;
+        alarm = true;
+      }
+    }
+    if (alarm) {
+      triggerAlarm(spread, premium, fx, nowMillis);
+    }
+  }
+
+  //프리미엄 알람 (드묾 → 여기서만 객체 생성)
+  private void triggerAlarm(AssetSpread spread, double premium, double fx, long nowMillis) {
+    if (!alarmManager.isExchangeEnabled(spread.krwLeg.exchangeId)) {
+      return;
+    }
+    SpreadResponseDto dto = toDto(spread, nowMillis);
+    messagingTemplate.convertAndSend("/topic/spreadAlarm", dto);
+
+    String message = String.format("프리미엄 %+.2f%% (%s %s 대비, 환율 %.2f)",
+            premium, spread.usdtLeg.exchangeId, spread.usdtLeg.marketCode, fx);
+    alarmEventRecorder.record(AlarmEvent.builder()
+            .exchangeId(spread.krwLeg.exchangeId)
+            .symbol(spread.krwLeg.marketCode)
+            .eventTime(nowMillis)
+            .alarmType("PREMIUM")
+            .message(message)
+            .build());
+    log.info("🔔 프리미엄 알람: {}/{} {}", spread.krwLeg.exchangeId, spread.krwLeg.marketCode, message);
+  }
+
+  /**
+   * ⭐ 바뀐 스프레드만 STOMP로 발행 (/topic/spread)
+   * 틱 경로와 분리 → 틱이 몰려도 전송은 주기당 1번
+   */
+  @Scheduled(fixedDelayString = "${coinalarm.spread.publish-interval-ms:1000}")
+  public void publishSpreads() {
+    long now = System.currentTimeMillis();
+    List<SpreadResponseDto> changed = new ArrayList<>();
+    for (AssetSpread spread : spreads) {
+      synchronized (spread) {
+        if (!spread.dirty) {
+          continue;
+        }
+        spread.dirty = false;
+        changed.add(toDto(spread, now));
+      }
+    }
+    if (!changed.isEmpty()) {
+      messagingTemplate.convertAndSend("/topic/spread", changed);
+    }
+  }
+
+  //전체 스프레드 (계산된 것만, |프리미엄| 큰 순서)
+  public List<SpreadResponseDto> getSpreads() {
+    long now = System.currentTimeMillis();
+    List<SpreadResponseDto> result = new ArrayList<>(spreads.size());
+    for (AssetSpread spread : spreads) {
+      synchronized (spread) {
+        if (!Double.isNaN(spread.premiumPct)) {
+          result.add(toDto(spread, now));
+        }
+      }
+    }
+    result.sort(Comparator.comparingDouble((SpreadResponseDto dto) -> Math.abs(dto.getPremiumPct())).reversed());
+    return result;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    int legCount = 0;
+    for (Map<String, Leg> markets : legs.values()) {
+      for (Leg leg : markets.values()) {
+        if (leg != IGNORED) {
+          legCount++;
+        }
+      }
+    }
+    stats.put("legs", legCount);
+    stats.put("spreads", spreads.size());
+    stats.put("fx", fxRateProvider.getStats());
+    return stats;
+  }
+
+  //호출 측에서 spread 잠금을 잡고 있어야 함
+  private SpreadResponseDto toDto(AssetSpread spread, long nowMillis) {
+    long newest = Math.max(spread.krwLeg.timeMillis, spread.usdtLeg.timeMillis);
+    return SpreadResponseDto.builder()
+            .asset(spread.asset)
+            .krwExchange(spread.krwLeg.exchangeId)
+            .krwMarket(spread.krwLeg.marketCode)
+            .krwPrice(spread.krwLeg.price)
+            .usdtExchange(spread.usdtLeg.exchangeId)
+            .usdtMarket(spread.usdtLeg.marketCode)
+            .usdtPrice(spread.usdtLeg.price)
+            .fxRate(spread.fxRate)
+            .fxLive(spread.fxLive)
+            .premiumPct(spread.premiumPct)
+            .stale(spread.stale || nowMillis - newest > maxLegAgeMillis)
+            .timestamp(spread.updatedAtMillis)
+            .build();
+  }
+
+  private Leg legFor(String exchangeId, String marketCode) {
+    Map<String, Leg> markets = legs.get(exchangeId);
+    if (markets != null) {
+      Leg leg = markets.get(marketCode);
+      if (leg != null) {
+        return leg;
+      }
+    }
+    return createLeg(exchangeId, marketCode);
+  }
+
+  /**
+   * 새 마켓 등록 (마켓당 한 번, 드묾 → 잠금)
+   * 같은 자산의 반대쪽 Leg(다른 거래소)마다 스프레드 생성 후, 마지막에 맵에 공개
+   */
+  private synchronized Leg createLeg(String exchangeId, String marketCode) {
+    Map<String, Leg> markets = legs.computeIfAbsent(exchangeId, k -> new ConcurrentHashMap<>());
+    Leg existing = markets.get(marketCode);
+    if (existing != null) {
+      return existing;
+    }
+    Leg leg = parseLeg(exchangeId, marketCode);
+    if (leg == null) {
+      markets.put(marketCode, IGNORED);
+      return IGNORED;
+    }
+    List<Leg> sameAsset = legsByAsset.computeIfAbsent(leg.asset, k -> new ArrayList<>());
+    for (Leg other : sameAsset) {
+      if (other.krw == leg.krw || other.exchangeId.equals(leg.exchangeId)) {
+        continue;
+      }
+      Leg krwLeg = leg.krw ? leg : other;
+      Leg usdtLeg = leg.krw ? other : leg;
+      AssetSpread spread = new AssetSpread(leg.asset, krwLeg, usdtLeg);
+      krwLeg.addSpread(spread);
+      usdtLeg.addSpread(spread);
+      spreads.add(spread);
+      log.info("🔗 거래소 간 스프레드 추가: {} ({}/{} ↔ {}/{})", leg.asset,
+              krwLeg.exchangeId, krwLeg.marketCode, usdtLeg.exchangeId, usdtLeg.marketCode);
+    }
+    sameAsset.add(leg);
+    markets.put(marketCode, leg);
+    return leg;
+  }
+
+  //마켓 코드 → Leg (조인 대상이 아니면 null)
+  private static Leg parseLeg(String exchangeId, String marketCode) {
+    String asset;
+    boolean krw;
+    if (marketCode.startsWith(KRW_PREFIX)) {
+      asset = marketCode.substring(KRW_PREFIX.length());
+      krw = true;
+    } else if (marketCode.startsWith(USDT_PREFIX)) {
+      asset = marketCode.substring(USDT_PREFIX.length());
+      krw = false;
+    } else if (marketCode.endsWith(USDT) && marketCode.indexOf('-') < 0) {
+      asset = marketCode.substring(0, marketCode.length() - USDT.length());
+      krw = false;
+    } else {
+      return null;
+    }
+    if (asset.isEmpty() || USDT.equals(asset)) {
+      return null;
+    }
+    return new Leg(exchangeId, marketCode, asset, krw);
+  }
+
+  //마켓 1개의 마지막 가격
+  private static final class Leg {
+    private static final AssetSpread[] NO_SPREADS = new AssetSpread[0];
+
+    private final String exchangeId;
+    private final String marketCode;
+    private final String asset;
+    private final boolean krw;       // true: 원화 마켓, false: USDT 마켓
+
+    private volatile double price = Double.NaN;
+    private volatile long timeMillis;
+    //이 Leg가 속한 스프레드 (추가 시 배열 교체 → 틱 경로는 잠금 없이 순회)
+    private volatile AssetSpread[] spreads = NO_SPREADS;
+
+    private Leg(String exchangeId, String marketCode, String asset, boolean krw) {
+      this.exchangeId = exchangeId;
+      this.marketCode = marketCode;
+      this.asset = asset;
+      this.krw = krw;
+    }
+
+    private void addSpread(AssetSpread spread) {
+      AssetSpread[] next = Arrays.copyOf(spreads, spreads.length + 1);
+      next[next.length - 1] = spread;
+      spreads = next;
+    }
+  }
+
+  //원화 Leg × USDT Leg 1쌍 (필드는 this 잠금으로 보호)
+  private static final class AssetSpread {
+    private final String asset;
+    private final Leg krwLeg;
+    private final Leg usdtLeg;
+
+    private double premiumPct = Double.NaN;
+    private double fxRate = Double.NaN;
+    private boolean fxLive;
+    private boolean stale = true;
+    private boolean dirty;
+    private long updatedAtMillis;
+    private long lastAlarmMillis = Long.MIN_VALUE / 2; // 첫 알람은 쿨다운 없이
+
+    private AssetSpread(String asset, Leg krwLeg, Leg usdtLeg) {
+      this.asset = asset;
+      this.krwLeg = krwLeg;
+      this.usdtLeg = usdtLeg;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package coinalarm.Coin_Alarm.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ⭐ [신규 추가] 실시간 환율 (USDT → KRW)
+ *
+ * 목적: 원화 마켓과 USDT 마켓 가격을 같은 단위로 비교 (김치 프리미엄)
+ * 출처: 설정된 거래소의 원화 USDT 마켓 현재가 (기본 UPBIT KRW-USDT)
+ *       → 이미 받고 있는 Ticker 스트림에서 갱신, 별도 REST 호출 없음
+ *
+ * 조회는 volatile 읽기뿐 (틱 경로에서 할당 없음)
+ * 실시간 값이 없거나 오래됐으면 fallback-rate(설정 시) 사용, 둘 다 없으면 NaN
+ */
+@Component
+public class FxRateProvider {
+
+  private static final Logger log = LoggerFactory.getLogger(FxRateProvider.class);
+
+  //USD 스테이블 견적 자산 (이 환율로 원화 환산하는 마켓)
+  private static final Set<String> USD_QUOTES = Set.of("USDT", "USDC", "FDUSD", "TUSD", "BUSD", "DAI");
+
+  private final String sourceExchange;
+  private final String sourceMarket;
+  private final long maxAgeMillis;
+  private final double fallbackRate;
+
+  private volatile double rate = Double.NaN;
+  private volatile long rateTimeMillis;   // 마지막 환율 이벤트 시각 (epoch ms)
+
+  public FxRateProvider(@Value("${coinalarm.fx.source-exchange:UPBIT}") String sourceExchange,
+                        @Value("${coinalarm.fx.source-market:KRW-USDT}") String sourceMarket,
+                        @Value("${coinalarm.fx.max-age-ms:60000}") long maxAgeMillis,
+                        @Value("${coinalarm.fx.fallback-rate:0}") double fallbackRate) {
+    this.sourceExchange = sourceExchange;
+    this.sourceMarket = sourceMarket;
+    this.maxAgeMillis = maxAgeMillis;
+    this.fallbackRate = fallbackRate;
+  }
+
+  //Ticker 1개 반영 (환율 마켓이 아니면 비교 2번으로 끝)
+  public void onTicker(String exchangeId, String marketCode, double price, long eventTimeMillis) {
+    if (!sourceMarket.equals(marketCode) || !sourceExchange.equals(exchangeId) || !(price > 0)) {
+      return;
+    }
+    if (Double.isNaN(rate)) {
+      log.info("💱 환율 수신 시작: {}/{} = {}", exchangeId, marketCode, price);
+    }
+    rateTimeMillis = eventTimeMillis;
+    rate = price;
+  }
+
+  /**
+   * USDT 1개당 원화 (오래된 값이면 fallback, 없으면 NaN)
+   * @param nowMillis 기준 시각 (보통 비교 대상 틱의 이벤트 시각)
+   */
+  public double getRate(long nowMillis) {
+    double current = rate;
+    if (!Double.isNaN(current) && nowMillis - rateTimeMillis <= maxAgeMillis) {
+      return current;
+    }
+    return (fallbackRate > 0) ? fallbackRate : Double.NaN;
+  }
+
+  //견적 자산이 USD 스테이블인지 (BINANCE BTCUSDT → USDT)
+  public static boolean isUsdQuote(String quoteAsset) {
+    return quoteAsset != null && USD_QUOTES.contains(quoteAsset);
+  }
+
+  //실시간 환율이 기준 시각에 유효한지 (fallback 사용 여부 판단용)
+  public boolean isLive(long nowMillis) {
+    return !Double.isNaN(rate) && nowMillis - rateTimeMillis <= maxAgeMillis;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("source", sourceExchange + "/" + sourceMarket);
+    stats.put("rate", rate);
+    stats.put("rateTimeMillis", rateTimeMillis);
+    stats.put("live", isLive(System.currentTimeMillis()));
+    stats.put("fallbackRate", fallbackRate);
+    return stats;
+  }
+}
@@ -0,0 +1,251 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.buffer.MultiTieredSnapshotBuffer;
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkhead;
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkheads;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import coinalarm.Coin_Alarm.upbit.TradeSequenceTracker;
+import coinalarm.Coin_Alarm.upbit.UpbitCandleResponse;
+import coinalarm.Coin_Alarm.upbit.UpbitClient;
+import coinalarm.Coin_Alarm.upbit.UpbitWSC;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] 소켓 끊김 구간 자동 보충 (업비트)
+ *
+ * 문제: 재연결 전까지 놓친 틱은 복구되지 않음 → 스냅샷 버퍼에 공백
+ *       → 재연결 직후 1분/5분 거래대금에 공백 전체 거래대금이 몰리거나(거짓 알람) 창 기준점이 틀어짐
+ *
+ * 동작 (UpbitWSC 재연결 리스너):
+ * 1. 마켓별 공백 측정: 끊기기 직전 그 마켓의 마지막 스냅샷 ~ 재연결 시각
+ * 2. min-gap-ms 이상인 마켓만 REST 1분봉 조회 (to = 재연결 시각, 최대 200개 = 업비트 한 번 조회 상한)
+ *    → 업비트 격벽 REST 스레드에서 concurrency개씩 병렬 (브레이커/타임아웃 적용)
+ *    → ⭐ [변경] 초당 max-requests-per-sec개로 제한 (업비트 분봉 REST 한도 초당 10회, 넘으면 429)
+ *       429가 와도 브레이커 실패로 세지 않고 백오프 재시도 (최대 RATE_LIMIT_RETRIES회)
+ * 3. MultiTieredSnapshotBuffer.backfillGap으로 분 경계 스냅샷 채움
+ * 4. 보충이 끝날 때까지 그 마켓은 알람 판정 보류 (isBackfilling)
+ *
+ * ⭐ [신규 추가] 체결 끊김 구간 (UpbitWSC 체결 끊김 리스너, TradeSequenceTracker):
+ * - 마켓별 실제 체결 시각 기준 공백 (끊기기 전 마지막 체결 ~ 다시 받은 첫 체결)
+ * - 재연결 보충이 진행 중이거나 이미 그 구간을 채웠으면 건너뜀
+ *   → 재연결 보충이 실패했거나 기준 스냅샷이 없어 건너뛴 마켓을 다시 보충
+ *
+ * 업비트 구독 스냅샷(isOnlyRealtime=false)은 체결 타입에서는 마지막 체결 1건뿐이라 거래대금 복구에 쓸 수 없음 → REST 분봉만 사용
+ */
+@Component
+public class GapBackfiller {
+
+  private static final Logger log = LoggerFactory.getLogger(GapBackfiller.class);
+
+  private static final String UPBIT = "UPBIT";
+  private static final int MAX_CANDLES_PER_CALL = 200; // 업비트 분봉 조회 상한
+  private static final int RATE_LIMIT_RETRIES = 3;
+  private static final Duration RATE_LIMIT_BACKOFF = Duration.ofSeconds(1);
+
+  private final UpbitWSC upbitWSC;
+  private final UpbitClient upbitClient;
+  private final MultiTieredSnapshotBuffer snapshotBuffer;
+  private final SymbolRegistry symbolRegistry;
+  private final ExchangeBulkhead upbitBulkhead;
+
+  private final int concurrency;
+  private final long minGapMillis;
+  private final long requestIntervalMillis; // 호출 간 최소 간격 (1000 / 초당 최대 호출 수)
+
+  //다음 호출이 나갈 수 있는 시각 (재연결 보충 + 체결 끊김 보충 + 재시도 공용)
+  private final AtomicLong nextRequestMillis = new AtomicLong();
+
+  //보충 중인 심볼 ID (알람 보류), 틱 경로는 카운터만 먼저 확인
+  private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+
+  private final AtomicLong outages = new AtomicLong();
+  private final AtomicLong marketsBackfilled = new AtomicLong();
+  private final AtomicLong snapshotsAdded = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong rateLimitRetries = new AtomicLong();
+  private final AtomicLong tradeGaps = new AtomicLong();
+  private final AtomicLong tradeGapsCovered = new AtomicLong();
+  //심볼 ID → 보충을 마친 공백 끝 시각 (체결 끊김 구간과 중복 보충 방지)
+  private final Map<Integer, Long> backfilledUntil = new ConcurrentHashMap<>();
+  private volatile Map<String, Long> lastGapMillisByMarket = Map.of();
+  private volatile long lastOutageMillis;
+  private volatile long lastBackfillMillis;
+
+  public GapBackfiller(UpbitWSC upbitWSC,
+                       UpbitClient upbitClient,
+                       MultiTieredSnapshotBuffer snapshotBuffer,
+                       SymbolRegistry symbolRegistry,
+                       ExchangeBulkheads bulkheads,
+                       @Value("${coinalarm.backfill.concurrency:8}") int concurrency,
+                       @Value("${coinalarm.backfill.min-gap-ms:2000}") long minGapMillis,
+                       @Value("${coinalarm.backfill.max-requests-per-sec:8}") int maxRequestsPerSecond) {
+    this.upbitWSC = upbitWSC;
+    this.upbitClient = upbitClient;
+    this.snapshotBuffer = snapshotBuffer;
+    this.symbolRegistry = symbolRegistry;
+    this.upbitBulkhead = bulkheads.forExchange(UPBIT);
+    this.concurrency = Math.max(1, concurrency);
+    this.minGapMillis = minGapMillis;
+    this.requestIntervalMillis = 1000L / Math.max(1, maxRequestsPerSecond);
+  }
+
+  @PostConstruct
+  public void init() {
+    upbitWSC.addReconnectListener(this::onReconnected);
+    upbitWSC.addTradeGapListener(this::onTradeGap);
+  }
+
+  //끊김 구간 보충 중인 마켓이면 true (알람 판정 보류용, 평소에는 카운터 읽기 1번)
+  public boolean isBackfilling(int symbolId) {
+    return pendingCount.get() > 0 && pending.contains(symbolId);
+  }
+
+  /**
+   * ⭐ [핵심] 재연결 후 마켓별 공백 측정 → 병렬 보충
+   */
+  void onReconnected(UpbitWSC.Outage outage) {
+    outages.incrementAndGet();
+    lastOutageMillis = outage.getDurationMillis();
+    long reconnectedAt = outage.getReconnectedAtMillis();
+    long startedAt = System.currentTimeMillis();
+
+    Map<String, Long> gapStarts = new HashMap<>();
+    Map<String, Long> gaps = new HashMap<>();
+    for (String market : outage.getMarkets()) {
+      int symbolId = symbolRegistry.idOf(UPBIT, market);
+      long lastBefore = snapshotBuffer.lastTimestampBefore(symbolId, outage.getDisconnectedAtMillis());
+      if (lastBefore < 0) {
+        continue; // 기준 스냅샷 없음 (끊기기 전에 틱이 한 번도 없던 마켓)
+      }
+      long gap = reconnectedAt - lastBefore;
+      gaps.put(market, gap);
+      if (gap >= minGapMillis) {
+        gapStarts.put(market, lastBefore);
+        if (pending.add(symbolId)) {
+          pendingCount.incrementAndGet();
+        }
+      }
+    }
+    lastGapMillisByMarket = gaps;
+    log.info("🩹 끊김 구간 보충 시작: 끊김 {}ms, 대상 마켓 {}개", outage.getDurationMillis(), gapStarts.size());
+
+    Flux.fromIterable(gapStarts.entrySet())
+            .flatMap(entry -> backfill(entry.getKey(), entry.getValue(), reconnectedAt), concurrency)
+            .doFinally(signal -> {
+              lastBackfillMillis = System.currentTimeMillis() - startedAt;
+              log.info("🩹 끊김 구간 보충 완료: {}ms", lastBackfillMillis);
+            })
+            .subscribe();
+  }
+
+  /**
+   * ⭐ [신규 추가] 체결 끊김 구간 1건 (재연결 스레드)
+   * 재연결 보충이 이미 덮은 구간이면 건너뜀, 아니면 그 마켓만 보충
+   */
+  void onTradeGap(TradeSequenceTracker.TradeGap gap) {
+    tradeGaps.incrementAndGet();
+    int symbolId = symbolRegistry.idOf(UPBIT, gap.getMarket());
+    if (gap.getDurationMillis() < minGapMillis
+            || pending.contains(symbolId)
+            || backfilledUntil.getOrDefault(symbolId, 0L) > gap.getLastTradeMillis()) {
+      tradeGapsCovered.incrementAndGet();
+      return;
+    }
+    long lastBefore = snapshotBuffer.lastTimestampBefore(symbolId, gap.getLastTradeMillis());
+    if (lastBefore < 0) {
+      return; // 기준 스냅샷 없음
+    }
+    if (pending.add(symbolId)) {
+      pendingCount.incrementAndGet();
+    }
+    log.info("🩹 체결 끊김 구간 보충: {} {}ms", gap.getMarket(), gap.getDurationMillis());
+    backfill(gap.getMarket(), lastBefore, gap.getResumedTradeMillis()).subscribe();
+  }
+
+  //마켓 1개 보충 (실패해도 다른 마켓은 계속, 보류는 항상 해제)
+  private Mono<Integer> backfill(String market, long gapStartMillis, long gapEndMillis) {
+    int symbolId = symbolRegistry.idOf(UPBIT, market);
+    int count = (int) Math.min(MAX_CANDLES_PER_CALL, (gapEndMillis - gapStartMillis) / 60_000L + 2);
+    return throttle()
+            .then(Mono.defer(() -> upbitBulkhead.protect(
+                    upbitClient.getMinuteCandles(market, 1, count, Instant.ofEpochMilli(gapEndMillis)))))
+            .retryWhen(Retry.backoff(RATE_LIMIT_RETRIES, RATE_LIMIT_BACKOFF)
+                    .filter(ExchangeBulkhead::isRateLimited)
+                    .doBeforeRetry(signal -> rateLimitRetries.incrementAndGet()))
+            .map(candles -> {
+              int added = snapshotBuffer.backfillGap(symbolId, gapStartMillis, gapEndMillis,
+                      candles.stream().map(this::toCandleData).toList());
+              marketsBackfilled.incrementAndGet();
+              snapshotsAdded.addAndGet(added);
+              backfilledUntil.merge(symbolId, gapEndMillis, Math::max);
+              return added;
+            })
+            .onErrorResume(e -> {
+              failures.incrementAndGet();
+              log.warn("⚠️ 끊김 구간 보충 실패 {}: {}", market, e.toString());
+              return Mono.empty();
+            })
+            .doFinally(signal -> {
+              if (pending.remove(symbolId)) {
+                pendingCount.decrementAndGet();
+              }
+            });
+  }
+
+  /**
+   * 호출 속도 제한: 다음 빈 시각을 예약하고 그때까지 대기 (초당 최대 호출 수, 재시도도 다시 예약)
+   * 예약은 CAS 1번, 대기는 타이머 (스레드를 붙잡지 않음)
+   */
+  private Mono<Long> throttle() {
+    return Mono.defer(() -> {
+      long now = System.currentTimeMillis();
+      long slot = nextRequestMillis.getAndUpdate(next -> Math.max(next, now) + requestIntervalMillis);
+      long waitMillis = Math.max(slot, now) - now;
+      return (waitMillis > 0) ? Mono.delay(Duration.ofMillis(waitMillis)) : Mono.just(0L);
+    });
+  }
+
+  private CandleData toCandleData(UpbitCandleResponse candle) {
+    return CandleData.builder()
+            .marketCode(candle.getMarket())
+            .timestamp(Instant.parse(candle.getCandleDateTimeUtc() + "Z"))
+            .closePrice(candle.getTradePrice())
+            .accTradePrice(candle.getCandleAccTradePrice())
+            .build();
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("outages", outages.get());
+    stats.put("lastOutageMs", lastOutageMillis);
+    stats.put("lastBackfillMs", lastBackfillMillis);
+    stats.put("marketsBackfilled", marketsBackfilled.get());
+    stats.put("snapshotsAdded", snapshotsAdded.get());
+    stats.put("failures", failures.get());
+    stats.put("rateLimitRetries", rateLimitRetries.get());
+    stats.put("pendingMarkets", pendingCount.get());
+    stats.put("tradeGaps", tradeGaps.get());
+    stats.put("tradeGapsCovered", tradeGapsCovered.get());
+    stats.put("lastGapMsByMarket", lastGapMillisByMarket);
+    return stats;
+  }
+}
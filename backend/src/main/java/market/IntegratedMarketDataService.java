@@ -1,13 +1,26 @@
 package coinalarm.Coin_Alarm.market;
 
+import coinalarm.Coin_Alarm.alarm.AlarmEvent;
+import coinalarm.Coin_Alarm.alarm.AlarmEventRecorder;
 import coinalarm.Coin_Alarm.alarm.AlarmThresholdManager;
 import coinalarm.Coin_Alarm.buffer.MultiTieredSnapshotBuffer;
 import coinalarm.Coin_Alarm.coin.CoinResponseDto;
+import coinalarm.Coin_Alarm.coin.CoinStatsWriteBehind;
 import coinalarm.Coin_Alarm.exchange.*;
+import coinalarm.Coin_Alarm.storage.CandleStore;
+import coinalarm.Coin_Alarm.storage.MarketStateCheckpointer;
+import coinalarm.Coin_Alarm.storage.TickJournal;
+import coinalarm.Coin_Alarm.storage.VolumeBaselineStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.util.retry.Retry;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -38,6 +51,31 @@ public class IntegratedMarketDataService {
   private final MultiTieredSnapshotBuffer snapshotBuffer;  // 스냅샷 버퍼
   private final AlarmThresholdManager alarmManager;        // 알람 관리
   private final SimpMessagingTemplate messagingTemplate;   // WebSocket 전송
+  private final VolumeBaselineStore volumeBaselineStore;   // 시간대별 RVOL 기준값
+  private final TickJournal tickJournal;                   // 디스크 틱 저널 (웜 리스타트)
+  private final MarketStateCheckpointer checkpointer;      // 인메모리 상태 체크포인트
+  private final CandleStore candleStore;                   // 1분봉 로컬 저장소
+  private final CoinStatsWriteBehind coinStatsWriteBehind; // coin 테이블 통계 write-behind
+  private final AlarmEventRecorder alarmEventRecorder;     // 알람 이력 (append-only)
+  private final LiveMarketCapTracker marketCapTracker;     // 실시간 시가총액/등급 (가격 × 유통 공급량)
+  private final FxRateProvider fxRateProvider;             // USDT → KRW 실시간 환율
+  private final CrossExchangeSpreadMonitor spreadMonitor;  // 거래소 간 프리미엄 (스트리밍 조인)
+  private final SymbolRegistry symbolRegistry;             // 거래소-마켓 → 심볼 ID
+  private final ConsolidatedVolumeAggregator consolidatedVolume; // 거래소 통합 거래대금 (원화)
+  private final ExchangeBulkheads bulkheads;               // 거래소별 전용 스레드/큐/서킷 브레이커
+  private final GapBackfiller gapBackfiller;               // 소켓 끊김 구간 REST 보충
+  private final TradeFlowWindows tradeFlow;                // 체결 방향별 거래대금 창 (업비트 체결 ask_bid)
+
+  //재시작 시 저널에서 복원할 기간 (스냅샷 버퍼 최대 보관 기간과 동일)
+  private static final Duration WARM_RESTART_WINDOW = MultiTieredSnapshotBuffer.RETENTION;
+
+  //즐겨찾기 프라이밍 기간 (1분봉 240개)과, 로컬 저장소만으로 충분하다고 볼 최소 개수 (90%)
+  private static final int PRIME_MINUTES = 240;
+  private static final int PRIME_LOCAL_MIN_CANDLES = PRIME_MINUTES * 9 / 10;
+
+  //마켓 목록 조회 실패 시 재시도 간격 (지수 백오프, 성공할 때까지)
+  private static final Duration MARKET_LIST_RETRY_MIN = Duration.ofSeconds(2);
+  private static final Duration MARKET_LIST_RETRY_MAX = Duration.ofMinutes(2);
 
   //모든 거래소 클라이언트 관리
   //Spring이 ExchangeClient 인터페이스를 구현한 모든 Bean을 자동으로 주입
@@ -47,49 +85,128 @@ public class IntegratedMarketDataService {
   //구조:Map<거래소ID, Set<마켓코드> 형태  예: {"UPBIT" -> ["KRW-BTC", "KRW-ETH", ...], "BINANCE_SPOT" -> [...]}
   private final Map<String, Set<String>> favoritesByExchange;
 
-  //거래소별 시가총액 정보캐시
-  private final Map<String, Map<String, MarketCapInfo>> marketCapCache;
-
   @Autowired
   public IntegratedMarketDataService(
           MultiTieredSnapshotBuffer snapshotBuffer,
           AlarmThresholdManager alarmManager,
           SimpMessagingTemplate messagingTemplate,
+          VolumeBaselineStore volumeBaselineStore,
+          TickJournal tickJournal,
+          MarketStateCheckpointer checkpointer,
+          CandleStore candleStore,
+          CoinStatsWriteBehind coinStatsWriteBehind,
+          AlarmEventRecorder alarmEventRecorder,
+          LiveMarketCapTracker marketCapTracker,
+          FxRateProvider fxRateProvider,
+          CrossExchangeSpreadMonitor spreadMonitor,
+          SymbolRegistry symbolRegistry,
+          ConsolidatedVolumeAggregator consolidatedVolume,
+          ExchangeBulkheads bulkheads,
+          GapBackfiller gapBackfiller,
+          TradeFlowWindows tradeFlow,
           List<ExchangeClient> exchangeClients //모든 거래소 클라이언트 자동주입
   ) {
     this.snapshotBuffer = snapshotBuffer;
     this.alarmManager = alarmManager;
     this.messagingTemplate = messagingTemplate;
+    this.volumeBaselineStore = volumeBaselineStore;
+    this.tickJournal = tickJournal;
+    this.checkpointer = checkpointer;
+    this.candleStore = candleStore;
+    this.coinStatsWriteBehind = coinStatsWriteBehind;
+    this.alarmEventRecorder = alarmEventRecorder;
+    this.marketCapTracker = marketCapTracker;
+    this.fxRateProvider = fxRateProvider;
+    this.spreadMonitor = spreadMonitor;
+    this.symbolRegistry = symbolRegistry;
+    this.consolidatedVolume = consolidatedVolume;
+    this.bulkheads = bulkheads;
+    this.gapBackfiller = gapBackfiller;
+    this.tradeFlow = tradeFlow;
     this.exchangeClients = exchangeClients;
     this.favoritesByExchange = new ConcurrentHashMap<>();
-    this.marketCapCache = new ConcurrentHashMap<>();
 
     System.out.println("✅ IntegratedMarketDataService 초기화");
     System.out.println("🔌 연결된 거래소: " + exchangeClients.size() + "개");
 
+    // 체크포인트 복원 → 체크포인트 이후분만 저널에서 재생 (REST 프라이밍 없이 웜 스타트)
+    restoreFromCheckpoint();
+    warmUpFromJournal();
+
     // 각 거래소별로 실시간 데이터 구독 시작
     initializeExchangeStreams();
   }
 
-  //모든 거래소의 실시간 Ticker 스틀미 구독
+  /**
+   * ⭐ [체크포인트] 섹션 등록 + 복원
+   * - snapshotBuffer: 다계층 스냅샷 버퍼
+   * - alarmThresholds: 기본/커스텀 임계값, 거래소 활성화
+   * - favorites: 거래소별 즐겨찾기
+   * - liveMarketCap: 마켓별 마지막 가격 (시가총액 등급/인덱스 재구성용)
+   */
+  private void restoreFromCheckpoint() {
+    checkpointer.register("snapshotBuffer", snapshotBuffer::writeCheckpoint);
+    checkpointer.register("alarmThresholds", alarmManager::writeCheckpoint);
+    checkpointer.register("favorites", this::writeFavorites);
+    checkpointer.register("liveMarketCap", marketCapTracker::writeCheckpoint);
+
+    checkpointer.restore("snapshotBuffer", snapshotBuffer::readCheckpoint);
+    checkpointer.restore("alarmThresholds", alarmManager::readCheckpoint);
+    checkpointer.restore("favorites", this::readFavorites);
+    checkpointer.restore("liveMarketCap", marketCapTracker::readCheckpoint);
+  }
+
+  //디스크 저널 → 스냅샷 버퍼 순차 재생 (체크포인트가 있으면 그 이후분만)
+  private void warmUpFromJournal() {
+    long started = System.nanoTime();
+    Instant now = Instant.now();
+    Instant from = now.minus(WARM_RESTART_WINDOW);
+    Instant checkpointTime = checkpointer.getCheckpointTime();
+    if (checkpointTime != null && checkpointTime.isAfter(from)) {
+      from = checkpointTime;
+    }
+    long replayed = tickJournal.replay(from, now, snapshotBuffer::addSnapshot);
+    System.out.println("♻️ 틱 저널 재생 완료: " + replayed + "건, "
+            + (System.nanoTime() - started) / 1_000_000 + "ms");
+  }
+
+  /**
+   * 모든 거래소의 실시간 Ticker 스트림 구독
+   * ⭐ [변경] 거래소마다 격벽(ExchangeBulkhead) 적용
+   * - 마켓 목록 REST: 거래소 전용 REST 스레드 + 타임아웃 + 서킷 브레이커
+   * - 틱 처리: 거래소 전용 스레드 (고정 크기 큐) → 한 거래소가 밀려도 다른 거래소 지연 없음
+   * - 틱 1개 처리 중 예외는 격벽에 기록만 하고 스트림은 유지
+   * - ⭐ [변경] 마켓 목록 조회가 실패하면 백오프로 재시도 (시도마다 격벽 경유 → 브레이커가 실패를 셈)
+   */
   private void initializeExchangeStreams() {
     for (ExchangeClient exchange : exchangeClients) {
       String exchangeId = exchange.getExchangeId();
+      ExchangeBulkhead bulkhead = bulkheads.forExchange(exchangeId);
       System.out.println("🔄 " + exchangeId + " 실시간 스트림 구독 중...");
 
       //모든 마켓 코드조회
-      exchange.getAllMarketCodes()
+      bulkhead.protect(exchange.getAllMarketCodes())
+              .retryWhen(Retry.backoff(Long.MAX_VALUE, MARKET_LIST_RETRY_MIN)
+                      .maxBackoff(MARKET_LIST_RETRY_MAX)
+                      .doBeforeRetry(signal -> System.err.println("⚠️ " + exchangeId + " 마켓 목록 조회 재시도 ("
+                              + (signal.totalRetries() + 1) + "회째): " + signal.failure().getMessage())))
               .subscribe(marketCodes -> {
                 System.out.println("✅ " + exchangeId + ": " + marketCodes.size() + "개 마켓 발견");
 
-                //실시간 Ticker 스트림 구독
-                exchange.subscribeTickerStream(marketCodes)
+                //실시간 Ticker 스트림 구독 (거래소 전용 스레드에서 처리)
+                bulkhead.isolate(exchange.subscribeTickerStream(marketCodes))
                         .subscribe(
-                                this::handleTickerSnapshot
+                                snapshot -> {
+                                  try {
+                                    handleTickerSnapshot(snapshot);
+                                  } catch (RuntimeException e) {
+                                    bulkhead.recordHandlerError(e);
+                                  }
+                                }
                                 , error -> System.err.println("❌ " + exchangeId + " 스트림 에러: " + error.getMessage())
                                 , () -> System.out.println("⚠️ " + exchangeId + " 스트림 종료")
                         );
-              });
+              }, error -> System.err.println("❌ " + exchangeId + " 마켓 목록 조회 실패: " + error.getMessage()));
     }
   }
 
@@ -102,11 +219,36 @@ public class IntegratedMarketDataService {
    * 3. 조건 만족 시 프론트엔드로 전송
    */
   private void handleTickerSnapshot(TickerSnapshot snapshot) {
+    //거래소-마켓 → 심볼 ID (틱당 1번, 이후 상태 조회는 배열 인덱스)
+    int symbolId = symbolRegistry.idOf(snapshot.getExchangeId(), snapshot.getMarketCode());
+
     //스냅샷 버퍼에 저장
-    snapshotBuffer.addSnapshot(snapshot);
+    snapshotBuffer.addSnapshot(symbolId, snapshot);
+
+    //디스크 저널에 기록 (메모리 매핑 쓰기, flush는 비동기)
+    tickJournal.append(snapshot);
+
+    //시가총액 등급 갱신 (등급 구간 안이면 비교 2번, 벗어날 때만 재계산)
+    marketCapTracker.onPrice(symbolId, snapshot.getCurrentPrice());
+
+    //환율 + 거래소 간 프리미엄 갱신 (같은 자산의 다른 거래소 마지막 가격과 조인, 할당 없음)
+    long eventTime = snapshot.getTimestamp().toEpochMilli();
+    fxRateProvider.onTicker(snapshot.getExchangeId(), snapshot.getMarketCode(), snapshot.getCurrentPrice(), eventTime);
+    spreadMonitor.onTicker(snapshot.getExchangeId(), snapshot.getMarketCode(), snapshot.getCurrentPrice(), eventTime);
+
+    //거래소 통합 거래대금 갱신 (이 마켓의 기여분 차이만 자산 합계에 반영, 환율 갱신 뒤)
+    consolidatedVolume.onTicker(symbolId, eventTime);
+
+    //coin 테이블은 업비트 심볼 기준 → 업비트 시가총액만 반영 (write-behind가 심볼별 최신 값으로 합침)
+    if ("UPBIT".equals(snapshot.getExchangeId())) {
+      double marketCap = marketCapTracker.getMarketCap(symbolId);
+      if (!Double.isNaN(marketCap)) {
+        coinStatsWriteBehind.recordMarketCap(snapshot.getMarketCode(), marketCap);
+      }
+    }
 
     //알람 조건 체크
-    checkAndTriggerAlarm(snapshot.getExchangeId(), snapshot.getMarkeCode());
+    checkAndTriggerAlarm(symbolId, snapshot.getExchangeId(), snapshot.getMarketCode());
   }
 
   /**
@@ -114,58 +256,97 @@ public class IntegratedMarketDataService {
    * <p>
    * 동작:
    * 1. 1분 거래대금 계산
-   * 2. 시가총액 조회
+   * 2. 시가총액 등급 조회 (LiveMarketCapTracker, REST 호출 없음)
    * 3. 알람 임계값과 비교
    * 4. 조건 만족 시 프론트엔드로 전송
    */
-  private void checkAndTriggerAlarm(String exchangeId, String marketCode) {
-    Double volume1m = snapshotBuffer.calculateRollingVolume(exchangeId, marketCode, 1); //1분봉
+  private void checkAndTriggerAlarm(int symbolId, String exchangeId, String marketCode) {
+    //⭐ 끊김 구간 보충 전에는 1분 거래대금에 공백 전체가 몰려 있으므로 판정 보류
+    if (gapBackfiller.isBackfilling(symbolId)) {
+      return;
+    }
+    Double volume1m = snapshotBuffer.calculateRollingVolume(symbolId, 1); //1분봉
 
     if (volume1m == null || volume1m == 0) {
       return;
     }
 
-    //시가총액 정보조회
-    MarketCapInfo marketCapInfo = getMarketCapInfo(exchangeId, marketCode);
-    if (marketCapInfo == null) {
+    //시가총액 등급조회 (가격을 아직 못 받은 마켓은 건너뜀)
+    MarketCapTier tier = marketCapTracker.getTier(symbolId);
+    if (tier == null) {
       return;
     }
 
-    //알람조건 체크
+    //⭐ [변경] 임계값은 원화 기준 → USD 견적 마켓(바이낸스 USDT 등)은 환율로 환산, 환율이 없으면 판정 보류
+    SymbolRegistry.SymbolInfo info = symbolRegistry.info(symbolId);
+    if (info != null && FxRateProvider.isUsdQuote(info.getQuote())) {
+      volume1m *= fxRateProvider.getRate(System.currentTimeMillis());
+      if (Double.isNaN(volume1m)) {
+        return;
+      }
+    }
+
+    //알람조건 체크 (coinalarm.consolidated.alarm-enabled면 거래소 통합 1분 거래대금으로 판정)
+    volume1m = consolidatedVolume.alarmVolume1m(symbolId, volume1m);
     boolean shouldAlarm = alarmManager.shouldTriggerAlarm(
             exchangeId,
-            marketCode,
-            marketCapInfo.getTier(),
+            symbolId,
+            tier,
             volume1m
     );
 
     if (shouldAlarm) {
-      //알람발생
-      sendAlarmToFrontend(exchangeId, marketCode, volume1m, marketCapInfo);
+      //알람발생 (시가총액 정보는 알람 때만 생성)
+      sendAlarmToFrontend(symbolId, exchangeId, marketCode, volume1m, marketCapTracker.getInfo(exchangeId, marketCode));
     }
   }
 
   //프론트엔드 알람 전송
   private void sendAlarmToFrontend(
+          int symbolId,
           String exchangeId,
           String marketCode,
           double volume1m,
           MarketCapInfo marketCapInfo
   ){
+    long now = System.currentTimeMillis();
+    //시간대별 평소 거래대금 대비 배수 (메모리 조회, REST 호출 없음)
+    double rvol1m = volumeBaselineStore.getRelativeVolume(exchangeId, marketCode, now, volume1m, 1);
+    //⭐ [신규 추가] 1분 매수/매도 체결 거래대금 (체결 방향을 주는 거래소만, 없으면 0)
+    double buyVolume1m = tradeFlow.getTakerValue(symbolId, 1, true, now);
+    double sellVolume1m = tradeFlow.getTakerValue(symbolId, 1, false, now);
+
     //CoinResponseDto 생성
     CoinResponseDto dto = CoinResponseDto.builder()
-            .exchangeId(exchageId)
+            .exchangeId(exchangeId)
             .symbol(marketCode)
             .volume1m(volume1m)
+            .rvol1m(rvol1m)
+            .buyVolume(buyVolume1m)
+            .sellVolume(sellVolume1m)
+            .tradeFlow(tradeFlow.toDto(symbolId, now))
             .marketCapTier(marketCapInfo.getTier())
-            .timestamp(System.currentTimeMillis())
+            .timestamp(now)
             .build();
 
     //WebSocket으로 전송
     messagingTemplate.convertAndSend("/topic/alarm", dto);
 
+    //알람 이력 기록 (큐에 넣기만 함, DB 저장은 배치로)
+    alarmEventRecorder.record(AlarmEvent.builder()
+            .exchangeId(exchangeId)
+            .symbol(marketCode)
+            .eventTime(now)
+            .alarmType("VOLUME_1M")
+            .volume(volume1m)
+            .rvol(rvol1m)
+            .tier(marketCapInfo.getTier() != null ? marketCapInfo.getTier().name() : null)
+            .message("1분 거래대금 " + formatVolume(volume1m) + buyShareText(buyVolume1m, sellVolume1m))
+            .build());
+
     System.out.println("🔔 알람 발송: " + exchangeId + "/" + marketCode
-            + " (1분봉: " + formatVolume(volume1m) + ", 등급: " + marketCapInfo.getTier() + ")");
+            + " (1분봉: " + formatVolume(volume1m) + ", RVOL: " + String.format("%.1f", rvol1m)
+            + ", 등급: " + marketCapInfo.getTier() + ")");
   }
 
   /**
@@ -173,9 +354,10 @@ public class IntegratedMarketDataService {
    *
    * 동작:
    * 1. 즐겨찾기 목록에 추가
-   * 2. REST API로 과거 4시간 캔들 조회
-   * 3. 스냅샷 버퍼 프라이밍
-   * 4. 프론트엔드로 즉시 데이터 전송
+   * 2. 로컬 캔들 저장소에 과거 4시간이 (거의) 다 있으면 그걸로 바로 프라이밍 (REST 호출 없음)
+   * 3. 없으면 REST API로 과거 4시간 캔들 조회 → 로컬 저장소에도 보관
+   * 4. 스냅샷 버퍼 프라이밍
+   * 5. 프론트엔드로 즉시 데이터 전송
    */
   public void addFavorite(String exchangeId, String marketCode){
     //즐겨찾기 목록에 추가
@@ -187,25 +369,40 @@ public class IntegratedMarketDataService {
 
     //해당 거래소 클라리언트 찾기
     ExchangeClient exchange = findExchangeClient(exchangeId);
-    if(exchange = null){
+    if(exchange == null){
       System.err.println("❌ 거래소 클라이언트 없음: " + exchangeId);
       return;
     }
 
+    //⭐ 로컬 캔들 저장소 우선 (디스크 속도, 요청 제한 없음)
+    Instant now = Instant.now();
+    List<CandleData> localCandles = candleStore.query(
+            exchangeId, marketCode, now.minus(Duration.ofMinutes(PRIME_MINUTES)), now, 1);
+    if(localCandles.size() >= PRIME_LOCAL_MIN_CANDLES){
+      System.out.println("💽 로컬 캔들로 프라이밍: " + exchangeId + "/" + marketCode + " (" + localCandles.size() + "개)");
+      snapshotBuffer.primeBuffer(exchangeId, marketCode, localCandles);
+      sendFavoriteDataToFrontend(exchangeId, marketCode);
+      return;
+    }
+
     //REST API로 과거 4시간 캔들 조회
-    exchange.getHistoricalCandles(maketcode,1,240) //1분봉 240개 = 4시간
+    //거래소 격벽 경유 (전용 REST 스레드 + 서킷 브레이커, OPEN이면 바로 실패)
+    bulkheads.forExchange(exchangeId).protect(exchange.getHistoricalCandles(marketCode,1,PRIME_MINUTES)) //1분봉 240개 = 4시간
             .subscribe(candles->{
               if(candles.isEmpty()){
                 System.out.println("⚠️ 과거 데이터 없음: " + exchangeId + "/" + marketCode);
                 return;
               }
 
+              //받은 캔들은 로컬 저장소에도 보관 → 다음 프라이밍/차트/백테스트는 로컬에서
+              candleStore.append(exchangeId, marketCode, candles);
+
               //스냅샷 버퍼 프라이밍
               snapshotBuffer.primeBuffer(exchangeId, marketCode, candles);
 
               //프론트엔드로 즉시 데이터 전송
               sendFavoriteDataToFrontend(exchangeId, marketCode);
-            });
+            }, error -> System.err.println("❌ 과거 캔들 조회 실패: " + exchangeId + "/" + marketCode + " - " + error.getMessage()));
   }
   /**
    * ⭐ [즐겨찾기] 프론트엔드로 즐겨찾기 데이터 전송
@@ -235,7 +432,7 @@ public class IntegratedMarketDataService {
             .volume5m(volumeData.get("volume5m"))
             .volume15m(volumeData.get("volume15m"))
             .volume1h(volumeData.get("volume1h"))
-            .volume24h(volumeData.get("volume24h"))
+            .accTradePrice24h(volumeData.get("volume24h"))
             .change1m(priceChangeData.get("change1m"))
             .change5m(priceChangeData.get("change5m"))
             .change24h(priceChangeData.get("change24h"))
@@ -258,28 +455,38 @@ public class IntegratedMarketDataService {
     }
   }
 
-  //시가총액 정보조회
-  private MarketCapInfo getMarketCapInfo(String exchangeId, String marketCode){
-    return marketCapCache
-            .computeIfAbsent(exchangeId, k->new ConcurrentHashMap<>())
-            .computeIfAbsent(marketCode, k->{
-              //캐시에 없으면 API 호출
-              ExchangeClient exchange = findExchangeClient(exchangeId);
-              if(exchange == null) return null;
-
-              return exchange.getMarketCap(maketCode).block();
-              //블록거는건 위험하긴 한것같은데 나중에 확인해보기
-            });
-  }
-
   //거래소 클라이언트 찾기
-  private ExchaneClient findExchangeClient(String exchangeId){
-    return exchangeClient.stream()
-            .filter(clinet->clint.getExchangeId().equals(exchangeId))
+  private ExchangeClient findExchangeClient(String exchangeId){
+    return exchangeClients.stream()
+            .filter(client -> client.getExchangeId().equals(exchangeId))
             .findFirst()
             .orElse(null);
   }
 
+  //즐겨찾기 체크포인트: 반복 { true, UTF 거래소, int 개수, UTF 마켓... }, false
+  private void writeFavorites(DataOutputStream out) throws IOException {
+    for (Map.Entry<String, Set<String>> entry : favoritesByExchange.entrySet()) {
+      List<String> markets = new ArrayList<>(entry.getValue());
+      out.writeBoolean(true);
+      out.writeUTF(entry.getKey());
+      out.writeInt(markets.size());
+      for (String market : markets) {
+        out.writeUTF(market);
+      }
+    }
+    out.writeBoolean(false);
+  }
+
+  private void readFavorites(DataInputStream in) throws IOException {
+    while (in.readBoolean()) {
+      Set<String> favorites = favoritesByExchange.computeIfAbsent(in.readUTF(), k -> ConcurrentHashMap.newKeySet());
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        favorites.add(in.readUTF());
+      }
+    }
+  }
+
   //거래대금 포멧팅
   private String formatVolume(double volume) {
     if (volume >= 1_000_000_000_000L) {
@@ -291,4 +498,10 @@ public class IntegratedMarketDataService {
     }
     return String.format("%.0f만", volume / 10_000.0);
   }
+
+  //알람 메시지용 매수 비중 (체결 방향 데이터가 없으면 빈 문자열)
+  private String buyShareText(double buyVolume, double sellVolume) {
+    double total = buyVolume + sellVolume;
+    return (total > 0) ? String.format(" (매수 %.0f%%)", buyVolume / total * 100) : "";
+  }
 }
@@ -0,0 +1,363 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.exchange.MarketCapInfo;
+import coinalarm.Coin_Alarm.exchange.MarketCapTier;
+import coinalarm.Coin_Alarm.exchange.SymbolArray;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ⭐ [신규 추가] 실시간 시가총액 / 등급 추적
+ *
+ * 목적: 시가총액 = 마지막 가격 × 유통 공급량 (CirculatingSupplyTable)
+ *       → 마켓당 REST 호출 제거, 가격이 움직이면 등급도 따라 바뀜
+ *
+ * 동작:
+ * 1. 등급이 정해지면 그 등급의 가격 구간 [하한가, 상한가)을 미리 계산해 둠
+ *    (하한가 = 등급 하한 시가총액 / 공급량, 상한가 = 등급 상한 시가총액 / 공급량)
+ * 2. onPrice(): 가격이 구간 안이면 비교 2번으로 끝 (곱셈/할당 없음)
+ * 3. 구간을 벗어났을 때만 등급 재계산 → 등급 변경 이벤트로 등급별 마켓 인덱스 갱신
+ * 4. 공급량 파일이 재로딩되면 모든 마켓의 구간을 다시 계산
+ *
+ * 보드 필터 인덱스: 거래소 → 보드 필터(대형/중형/소형) → 마켓 집합 → 필터 조회 O(1) (DB 범위 조회 대체)
+ * - 보드 필터 경계는 기존 DB 조회와 같음: 대형 5조 이상, 중형 7천억~5조, 소형 5백억~7천억 (알람 등급과 별개)
+ * - 공급량을 모르는 마켓은 어느 필터에도 넣지 않음 (보드는 DB 시가총액으로 보충, MarketDataService)
+ * 알람 등급: 공급량을 모르면 기본 등급(DEFAULT_TIER) → 알람은 계속 동작
+ * 가격 단위: 원화 (KRW 마켓은 그대로, USD 스테이블 마켓은 FxRateProvider 환율로 환산, 환율이 없으면 등급 보류)
+ * - 그 외 견적 자산(BTC 마켓 등)은 시가총액 계산 대상 아님 → 기본 등급
+ * 마켓 상태: 심볼 ID 인덱스 배열 (틱 경로는 int ID 오버로드 사용)
+ */
+@Component
+public class LiveMarketCapTracker {
+
+  private static final Logger log = LoggerFactory.getLogger(LiveMarketCapTracker.class);
+
+  private static final String KRW = "KRW";
+
+  //시가총액을 모르는 마켓의 알람 등급 (원화/USD 견적 마켓이 아니거나 공급량 미등록)
+  public static final MarketCapTier DEFAULT_TIER = MarketCapTier.MEDIUM;
+
+  //시가총액 계산 대상이 아닌 마켓 표시 (원화/USD 견적 마켓이 아님)
+  private static final MarketCapState IGNORED = new MarketCapState(null, null, null, false);
+
+  /**
+   * 보드 필터 (large/mid/small) - 경계는 기존 coinDao.findByMarketCapBetween 조회와 같음
+   * 하한 미만(5백억 미만)은 어느 필터에도 속하지 않음
+   */
+  public enum BoardFilter {
+    LARGE(5_000_000_000_000.0, Double.POSITIVE_INFINITY), // 5조 이상
+    MID(700_000_000_000.0, 5_000_000_000_000.0),          // 7천억 ~ 5조
+    SMALL(50_000_000_000.0, 700_000_000_000.0);           // 5백억 ~ 7천억
+
+    private final double lower;
+    private final double upper;
+
+    BoardFilter(double lower, double upper) {
+      this.lower = lower;
+      this.upper = upper;
+    }
+
+    //시가총액 → 필터 (5백억 미만이면 null)
+    public static BoardFilter fromMarketCap(double marketCap) {
+      for (BoardFilter filter : values()) {
+        if (marketCap >= filter.lower) {
+          return filter;
+        }
+      }
+      return null;
+    }
+
+    public double getLower() {
+      return lower;
+    }
+
+    public double getUpper() {
+      return upper;
+    }
+  }
+
+  private final CirculatingSupplyTable supplyTable;
+  private final SymbolRegistry symbolRegistry;
+  private final FxRateProvider fxRateProvider; // USD 견적 마켓 가격 → 원화
+
+  //심볼 ID → 상태
+  private final SymbolArray<MarketCapState> states = new SymbolArray<>();
+
+  //거래소 → 보드 필터 → 마켓 집합
+  private final Map<String, Map<BoardFilter, Set<String>>> filterIndex = new ConcurrentHashMap<>();
+
+  public LiveMarketCapTracker(CirculatingSupplyTable supplyTable, SymbolRegistry symbolRegistry,
+                              FxRateProvider fxRateProvider) {
+    this.supplyTable = supplyTable;
+    this.symbolRegistry = symbolRegistry;
+    this.fxRateProvider = fxRateProvider;
+    supplyTable.addReloadListener(this::retierAll);
+  }
+
+  /**
+   * ⭐ [핵심] 가격 갱신 (틱마다 호출)
+   * 등급 구간 안이면 상태 필드 1개 쓰기 + 비교 2번
+   */
+  public void onPrice(String exchangeId, String marketCode, double price) {
+    if (price > 0) {
+      onPrice(symbolRegistry.idOf(exchangeId, marketCode), price);
+    }
+  }
+
+  //심볼 ID 버전 (틱 경로: 배열 조회 1번)
+  public void onPrice(int symbolId, double price) {
+    if (!(price > 0)) {
+      return;
+    }
+    MarketCapState state = stateFor(symbolId);
+    if (state == IGNORED) {
+      return;
+    }
+    if (state.usdQuoted) {
+      price *= fxRateProvider.getRate(System.currentTimeMillis());
+      if (Double.isNaN(price)) {
+        return; // 환율이 생기기 전에는 등급 보류 (원화 기준 임계값과 비교할 수 없음)
+      }
+    }
+    applyKrwPrice(state, price);
+  }
+
+  //원화 가격 반영 (구간 밖일 때만 재계산)
+  private void applyKrwPrice(MarketCapState state, double krwPrice) {
+    state.lastPrice = krwPrice;
+    if (krwPrice < state.lowerPrice || krwPrice >= state.upperPrice) {
+      retier(state);
+    }
+  }
+
+  //현재 알람 등급 (가격을 한 번도 못 받은 마켓은 null, 원화/USD 견적 마켓이 아니면 기본 등급)
+  public MarketCapTier getTier(String exchangeId, String marketCode) {
+    return getTier(symbolRegistry.find(exchangeId, marketCode));
+  }
+
+  public MarketCapTier getTier(int symbolId) {
+    MarketCapState state = states.get(symbolId);
+    if (state == IGNORED) {
+      return DEFAULT_TIER;
+    }
+    return state != null ? state.tier : null;
+  }
+
+  //시가총액 (공급량을 모르거나 가격이 없으면 NaN, 할당 없음)
+  public double getMarketCap(String exchangeId, String marketCode) {
+    return getMarketCap(symbolRegistry.find(exchangeId, marketCode));
+  }
+
+  public double getMarketCap(int symbolId) {
+    MarketCapState state = states.get(symbolId);
+    return (state != null && state != IGNORED) ? state.lastPrice * state.supply : Double.NaN;
+  }
+
+  //시가총액 정보 (공급량을 모르거나 원화/USD 견적 마켓이 아니면 marketCap = null, 등급은 기본 등급)
+  public MarketCapInfo getInfo(String exchangeId, String marketCode) {
+    MarketCapState state = states.get(symbolRegistry.find(exchangeId, marketCode));
+    if (state == IGNORED) {
+      return MarketCapInfo.builder().marketCode(marketCode).tier(DEFAULT_TIER).build();
+    }
+    if (state == null || state.tier == null) {
+      return null;
+    }
+    double supply = state.supply;
+    return MarketCapInfo.builder()
+            .marketCode(marketCode)
+            .marketCap(Double.isNaN(supply) ? null : state.lastPrice * supply)
+            .tier(state.tier)
+            .build();
+  }
+
+  //보드 필터별 마켓 목록 (읽기 전용 뷰, 실시간 반영, 공급량을 모르는 마켓은 없음)
+  public Set<String> getMarketsInFilter(String exchangeId, BoardFilter filter) {
+    return Collections.unmodifiableSet(indexFor(exchangeId).get(filter));
+  }
+
+  //공급량이 등록된 자산의 마켓인지 (아니면 보드 필터는 DB 시가총액으로 보충)
+  public boolean hasSupply(String exchangeId, String marketCode) {
+    SymbolRegistry.SymbolInfo info = symbolRegistry.info(symbolRegistry.find(exchangeId, marketCode));
+    return info != null && !Double.isNaN(supplyTable.getSupply(info.getBase()));
+  }
+
+  //보드 필터별 마켓 수 + 공급량 미등록 마켓 수 (모니터링용)
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("supplyAssets", supplyTable.size());
+    filterIndex.forEach((exchangeId, index) -> {
+      Map<String, Integer> counts = new HashMap<>();
+      index.forEach((filter, markets) -> counts.put(filter.name(), markets.size()));
+      stats.put(exchangeId, counts);
+    });
+    int unknownSupply = 0;
+    for (int id = 0; id < states.capacity(); id++) {
+      MarketCapState state = states.get(id);
+      if (state != null && state != IGNORED && Double.isNaN(state.supply)) {
+        unknownSupply++;
+      }
+    }
+    stats.put("unknownSupplyMarkets", unknownSupply);
+    return stats;
+  }
+
+  /**
+   * 등급/보드 필터 재계산 + 가격 구간 갱신 + 필터 변경 시 인덱스 이동
+   * 가격 구간 = 알람 등급 구간 ∩ 보드 필터 구간 (둘 중 하나라도 바뀔 가격이면 구간 밖)
+   * (같은 마켓은 보통 한 스레드에서 갱신되지만 재로딩과 겹칠 수 있어 마켓 단위로 잠금)
+   */
+  private void retier(MarketCapState state) {
+    synchronized (state) {
+      double supply = supplyTable.getSupply(state.assetSymbol);
+      double price = state.lastPrice;
+      MarketCapTier newTier;
+      BoardFilter newFilter;
+      if (Double.isNaN(supply) || !(price > 0)) {
+        //공급량을 모르면 기본 알람 등급, 보드 필터에서는 제외 (재로딩 전까지 다시 계산하지 않음)
+        newTier = DEFAULT_TIER;
+        newFilter = null;
+        state.lowerPrice = Double.NEGATIVE_INFINITY;
+        state.upperPrice = Double.POSITIVE_INFINITY;
+      } else {
+        double marketCap = price * supply;
+        newTier = MarketCapTier.fromMarketCap(marketCap);
+        newFilter = BoardFilter.fromMarketCap(marketCap);
+        double filterLower = (newFilter != null) ? newFilter.lower : 0.0;
+        double filterUpper = (newFilter != null) ? newFilter.upper : BoardFilter.SMALL.lower;
+        state.lowerPrice = Math.max(newTier.getThreshold(), filterLower) / supply;
+        state.upperPrice = Math.min(newTier.getUpperBound(), filterUpper) / supply;
+      }
+      state.supply = supply;
+
+      BoardFilter oldFilter = state.filter;
+      if (newFilter != oldFilter) {
+        Map<BoardFilter, Set<String>> index = indexFor(state.exchangeId);
+        if (newFilter != null) {
+          index.get(newFilter).add(state.marketCode);
+        }
+        if (oldFilter != null) {
+          index.get(oldFilter).remove(state.marketCode);
+        }
+        state.filter = newFilter;
+      }
+      MarketCapTier oldTier = state.tier;
+      if (newTier != oldTier) {
+        if (oldTier != null) {
+          log.info("🔀 시가총액 등급 변경: {}/{} {} → {} (가격 {})",
+                  state.exchangeId, state.marketCode, oldTier, newTier, price);
+        }
+        state.tier = newTier;
+      }
+    }
+  }
+
+  //공급량 재로딩 → 전 마켓 재계산
+  private void retierAll() {
+    int count = 0;
+    for (int id = 0; id < states.capacity(); id++) {
+      MarketCapState state = states.get(id);
+      if (state != null && state != IGNORED) {
+        retier(state);
+        count++;
+      }
+    }
+    if (count > 0) {
+      log.info("🔄 시가총액 등급 재계산: {}개 마켓", count);
+    }
+  }
+
+  //마켓 상태 (처음 보는 ID면 생성, 원화/USD 견적 마켓이 아니면 IGNORED)
+  private MarketCapState stateFor(int symbolId) {
+    MarketCapState state = states.get(symbolId);
+    if (state != null) {
+      return state;
+    }
+    SymbolRegistry.SymbolInfo info = symbolRegistry.info(symbolId);
+    if (info == null) {
+      return IGNORED; // 아직 공개되지 않은 ID → 캐시하지 않고 다음 틱에 다시 조회
+    }
+    boolean krwQuoted = KRW.equals(info.getQuote());
+    boolean usdQuoted = FxRateProvider.isUsdQuote(info.getQuote());
+    return states.computeIfAbsent(symbolId, id -> (krwQuoted || usdQuoted)
+            ? new MarketCapState(info.getExchangeId(), info.getMarketCode(), info.getBase(), usdQuoted)
+            : IGNORED);
+  }
+
+  private Map<BoardFilter, Set<String>> indexFor(String exchangeId) {
+    return filterIndex.computeIfAbsent(exchangeId, k -> {
+      Map<BoardFilter, Set<String>> index = new EnumMap<>(BoardFilter.class);
+      for (BoardFilter filter : BoardFilter.values()) {
+        index.put(filter, ConcurrentHashMap.newKeySet());
+      }
+      return index;
+    });
+  }
+
+  /**
+   * ⭐ [체크포인트] 마켓별 마지막 가격 저장 → 복원 시 등급/인덱스 재구성 (첫 틱 전에도 등급 필터 동작)
+   * 형식: 반복 { true, UTF 거래소, UTF 마켓, double 원화 가격 }, false
+   */
+  public void writeCheckpoint(DataOutputStream out) throws IOException {
+    for (int id = 0; id < states.capacity(); id++) {
+      MarketCapState state = states.get(id);
+      if (state == null || state == IGNORED) {
+        continue;
+      }
+      out.writeBoolean(true);
+      out.writeUTF(state.exchangeId);
+      out.writeUTF(state.marketCode);
+      out.writeDouble(state.lastPrice);
+    }
+    out.writeBoolean(false);
+  }
+
+  public void readCheckpoint(DataInputStream in) throws IOException {
+    int count = 0;
+    while (in.readBoolean()) {
+      String exchangeId = in.readUTF();
+      String marketCode = in.readUTF();
+      double krwPrice = in.readDouble();
+      MarketCapState state = stateFor(symbolRegistry.idOf(exchangeId, marketCode));
+      if (state != IGNORED && krwPrice > 0) {
+        applyKrwPrice(state, krwPrice); // 이미 원화 환산된 값 → 환율 다시 곱하지 않음
+        count++;
+      }
+    }
+    log.info("♻️ 시가총액 상태 복원: {}개 마켓", count);
+  }
+
+  //마켓 1개 상태
+  private static final class MarketCapState {
+    private final String exchangeId;
+    private final String marketCode;
+    private final String assetSymbol; // KRW-BTC → BTC (SymbolRegistry 기초 자산)
+    private final boolean usdQuoted;  // true면 가격을 환율로 원화 환산 후 반영
+
+    private volatile double lastPrice;
+    private volatile MarketCapTier tier;
+    private volatile BoardFilter filter; // null = 어느 보드 필터에도 없음
+    private volatile double supply = Double.NaN;
+    //현재 등급의 가격 구간 (처음엔 빈 구간 → 첫 가격에서 바로 계산)
+    private volatile double lowerPrice = Double.POSITIVE_INFINITY;
+    private volatile double upperPrice = Double.NEGATIVE_INFINITY;
+
+    private MarketCapState(String exchangeId, String marketCode, String assetSymbol, boolean usdQuoted) {
+      this.exchangeId = exchangeId;
+      this.marketCode = marketCode;
+      this.assetSymbol = assetSymbol;
+      this.usdQuoted = usdQuoted;
+    }
+  }
+}
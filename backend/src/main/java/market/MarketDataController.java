@@ -1,11 +1,20 @@
 package coinalarm.Coin_Alarm.market;
 
 import coinalarm.Coin_Alarm.coin.CoinResponseDto;
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkheads;
+import coinalarm.Coin_Alarm.exchange.ExchangeClient;
+import coinalarm.Coin_Alarm.storage.CandleStore;
+import coinalarm.Coin_Alarm.upbit.UpbitSubscriptionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.TreeMap;
 import java.util.Map; // List가 아닌 Map으로 반환
 import java.util.Set; // Set 임포트
 
@@ -15,10 +24,36 @@ import java.util.Set; // Set 임포트
 public class MarketDataController {
 
   private final MarketDataService marketDataService;
+  private final CandleStore candleStore;
+  private final CrossExchangeSpreadMonitor spreadMonitor;
+  private final ConsolidatedVolumeAggregator consolidatedVolume;
+  private final ExchangeBulkheads bulkheads;
+  private final List<ExchangeClient> exchangeClients;
+  private final GapBackfiller gapBackfiller;
+  private final UpbitSubscriptionManager subscriptionManager;
+  private final TradeFlowWindows tradeFlow;
+  private final OrderBookEngine orderBookEngine;
 
   @Autowired
-  public MarketDataController(MarketDataService marketDataService) {
+  public MarketDataController(MarketDataService marketDataService, CandleStore candleStore,
+                              CrossExchangeSpreadMonitor spreadMonitor,
+                              ConsolidatedVolumeAggregator consolidatedVolume,
+                              ExchangeBulkheads bulkheads,
+                              List<ExchangeClient> exchangeClients,
+                              GapBackfiller gapBackfiller,
+                              UpbitSubscriptionManager subscriptionManager,
+                              TradeFlowWindows tradeFlow,
+                              OrderBookEngine orderBookEngine) {
     this.marketDataService = marketDataService;
+    this.candleStore = candleStore;
+    this.spreadMonitor = spreadMonitor;
+    this.consolidatedVolume = consolidatedVolume;
+    this.bulkheads = bulkheads;
+    this.exchangeClients = exchangeClients;
+    this.gapBackfiller = gapBackfiller;
+    this.subscriptionManager = subscriptionManager;
+    this.tradeFlow = tradeFlow;
+    this.orderBookEngine = orderBookEngine;
   }
 
   /**
@@ -63,4 +98,113 @@ public class MarketDataController {
   public Set<String> getFavoriteMarkets() {
     return marketDataService.getFavoriteMarkets();
   }
-}
\ No newline at end of file
+
+  /**
+   * ⭐ [신규 추가] 로컬 캔들 저장소 구간 조회 (차트용)
+   * 예: /api/candles?market=KRW-BTC&resolution=15&from=2025-10-20T00:00:00Z
+   * from/to를 생략하면 최근 4시간, resolution은 분 단위 (1분봉을 즉석 집계)
+   */
+  @GetMapping("/candles")
+  public List<CandleData> getCandles(@RequestParam(defaultValue = "UPBIT") String exchange,
+                                     @RequestParam String market,
+                                     @RequestParam(defaultValue = "1") int resolution,
+                                     @RequestParam(required = false) Instant from,
+                                     @RequestParam(required = false) Instant to) {
+    Instant end = (to != null) ? to : Instant.now();
+    Instant start = (from != null) ? from : end.minus(Duration.ofHours(4));
+    return candleStore.query(exchange, market, start, end, resolution);
+  }
+
+  /**
+   * ⭐ [신규 추가] 거래소 간 프리미엄 목록 (|프리미엄| 큰 순서)
+   * 실시간 갱신은 STOMP /topic/spread 구독
+   */
+  @GetMapping("/spreads")
+  public List<SpreadResponseDto> getSpreads() {
+    return spreadMonitor.getSpreads();
+  }
+
+  @GetMapping("/spreads/stats")
+  public Map<String, Object> getSpreadStats() {
+    return spreadMonitor.getStats();
+  }
+
+  /**
+   * ⭐ [신규 추가] 자산별 거래소 통합 거래대금 (원화 환산, 1분 거래대금 큰 순서)
+   */
+  @GetMapping("/volume/consolidated")
+  public List<ConsolidatedVolumeDto> getConsolidatedVolumes() {
+    return consolidatedVolume.getVolumes();
+  }
+
+  @GetMapping("/volume/consolidated/stats")
+  public Map<String, Object> getConsolidatedVolumeStats() {
+    return consolidatedVolume.getStats();
+  }
+
+  /**
+   * ⭐ [신규 추가] 거래소별 격벽 상태
+   * health: STARTING / HEALTHY / DEGRADED(브레이커 열림) / STALLED(틱 끊김) / DOWN(스트림 종료)
+   */
+  @GetMapping("/system/status")
+  public Map<String, Object> getSystemStatus() {
+    return bulkheads.getStatus();
+  }
+
+  /**
+   * ⭐ [신규 추가] 거래소별 실시간 스트림 지표
+   * 스트림마다 받은/발행/병합(밀려서 버린) 틱, 대기 마켓 수, 구독자 요청 잔량, 이벤트 지연
+   */
+  @GetMapping("/system/streams")
+  public Map<String, Object> getStreamStats() {
+    Map<String, Object> streams = new TreeMap<>();
+    for (ExchangeClient client : exchangeClients) {
+      streams.put(client.getExchangeId(), client.getStreamStats());
+    }
+    return streams;
+  }
+
+  /**
+   * ⭐ [신규 추가] 소켓 끊김 구간 보충 지표
+   * 끊김 횟수/마지막 끊김 시간, 보충한 마켓/스냅샷 수, 실패, 보충 중(알람 보류) 마켓 수, 마켓별 마지막 공백
+   */
+  @GetMapping("/system/gaps")
+  public Map<String, Object> getGapStats() {
+    return gapBackfiller.getStats();
+  }
+
+  /**
+   * ⭐ [신규 추가] 업비트 구독 상태
+   * 상장 마켓 수, 목록 갱신/실패 횟수, 누적·마지막 신규 상장/상장폐지, 추가 타입 피드별 마켓
+   */
+  @GetMapping("/system/subscriptions")
+  public Map<String, Object> getSubscriptionStats() {
+    return subscriptionManager.getStats();
+  }
+
+  /**
+   * ⭐ [신규 추가] 체결 방향 창 지표 (집계 중인 마켓 수, 반영한 체결 수, 창보다 늦게 와서 버린 체결 수)
+   */
+  @GetMapping("/system/trade-flow")
+  public Map<String, Object> getTradeFlowStats() {
+    return tradeFlow.getStats();
+  }
+
+  /**
+   * ⭐ [신규 추가] 업비트 상위 N호가 + 지표 (스프레드, ±depth-pct% 잔량 금액, 불균형)
+   * 호가 구독 대상(핫 마켓, 즐겨찾기)이 아니면 404
+   */
+  @GetMapping("/orderbook/{market}")
+  public ResponseEntity<Map<String, Object>> getOrderBook(@PathVariable String market) {
+    OrderBook book = orderBookEngine.getBook(market);
+    if (book == null) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+    return ResponseEntity.ok(book.toMap());
+  }
+
+  @GetMapping("/system/orderbook")
+  public Map<String, Object> getOrderBookStats() {
+    return orderBookEngine.getStats();
+  }
+}
@@ -3,8 +3,20 @@ package coinalarm.Coin_Alarm.market;
 import coinalarm.Coin_Alarm.coin.Coin;
 import coinalarm.Coin_Alarm.coin.CoinDao;
 import coinalarm.Coin_Alarm.coin.CoinResponseDto;
+import coinalarm.Coin_Alarm.coin.CoinStatsWriteBehind;
+import coinalarm.Coin_Alarm.codec.JsonScanner;
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkhead;
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkheads;
+import coinalarm.Coin_Alarm.exchange.SymbolArray;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import coinalarm.Coin_Alarm.exchange.TickBus;
+import coinalarm.Coin_Alarm.storage.CandleStore;
+import coinalarm.Coin_Alarm.storage.MarketStateCheckpointer;
+import coinalarm.Coin_Alarm.storage.VolumeBaselineStore;
 import coinalarm.Coin_Alarm.upbit.UpbitClient;
 import coinalarm.Coin_Alarm.upbit.UpbitCandleResponse;
+import coinalarm.Coin_Alarm.upbit.UpbitMessageFormat;
+import coinalarm.Coin_Alarm.upbit.UpbitSubscriptionManager;
 import coinalarm.Coin_Alarm.upbit.UpbitTickerResponse;
 import coinalarm.Coin_Alarm.upbit.UpbitWSC;
 
@@ -13,13 +25,19 @@ import jakarta.annotation.PostConstruct;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
@@ -35,20 +53,34 @@ MarketDataService {
   private final UpbitWSC upbitWSC;
   private final UpbitClient upbitClient;
   private final CoinDao coinDao;
+  private final VolumeBaselineStore volumeBaselineStore; // 시간대별 RVOL 기준값
+  private final MarketStateCheckpointer checkpointer;    // 인메모리 상태 체크포인트
+  private final CandleStore candleStore;                 // 1분봉 로컬 저장소
+  private final CoinStatsWriteBehind coinStatsWriteBehind; // coin 테이블 통계 write-behind
+  private final LiveMarketCapTracker marketCapTracker;   // 실시간 시가총액 등급 (등급 필터)
+  private final SymbolRegistry symbolRegistry;           // 마켓 코드 → 심볼 ID
+  private final ConsolidatedVolumeAggregator consolidatedVolume; // 거래소 통합 거래대금 (보드 표시)
+  private final ExchangeBulkhead upbitBulkhead;          // 업비트 REST 전용 스레드 + 서킷 브레이커
+  private final UpbitSubscriptionManager subscriptionManager; // 상장 변경/추가 피드 → 재연결 없이 구독 변경
+  private final TradeFlowWindows tradeFlow;              // 체결 방향별 거래대금/건수 창 (ask_bid)
+  private final OrderBookEngine orderBookEngine;         // 즐겨찾기/핫 마켓 호가 (스프레드, 불균형)
 
-  // --- 캐시 저장소들 ---
-  private final ConcurrentHashMap<String, UpbitTickerResponse> latestTickers = new ConcurrentHashMap<>(); //rest apit
-  private final ConcurrentHashMap<String, Double> latest1MinuteVolume = new ConcurrentHashMap<>();
-  private final ConcurrentHashMap<String, Double> latest5MinuteVolume = new ConcurrentHashMap<>();
-  private final ConcurrentHashMap<String, Double> latest15MinuteVolume = new ConcurrentHashMap<>();
-  private final ConcurrentHashMap<String, Double> latest1HourVolume = new ConcurrentHashMap<>();
+  // ticker 피드 키 (업비트 응답 포맷에 따라 DEFAULT/SIMPLE 키, 생성 시 한 번 결정)
+  private final String codeKey;
+  private final String accTradePrice24hKey;
+  private final String signedChangeRateKey;
 
-  // 매수/매도 비율 캐시 (key: 마켓 코드, value: Map<String, Double> (키: "buyRatio", "sellRatio"))
-  private final ConcurrentHashMap<String, Map<String, Double>> buySellRatios = new ConcurrentHashMap<>();
+  private static final String UPBIT = "UPBIT";
+  private static final int MAX_CANDLES_PER_REQUEST = 200; // 업비트 분봉 조회 최대 개수
+
+  // --- 캐시 저장소 ---
+  // ⭐ [변경] latestTickers / 1m·5m·15m·1h 거래대금 맵 / buySellRatios (마켓 코드 키 맵 6개)
+  //    → 심볼 ID 인덱스 배열 1개 (마켓당 BoardRow 1개, 틱마다 해시/맵 생성 없음)
+  private final SymbolArray<BoardRow> board = new SymbolArray<>();
 
   // --- 스케줄링 및 데이터 관리 변수 ---
   private int currentCandleMarketIndex = 0;
-  private List<String> allMarketCodes;
+  private volatile List<String> allMarketCodes; // ⭐ [변경] 상장 변경 시 구독 관리자가 교체
 
   // 즐겨찾기 마켓 목록 (Set을 사용하여 중복 방지)
   private final Set<String> favoriteMarkets = ConcurrentHashMap.newKeySet();
@@ -57,104 +89,330 @@ MarketDataService {
   public MarketDataService(SimpMessagingTemplate messagingTemplate,
                            UpbitWSC upbitWSC,
                            UpbitClient upbitClient,
-                           CoinDao coinDao) {
+                           CoinDao coinDao,
+                           VolumeBaselineStore volumeBaselineStore,
+                           MarketStateCheckpointer checkpointer,
+                           CandleStore candleStore,
+                           CoinStatsWriteBehind coinStatsWriteBehind,
+                           LiveMarketCapTracker marketCapTracker,
+                           SymbolRegistry symbolRegistry,
+                           ConsolidatedVolumeAggregator consolidatedVolume,
+                           ExchangeBulkheads bulkheads,
+                           UpbitSubscriptionManager subscriptionManager,
+                           TradeFlowWindows tradeFlow,
+                           OrderBookEngine orderBookEngine) {
     this.messagingTemplate = messagingTemplate;
     this.upbitWSC = upbitWSC;
     this.upbitClient = upbitClient;
     this.coinDao = coinDao;
+    this.volumeBaselineStore = volumeBaselineStore;
+    this.checkpointer = checkpointer;
+    this.candleStore = candleStore;
+    this.coinStatsWriteBehind = coinStatsWriteBehind;
+    this.marketCapTracker = marketCapTracker;
+    this.symbolRegistry = symbolRegistry;
+    this.consolidatedVolume = consolidatedVolume;
+    this.upbitBulkhead = bulkheads.forExchange(UPBIT);
+    this.subscriptionManager = subscriptionManager;
+    this.tradeFlow = tradeFlow;
+    this.orderBookEngine = orderBookEngine;
+    UpbitMessageFormat format = upbitWSC.getFormat();
+    this.codeKey = format.key("code");
+    this.accTradePrice24hKey = format.key("acc_trade_price_24h");
+    this.signedChangeRateKey = format.key("signed_change_rate");
   }
 
   // --- 초기화 메소드: 애플리케이션 시작 시 한 번 실행됩니다 ---
   @PostConstruct
   public void init() {
-    allMarketCodes = upbitClient.getAllKrwMarketCodes();
-    upbitWSC.connectWebSocket(allMarketCodes, this::processTickerMessage);
+    // 체크포인트가 있으면 마켓 목록/보드 캐시/즐겨찾기를 먼저 복원 → REST 대기 없이 바로 연결
+    checkpointer.register("upbitBoard", this::writeBoardCheckpoint);
+    checkpointer.restore("upbitBoard", this::readBoardCheckpoint);
+
+    // ⭐ [변경] 상장 목록은 구독 관리자 기준 (체크포인트 목록이 있으면 그대로 넘기고, 이후 주기적 비교로 신규/폐지 반영)
+    if (allMarketCodes == null || allMarketCodes.isEmpty()) {
+      allMarketCodes = subscriptionManager.loadListedMarkets();
+    } else {
+      subscriptionManager.applyListedMarkets(allMarketCodes);
+    }
+    subscriptionManager.addListingListener(markets -> allMarketCodes = markets);
+
+    // ⭐ [신규 추가] 즐겨찾기 마켓은 ticker 타입도 구독 (체결 메시지에는 24h 거래대금/등락률이 없음)
+    upbitWSC.addFeedHandler(UpbitWSC.TICKER, this::processDailyTickerMessage);
+    favoriteMarkets.forEach(market -> subscriptionManager.addFeed(UpbitWSC.TICKER, market));
+    favoriteMarkets.forEach(orderBookEngine::onFavoriteAdded); // ⭐ 호가 (coinalarm.orderbook.favorites)
+
+    // ⭐ [변경] 틱 버스 "board" 소비자 (자기 큐/스레드 → 보드 갱신이 느려도 다른 소비자와 무관)
+    upbitWSC.subscribe("board", allMarketCodes, TickBus.DropPolicy.DROP_OLDEST, this::processTickerMessage);
 
     // addFavoriteMarket("KRW-BTC");
     // addFavoriteMarket("KRW-ETH");
   }
 
+  /**
+   * ⭐ [체크포인트] 업비트 보드 상태 저장
+   * 형식: 마켓 목록, 즐겨찾기, 티커(가격/등락률/24h 거래대금/시각), 1m/5m/15m/1h 거래대금
+   */
+  private void writeBoardCheckpoint(DataOutputStream out) throws IOException {
+    List<String> markets = (allMarketCodes != null) ? allMarketCodes : List.of();
+    out.writeInt(markets.size());
+    for (String market : markets) {
+      out.writeUTF(market);
+    }
+    List<String> favorites = new ArrayList<>(favoriteMarkets);
+    out.writeInt(favorites.size());
+    for (String market : favorites) {
+      out.writeUTF(market);
+    }
+    List<BoardRow> rows = new ArrayList<>();
+    board.forEach(row -> {
+      if (row.ticker != null) {
+        rows.add(row);
+      }
+    });
+    out.writeInt(rows.size());
+    for (BoardRow row : rows) {
+      UpbitTickerResponse ticker = row.ticker;
+      out.writeUTF(ticker.getMarket());
+      out.writeDouble(ticker.getTradePrice() != null ? ticker.getTradePrice() : 0.0);
+      out.writeDouble(ticker.getSignedChangeRate() != null ? ticker.getSignedChangeRate() : 0.0);
+      out.writeDouble(ticker.getAccTradePrice24h() != null ? ticker.getAccTradePrice24h() : 0.0);
+      out.writeLong(ticker.getTradeTimestamp() != null ? ticker.getTradeTimestamp() : 0L);
+      out.writeDouble(row.volume1m);
+      out.writeDouble(row.volume5m);
+      out.writeDouble(row.volume15m);
+      out.writeDouble(row.volume1h);
+    }
+  }
+
+  private void readBoardCheckpoint(DataInputStream in) throws IOException {
+    int marketCount = in.readInt();
+    List<String> markets = new ArrayList<>(marketCount);
+    for (int i = 0; i < marketCount; i++) {
+      markets.add(in.readUTF());
+    }
+    allMarketCodes = markets;
+
+    int favoriteCount = in.readInt();
+    for (int i = 0; i < favoriteCount; i++) {
+      favoriteMarkets.add(in.readUTF());
+    }
+
+    int tickerCount = in.readInt();
+    for (int i = 0; i < tickerCount; i++) {
+      UpbitTickerResponse ticker = new UpbitTickerResponse();
+      String market = in.readUTF();
+      ticker.setMarket(market);
+      ticker.setTradePrice(in.readDouble());
+      ticker.setSignedChangeRate(in.readDouble());
+      ticker.setAccTradePrice24h(in.readDouble());
+      ticker.setTradeTimestamp(in.readLong());
+      BoardRow row = rowFor(market);
+      row.ticker = ticker;
+      row.volume1m = in.readDouble();
+      row.volume5m = in.readDouble();
+      row.volume15m = in.readDouble();
+      row.volume1h = in.readDouble();
+    }
+  }
+
+  //마켓 1개의 보드 행 (없으면 생성)
+  private BoardRow rowFor(String market) {
+    return board.computeIfAbsent(symbolRegistry.idOf(UPBIT, market), BoardRow::new);
+  }
+
+  //마켓 1개의 보드 행 (없으면 null, 등록하지 않음)
+  private BoardRow findRow(String market) {
+    return board.get(symbolRegistry.find(UPBIT, market));
+  }
+
   // --- 웹소켓 메시지 처리 메소드: 실시간 티커 데이터를 받아 캐시에 업데이트합니다 ---
   //20250917 이부분은 따로 삭제처리나 수정 데이터가 안들어오는모델
   public void processTickerMessage(UpbitTickerResponse ticker) {
-    latestTickers.put(ticker.getMarket(), ticker);
+    // 마켓 코드 → 심볼 ID는 여기서 한 번 (이후 배열 인덱스)
+    int symbolId = symbolRegistry.idOf(UPBIT, ticker.getMarket());
+    BoardRow row = board.computeIfAbsent(symbolId, BoardRow::new);
+    row.ticker = ticker;
 
     // [널 처리]: NullPointerException 방지를 위해 accTradePrice24h 널 체크
-    Double accTradePrice24h = (ticker.getAccTradePrice24h() != null) ? ticker.getAccTradePrice24h() : 0.0;
+    double accTradePrice24h = (ticker.getAccTradePrice24h() != null) ? ticker.getAccTradePrice24h() : 0.0;
+
+    // coin 테이블 통계는 메모리에서 합쳐두었다가 주기적으로 일괄 저장
+    if (ticker.getSignedChangeRate() != null) {
+      coinStatsWriteBehind.recordTicker(ticker.getMarket(), ticker.getSignedChangeRate(), accTradePrice24h);
+    }
+
+    // 시가총액 등급 인덱스 갱신 (보드 등급 필터용, 등급 구간 안이면 비교 2번)
+    if (ticker.getTradePrice() != null) {
+      marketCapTracker.onPrice(symbolId, ticker.getTradePrice());
+    }
+
+    // 시간대별 RVOL 기준값 누적 (체결 금액 = 체결가 * 체결량)
+    if (ticker.getTradePrice() != null && ticker.getTradeVolume() != null) {
+      long tradeTime = (ticker.getTradeTimestamp() != null) ? ticker.getTradeTimestamp() : System.currentTimeMillis();
+      double tradeValue = ticker.getTradePrice() * ticker.getTradeVolume();
+      volumeBaselineStore.onTrade("UPBIT", ticker.getMarket(), tradeTime, tradeValue);
 
-    Map<String, Double> ratioMap = new ConcurrentHashMap<>();
-    ratioMap.put("buyRatio", accTradePrice24h * 0.5);
-    ratioMap.put("sellRatio", accTradePrice24h * 0.5);
-    buySellRatios.put(ticker.getMarket(), ratioMap);
+      // ⭐ [변경] 매수/매도 거래대금은 체결 방향(ask_bid)별 창으로 (기존: 24h 거래대금 절반씩)
+      if (ticker.getAskBid() != null) {
+        tradeFlow.onTrade(symbolId, tradeTime, ticker.isBuyTaker(), tradeValue);
+      }
+    }
+  }
+
+  /**
+   * ⭐ [신규 추가] ticker 타입 피드 (즐겨찾기 마켓만) → 24h 거래대금/등락률만 보드 행에 저장
+   * 필드 3개만 읽으면 되므로 DTO 역직렬화 없이 JsonScanner로 바로 추출
+   */
+  void processDailyTickerMessage(String json) {
+    int codeStart = JsonScanner.stringStart(json, JsonScanner.valueIndex(json, 0, codeKey));
+    if (codeStart < 0) {
+      return;
+    }
+    BoardRow row = findRow(json.substring(codeStart, JsonScanner.stringEnd(json, codeStart)));
+    if (row == null) {
+      return;
+    }
+    row.dailyAccTradePrice24h = JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, accTradePrice24hKey), Double.NaN);
+    row.dailyChangeRate = JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, signedChangeRateKey), Double.NaN);
+  }
+
+  //24h 거래대금: 체결 메시지 값 → 없으면 ticker 피드 값 → 없으면 0
+  private static double accTradePrice24h(BoardRow row, UpbitTickerResponse ticker) {
+    if (ticker.getAccTradePrice24h() != null) {
+      return ticker.getAccTradePrice24h();
+    }
+    return Double.isNaN(row.dailyAccTradePrice24h) ? 0.0 : row.dailyAccTradePrice24h;
+  }
+
+  //전일대비 (%)
+  private static double change24h(BoardRow row, UpbitTickerResponse ticker) {
+    if (ticker.getSignedChangeRate() != null) {
+      return ticker.getSignedChangeRate() * 100;
+    }
+    return Double.isNaN(row.dailyChangeRate) ? 0.0 : row.dailyChangeRate * 100;
   }
 
   // --- 캔들 데이터 주기적 가져오기: Upbit REST API 사용 ---
   // fixedRate = 1000: 이전 실행 시작 시간으로부터 1000ms(1초) 후에 다음 실행을 시작합니다.
+  // ⭐ [변경] 블로킹 REST 호출은 업비트 격벽의 REST 스레드에서 실행 (스케줄러 스레드는 바로 반환)
+  //    이전 회차가 아직 돌고 있으면 이번 회차는 건너뜀, 브레이커 OPEN이면 호출 없이 바로 실패
   @Scheduled(fixedRate = 1000)
   public void fetchCandleRoundRobin() {
     if (allMarketCodes == null || allMarketCodes.isEmpty()) {
       return;
     }
-    String marketCode = allMarketCodes.get(currentCandleMarketIndex);
-    
+    upbitBulkhead.runExclusive(this::fetchNextMarketCandles);
+  }
+
+  private void fetchNextMarketCandles() {
+    // ⭐ [변경] 목록은 상장 변경 때 통째로 바뀌므로 한 번만 읽음 (줄어든 목록에서 인덱스 초과 방지)
+    List<String> markets = allMarketCodes;
+    String marketCode = markets.get(currentCandleMarketIndex % markets.size());
+    BoardRow row = rowFor(marketCode);
+    currentCandleMarketIndex = (currentCandleMarketIndex + 1) % markets.size();
+
     //20250911 getTradeVolume => candleAccTradePrice 수정  (getTradeVolume null로 넘어옴 체결데이터인듯)
-    upbitClient.getMinuteCandles(marketCode, 1, 1)
-            .blockOptional().ifPresent(candles -> {
-              candles.forEach(candle -> {
-//                if (candle.getTradeVolume() != null) {
-                if (candle.getCandleAccTradePrice() != null) {
-                  latest1MinuteVolume.put(marketCode, candle.getCandleAccTradePrice());
-                }
-              });
+    // ⭐ [변경] 1분봉은 지난 방문 이후의 분을 모두 받음 (최신 → 과거 순)
+    //    라운드로빈 한 바퀴(마켓 수 × 초) 동안의 분봉도 CandleStore에 빠짐없이 저장 → 임계값 튜닝 커버리지 유지
+    long fetchedAt = System.currentTimeMillis();
+    fetchCandles(marketCode, 1, minuteCandlesToFetch(row.lastMinuteFetchMillis, fetchedAt)).ifPresent(candles -> {
+              if (!candles.isEmpty() && candles.get(0).getCandleAccTradePrice() != null) {
+                row.volume1m = candles.get(0).getCandleAccTradePrice();
+              }
+              candles.forEach(candle -> storeMinuteCandle(marketCode, candle)); // ⭐ 받은 1분봉은 로컬 저장소에도 보관
+              row.lastMinuteFetchMillis = fetchedAt;
             });
-    upbitClient.getMinuteCandles(marketCode, 5, 1)
-            .blockOptional().ifPresent(candles -> {
+    fetchCandles(marketCode, 5).ifPresent(candles -> {
               candles.forEach(candle -> {
                 if (candle.getCandleAccTradePrice() != null) {
-                  latest5MinuteVolume.put(marketCode, candle.getCandleAccTradePrice());
+                  row.volume5m = candle.getCandleAccTradePrice();
                 }
               });
             });
-    upbitClient.getMinuteCandles(marketCode, 15, 1)
-            .blockOptional().ifPresent(candles -> {
+    fetchCandles(marketCode, 15).ifPresent(candles -> {
               candles.forEach(candle -> {
                 if (candle.getCandleAccTradePrice() != null) {
-                  latest15MinuteVolume.put(marketCode, candle.getCandleAccTradePrice());
+                  row.volume15m = candle.getCandleAccTradePrice();
                 }
               });
             });
-    upbitClient.getMinuteCandles(marketCode, 60, 1)
-            .blockOptional().ifPresent(candles -> {
+    fetchCandles(marketCode, 60).ifPresent(candles -> {
               candles.forEach(candle -> {
                 if (candle.getCandleAccTradePrice() != null) {
-                  latest1HourVolume.put(marketCode, candle.getCandleAccTradePrice());
+                  row.volume1h = candle.getCandleAccTradePrice();
                 }
               });
             });
+  }
+
+  //N분봉 1개 조회 (격벽 경유, 실패/브레이커 OPEN이면 빈 결과 → 이번 회차는 이전 값 유지)
+  private Optional<List<UpbitCandleResponse>> fetchCandles(String marketCode, int unit) {
+    return fetchCandles(marketCode, unit, 1);
+  }
+
+  private Optional<List<UpbitCandleResponse>> fetchCandles(String marketCode, int unit, int count) {
+    return upbitBulkhead.protect(upbitClient.getMinuteCandles(marketCode, unit, count))
+            .onErrorResume(error -> Mono.empty())
+            .blockOptional();
+  }
+
+  //⭐ [신규 추가] 이번 방문에 받을 1분봉 개수: 지난 성공 방문 분부터 현재 분까지 (처음이면 1개, 최대 200개)
+  private static int minuteCandlesToFetch(long lastFetchMillis, long nowMillis) {
+    if (lastFetchMillis <= 0) {
+      return 1;
+    }
+    long minutes = Math.floorDiv(nowMillis, 60_000L) - Math.floorDiv(lastFetchMillis, 60_000L) + 1;
+    return (int) Math.max(1L, Math.min(MAX_CANDLES_PER_REQUEST, minutes));
+  }
 
-    currentCandleMarketIndex = (currentCandleMarketIndex + 1) % allMarketCodes.size();
+  //⭐ [신규 추가] 업비트 1분봉 → CandleStore (candle_date_time_utc는 "yyyy-MM-ddTHH:mm:ss" 형식)
+  private void storeMinuteCandle(String marketCode, UpbitCandleResponse candle) {
+    if (candle.getCandleDateTimeUtc() == null || candle.getTradePrice() == null) {
+      return;
+    }
+    long startMillis = Instant.parse(candle.getCandleDateTimeUtc() + "Z").toEpochMilli();
+    candleStore.append("UPBIT", marketCode, startMillis,
+            candle.getOpeningPrice(), candle.getHighPrice(), candle.getLowPrice(), candle.getTradePrice(),
+            candle.getCandleAccTradeVolume() != null ? candle.getCandleAccTradeVolume() : 0.0,
+            candle.getCandleAccTradePrice() != null ? candle.getCandleAccTradePrice() : 0.0);
   }
 
   // --- 클라이언트(프론트엔드)에 최신 마켓 데이터를 주기적으로 푸시합니다 ---
   @Scheduled(fixedRate = 1000)
   public void pushLatestMarketDataToClients() {
+    long now = System.currentTimeMillis();
     // 모든 티커 데이터를 CoinResponseDto로 변환 (DB 필터링 이전)
-    List<CoinResponseDto> convertedList = latestTickers.values().stream()
-            .map(ticker -> {
+    List<BoardRow> rows = new ArrayList<>();
+    board.forEach(row -> {
+      if (row.ticker != null) {
+        rows.add(row);
+      }
+    });
+    List<CoinResponseDto> convertedList = rows.stream()
+            .map(row -> {
               // [널 처리]: 모든 필드에 대해 null 체크 및 기본값 설정 적용
               // 이전 NPE 발생 지점들 모두 커버
+              UpbitTickerResponse ticker = row.ticker;
               return CoinResponseDto.builder()
                       .symbol(ticker.getMarket())
                       .price(ticker.getTradePrice() != null ? ticker.getTradePrice() : 0.0)
-                      .volume1m(latest1MinuteVolume.getOrDefault(ticker.getMarket(), 0.0))
-                      .volume5m(latest5MinuteVolume.getOrDefault(ticker.getMarket(), 0.0))
-                      .volume15m(latest15MinuteVolume.getOrDefault(ticker.getMarket(), 0.0))
-                      .volume1h(latest1HourVolume.getOrDefault(ticker.getMarket(), 0.0))
-                      .accTradePrice24h(ticker.getAccTradePrice24h() != null ? ticker.getAccTradePrice24h() : 0.0) /*** [신규] 일봉 거래대금 ***/
-                      .change24h(ticker.getSignedChangeRate() != null ? ticker.getSignedChangeRate()*100 : 0.0)
-                      // buyVolume/sellVolume: Map<String, Map<String, Double>> 형태의 buySellRatios에서 추출
-                      .buyVolume(buySellRatios.getOrDefault(ticker.getMarket(), Collections.emptyMap()).getOrDefault("buyRatio", 0.0))
-                      .sellVolume(buySellRatios.getOrDefault(ticker.getMarket(), Collections.emptyMap()).getOrDefault("sellRatio", 0.0))
+                      .volume1m(row.volume1m)
+                      .volume5m(row.volume5m)
+                      .volume15m(row.volume15m)
+                      .volume1h(row.volume1h)
+                      .rvol1m(volumeBaselineStore.getRelativeVolume(UPBIT, ticker.getMarket(), now, row.volume1m, 1))
+                      .rvol5m(volumeBaselineStore.getRelativeVolume(UPBIT, ticker.getMarket(), now, row.volume5m, 5))
+                      .consolidatedVolume1m(consolidatedVolume(row, 1))
+                      .consolidatedVolume5m(consolidatedVolume(row, 5))
+                      .consolidatedVolume1h(consolidatedVolume(row, 60))
+                      .accTradePrice24h(accTradePrice24h(row, ticker)) /*** [신규] 일봉 거래대금 ***/
+                      .change24h(change24h(row, ticker))
+                      .buyVolume(tradeFlow.getTakerValue(row.symbolId, 1, true, now))
+                      .sellVolume(tradeFlow.getTakerValue(row.symbolId, 1, false, now))
+                      .tradeFlow(tradeFlow.toDto(row.symbolId, now))
+                      .spreadBps(bookMetric(row, false))
+                      .orderBookImbalance(bookMetric(row, true))
                       .timestamp(ticker.getTradeTimestamp() != null ? ticker.getTradeTimestamp() : System.currentTimeMillis())
                       .isFavorite(favoriteMarkets.contains(ticker.getMarket())) //20250918 추가
                       .build();
@@ -183,6 +441,8 @@ MarketDataService {
     boolean added = favoriteMarkets.add(market);
     if(added){
       updateSingleFavoritedailyVolume(market);
+      subscriptionManager.addFeed(UpbitWSC.TICKER, market); // ⭐ [신규 추가] 같은 소켓에 ticker 타입 추가
+      orderBookEngine.onFavoriteAdded(market);
     }
 
   }
@@ -196,7 +456,7 @@ MarketDataService {
             );
   }
 
-  @Scheduled(fixedRate = 300,000 )
+  @Scheduled(fixedRate = 300_000)
   public void updateFavoritesDailyVolumes(){
     if(favoriteMarkets.isEmpty()) return;
 
@@ -212,7 +472,10 @@ MarketDataService {
   //20250918 즐겨찾기 일봉을 보내기위한것 END
 
   public void removeFavoriteMarket(String market) {
-    favoriteMarkets.remove(market);
+    if (favoriteMarkets.remove(market)) {
+      subscriptionManager.removeFeed(UpbitWSC.TICKER, market); // ⭐ [신규 추가]
+      orderBookEngine.onFavoriteRemoved(market);
+    }
   }
 
   public Set<String> getFavoriteMarkets() {
@@ -222,44 +485,100 @@ MarketDataService {
   // --- 필터링된 실시간 시장 데이터 조회 (REST API 요청용) ---
   // MarketDataController에서 호출되며, large, mid, small 필터링 인자를 받습니다.
   public Map<String, CoinResponseDto> getFilteredLiveMarketData(boolean large, boolean mid, boolean small) {
-    // 1. DB에서 시가총액 조건에 맞는 Coin 엔티티 목록을 가져옵니다.
-    List<Coin> filteredCoinsFromDb = new ArrayList<>();
+    // 1. ⭐ [변경] 실시간 시가총액 보드 필터 인덱스에서 마켓 목록 조회 (DB 범위 조회 대체, O(1))
+    //    경계는 기존 DB 조회와 같음 (대형 5조 이상 / 중형 7천억~5조 / 소형 5백억~7천억)
+    //    공급량 파일에 없는 자산의 마켓은 기존처럼 DB 시가총액으로 보충 (보드에서 빠지지 않게)
+    Set<String> filteredSymbols = new LinkedHashSet<>();
     if (large) {
-      filteredCoinsFromDb.addAll(coinDao.findByMarketCapBetween(5_000_000_000_000L, Long.MAX_VALUE));
+      addBoardMarkets(filteredSymbols, LiveMarketCapTracker.BoardFilter.LARGE);
     }
     if (mid) {
-      filteredCoinsFromDb.addAll(coinDao.findByMarketCapBetween(700_000_000_000L, 4_999_999_999_999L));
+      addBoardMarkets(filteredSymbols, LiveMarketCapTracker.BoardFilter.MID);
     }
     if (small) {
-      filteredCoinsFromDb.addAll(coinDao.findByMarketCapBetween(50_000_000_000L, 699_999_999_699L));
+      addBoardMarkets(filteredSymbols, LiveMarketCapTracker.BoardFilter.SMALL);
     }
 
     // 2. 필터링된 코인 심볼들을 기반으로 최신 티커 데이터를 찾아 CoinResponseDto로 변환합니다.
     ConcurrentHashMap<String, CoinResponseDto> result = new ConcurrentHashMap<>();
-    filteredCoinsFromDb.forEach(coin -> {
-      UpbitTickerResponse latestTicker = latestTickers.get(coin.getSymbol());
+    long now = System.currentTimeMillis();
+    filteredSymbols.forEach(symbol -> {
+      BoardRow row = findRow(symbol);
+      UpbitTickerResponse latestTicker = (row != null) ? row.ticker : null;
       if (latestTicker != null) {
         // [널 처리]: NullPointerException 방지를 위해 널 체크 추가
         CoinResponseDto dto = CoinResponseDto.builder()
-                .symbol(coin.getSymbol())
+                .symbol(symbol)
                 .price(latestTicker.getTradePrice() != null ? latestTicker.getTradePrice() : 0.0)
-                .volume1m(latest1MinuteVolume.getOrDefault(coin.getSymbol(), 0.0))
-                .volume5m(latest5MinuteVolume.getOrDefault(coin.getSymbol(), 0.0))
-                .volume15m(latest15MinuteVolume.getOrDefault(coin.getSymbol(), 0.0))
-                .volume1h(latest1HourVolume.getOrDefault(coin.getSymbol(), 0.0))
-                .accTradePrice24h(latestTicker.getAccTradePrice24h() != null ? latestTicker.getAccTradePrice24h() : 0.0)
-                .change24h(latestTicker.getSignedChangeRate() != null ? latestTicker.getSignedChangeRate()*100 : 0.0)
-                // buyVolume/sellVolume: Map<String, Map<String, Double>> 형태의 buySellRatios에서 추출
-                .buyVolume(buySellRatios.getOrDefault(coin.getSymbol(), Collections.emptyMap()).getOrDefault("buyRatio", 0.0))
-                .sellVolume(buySellRatios.getOrDefault(coin.getSymbol(), Collections.emptyMap()).getOrDefault("sellRatio", 0.0))
+                .volume1m(row.volume1m)
+                .volume5m(row.volume5m)
+                .volume15m(row.volume15m)
+                .volume1h(row.volume1h)
+                .rvol1m(volumeBaselineStore.getRelativeVolume(UPBIT, symbol, now, row.volume1m, 1))
+                .rvol5m(volumeBaselineStore.getRelativeVolume(UPBIT, symbol, now, row.volume5m, 5))
+                .consolidatedVolume1m(consolidatedVolume(row, 1))
+                .consolidatedVolume5m(consolidatedVolume(row, 5))
+                .consolidatedVolume1h(consolidatedVolume(row, 60))
+                .accTradePrice24h(accTradePrice24h(row, latestTicker))
+                .change24h(change24h(row, latestTicker))
+                .buyVolume(tradeFlow.getTakerValue(row.symbolId, 1, true, now))
+                .sellVolume(tradeFlow.getTakerValue(row.symbolId, 1, false, now))
+                .tradeFlow(tradeFlow.toDto(row.symbolId, now))
+                .spreadBps(bookMetric(row, false))
+                .orderBookImbalance(bookMetric(row, true))
                 .timestamp(latestTicker.getTradeTimestamp() != null ? latestTicker.getTradeTimestamp() : 0L)
-                .isFavorite(favoriteMarkets.contains(coin.getSymbol())) //20250918 추가
+                .isFavorite(favoriteMarkets.contains(symbol)) //20250918 추가
                 .build();
-        result.put(coin.getSymbol(), dto);
+        result.put(symbol, dto);
       }
     });
     return result;
   }
+
+  //보드 필터 1개: 실시간 인덱스 + 공급량 미등록 마켓은 DB 시가총액 범위 조회
+  private void addBoardMarkets(Set<String> target, LiveMarketCapTracker.BoardFilter filter) {
+    target.addAll(marketCapTracker.getMarketsInFilter(UPBIT, filter));
+    long min = (long) filter.getLower();
+    long max = (long) filter.getUpper() - 1; // 상한 미포함 (대형은 Long.MAX_VALUE)
+    for (Coin coin : coinDao.findByMarketCapBetween(min, max)) {
+      if (coin.getSymbol() != null && !marketCapTracker.hasSupply(UPBIT, coin.getSymbol())) {
+        target.add(coin.getSymbol());
+      }
+    }
+  }
+
+  //호가 지표 (호가 구독 중이 아니거나 아직 못 받았으면 null, 잠금 없이 읽음)
+  private Double bookMetric(BoardRow row, boolean imbalance) {
+    OrderBook book = orderBookEngine.getBook(row.symbolId);
+    if (book == null) {
+      return null;
+    }
+    double value = imbalance ? book.getImbalance() : book.getSpreadBps();
+    return Double.isNaN(value) ? null : value;
+  }
+
+  //거래소 통합 N분 거래대금 (아직 집계 전이면 0)
+  private double consolidatedVolume(BoardRow row, int minutes) {
+    double volume = consolidatedVolume.getVolumeKrw(row.symbolId, minutes);
+    return Double.isNaN(volume) ? 0.0 : volume;
+  }
+
+  //마켓 1개의 보드 상태 (웹소켓 스레드가 쓰고 스케줄러/REST 스레드가 읽음)
+  private static final class BoardRow {
+    private final int symbolId;
+    private volatile UpbitTickerResponse ticker;
+    private volatile double volume1m;
+    private volatile double volume5m;
+    private volatile double volume15m;
+    private volatile double volume1h;
+    private volatile double dailyAccTradePrice24h = Double.NaN; // ⭐ ticker 피드 (즐겨찾기만)
+    private volatile double dailyChangeRate = Double.NaN;
+    private volatile long lastMinuteFetchMillis; // ⭐ 마지막으로 1분봉을 받은 시각 (0 = 아직 없음)
+
+    private BoardRow(int symbolId) {
+      this.symbolId = symbolId;
+    }
+  }
 }
 
 
@@ -0,0 +1,256 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.codec.JsonScanner;
+import coinalarm.Coin_Alarm.upbit.UpbitMessageFormat;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ⭐ [신규 추가] 마켓 1개의 상위 N호가 (업비트 orderbook 메시지)
+ *
+ * 저장: 호가 단계별 가격/잔량을 미리 잡아둔 double 배열에 덮어씀 (메시지당 할당 없음)
+ *       → 메시지를 받을 때마다 파생 지표(스프레드, ±depth-pct% 이내 잔량 금액, 매수/매도 불균형)도 같이 계산
+ *
+ * 동시성 (seqlock): 쓰기는 소켓 스레드 1개, 읽기는 여러 스레드 (잠금 없음)
+ * - 쓰기: seq 홀수 → 배열/지표 갱신 → seq 짝수
+ * - 읽기: seq 읽기 → 값 읽기 → seq 다시 읽기, 홀수였거나 바뀌었으면 다시 (쓰기 중간 값은 버림)
+ */
+public final class OrderBook {
+
+  //지표 배열 인덱스
+  private static final int BEST_BID = 0;
+  private static final int BEST_ASK = 1;
+  private static final int SPREAD = 2;
+  private static final int SPREAD_BPS = 3;
+  private static final int BID_DEPTH = 4;   // 중간가 -depthPct% 이내 매수 잔량 금액
+  private static final int ASK_DEPTH = 5;   // 중간가 +depthPct% 이내 매도 잔량 금액
+  private static final int IMBALANCE = 6;   // (매수 - 매도) / (매수 + 매도), -1 ~ 1
+  private static final int METRIC_COUNT = 7;
+
+  private final String market;
+  private final int capacity;
+  private final double depthPct;
+
+  // 단계 객체 키 (업비트 응답 포맷: DEFAULT ask_price / SIMPLE ap ...)
+  private final String askPriceKey;
+  private final String bidPriceKey;
+  private final String askSizeKey;
+  private final String bidSizeKey;
+
+  private final double[] askPrices;
+  private final double[] askSizes;
+  private final double[] bidPrices;
+  private final double[] bidSizes;
+  private final double[] metrics = new double[METRIC_COUNT];
+  private int levels;
+  private long timestamp;
+
+  private volatile long seq;     // 홀수 = 쓰는 중
+
+  public OrderBook(String market, int capacity, double depthPct) {
+    this(market, capacity, depthPct, UpbitMessageFormat.DEFAULT);
+  }
+
+  public OrderBook(String market, int capacity, double depthPct, UpbitMessageFormat format) {
+    this.market = market;
+    this.capacity = capacity;
+    this.depthPct = depthPct;
+    this.askPriceKey = format.key("ask_price");
+    this.bidPriceKey = format.key("bid_price");
+    this.askSizeKey = format.key("ask_size");
+    this.bidSizeKey = format.key("bid_size");
+    this.askPrices = new double[capacity];
+    this.askSizes = new double[capacity];
+    this.bidPrices = new double[capacity];
+    this.bidSizes = new double[capacity];
+    Arrays.fill(metrics, Double.NaN);
+  }
+
+  public String getMarket() {
+    return market;
+  }
+
+  /**
+   * ⭐ [핵심] orderbook_units 배열을 제자리 갱신 (쓰기 스레드 1개에서만 호출)
+   * 단계 객체 안의 키 순서와 무관하게 { ~ } 범위 안에서 찾음, capacity를 넘는 단계는 버림
+   *
+   * @param unitsIndex "orderbook_units"(SIMPLE: "obu") 값 위치 (JsonScanner.valueIndex)
+   * @return 읽은 단계 수 (0이면 이전 호가 유지)
+   */
+  public int applyUpbitUnits(String json, int unitsIndex, long timestampMillis) {
+    int arrayEnd = (unitsIndex < 0) ? -1 : json.indexOf(']', unitsIndex);
+    if (arrayEnd < 0) {
+      return 0;
+    }
+    long s = seq;
+    seq = s + 1;
+    VarHandle.storeStoreFence(); // 홀수 seq가 배열 쓰기보다 먼저 보이도록
+    int n = 0;
+    int open = json.indexOf('{', unitsIndex);
+    while (n < capacity && open >= 0 && open < arrayEnd) {
+      int close = json.indexOf('}', open);
+      if (close < 0) {
+        break;
+      }
+      double askPrice = JsonScanner.parseDouble(json, keyIn(json, open, close, askPriceKey), Double.NaN);
+      double bidPrice = JsonScanner.parseDouble(json, keyIn(json, open, close, bidPriceKey), Double.NaN);
+      if (Double.isNaN(askPrice) || Double.isNaN(bidPrice)) {
+        break;
+      }
+      askPrices[n] = askPrice;
+      bidPrices[n] = bidPrice;
+      askSizes[n] = JsonScanner.parseDouble(json, keyIn(json, open, close, askSizeKey), 0.0);
+      bidSizes[n] = JsonScanner.parseDouble(json, keyIn(json, open, close, bidSizeKey), 0.0);
+      n++;
+      open = json.indexOf('{', close);
+    }
+    if (n > 0) {
+      levels = n;
+      timestamp = timestampMillis;
+      recompute();
+    }
+    seq = s + 2; // volatile 쓰기 → 위의 배열/지표 쓰기가 읽는 쪽에 모두 보임
+    return n;
+  }
+
+  //{ ~ } 안에서만 키 검색 (다음 단계의 같은 키를 잡지 않도록)
+  private static int keyIn(String json, int open, int close, String key) {
+    int index = JsonScanner.valueIndex(json, open, key);
+    return (index >= 0 && index < close) ? index : -1;
+  }
+
+  private void recompute() {
+    double bestBid = bidPrices[0];
+    double bestAsk = askPrices[0];
+    double mid = (bestBid + bestAsk) / 2;
+    double low = mid * (1 - depthPct / 100);
+    double high = mid * (1 + depthPct / 100);
+    double bidDepth = 0;
+    double askDepth = 0;
+    for (int i = 0; i < levels; i++) {
+      if (bidPrices[i] >= low) {
+        bidDepth += bidPrices[i] * bidSizes[i];
+      }
+      if (askPrices[i] <= high) {
+        askDepth += askPrices[i] * askSizes[i];
+      }
+    }
+    metrics[BEST_BID] = bestBid;
+    metrics[BEST_ASK] = bestAsk;
+    metrics[SPREAD] = bestAsk - bestBid;
+    metrics[SPREAD_BPS] = (mid > 0) ? (bestAsk - bestBid) / mid * 10_000 : Double.NaN;
+    metrics[BID_DEPTH] = bidDepth;
+    metrics[ASK_DEPTH] = askDepth;
+    metrics[IMBALANCE] = (bidDepth + askDepth > 0) ? (bidDepth - askDepth) / (bidDepth + askDepth) : 0.0;
+  }
+
+  // --- 읽기 (잠금 없음, 호가를 아직 못 받았으면 NaN) ---
+
+  public double getBestBid() {
+    return readMetric(BEST_BID);
+  }
+
+  public double getBestAsk() {
+    return readMetric(BEST_ASK);
+  }
+
+  public double getSpread() {
+    return readMetric(SPREAD);
+  }
+
+  public double getSpreadBps() {
+    return readMetric(SPREAD_BPS);
+  }
+
+  public double getBidDepth() {
+    return readMetric(BID_DEPTH);
+  }
+
+  public double getAskDepth() {
+    return readMetric(ASK_DEPTH);
+  }
+
+  public double getImbalance() {
+    return readMetric(IMBALANCE);
+  }
+
+  public long getUpdates() {
+    return seq / 2; // 완료된 쓰기 횟수 (호가 0단계 메시지 포함)
+  }
+
+  private double readMetric(int index) {
+    while (true) {
+      long before = seq;
+      if ((before & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      double value = metrics[index];
+      VarHandle.loadLoadFence(); // 값 읽기가 두 번째 seq 읽기보다 먼저 끝나도록
+      if (seq == before) {
+        return value;
+      }
+    }
+  }
+
+  /**
+   * 전체 호가 복사본 (REST 응답용, 할당 있음)
+   * 읽는 동안 갱신되면 처음부터 다시 복사
+   */
+  public Map<String, Object> toMap() {
+    double[] asks = new double[capacity * 2];
+    double[] bids = new double[capacity * 2];
+    double[] copied = new double[METRIC_COUNT];
+    int n;
+    long time;
+    while (true) {
+      long before = seq;
+      if ((before & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      n = levels;
+      time = timestamp;
+      for (int i = 0; i < n; i++) {
+        asks[i * 2] = askPrices[i];
+        asks[i * 2 + 1] = askSizes[i];
+        bids[i * 2] = bidPrices[i];
+        bids[i * 2 + 1] = bidSizes[i];
+      }
+      System.arraycopy(metrics, 0, copied, 0, METRIC_COUNT);
+      VarHandle.loadLoadFence();
+      if (seq == before) {
+        break;
+      }
+    }
+    Map<String, Object> result = new HashMap<>();
+    result.put("market", market);
+    result.put("timestamp", time);
+    result.put("levels", n);
+    result.put("asks", levelList(asks, n));
+    result.put("bids", levelList(bids, n));
+    result.put("bestBid", copied[BEST_BID]);
+    result.put("bestAsk", copied[BEST_ASK]);
+    result.put("spread", copied[SPREAD]);
+    result.put("spreadBps", copied[SPREAD_BPS]);
+    result.put("depthPct", depthPct);
+    result.put("bidDepth", copied[BID_DEPTH]);
+    result.put("askDepth", copied[ASK_DEPTH]);
+    result.put("imbalance", copied[IMBALANCE]);
+    return result;
+  }
+
+  //[가격, 잔량] 목록
+  private static List<double[]> levelList(double[] pairs, int n) {
+    List<double[]> list = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      list.add(new double[]{pairs[i * 2], pairs[i * 2 + 1]});
+    }
+    return list;
+  }
+}
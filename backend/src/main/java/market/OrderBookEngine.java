@@ -0,0 +1,200 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.codec.JsonScanner;
+import coinalarm.Coin_Alarm.exchange.SymbolArray;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import coinalarm.Coin_Alarm.upbit.UpbitMessageFormat;
+import coinalarm.Coin_Alarm.upbit.UpbitSubscriptionManager;
+import coinalarm.Coin_Alarm.upbit.UpbitWSC;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] 업비트 호가 엔진 (상위 N호가, 마켓별 OrderBook)
+ *
+ * 대상: coinalarm.orderbook.markets(항상 구독하는 핫 마켓) + 즐겨찾기(coinalarm.orderbook.favorites=true일 때)
+ *       → UpbitSubscriptionManager로 같은 소켓에 orderbook 타입만 추가 (재연결 없음)
+ *
+ * 메시지 처리 (소켓 스레드, 할당 없음):
+ * - "code" 값 구간을 문자열로 만들지 않고 해시로 바로 OrderBook 조회 (String.hashCode와 같은 식)
+ * - orderbook_units를 OrderBook 배열에 제자리 갱신 + 지표 계산
+ *
+ * 조회: 심볼 ID/마켓 코드로 OrderBook → 지표는 잠금 없이 읽음 (seqlock)
+ */
+@Component
+public class OrderBookEngine {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderBookEngine.class);
+
+  private static final String UPBIT = "UPBIT";
+
+  private final UpbitWSC upbitWSC;
+  private final UpbitSubscriptionManager subscriptionManager;
+  private final SymbolRegistry symbolRegistry;
+
+  private final Set<String> hotMarkets;
+  private final boolean favoritesEnabled;
+  private final int levels;
+  private final double depthPct;
+  private final UpbitMessageFormat format;
+  private final String codeKey;
+  private final String timestampKey;
+  private final String unitsKey;
+
+  //심볼 ID → 호가 (조회용)
+  private final SymbolArray<OrderBook> books = new SymbolArray<>();
+  //구독 중인 마켓 (핫 마켓 + 즐겨찾기), 변경 시 해시 테이블을 새로 만들어 교체
+  private final Set<String> tracked = new TreeSet<>();
+  private volatile OrderBook[] index = new OrderBook[16];
+
+  private final AtomicLong messages = new AtomicLong();
+  private final AtomicLong unknownMarkets = new AtomicLong();
+  private final AtomicLong emptyMessages = new AtomicLong();
+
+  public OrderBookEngine(UpbitWSC upbitWSC,
+                         UpbitSubscriptionManager subscriptionManager,
+                         SymbolRegistry symbolRegistry,
+                         @Value("${coinalarm.orderbook.markets:}") List<String> hotMarkets,
+                         @Value("${coinalarm.orderbook.favorites:true}") boolean favoritesEnabled,
+                         @Value("${coinalarm.orderbook.levels:15}") int levels,
+                         @Value("${coinalarm.orderbook.depth-pct:1.0}") double depthPct) {
+    this.upbitWSC = upbitWSC;
+    this.subscriptionManager = subscriptionManager;
+    this.symbolRegistry = symbolRegistry;
+    this.hotMarkets = new TreeSet<>();
+    hotMarkets.stream().map(String::trim).filter(market -> !market.isEmpty()).forEach(this.hotMarkets::add);
+    this.favoritesEnabled = favoritesEnabled;
+    this.levels = Math.max(1, levels);
+    this.depthPct = depthPct;
+    this.format = upbitWSC.getFormat(); // 응답 포맷별 키는 여기서 한 번만 결정
+    this.codeKey = format.key("code");
+    this.timestampKey = format.key("timestamp");
+    this.unitsKey = format.key("orderbook_units");
+  }
+
+  @PostConstruct
+  public void init() {
+    upbitWSC.addFeedHandler(UpbitWSC.ORDERBOOK, this::onMessage);
+    hotMarkets.forEach(this::track);
+    if (!hotMarkets.isEmpty()) {
+      log.info("📚 호가 구독 (핫 마켓): {}", hotMarkets);
+    }
+  }
+
+  //즐겨찾기 추가 시 (설정으로 끈 경우 무시)
+  public void onFavoriteAdded(String market) {
+    if (favoritesEnabled) {
+      track(market);
+    }
+  }
+
+  //즐겨찾기 해제 시 (핫 마켓은 계속 구독)
+  public void onFavoriteRemoved(String market) {
+    if (favoritesEnabled && !hotMarkets.contains(market)) {
+      untrack(market);
+    }
+  }
+
+  private synchronized void track(String market) {
+    if (!tracked.add(market)) {
+      return;
+    }
+    int symbolId = symbolRegistry.idOf(UPBIT, market);
+    books.set(symbolId, new OrderBook(market, levels, depthPct, format));
+    rebuildIndex();
+    subscriptionManager.addFeed(UpbitWSC.ORDERBOOK, market);
+  }
+
+  private synchronized void untrack(String market) {
+    if (!tracked.remove(market)) {
+      return;
+    }
+    subscriptionManager.removeFeed(UpbitWSC.ORDERBOOK, market);
+    books.set(symbolRegistry.idOf(UPBIT, market), null);
+    rebuildIndex();
+  }
+
+  //마켓 코드 해시 → OrderBook (선형 탐사, 채움률 50% 이하)
+  private void rebuildIndex() {
+    int size = 16;
+    while (size < tracked.size() * 2) {
+      size <<= 1;
+    }
+    OrderBook[] table = new OrderBook[size];
+    for (String market : tracked) {
+      OrderBook book = books.get(symbolRegistry.idOf(UPBIT, market));
+      int slot = market.hashCode() & (size - 1);
+      while (table[slot] != null) {
+        slot = (slot + 1) & (size - 1);
+      }
+      table[slot] = book;
+    }
+    index = table;
+  }
+
+  /**
+   * ⭐ [핵심] orderbook 메시지 1건 (소켓 스레드)
+   */
+  void onMessage(String json) {
+    messages.incrementAndGet();
+    int codeStart = JsonScanner.stringStart(json, JsonScanner.valueIndex(json, 0, codeKey));
+    int codeEnd = (codeStart < 0) ? -1 : JsonScanner.stringEnd(json, codeStart);
+    OrderBook book = (codeEnd < 0) ? null : lookup(json, codeStart, codeEnd);
+    if (book == null) {
+      unknownMarkets.incrementAndGet(); // 구독 해제 직후 도착한 메시지 등
+      return;
+    }
+    long timestamp = JsonScanner.parseLong(json, JsonScanner.valueIndex(json, 0, timestampKey), System.currentTimeMillis());
+    if (book.applyUpbitUnits(json, JsonScanner.valueIndex(json, codeEnd, unitsKey), timestamp) == 0) {
+      emptyMessages.incrementAndGet();
+    }
+  }
+
+  private OrderBook lookup(String json, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + json.charAt(i); // String.hashCode와 같은 값
+    }
+    OrderBook[] table = index;
+    int slot = hash & (table.length - 1);
+    while (table[slot] != null) {
+      if (JsonScanner.regionEquals(json, start, end, table[slot].getMarket())) {
+        return table[slot];
+      }
+      slot = (slot + 1) & (table.length - 1);
+    }
+    return null;
+  }
+
+  //심볼의 호가 (구독 중이 아니면 null)
+  public OrderBook getBook(int symbolId) {
+    return books.get(symbolId);
+  }
+
+  public OrderBook getBook(String market) {
+    return books.get(symbolRegistry.find(UPBIT, market));
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("trackedMarkets", new ArrayList<>(tracked));
+    stats.put("hotMarkets", new ArrayList<>(hotMarkets));
+    stats.put("levels", levels);
+    stats.put("depthPct", depthPct);
+    stats.put("messages", messages.get());
+    stats.put("unknownMarkets", unknownMarkets.get());
+    stats.put("emptyMessages", emptyMessages.get());
+    return stats;
+  }
+}
@@ -0,0 +1,29 @@
+package coinalarm.Coin_Alarm.market;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ⭐ [신규 추가] 거래소 간 프리미엄 1건 (/topic/spread, /api/spreads 응답)
+ *
+ * premiumPct = (원화 가격 / (USDT 가격 × 환율) - 1) × 100
+ * 예: +3.2 → 원화 마켓이 해외 가격보다 3.2% 비쌈 (김치 프리미엄)
+ */
+@Getter
+@Builder
+@ToString
+public class SpreadResponseDto {
+  private String asset;          // 기초 자산 (예: BTC)
+  private String krwExchange;    // 원화 마켓 거래소 (예: UPBIT)
+  private String krwMarket;      // 예: KRW-BTC
+  private double krwPrice;
+  private String usdtExchange;   // USDT 마켓 거래소 (예: BINANCE_SPOT)
+  private String usdtMarket;     // 예: BTCUSDT
+  private double usdtPrice;
+  private double fxRate;         // 계산에 쓴 USDT → KRW 환율
+  private boolean fxLive;        // false면 fallback 환율 사용
+  private double premiumPct;
+  private boolean stale;         // 두 가격의 시각 차이가 크거나 오래된 값 → 알람/정렬에서 제외
+  private long timestamp;        // 마지막 갱신 이벤트 시각 (epoch ms)
+}
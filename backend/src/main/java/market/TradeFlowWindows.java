@@ -0,0 +1,196 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.coin.TradeFlowDto;
+import coinalarm.Coin_Alarm.exchange.SymbolArray;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ⭐ [신규 추가] 체결 방향별 거래대금/건수 창 (1분/5분/15분/1시간)
+ *
+ * 기존: 매수/매도 거래대금 = 24h 거래대금 * 0.5 (양쪽 같은 가짜 값), 틱마다 맵 생성
+ * 변경: 체결 메시지의 ask_bid(BID = 매수 체결, ASK = 매도 체결)로 테이커 방향별 누적
+ *
+ * 구조 (마켓당 Flow 1개, 심볼 ID 배열):
+ * - 창마다 버킷 60개 링 (1분 → 1초, 5분 → 5초, 15분 → 15초, 1시간 → 1분 단위)
+ * - 버킷/합계는 primitive 배열 (틱당 할당 없음), 체결 1건 = 창 4개에 덧셈
+ * - 시간이 지나면 밀려난 버킷만 합계에서 빼고 비움 (전체 재합산 없음)
+ * - 조회도 현재 시각 기준으로 밀어냄 → 체결이 끊긴 마켓도 창 밖 값이 남지 않음
+ *
+ * 정확도: 창 경계는 버킷 단위 (창 길이의 1/60), 창보다 오래된 체결은 버림 (lateTrades)
+ */
+@Component
+public class TradeFlowWindows {
+
+  public static final int[] WINDOW_MINUTES = {1, 5, 15, 60};
+  private static final String[] WINDOW_LABELS = {"1m", "5m", "15m", "1h"};
+  private static final int BUCKETS = 60;
+
+  private final SymbolArray<Flow> flows = new SymbolArray<>();
+
+  private final AtomicLong trades = new AtomicLong();
+  private final AtomicLong lateTrades = new AtomicLong();
+
+  /**
+   * ⭐ [핵심] 체결 1건 반영
+   * @param buy 매수 체결 여부 (업비트 ask_bid = BID)
+   * @param value 체결 금액 (체결가 * 체결량)
+   */
+  public void onTrade(int symbolId, long tradeTimeMillis, boolean buy, double value) {
+    Flow flow = flows.computeIfAbsent(symbolId, id -> new Flow());
+    trades.incrementAndGet();
+    if (!flow.add(tradeTimeMillis, buy, value)) {
+      lateTrades.incrementAndGet();
+    }
+  }
+
+  //N분 창 테이커 매수(또는 매도) 거래대금 (1/5/15/60분, 체결이 없으면 0)
+  public double getTakerValue(int symbolId, int minutes, boolean buy, long nowMillis) {
+    Flow flow = flows.get(symbolId);
+    return (flow != null) ? flow.value(windowIndex(minutes), buy, nowMillis) : 0.0;
+  }
+
+  //N분 창 테이커 매수(또는 매도) 체결 건수
+  public long getTradeCount(int symbolId, int minutes, boolean buy, long nowMillis) {
+    Flow flow = flows.get(symbolId);
+    return (flow != null) ? flow.count(windowIndex(minutes), buy, nowMillis) : 0L;
+  }
+
+  //보드/REST 응답용 창 4개 ("1m" → 흐름), 체결이 한 번도 없던 마켓은 null
+  public Map<String, TradeFlowDto> toDto(int symbolId, long nowMillis) {
+    Flow flow = flows.get(symbolId);
+    if (flow == null) {
+      return null;
+    }
+    Map<String, TradeFlowDto> result = new LinkedHashMap<>();
+    for (int w = 0; w < WINDOW_MINUTES.length; w++) {
+      double buy = flow.value(w, true, nowMillis);
+      double sell = flow.value(w, false, nowMillis);
+      result.put(WINDOW_LABELS[w], TradeFlowDto.builder()
+              .buyVolume(buy)
+              .sellVolume(sell)
+              .buyTrades(flow.count(w, true, nowMillis))
+              .sellTrades(flow.count(w, false, nowMillis))
+              .buyRatio((buy + sell > 0) ? buy / (buy + sell) : 0.5)
+              .build());
+    }
+    return result;
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    int[] markets = new int[1];
+    flows.forEach(flow -> markets[0]++);
+    stats.put("markets", markets[0]);
+    stats.put("trades", trades.get());
+    stats.put("lateTrades", lateTrades.get());
+    return stats;
+  }
+
+  private static int windowIndex(int minutes) {
+    for (int w = 0; w < WINDOW_MINUTES.length; w++) {
+      if (WINDOW_MINUTES[w] == minutes) {
+        return w;
+      }
+    }
+    throw new IllegalArgumentException("unsupported window: " + minutes + "m");
+  }
+
+  //마켓 1개의 창 4개 (배열 인덱스 = 창 * BUCKETS + 슬롯), 쓰기/조회 모두 이 객체 잠금
+  private static final class Flow {
+    private final double[] buyValues = new double[WINDOW_MINUTES.length * BUCKETS];
+    private final double[] sellValues = new double[WINDOW_MINUTES.length * BUCKETS];
+    private final int[] buyCounts = new int[WINDOW_MINUTES.length * BUCKETS];
+    private final int[] sellCounts = new int[WINDOW_MINUTES.length * BUCKETS];
+
+    private final long[] heads = new long[WINDOW_MINUTES.length];  // 창별 최신 버킷 번호 (시각 / 버킷 폭), 슬롯 = 번호 % BUCKETS
+    private final double[] buyTotals = new double[WINDOW_MINUTES.length];
+    private final double[] sellTotals = new double[WINDOW_MINUTES.length];
+    private final long[] buyCountTotals = new long[WINDOW_MINUTES.length];
+    private final long[] sellCountTotals = new long[WINDOW_MINUTES.length];
+
+    private Flow() {
+      Arrays.fill(heads, Long.MIN_VALUE);
+    }
+
+    //창 4개에 더함 (가장 긴 창보다도 오래된 체결이면 false)
+    private synchronized boolean add(long timeMillis, boolean buy, double value) {
+      boolean counted = false;
+      for (int w = 0; w < WINDOW_MINUTES.length; w++) {
+        long epoch = timeMillis / bucketMillis(w);
+        advance(w, epoch);
+        if (epoch <= heads[w] - BUCKETS) {
+          continue; // 이 창에서는 이미 밀려난 구간
+        }
+        int i = w * BUCKETS + (int) Math.floorMod(epoch, (long) BUCKETS);
+        if (buy) {
+          buyValues[i] += value;
+          buyCounts[i]++;
+          buyTotals[w] += value;
+          buyCountTotals[w]++;
+        } else {
+          sellValues[i] += value;
+          sellCounts[i]++;
+          sellTotals[w] += value;
+          sellCountTotals[w]++;
+        }
+        counted = true;
+      }
+      return counted;
+    }
+
+    private synchronized double value(int w, boolean buy, long nowMillis) {
+      advance(w, nowMillis / bucketMillis(w));
+      return Math.max(0.0, buy ? buyTotals[w] : sellTotals[w]); // 뺄셈 반올림 오차로 음수가 되지 않도록
+    }
+
+    private synchronized long count(int w, boolean buy, long nowMillis) {
+      advance(w, nowMillis / bucketMillis(w));
+      return buy ? buyCountTotals[w] : sellCountTotals[w];
+    }
+
+    //창 w의 최신 버킷을 epoch까지 밀면서 밀려난 버킷을 합계에서 빼고 비움
+    private void advance(int w, long epoch) {
+      long head = heads[w];
+      if (epoch <= head) {
+        return;
+      }
+      if (head == Long.MIN_VALUE || epoch - head >= BUCKETS) {
+        // 창 전체가 밀려남 → 통째로 비움 (누적된 덧셈/뺄셈 오차도 여기서 사라짐)
+        for (int s = 0; s < BUCKETS; s++) {
+          clear(w * BUCKETS + s);
+        }
+        buyTotals[w] = 0.0;
+        sellTotals[w] = 0.0;
+        buyCountTotals[w] = 0;
+        sellCountTotals[w] = 0;
+      } else {
+        for (long e = head + 1; e <= epoch; e++) {
+          int i = w * BUCKETS + (int) Math.floorMod(e, (long) BUCKETS);
+          buyTotals[w] -= buyValues[i];
+          sellTotals[w] -= sellValues[i];
+          buyCountTotals[w] -= buyCounts[i];
+          sellCountTotals[w] -= sellCounts[i];
+          clear(i);
+        }
+      }
+      heads[w] = epoch;
+    }
+
+    private void clear(int i) {
+      buyValues[i] = 0.0;
+      sellValues[i] = 0.0;
+      buyCounts[i] = 0;
+      sellCounts[i] = 0;
+    }
+
+    private static long bucketMillis(int w) {
+      return WINDOW_MINUTES[w] * 60_000L / BUCKETS;
+    }
+  }
+}
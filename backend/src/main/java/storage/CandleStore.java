@@ -0,0 +1,494 @@
+package coinalarm.Coin_Alarm.storage;
+
+import coinalarm.Coin_Alarm.codec.BitReader;
+import coinalarm.Coin_Alarm.codec.BitWriter;
+import coinalarm.Coin_Alarm.codec.GorillaCodec;
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ⭐ [신규 추가] 1분봉 OHLCV 컬럼형 로컬 저장소
+ *
+ * 목적: UpbitClient.getMinuteCandles / getHistoricalCandles로 받은 캔들을 버리지 않고 디스크에 보관
+ *       → 차트, 즐겨찾기 프라이밍, 백테스트가 REST(초당 요청 제한) 대신 로컬 파일을 디스크 속도로 읽음
+ *
+ * 파일 구조 (data/candles/<거래소>/<마켓>/<yyyyMMdd>.col, UTC 날짜 기준 하루 1파일):
+ * - 헤더: int magic, int version, int 행 수, int 블록 수
+ * - 희소 인덱스: 블록(64행)마다 { long 첫 분, long 마지막 분, int 행 수, 컬럼 7개 × (int 오프셋, int 길이) }
+ * - 데이터: 블록별/컬럼별 압축 바이트
+ *   · 시각(epoch 분): delta-of-delta (1분 간격이면 행당 1비트)
+ *   · 시가/고가/저가/종가/거래량/거래대금: Gorilla XOR
+ *
+ * 동작:
+ * 1. append(): 해당 날짜를 메모리(기본형 배열)에 모아두고 같은 분은 최신 값으로 교체
+ * 2. 1분마다 변경된 날짜만 임시 파일에 쓴 뒤 원자적으로 교체
+ * 3. query(): 파일을 메모리 매핑 → 인덱스 이진 탐색 → 겹치는 블록만 디코딩 → 원하는 분봉 단위로 즉석 집계
+ */
+@Component
+public class CandleStore {
+
+  private static final Logger log = LoggerFactory.getLogger(CandleStore.class);
+
+  private static final int FILE_MAGIC = 0x43434F4C; // "CCOL"
+  private static final int FILE_VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+
+  private static final int BLOCK_ROWS = 64;
+  private static final int COLUMNS = 7; // 시각, 시가, 고가, 저가, 종가, 거래량, 거래대금
+  private static final int INDEX_ENTRY_BYTES = 8 + 8 + 4 + COLUMNS * 8;
+  private static final int MINUTES_PER_DAY = 1440;
+
+  //메모리 매핑 캐시 최대 개수 (파일당 1개)
+  private static final int MAX_MAPPED_FILES = 256;
+
+  private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+  private final Path baseDir;
+
+  //아직 파일에 반영되지 않았거나 최근에 쓴 날짜 (키: 거래소/마켓/날짜)
+  private final Map<String, DayColumns> openDays = new ConcurrentHashMap<>();
+
+  //읽기 전용 매핑 캐시 (접근 순서 LRU)
+  private final Map<Path, MappedByteBuffer> mappedFiles = Collections.synchronizedMap(
+          new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, MappedByteBuffer> eldest) {
+              return size() > MAX_MAPPED_FILES;
+            }
+          });
+
+  public CandleStore(@Value("${coinalarm.candles.dir:data/candles}") String baseDir) {
+    this.baseDir = Paths.get(baseDir);
+  }
+
+  /**
+   * ⭐ [저장] 캔들 목록 저장 (REST 응답 그대로 넘겨도 됨, 순서 무관)
+   * 같은 분의 캔들은 마지막 값으로 교체 → 진행 중인 1분봉을 여러 번 받아도 안전
+   */
+  public void append(String exchangeId, String marketCode, List<CandleData> candles) {
+    if (candles == null) {
+      return;
+    }
+    for (CandleData candle : candles) {
+      if (candle.getTimestamp() == null || candle.getClosePrice() == null) {
+        continue;
+      }
+      append(exchangeId, marketCode, candle.getTimestamp().toEpochMilli(),
+              valueOf(candle.getOpenPrice()), valueOf(candle.getHighPrice()),
+              valueOf(candle.getLowPrice()), candle.getClosePrice(),
+              valueOf(candle.getAccTradeVolume()), valueOf(candle.getAccTradePrice()));
+    }
+  }
+
+  //1분봉 1개 저장 (epochMillis는 캔들 시작 시각)
+  public void append(String exchangeId, String marketCode, long epochMillis,
+                     double open, double high, double low, double close,
+                     double volume, double tradeValue) {
+    long minute = Math.floorDiv(epochMillis, 60_000L);
+    LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(minute, MINUTES_PER_DAY));
+    DayColumns columns = openDay(exchangeId, marketCode, day);
+    synchronized (columns) {
+      columns.put(minute, open, high, low, close, volume, tradeValue);
+    }
+  }
+
+  /**
+   * ⭐ [조회] 구간 조회 + 즉석 집계
+   *
+   * @param from              시작 시각 (포함)
+   * @param to                끝 시각 (제외)
+   * @param resolutionMinutes 집계 단위 (1, 5, 15, 60, 240, 1440 ...) - UTC 기준으로 정렬
+   * @return 시간순 캔들 목록 (데이터가 없는 구간은 비어 있음)
+   */
+  public List<CandleData> query(String exchangeId, String marketCode, Instant from, Instant to,
+                                int resolutionMinutes) {
+    List<CandleData> result = new ArrayList<>();
+    if (!from.isBefore(to)) {
+      return result;
+    }
+    long fromMinute = Math.floorDiv(from.toEpochMilli(), 60_000L);
+    long toMinute = Math.floorDiv(to.toEpochMilli() - 1, 60_000L); // 포함 범위로 변환
+    Aggregator aggregator = new Aggregator(marketCode, Math.max(1, resolutionMinutes), result);
+
+    long firstDay = Math.floorDiv(fromMinute, MINUTES_PER_DAY);
+    long lastDay = Math.floorDiv(toMinute, MINUTES_PER_DAY);
+    for (long epochDay = firstDay; epochDay <= lastDay; epochDay++) {
+      LocalDate day = LocalDate.ofEpochDay(epochDay);
+      DayColumns columns = openDays.get(key(exchangeId, marketCode, day));
+      if (columns != null) {
+        synchronized (columns) {
+          columns.scan(fromMinute, toMinute, aggregator);
+        }
+      } else {
+        scanFile(dayFile(exchangeId, marketCode, day), fromMinute, toMinute, aggregator);
+      }
+    }
+    aggregator.finish();
+    return result;
+  }
+
+  //거래소의 저장된 마켓 목록 (백테스트 등 오프라인 분석용)
+  public List<String> listMarkets(String exchangeId) {
+    Path exchangeDir = baseDir.resolve(exchangeId);
+    if (!Files.isDirectory(exchangeDir)) {
+      return List.of();
+    }
+    try (Stream<Path> dirs = Files.list(exchangeDir)) {
+      return dirs.filter(Files::isDirectory)
+              .map(dir -> dir.getFileName().toString())
+              .sorted()
+              .collect(Collectors.toList());
+    } catch (IOException e) {
+      log.error("❌ 캔들 마켓 목록 조회 실패 {}: {}", exchangeDir, e.getMessage());
+      return List.of();
+    }
+  }
+
+  //주기적 저장 (1분) + 지난 날짜는 메모리에서 내림
+  @Scheduled(fixedRate = 60_000)
+  public void scheduledFlush() {
+    flush();
+    long today = LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    openDays.entrySet().removeIf(entry -> {
+      DayColumns columns = entry.getValue();
+      synchronized (columns) {
+        return !columns.dirty && columns.day.toEpochDay() < today - 1;
+      }
+    });
+  }
+
+  @PreDestroy
+  public void flush() {
+    int written = 0;
+    for (DayColumns columns : openDays.values()) {
+      synchronized (columns) {
+        if (!columns.dirty) {
+          continue;
+        }
+        try {
+          writeDayFile(columns);
+          columns.dirty = false;
+          written++;
+        } catch (IOException e) {
+          log.error("❌ 캔들 파일 저장 실패 {}: {}", columns.file, e.getMessage());
+        }
+      }
+    }
+    if (written > 0) {
+      log.debug("💾 캔들 저장: {}개 파일", written);
+    }
+  }
+
+  // --- 내부 구현 ---
+
+  private DayColumns openDay(String exchangeId, String marketCode, LocalDate day) {
+    return openDays.computeIfAbsent(key(exchangeId, marketCode, day), k -> {
+      DayColumns columns = new DayColumns(day, dayFile(exchangeId, marketCode, day));
+      if (Files.exists(columns.file)) {
+        //기존 파일이 있으면 먼저 읽어서 이어 쓰기
+        scanFile(columns.file, Long.MIN_VALUE, Long.MAX_VALUE, columns::put);
+        columns.dirty = false;
+      }
+      return columns;
+    });
+  }
+
+  private void writeDayFile(DayColumns columns) throws IOException {
+    Files.createDirectories(columns.file.getParent());
+    int rows = columns.size;
+    int blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+
+    //블록/컬럼별 압축 (오프셋은 데이터 영역 시작 기준이 아닌 파일 기준)
+    byte[][] encoded = new byte[blocks * COLUMNS][];
+    int dataOffset = HEADER_BYTES + blocks * INDEX_ENTRY_BYTES;
+    BitWriter writer = new BitWriter(1024);
+    for (int b = 0; b < blocks; b++) {
+      int start = b * BLOCK_ROWS;
+      int end = Math.min(rows, start + BLOCK_ROWS);
+      writer.reset();
+      GorillaCodec.TimestampEncoder timeEncoder = new GorillaCodec.TimestampEncoder();
+      for (int r = start; r < end; r++) {
+        timeEncoder.encode(writer, columns.minutes[r]);
+      }
+      encoded[b * COLUMNS] = writer.toByteArray();
+      for (int c = 1; c < COLUMNS; c++) {
+        double[] values = columns.values[c - 1];
+        writer.reset();
+        GorillaCodec.DoubleEncoder encoder = new GorillaCodec.DoubleEncoder();
+        for (int r = start; r < end; r++) {
+          encoder.encode(writer, values[r]);
+        }
+        encoded[b * COLUMNS + c] = writer.toByteArray();
+      }
+    }
+
+    Path tmp = columns.file.resolveSibling(columns.file.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 14))) {
+      out.writeInt(FILE_MAGIC);
+      out.writeInt(FILE_VERSION);
+      out.writeInt(rows);
+      out.writeInt(blocks);
+      int offset = dataOffset;
+      for (int b = 0; b < blocks; b++) {
+        int start = b * BLOCK_ROWS;
+        int end = Math.min(rows, start + BLOCK_ROWS);
+        out.writeLong(columns.minutes[start]);
+        out.writeLong(columns.minutes[end - 1]);
+        out.writeInt(end - start);
+        for (int c = 0; c < COLUMNS; c++) {
+          out.writeInt(offset);
+          out.writeInt(encoded[b * COLUMNS + c].length);
+          offset += encoded[b * COLUMNS + c].length;
+        }
+      }
+      for (byte[] bytes : encoded) {
+        out.write(bytes);
+      }
+    }
+    Files.move(tmp, columns.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    mappedFiles.remove(columns.file); //다음 조회 때 새 파일로 다시 매핑
+  }
+
+  /**
+   * 파일 하나를 메모리 매핑으로 읽어서 [fromMinute, toMinute] 행을 sink로 전달
+   * 인덱스를 이진 탐색해서 겹치는 블록만 디코딩
+   */
+  private void scanFile(Path file, long fromMinute, long toMinute, RowSink sink) {
+    ByteBuffer buffer = map(file);
+    if (buffer == null) {
+      return;
+    }
+    if (buffer.getInt(0) != FILE_MAGIC || buffer.getInt(4) != FILE_VERSION) {
+      log.warn("⚠️ 캔들 파일 형식이 달라 무시합니다: {}", file);
+      return;
+    }
+    int blocks = buffer.getInt(12);
+
+    //lastMinute >= fromMinute 인 첫 블록
+    int low = 0;
+    int high = blocks;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (buffer.getLong(indexPosition(mid) + 8) < fromMinute) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    long[] minutes = new long[BLOCK_ROWS];
+    double[][] values = new double[COLUMNS - 1][BLOCK_ROWS];
+    for (int b = low; b < blocks; b++) {
+      int entry = indexPosition(b);
+      if (buffer.getLong(entry) > toMinute) {
+        break;
+      }
+      int rows = buffer.getInt(entry + 16);
+      BitReader timeReader = new BitReader(buffer, buffer.getInt(entry + 20), buffer.getInt(entry + 24));
+      GorillaCodec.TimestampDecoder timeDecoder = new GorillaCodec.TimestampDecoder();
+      for (int r = 0; r < rows; r++) {
+        minutes[r] = timeDecoder.decode(timeReader);
+      }
+      for (int c = 1; c < COLUMNS; c++) {
+        int columnEntry = entry + 20 + c * 8;
+        BitReader reader = new BitReader(buffer, buffer.getInt(columnEntry), buffer.getInt(columnEntry + 4));
+        GorillaCodec.DoubleDecoder decoder = new GorillaCodec.DoubleDecoder();
+        double[] column = values[c - 1];
+        for (int r = 0; r < rows; r++) {
+          column[r] = decoder.decode(reader);
+        }
+      }
+      for (int r = 0; r < rows; r++) {
+        long minute = minutes[r];
+        if (minute < fromMinute || minute > toMinute) {
+          continue;
+        }
+        sink.accept(minute, values[0][r], values[1][r], values[2][r], values[3][r], values[4][r], values[5][r]);
+      }
+    }
+  }
+
+  private ByteBuffer map(Path file) {
+    MappedByteBuffer mapped = mappedFiles.get(file);
+    if (mapped == null) {
+      if (!Files.exists(file)) {
+        return null;
+      }
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        mappedFiles.put(file, mapped);
+      } catch (IOException e) {
+        log.error("❌ 캔들 파일 매핑 실패 {}: {}", file, e.getMessage());
+        return null;
+      }
+    }
+    return mapped.duplicate();
+  }
+
+  private static int indexPosition(int block) {
+    return HEADER_BYTES + block * INDEX_ENTRY_BYTES;
+  }
+
+  private Path dayFile(String exchangeId, String marketCode, LocalDate day) {
+    return baseDir.resolve(exchangeId).resolve(marketCode).resolve(day.format(DAY_FORMAT) + ".col");
+  }
+
+  private static String key(String exchangeId, String marketCode, LocalDate day) {
+    return exchangeId + "/" + marketCode + "/" + day;
+  }
+
+  private static double valueOf(Double value) {
+    return (value != null) ? value : 0.0;
+  }
+
+  //행 하나를 받는 콜백 (박싱 없이 기본형으로 전달)
+  @FunctionalInterface
+  private interface RowSink {
+    void accept(long minute, double open, double high, double low, double close, double volume, double tradeValue);
+  }
+
+  /**
+   * 하루치 1분봉 (메모리)
+   * - minutes[]는 항상 오름차순, values[컬럼][행]은 같은 인덱스
+   * - 대부분 뒤에 붙는 append이므로 정렬 삽입 비용은 거의 없음
+   */
+  private static final class DayColumns implements RowSink {
+    private final LocalDate day;
+    private final Path file;
+    private long[] minutes = new long[64];
+    private double[][] values = new double[COLUMNS - 1][64];
+    private int size;
+    private boolean dirty;
+
+    private DayColumns(LocalDate day, Path file) {
+      this.day = day;
+      this.file = file;
+    }
+
+    @Override
+    public void accept(long minute, double open, double high, double low, double close, double volume, double tradeValue) {
+      put(minute, open, high, low, close, volume, tradeValue);
+    }
+
+    private void put(long minute, double open, double high, double low, double close, double volume, double tradeValue) {
+      int index = (size > 0 && minutes[size - 1] < minute) ? -(size + 1) : Arrays.binarySearch(minutes, 0, size, minute);
+      if (index < 0) {
+        index = -(index + 1);
+        if (size == minutes.length) {
+          int capacity = Math.min(MINUTES_PER_DAY, size * 2);
+          minutes = Arrays.copyOf(minutes, capacity);
+          for (int c = 0; c < values.length; c++) {
+            values[c] = Arrays.copyOf(values[c], capacity);
+          }
+        }
+        System.arraycopy(minutes, index, minutes, index + 1, size - index);
+        for (double[] column : values) {
+          System.arraycopy(column, index, column, index + 1, size - index);
+        }
+        minutes[index] = minute;
+        size++;
+      }
+      values[0][index] = open;
+      values[1][index] = high;
+      values[2][index] = low;
+      values[3][index] = close;
+      values[4][index] = volume;
+      values[5][index] = tradeValue;
+      dirty = true;
+    }
+
+    private void scan(long fromMinute, long toMinute, RowSink sink) {
+      int start = Arrays.binarySearch(minutes, 0, size, fromMinute);
+      if (start < 0) {
+        start = -(start + 1);
+      }
+      for (int r = start; r < size && minutes[r] <= toMinute; r++) {
+        sink.accept(minutes[r], values[0][r], values[1][r], values[2][r], values[3][r], values[4][r], values[5][r]);
+      }
+    }
+  }
+
+  /**
+   * 1분봉 → N분봉 즉석 집계
+   * 시가 = 첫 행, 종가 = 마지막 행, 고가/저가 = 최대/최소, 거래량/거래대금 = 합계
+   */
+  private static final class Aggregator implements RowSink {
+    private final String marketCode;
+    private final int resolution;
+    private final List<CandleData> out;
+    private long bucket = Long.MIN_VALUE;
+    private double open, high, low, close, volume, tradeValue;
+
+    private Aggregator(String marketCode, int resolution, List<CandleData> out) {
+      this.marketCode = marketCode;
+      this.resolution = resolution;
+      this.out = out;
+    }
+
+    @Override
+    public void accept(long minute, double o, double h, double l, double c, double v, double value) {
+      long rowBucket = Math.floorDiv(minute, resolution) * resolution;
+      if (rowBucket != bucket) {
+        finish();
+        bucket = rowBucket;
+        open = o;
+        high = h;
+        low = l;
+        volume = 0;
+        tradeValue = 0;
+      }
+      high = Math.max(high, h);
+      low = Math.min(low, l);
+      close = c;
+      volume += v;
+      tradeValue += value;
+    }
+
+    private void finish() {
+      if (bucket == Long.MIN_VALUE) {
+        return;
+      }
+      out.add(CandleData.builder()
+              .marketCode(marketCode)
+              .timestamp(Instant.ofEpochSecond(bucket * 60))
+              .openPrice(open)
+              .highPrice(high)
+              .lowPrice(low)
+              .closePrice(close)
+              .accTradeVolume(volume)
+              .accTradePrice(tradeValue)
+              .build());
+      bucket = Long.MIN_VALUE;
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package coinalarm.Coin_Alarm.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ⭐ [신규 추가] 인메모리 마켓 상태 체크포인트 / 빠른 복원
+ *
+ * 목적: 틱 저널과 별개로, 힙에 있는 상태(스냅샷 버퍼, 즐겨찾기, 커스텀 임계값, 시가총액 캐시)를
+ *       하나의 바이너리 파일로 주기적으로 저장하고, 재시작 시 WebSocket 연결 전에 복원
+ *       → REST 프라이밍을 기다리지 않고 1초 이내에 보드가 채워진 상태로 시작
+ *
+ * 파일 구조 (data/market-state.ckpt):
+ *   int magic, int version, long 저장시각
+ *   반복 { boolean true, UTF 섹션명, int 길이, byte[] 섹션 데이터 }, boolean false
+ *
+ * 사용법:
+ * - 각 서비스가 초기화 시 register("섹션명", writer)로 저장 방법을 등록
+ * - 같은 시점에 restore("섹션명", reader)로 이전 상태 복원 (없으면 false)
+ * - 체크포인터는 다른 서비스에 의존하지 않음 → 순환 의존 없이 어느 서비스에서든 사용 가능
+ */
+@Component
+public class MarketStateCheckpointer {
+
+  private static final Logger log = LoggerFactory.getLogger(MarketStateCheckpointer.class);
+
+  private static final int FILE_MAGIC = 0x434B5054; // "CKPT"
+  private static final int FILE_VERSION = 1;
+
+  //섹션 저장 방법 (각 서비스가 구현)
+  @FunctionalInterface
+  public interface SectionWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  //섹션 복원 방법 (각 서비스가 구현)
+  @FunctionalInterface
+  public interface SectionReader {
+    void read(DataInputStream in) throws IOException;
+  }
+
+  private final Path checkpointFile;
+  private final Map<String, SectionWriter> writers = new LinkedHashMap<>();
+
+  //파일에서 읽어둔 섹션 원본 (최초 restore 시 한 번만 로드)
+  private Map<String, byte[]> loadedSections;
+  private Instant checkpointTime;
+
+  public MarketStateCheckpointer(@Value("${coinalarm.checkpoint.file:data/market-state.ckpt}") String checkpointFile) {
+    this.checkpointFile = Paths.get(checkpointFile);
+  }
+
+  //섹션 등록 (같은 이름이면 교체)
+  public synchronized void register(String section, SectionWriter writer) {
+    writers.put(section, writer);
+  }
+
+  /**
+   * ⭐ [복원] 섹션 하나 복원
+   *
+   * @return 체크포인트에 해당 섹션이 있고 정상적으로 읽었으면 true
+   */
+  public synchronized boolean restore(String section, SectionReader reader) {
+    loadIfNeeded();
+    byte[] data = loadedSections.get(section);
+    if (data == null) {
+      return false;
+    }
+    long started = System.nanoTime();
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      reader.read(in);
+      log.info("♻️ 체크포인트 복원: {} ({}KB, {}ms)", section, data.length / 1024,
+              (System.nanoTime() - started) / 1_000_000);
+      return true;
+    } catch (IOException e) {
+      log.error("❌ 체크포인트 섹션 복원 실패 {}: {}", section, e.getMessage());
+      return false;
+    }
+  }
+
+  //마지막 체크포인트 저장 시각 (없으면 null) - 저널 재생 시작점 계산용
+  public synchronized Instant getCheckpointTime() {
+    loadIfNeeded();
+    return checkpointTime;
+  }
+
+  //주기적 체크포인트 (1분)
+  @Scheduled(fixedRate = 60_000, initialDelay = 60_000)
+  public void scheduledCheckpoint() {
+    checkpoint();
+  }
+
+  /**
+   * ⭐ [저장] 등록된 모든 섹션을 파일 하나로 저장
+   * 임시 파일에 쓴 뒤 원자적으로 교체 → 저장 중 종료되어도 이전 체크포인트는 유지
+   */
+  @PreDestroy
+  public synchronized void checkpoint() {
+    if (writers.isEmpty()) {
+      return;
+    }
+    long started = System.nanoTime();
+    Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+    try {
+      if (checkpointFile.getParent() != null) {
+        Files.createDirectories(checkpointFile.getParent());
+      }
+      long totalBytes = 0;
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(FILE_VERSION);
+        out.writeLong(System.currentTimeMillis());
+        ByteArrayOutputStream sectionBytes = new ByteArrayOutputStream(1 << 16);
+        for (Map.Entry<String, SectionWriter> entry : writers.entrySet()) {
+          sectionBytes.reset();
+          try (DataOutputStream sectionOut = new DataOutputStream(sectionBytes)) {
+            entry.getValue().write(sectionOut);
+          } catch (IOException | RuntimeException e) {
+            log.error("❌ 체크포인트 섹션 저장 실패 {}: {}", entry.getKey(), e.getMessage());
+            continue;
+          }
+          out.writeBoolean(true);
+          out.writeUTF(entry.getKey());
+          out.writeInt(sectionBytes.size());
+          sectionBytes.writeTo(out);
+          totalBytes += sectionBytes.size();
+        }
+        out.writeBoolean(false);
+      }
+      Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.info("💾 체크포인트 저장: {}개 섹션, {}KB, {}ms", writers.size(), totalBytes / 1024,
+              (System.nanoTime() - started) / 1_000_000);
+    } catch (IOException e) {
+      log.error("❌ 체크포인트 저장 실패: {}", e.getMessage());
+    }
+  }
+
+  private void loadIfNeeded() {
+    if (loadedSections != null) {
+      return;
+    }
+    loadedSections = new HashMap<>();
+    if (!Files.exists(checkpointFile)) {
+      log.info("📂 체크포인트 파일 없음, 빈 상태로 시작: {}", checkpointFile);
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile), 1 << 16))) {
+      if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+        log.warn("⚠️ 체크포인트 형식이 달라 무시합니다: {}", checkpointFile);
+        return;
+      }
+      checkpointTime = Instant.ofEpochMilli(in.readLong());
+      while (in.readBoolean()) {
+        String section = in.readUTF();
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        loadedSections.put(section, data);
+      }
+      log.info("📂 체크포인트 로드: {}개 섹션 (저장 시각 {})", loadedSections.size(), checkpointTime);
+    } catch (IOException e) {
+      log.error("❌ 체크포인트 로드 실패, 빈 상태로 시작: {}", e.getMessage());
+      loadedSections.clear();
+      checkpointTime = null;
+    }
+  }
+}
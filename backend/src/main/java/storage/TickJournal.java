@@ -0,0 +1,367 @@
+package coinalarm.Coin_Alarm.storage;
+
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * ⭐ [신규 추가] 메모리 매핑 기반 append-only 틱 저널
+ *
+ * 목적: MultiTieredSnapshotBuffer / latestTickers는 힙에만 있어서 재시작하면 최대 4시간 기록이 사라짐
+ *       → 정규화된 틱을 디스크에 순서대로 기록해두고, 재시작/오프라인 분석 시 순차 재생
+ *
+ * 파일 구조:
+ * - data/journal/ticks-yyyyMMdd-NNN.seg (UTC 날짜별, 세그먼트가 가득 차면 NNN 증가)
+ * - 헤더 64바이트 + 고정 64바이트 레코드의 연속
+ *
+ * 레코드 (64 bytes, ByteBuffer 기본 big-endian):
+ *   0  long   timestamp (epoch millis, 0이면 "여기까지 기록됨")
+ *   8  double currentPrice
+ *   16 double rolling24hVolume
+ *   24 long   sequenceId   (거래소 체결 번호, 업비트 sequential_id / 없으면 0)
+ *   32 byte[16] exchangeId (ASCII, 0 패딩)
+ *   48 byte[16] marketCode (ASCII, 0 패딩)
+ *
+ * 세그먼트 날짜: 틱 시각은 거래소 이벤트 시각이라 자정 근처에는 전날/다음날 틱이 섞여 옴
+ *   → 세그먼트는 앞으로만 넘어감 (이미 다음날 세그먼트면 전날 틱도 거기에 기록, 재생은 하루 더 스캔)
+ *
+ * 기술 설명:
+ * - FileChannel.map(): 파일을 메모리에 직접 매핑 → append는 절대 위치 put 몇 번(수십~수백 ns)
+ * - 실제 디스크 동기화(force)는 별도 스레드가 주기적으로 수행 (비동기 flush)
+ * - timestamp를 마지막에 기록 → 중간에 죽어도 반쯤 쓴 레코드는 재생 시 무시됨
+ */
+@Component
+public class TickJournal {
+
+  private static final Logger log = LoggerFactory.getLogger(TickJournal.class);
+
+  private static final int FILE_MAGIC = 0x544A524E; // "TJRN"
+  private static final int FILE_VERSION = 2;
+  public static final int HEADER_SIZE = 64;
+  public static final int RECORD_SIZE = 64;
+
+  private static final int OFF_TIMESTAMP = 0;
+  private static final int OFF_PRICE = 8;
+  private static final int OFF_ROLLING_VOLUME = 16;
+  private static final int OFF_SEQUENCE = 24;
+  private static final int OFF_EXCHANGE = 32;
+  private static final int OFF_MARKET = 48;
+  private static final int EXCHANGE_LENGTH = 16;
+  private static final int MARKET_LENGTH = 16;
+
+  private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+  private final boolean enabled;
+  private final Path journalDir;
+  private final long segmentSize;
+  private final ScheduledExecutorService flusher;
+
+  //현재 기록 중인 세그먼트 (append는 synchronized, flush 스레드는 volatile 읽기)
+  private volatile Segment current;
+
+  //마켓코드/거래소ID → 고정 길이 ASCII 바이트 캐시 (틱마다 getBytes() 할당 방지, 필드 길이별로 따로)
+  private final Map<String, byte[]> exchangeAscii = new ConcurrentHashMap<>();
+  private final Map<String, byte[]> marketAscii = new ConcurrentHashMap<>();
+
+  public TickJournal(
+          @Value("${coinalarm.journal.enabled:true}") boolean enabled,
+          @Value("${coinalarm.journal.dir:data/journal}") String journalDir,
+          @Value("${coinalarm.journal.segment-mb:128}") int segmentMb,
+          @Value("${coinalarm.journal.flush-interval-ms:1000}") long flushIntervalMs
+  ) {
+    this.enabled = enabled;
+    this.journalDir = Paths.get(journalDir);
+    this.segmentSize = HEADER_SIZE + ((segmentMb * 1024L * 1024L - HEADER_SIZE) / RECORD_SIZE) * RECORD_SIZE;
+    this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "tick-journal-flusher");
+      t.setDaemon(true);
+      return t;
+    });
+    if (enabled) {
+      flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+      log.info("✅ TickJournal 초기화: {} (세그먼트 {}MB, flush {}ms)", this.journalDir, segmentMb, flushIntervalMs);
+    }
+  }
+
+  /**
+   * ⭐ [핵심] 틱 1건 기록 (ingest 경로에서 호출)
+   * 세그먼트 교체(날짜 변경/용량 초과) 때만 파일 작업이 발생하고, 평소에는 메모리 쓰기만 함
+   */
+  public void append(TickerSnapshot snapshot) {
+    if (!enabled || snapshot.getTimestamp() == null || snapshot.getMarketCode() == null) {
+      return;
+    }
+    long timestamp = snapshot.getTimestamp().toEpochMilli();
+    double price = snapshot.getCurrentPrice() != null ? snapshot.getCurrentPrice() : 0.0;
+    double rollingVolume = snapshot.getRolling24hVolume() != null ? snapshot.getRolling24hVolume() : 0.0;
+    byte[] exchange = ascii(exchangeAscii, snapshot.getExchangeId(), EXCHANGE_LENGTH);
+    byte[] market = ascii(marketAscii, snapshot.getMarketCode(), MARKET_LENGTH);
+
+    synchronized (this) {
+      try {
+        Segment segment = current;
+        long epochDay = Math.floorDiv(timestamp, 86_400_000L);
+        //날짜는 앞으로만 (자정 직후 늦게 온 전날 틱 때문에 세그먼트를 왔다 갔다 하지 않도록)
+        if (segment != null && epochDay < segment.epochDay) {
+          epochDay = segment.epochDay;
+        }
+        if (segment == null || segment.epochDay != epochDay || segment.position + RECORD_SIZE > segmentSize) {
+          segment = roll(epochDay);
+        }
+        MappedByteBuffer buf = segment.buffer;
+        int pos = segment.position;
+        buf.putDouble(pos + OFF_PRICE, price);
+        buf.putDouble(pos + OFF_ROLLING_VOLUME, rollingVolume);
+        buf.putLong(pos + OFF_SEQUENCE, snapshot.getSequentialId());
+        buf.put(pos + OFF_EXCHANGE, exchange);
+        buf.put(pos + OFF_MARKET, market);
+        buf.putLong(pos + OFF_TIMESTAMP, timestamp); // 마지막에 기록 → 레코드 완료 표시
+        segment.position = pos + RECORD_SIZE;
+      } catch (IOException e) {
+        log.error("❌ 틱 저널 기록 실패: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * ⭐ [재생] 기간 내 틱을 TickerSnapshot으로 순차 재생 (웜 리스타트용)
+   * 예: tickJournal.replay(now - 4시간, now, snapshotBuffer::addSnapshot)
+   *
+   * @return 재생한 레코드 수
+   */
+  public long replay(Instant from, Instant to, Consumer<TickerSnapshot> sink) {
+    long fromMillis = from.toEpochMilli();
+    long toMillis = to.toEpochMilli();
+    long[] count = {0};
+    LocalDate day = LocalDate.ofInstant(from, ZoneOffset.UTC);
+    //자정 직전 틱이 다음날 세그먼트에 있을 수 있으므로 하루 더 스캔
+    LocalDate lastDay = LocalDate.ofInstant(to, ZoneOffset.UTC).plusDays(1);
+    for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+      scan(day, record -> {
+        long ts = record.timestamp();
+        if (ts >= fromMillis && ts <= toMillis) {
+          sink.accept(record.toSnapshot());
+          count[0]++;
+        }
+      });
+    }
+    return count[0];
+  }
+
+  /**
+   * ⭐ [재생] 하루치 세그먼트를 기본형 그대로 순차 스캔 (오프라인 분석/백테스트용)
+   * RecordView는 재사용되는 커서이므로 콜백 밖으로 보관하면 안 됨 (할당 없이 GB/s 단위로 읽기 위함)
+   */
+  public void scan(LocalDate day, Consumer<RecordView> visitor) {
+    for (Path file : listSegments(day)) {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+          continue;
+        }
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buf.getInt(0) != FILE_MAGIC || buf.getInt(4) != FILE_VERSION || buf.getInt(8) != RECORD_SIZE) {
+          log.warn("⚠️ 저널 세그먼트 형식 불일치, 건너뜀: {}", file);
+          continue;
+        }
+        RecordView view = new RecordView(buf);
+        for (int pos = HEADER_SIZE; pos + RECORD_SIZE <= size; pos += RECORD_SIZE) {
+          if (buf.getLong(pos + OFF_TIMESTAMP) == 0L) {
+            break; // 기록 끝
+          }
+          view.position = pos;
+          visitor.accept(view);
+        }
+      } catch (IOException e) {
+        log.error("❌ 저널 세그먼트 읽기 실패 {}: {}", file, e.getMessage());
+      }
+    }
+  }
+
+  //해당 날짜의 세그먼트 목록 (이름순 = 기록순)
+  private List<Path> listSegments(LocalDate day) {
+    String prefix = "ticks-" + DAY_FORMAT.format(day) + "-";
+    List<Path> files = new ArrayList<>();
+    if (!Files.isDirectory(journalDir)) {
+      return files;
+    }
+    try (Stream<Path> stream = Files.list(journalDir)) {
+      stream.filter(p -> p.getFileName().toString().startsWith(prefix) && p.getFileName().toString().endsWith(".seg"))
+              .sorted()
+              .forEach(files::add);
+    } catch (IOException e) {
+      log.error("❌ 저널 디렉터리 조회 실패: {}", e.getMessage());
+    }
+    return files;
+  }
+
+  //세그먼트 교체: 이전 세그먼트는 동기화 후 닫고, 새 세그먼트를 매핑
+  private Segment roll(long epochDay) throws IOException {
+    Segment previous = current;
+    if (previous != null) {
+      previous.close();
+    }
+    Files.createDirectories(journalDir);
+    LocalDate day = LocalDate.ofEpochDay(epochDay);
+    int index = listSegments(day).size();
+    Path file = journalDir.resolve(String.format("ticks-%s-%03d.seg", DAY_FORMAT.format(day), index));
+
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    buffer.putInt(0, FILE_MAGIC);
+    buffer.putInt(4, FILE_VERSION);
+    buffer.putInt(8, RECORD_SIZE);
+    buffer.putLong(16, epochDay);
+    buffer.putLong(24, System.currentTimeMillis());
+
+    Segment segment = new Segment(file, channel, buffer, epochDay);
+    current = segment;
+    log.info("📝 틱 저널 세그먼트 시작: {}", file.getFileName());
+    return segment;
+  }
+
+  //비동기 flush: 매핑된 페이지를 디스크에 반영 (ingest 스레드와 무관하게 동작)
+  private void flush() {
+    Segment segment = current;
+    if (segment != null) {
+      try {
+        segment.buffer.force();
+      } catch (Exception e) {
+        log.warn("⚠️ 틱 저널 flush 실패: {}", e.getMessage());
+      }
+    }
+  }
+
+  private static byte[] ascii(Map<String, byte[]> cache, String value, int length) {
+    String key = (value != null) ? value : "";
+    return cache.computeIfAbsent(key, k -> {
+      byte[] fixed = new byte[length];
+      byte[] raw = k.getBytes(StandardCharsets.US_ASCII);
+      System.arraycopy(raw, 0, fixed, 0, Math.min(raw.length, length));
+      return fixed;
+    });
+  }
+
+  @PreDestroy
+  public void close() {
+    flusher.shutdownNow();
+    synchronized (this) {
+      if (current != null) {
+        current.close();
+        current = null;
+      }
+    }
+    log.info("Tick journal closed.");
+  }
+
+  //현재 기록 중인 세그먼트 상태
+  private static final class Segment {
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long epochDay;
+    private int position = HEADER_SIZE;
+
+    private Segment(Path file, FileChannel channel, MappedByteBuffer buffer, long epochDay) {
+      this.file = file;
+      this.channel = channel;
+      this.buffer = buffer;
+      this.epochDay = epochDay;
+    }
+
+    private void close() {
+      try {
+        buffer.force();
+        channel.close();
+      } catch (IOException e) {
+        log.warn("⚠️ 저널 세그먼트 닫기 실패 {}: {}", file, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * 저널 레코드 읽기 전용 커서 (flyweight)
+   * - 기본형 getter는 할당 없음
+   * - marketCode()/toSnapshot()은 문자열/객체를 새로 만들므로 필요한 경우에만 호출
+   */
+  public static final class RecordView {
+    private final MappedByteBuffer buf;
+    private int position;
+
+    private RecordView(MappedByteBuffer buf) {
+      this.buf = buf;
+    }
+
+    public long timestamp() { return buf.getLong(position + OFF_TIMESTAMP); }
+    public double currentPrice() { return buf.getDouble(position + OFF_PRICE); }
+    public double rolling24hVolume() { return buf.getDouble(position + OFF_ROLLING_VOLUME); }
+    public long sequenceId() { return buf.getLong(position + OFF_SEQUENCE); }
+
+    //할당 없이 마켓코드 비교 (ASCII, 0 패딩 포함 16바이트)
+    public boolean marketEquals(byte[] fixedAsciiMarket) {
+      for (int i = 0; i < MARKET_LENGTH; i++) {
+        if (buf.get(position + OFF_MARKET + i) != fixedAsciiMarket[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    public String exchangeId() { return readAscii(OFF_EXCHANGE, EXCHANGE_LENGTH); }
+    public String marketCode() { return readAscii(OFF_MARKET, MARKET_LENGTH); }
+
+    public TickerSnapshot toSnapshot() {
+      return TickerSnapshot.builder()
+              .exchangeId(exchangeId())
+              .marketCode(marketCode())
+              .timestamp(Instant.ofEpochMilli(timestamp()))
+              .sequentialId(sequenceId())
+              .currentPrice(currentPrice())
+              .rolling24hVolume(rolling24hVolume())
+              .build();
+    }
+
+    private String readAscii(int offset, int length) {
+      int len = 0;
+      while (len < length && buf.get(position + offset + len) != 0) {
+        len++;
+      }
+      byte[] bytes = new byte[len];
+      buf.get(position + offset, bytes, 0, len);
+      return new String(bytes, StandardCharsets.US_ASCII);
+    }
+  }
+
+  //마켓코드를 레코드 비교용 고정 길이 ASCII로 변환 (RecordView.marketEquals 인자)
+  public static byte[] toFixedAsciiMarket(String marketCode) {
+    byte[] fixed = new byte[MARKET_LENGTH];
+    byte[] raw = marketCode.getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(raw, 0, fixed, 0, Math.min(raw.length, MARKET_LENGTH));
+    return fixed;
+  }
+}
@@ -0,0 +1,251 @@
+package coinalarm.Coin_Alarm.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ⭐ [신규 추가] 시간대별 상대 거래대금(RVOL) 기준값 저장소
+ *
+ * 목적: 같은 1억이라도 09:00(KST)과 04:00(KST)의 의미가 다르므로,
+ *       마켓별로 "이 시간대의 평소 거래대금"을 기억해두고 현재 거래대금과 비교
+ *
+ * 구조:
+ * - 하루를 5분 슬롯 288개로 나눔 (KST 기준)
+ * - 슬롯별 거래대금을 EWMA(지수가중 이동평균)로 누적 → 최근 N일의 "평소값"
+ * - float[288] + short[288] 기본형 배열만 사용 (마켓당 약 1.7KB)
+ *
+ * 동작:
+ * 1. 체결이 들어올 때마다 현재 슬롯 거래대금에 더함 (onTrade)
+ * 2. 슬롯이 넘어가면 끝난 슬롯 값을 EWMA에 반영 (체결 없던 슬롯은 0으로 반영)
+ *    ⭐ [변경] 단, 프로세스가 관측하지 못한 슬롯(재시작 전 중단 구간, 시작 시점의 일부만 본 슬롯)은
+ *    0이 아니라 "결측"으로 보고 건너뜀 → 재시작할 때마다 기준값이 0 쪽으로 끌려가지 않음
+ * 3. 알람/보드에서는 getRelativeVolume()으로 O(1) 조회 (REST 호출 없음)
+ * 4. 5분마다, 그리고 종료 시 로컬 파일에 저장 → 재시작해도 기준값 유지
+ */
+@Component
+public class VolumeBaselineStore {
+
+  private static final Logger log = LoggerFactory.getLogger(VolumeBaselineStore.class);
+
+  private static final int FILE_MAGIC = 0x52564F4C; // "RVOL"
+  private static final int FILE_VERSION = 1;
+
+  public static final int SLOT_MINUTES = 5;
+  private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES; // 288
+  private static final long SLOT_MILLIS = SLOT_MINUTES * 60_000L;
+  private static final long KST_OFFSET_MILLIS = 9 * 60 * 60 * 1000L;
+
+  //최소 표본 수: 이보다 적으면 기준값을 신뢰하지 않음 (RVOL 0 반환)
+  private static final int MIN_SAMPLES = 3;
+
+  private final Path baselineFile;
+  private final float alpha; // EWMA 가중치 = 2 / (N일 + 1)
+
+  //처음부터 끝까지 관측한 첫 슬롯 (시작 슬롯은 일부만 관측 → 그 이전 슬롯은 모두 결측)
+  private final long observedFromSlot;
+
+  //구조: Map<거래소ID, Map<마켓코드, 기준값>>
+  private final Map<String, Map<String, MarketBaseline>> baselines = new ConcurrentHashMap<>();
+
+  public VolumeBaselineStore(
+          @Value("${coinalarm.rvol.file:data/rvol-baseline.bin}") String baselineFile,
+          @Value("${coinalarm.rvol.days:14}") int days
+  ) {
+    this.baselineFile = Paths.get(baselineFile);
+    this.alpha = 2.0f / (days + 1);
+    this.observedFromSlot = Math.floorDiv(System.currentTimeMillis() + KST_OFFSET_MILLIS, SLOT_MILLIS) + 1;
+  }
+
+  @PostConstruct
+  public void load() {
+    if (!Files.exists(baselineFile)) {
+      log.info("📂 RVOL 기준값 파일 없음, 빈 상태로 시작: {}", baselineFile);
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(baselineFile)))) {
+      if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || in.readInt() != SLOT_MINUTES) {
+        log.warn("⚠️ RVOL 기준값 파일 형식이 달라 무시합니다: {}", baselineFile);
+        return;
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        String exchangeId = in.readUTF();
+        String marketCode = in.readUTF();
+        MarketBaseline baseline = getOrCreate(exchangeId, marketCode);
+        baseline.currentSlot = in.readLong();
+        baseline.currentVolume = in.readDouble();
+        for (int s = 0; s < SLOTS_PER_DAY; s++) {
+          baseline.ewma[s] = in.readFloat();
+          baseline.samples[s] = in.readShort();
+        }
+      }
+      log.info("✅ RVOL 기준값 로드 완료: {}개 마켓", count);
+    } catch (IOException e) {
+      log.error("❌ RVOL 기준값 로드 실패: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * ⭐ [핵심] 체결 1건 반영
+   *
+   * @param exchangeId  거래소 ID
+   * @param marketCode  마켓 코드
+   * @param epochMillis 체결 시각 (밀리초)
+   * @param tradeValue  체결 금액 (가격 * 수량)
+   */
+  public void onTrade(String exchangeId, String marketCode, long epochMillis, double tradeValue) {
+    if (tradeValue <= 0) {
+      return;
+    }
+    MarketBaseline baseline = getOrCreate(exchangeId, marketCode);
+    synchronized (baseline) {
+      baseline.advanceTo(Math.floorDiv(epochMillis + KST_OFFSET_MILLIS, SLOT_MILLIS), alpha, observedFromSlot);
+      baseline.currentVolume += tradeValue;
+    }
+  }
+
+  /**
+   * ⭐ [핵심] 상대 거래대금(RVOL) 조회 - O(1)
+   *
+   * 공식: RVOL = 최근 N분 거래대금 / (해당 시간대 평소 1분 거래대금 * N)
+   * 예: 09:00 슬롯의 평소 5분 거래대금이 10억이고, 현재 1분 거래대금이 6억이면 RVOL = 6 / 2 = 3.0
+   *
+   * @return 기준값이 충분하지 않으면 0.0
+   */
+  public double getRelativeVolume(String exchangeId, String marketCode, long epochMillis,
+                                  double windowVolume, int windowMinutes) {
+    Map<String, MarketBaseline> markets = baselines.get(exchangeId);
+    MarketBaseline baseline = (markets != null) ? markets.get(marketCode) : null;
+    if (baseline == null || windowMinutes <= 0) {
+      return 0.0;
+    }
+    int slot = (int) Math.floorMod(Math.floorDiv(epochMillis + KST_OFFSET_MILLIS, SLOT_MILLIS), (long) SLOTS_PER_DAY);
+    if (baseline.samples[slot] < MIN_SAMPLES) {
+      return 0.0;
+    }
+    double expected = (baseline.ewma[slot] / SLOT_MINUTES) * windowMinutes;
+    return expected > 0 ? windowVolume / expected : 0.0;
+  }
+
+  //주기적 저장 (5분)
+  @Scheduled(fixedRate = 300_000)
+  public void scheduledSave() {
+    save();
+  }
+
+  @PreDestroy
+  public void save() {
+    Path tmp = baselineFile.resolveSibling(baselineFile.getFileName() + ".tmp");
+    try {
+      if (baselineFile.getParent() != null) {
+        Files.createDirectories(baselineFile.getParent());
+      }
+      //저장 도중 마켓이 추가되어도 헤더 개수와 맞도록 대상 목록을 먼저 고정
+      List<String[]> keys = new ArrayList<>();
+      List<MarketBaseline> targets = new ArrayList<>();
+      baselines.forEach((exchangeId, markets) -> markets.forEach((marketCode, baseline) -> {
+        keys.add(new String[]{exchangeId, marketCode});
+        targets.add(baseline);
+      }));
+      int count = targets.size();
+
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(FILE_VERSION);
+        out.writeInt(SLOT_MINUTES);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+          MarketBaseline baseline = targets.get(i);
+          synchronized (baseline) {
+            out.writeUTF(keys.get(i)[0]);
+            out.writeUTF(keys.get(i)[1]);
+            out.writeLong(baseline.currentSlot);
+            out.writeDouble(baseline.currentVolume);
+            for (int s = 0; s < SLOTS_PER_DAY; s++) {
+              out.writeFloat(baseline.ewma[s]);
+              out.writeShort(baseline.samples[s]);
+            }
+          }
+        }
+      }
+      //임시 파일에 다 쓴 후 교체 → 저장 도중 종료되어도 기존 파일은 안전
+      Files.move(tmp, baselineFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.debug("💾 RVOL 기준값 저장: {}개 마켓", count);
+    } catch (IOException e) {
+      log.error("❌ RVOL 기준값 저장 실패: {}", e.getMessage());
+    }
+  }
+
+  private MarketBaseline getOrCreate(String exchangeId, String marketCode) {
+    return baselines
+            .computeIfAbsent(exchangeId, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(marketCode, k -> new MarketBaseline());
+  }
+
+  /**
+   * 마켓 하나의 시간대별 기준값
+   * - ewma[slot]: 해당 5분 슬롯의 평소 거래대금
+   * - samples[slot]: 반영된 일수 (최대 Short.MAX_VALUE)
+   * - currentSlot/currentVolume: 아직 끝나지 않은 슬롯의 누적값
+   */
+  private static final class MarketBaseline {
+    private final float[] ewma = new float[SLOTS_PER_DAY];
+    private final short[] samples = new short[SLOTS_PER_DAY];
+    private long currentSlot = -1;   // 절대 슬롯 번호 (epoch 기준)
+    private double currentVolume;
+
+    //슬롯이 넘어갔으면 끝난 슬롯들을 EWMA에 반영 (체결 없던 슬롯은 0, 관측 전 슬롯은 결측)
+    private void advanceTo(long slot, float alpha, long observedFromSlot) {
+      if (currentSlot < 0) {
+        currentSlot = slot;
+        return;
+      }
+      if (slot <= currentSlot) {
+        return; //늦게 도착한 체결은 현재 슬롯에 합산
+      }
+      //복원된 슬롯/시작 슬롯은 일부만 관측된 값이라 반영하지 않음
+      if (currentSlot >= observedFromSlot) {
+        fold(currentSlot, currentVolume, alpha);
+      }
+      //중단 구간(관측 전) 슬롯은 건너뛰고, 관측 중 체결이 없던 슬롯만 0으로 반영 (하루치까지)
+      long gapStart = Math.max(currentSlot + 1, observedFromSlot);
+      long gapEnd = Math.min(slot, gapStart + SLOTS_PER_DAY);
+      for (long s = gapStart; s < gapEnd; s++) {
+        fold(s, 0.0, alpha);
+      }
+      currentSlot = slot;
+      currentVolume = 0.0;
+    }
+
+    private void fold(long absoluteSlot, double volume, float alpha) {
+      int slot = (int) Math.floorMod(absoluteSlot, (long) SLOTS_PER_DAY);
+      if (samples[slot] == 0) {
+        ewma[slot] = (float) volume;
+      } else {
+        ewma[slot] += alpha * ((float) volume - ewma[slot]);
+      }
+      if (samples[slot] < Short.MAX_VALUE) {
+        samples[slot]++;
+      }
+    }
+  }
+}
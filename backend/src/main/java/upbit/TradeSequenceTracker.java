@@ -0,0 +1,190 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * ⭐ [신규 추가] 업비트 체결 중복 제거 + 끊김 구간(gap) 감지 (마켓별 sequential_id)
+ *
+ * 중복: 같은 체결이 두 번 오면(재연결/구독 재전송 직후 등) 거래량/체결 흐름이 두 번 집계됨
+ * - 업비트 sequential_id는 체결마다 유일하지만 연속 번호가 아니고 순서도 보장하지 않음
+ *   → 범위 비트맵(최소~최대 id) 대신 "최근 window개 id" 해시 집합으로 판정
+ * - 2세대 집합: 현재 세대가 window개 차면 이전 세대로 넘기고 비움 → 항상 최근 window~2*window개를 기억
+ *   조회/추가 O(1) (선형 탐사, 채움률 50% 이하), 마켓당 메모리 고정 (long 4*window개)
+ *
+ * 끊김: id가 연속이 아니므로 번호 건너뜀으로는 알 수 없음 → 스트림이 끊겼다 이어진 시점(interrupted)으로 판단
+ * - 끊긴 뒤 그 마켓의 첫 체결이 오면 TradeGap(끊기기 전 마지막 체결 시각 ~ 다시 받은 첫 체결 시각) 발생
+ *   → 마켓별로 실제 체결 시각 기준 공백 (GapBackfiller가 보충 여부 판단)
+ *
+ * 스레드: accept()는 소켓 스레드 1개에서만 호출, interrupted()/지표는 다른 스레드에서 호출 가능
+ */
+public final class TradeSequenceTracker {
+
+  private final int window;
+  private final int mask;
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+  private final Consumer<TradeGap> gapListener;
+
+  //끊길 때마다 증가 → 마켓별 세대가 다르면 끊긴 뒤 첫 체결
+  private volatile int epoch;
+
+  private final AtomicLong accepted = new AtomicLong();
+  private final AtomicLong duplicates = new AtomicLong();
+  private final AtomicLong untracked = new AtomicLong();
+  private final AtomicLong gaps = new AtomicLong();
+  private volatile long lastGapMillis;
+
+  /**
+   * @param window      마켓별로 기억할 최근 체결 id 수 (세대당)
+   * @param gapListener 끊김 구간 감지 시 호출 (소켓 스레드에서 바로 호출되므로 오래 걸리는 작업은 넘길 것)
+   */
+  public TradeSequenceTracker(int window, Consumer<TradeGap> gapListener) {
+    int size = 16;
+    while (size < Math.max(1, window) * 2) {
+      size <<= 1;
+    }
+    this.window = Math.max(1, window);
+    this.mask = size - 1;
+    this.gapListener = gapListener;
+  }
+
+  /**
+   * ⭐ [핵심] 체결 1건 판정
+   *
+   * @param sequentialId   업비트 sequential_id (null/0이면 판정 불가 → 통과)
+   * @param tradeTimestamp 체결 시각 (끊김 구간 계산용, null이면 0)
+   * @return false면 이미 받은 체결 (버릴 것)
+   */
+  public boolean accept(String market, Long sequentialId, Long tradeTimestamp) {
+    if (sequentialId == null || sequentialId == 0L || market == null) {
+      untracked.incrementAndGet();
+      return true;
+    }
+    Window w = windows.computeIfAbsent(market, key -> new Window(mask + 1, epoch));
+    long id = sequentialId;
+    if (w.contains(id, mask)) {
+      duplicates.incrementAndGet();
+      return false;
+    }
+    w.add(id, mask, window);
+    accepted.incrementAndGet();
+
+    long tradeMillis = (tradeTimestamp != null) ? tradeTimestamp : 0L;
+    int current = epoch;
+    if (w.epoch != current) {
+      w.epoch = current;
+      if (w.lastTradeMillis > 0 && tradeMillis > w.lastTradeMillis) {
+        gaps.incrementAndGet();
+        lastGapMillis = tradeMillis - w.lastTradeMillis;
+        gapListener.accept(new TradeGap(market, w.lastTradeMillis, tradeMillis));
+      }
+    }
+    if (tradeMillis > w.lastTradeMillis) {
+      w.lastTradeMillis = tradeMillis;
+    }
+    return true;
+  }
+
+  //스트림이 끊김 (소켓 종료/실패) → 이후 마켓마다 첫 체결에서 공백 보고
+  public void interrupted() {
+    epoch++; // 쓰기는 끊김 콜백(동기화된 한 곳)에서만
+  }
+
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("window", window);
+    stats.put("markets", windows.size());
+    stats.put("accepted", accepted.get());
+    stats.put("duplicates", duplicates.get());
+    stats.put("untracked", untracked.get());
+    stats.put("gaps", gaps.get());
+    stats.put("lastGapMs", lastGapMillis);
+    return stats;
+  }
+
+  //마켓 1개의 최근 체결 id (0 = 빈 칸)
+  private static final class Window {
+    private long[] current;
+    private long[] previous;
+    private int size;
+    private int epoch;
+    private long lastTradeMillis;
+
+    private Window(int tableSize, int epoch) {
+      this.current = new long[tableSize];
+      this.previous = new long[tableSize];
+      this.epoch = epoch;
+    }
+
+    private boolean contains(long id, int mask) {
+      return find(current, id, mask) || find(previous, id, mask);
+    }
+
+    private void add(long id, int mask, int window) {
+      if (size >= window) {
+        long[] oldest = previous;
+        previous = current;
+        Arrays.fill(oldest, 0L); // window개마다 1번 → 체결당 O(1)
+        current = oldest;
+        size = 0;
+      }
+      int slot = slot(id, mask);
+      while (current[slot] != 0L) {
+        slot = (slot + 1) & mask;
+      }
+      current[slot] = id;
+      size++;
+    }
+
+    private static boolean find(long[] table, long id, int mask) {
+      int slot = slot(id, mask);
+      while (table[slot] != 0L) {
+        if (table[slot] == id) {
+          return true;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return false;
+    }
+
+    private static int slot(long id, int mask) {
+      long h = id * 0x9E3779B97F4A7C15L; // 하위 비트가 비슷한 id도 고르게 퍼지도록
+      return (int) (h >>> 32) & mask;
+    }
+  }
+
+  /**
+   * 끊김 구간 (마켓 1개, 실제 체결 시각 기준)
+   */
+  public static final class TradeGap {
+    private final String market;
+    private final long lastTradeMillis;
+    private final long resumedTradeMillis;
+
+    public TradeGap(String market, long lastTradeMillis, long resumedTradeMillis) {
+      this.market = market;
+      this.lastTradeMillis = lastTradeMillis;
+      this.resumedTradeMillis = resumedTradeMillis;
+    }
+
+    public String getMarket() {
+      return market;
+    }
+
+    public long getLastTradeMillis() {
+      return lastTradeMillis;
+    }
+
+    public long getResumedTradeMillis() {
+      return resumedTradeMillis;
+    }
+
+    public long getDurationMillis() {
+      return resumedTradeMillis - lastTradeMillis;
+    }
+  }
+}
@@ -2,16 +2,29 @@ package coinalarm.Coin_Alarm.upbit;
 
 import coinalarm.Coin_Alarm.upbit.UpbitCandleResponse; // UpbitCandleResponse 임포트
 import coinalarm.Coin_Alarm.upbit.UpbitMarketResponse; // UpbitMarketResponse 임포트
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.MarketCapInfo;
+import coinalarm.Coin_Alarm.exchange.ExchangeClient;
+import coinalarm.Coin_Alarm.exchange.LatestPerMarketTickerEmitter;
+import coinalarm.Coin_Alarm.exchange.TickBus;
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono; // Mono 임포트
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors; // Collectors 임포트
 
 import static coinalarm.Coin_Alarm.AccessingDataJpaApplication.log;
@@ -21,11 +34,15 @@ public class UpbitClient implements ExchangeClient {
 
   private final WebClient webClient;
   private UpbitWSC upbitWSC;
+  private final Set<LatestPerMarketTickerEmitter> activeStreams = new CopyOnWriteArraySet<>();
+  private final AtomicInteger streamSeq = new AtomicInteger(); // 틱 버스 소비자 이름용
+  private final Map<String, Double> dailyVolumeCache = new ConcurrentHashMap<>(); // 즐겨찾기 일봉 거래대금 캐시
 
   /*20251022 ADD STR*/
-  public UpbitClient(WebClient.Builder webClientBuilder, UpbitWSC upbitWSC) {
+  public UpbitClient(WebClient.Builder webClientBuilder, UpbitWSC upbitWSC,
+                     @Value("${coinalarm.upbit.rest-url:https://api.upbit.com/v1}") String restBaseUrl) {
     this.webClient = webClientBuilder
-            .baseUrl("https://api.upbit.com/v1")
+            .baseUrl(restBaseUrl) // ⭐ [변경] 설정값 (테스트에서는 로컬 mock 서버)
             .build();
     this.upbitWSC = upbitWSC;
   }
@@ -50,26 +67,45 @@ public class UpbitClient implements ExchangeClient {
             .onErrorResume(e -> {
               log.error("Error fetching all market codes: {}", e.getMessage());
               return Mono.just(Collections.emptyList());
-            })
-            .block();
+            });
   }
+  /**
+   * ⭐ [변경] 수요 기반 Ticker 스트림 (LatestPerMarketTickerEmitter)
+   * - 기존: Flux.create 기본 버퍼(무제한) → 구독자가 느리면 힙 증가, 취소해도 소켓 유지
+   * - 변경: 요청만큼만 발행, 밀리면 마켓별 최신 틱만 유지 / 취소·종료 시 소켓 해제
+   */
   @Override
-  public Flux<TickerSnapshot> seubscribeTickerStream(List<String> marketCodes) {
+  public Flux<TickerSnapshot> subscribeTickerStream(List<String> marketCodes) {
     //WebSocket Ticker 스트림을 TickerSnapshot으로 변환
-    return Flux.create(sink->{
-      upbitWSC.sonnect(marketCodes);
-      upbitWSC.setOnTradeMessageReceived(ticker -> {
-        //UpbitTickerResponse를 TickerSnapshot으로 변환
-        TickerSnapshot snapshot = TickerSnapshot.builder()
-                .exchangeId(getExchangeId())
-                .marketCode(ticker.getMarketCode())
-                .timestamp(Instant.now())
-                .currentPrice(ticker.getTradePriceNormalized())
-                .rolling24hVolume(ticker.getAccTradePrice24h())
-                .build();
-        sink.next(snapshot); //Flux로 데이터 발행
-      });
-    });
+    //⭐ [변경] 틱 버스 소비자로 등록 (보드 등 다른 소비자와 소켓 공유), 해제 시 이 소비자만 빠짐
+    return LatestPerMarketTickerEmitter.create(getExchangeId(), emitter ->
+            upbitWSC.subscribe("exchangeClient-" + streamSeq.incrementAndGet(), marketCodes,
+                    TickBus.DropPolicy.DROP_OLDEST, ticker -> {
+              //UpbitTickerResponse를 TickerSnapshot으로 변환
+              //⭐ [변경] Instant.now() → 체결 시각(trade_timestamp), 수신 시각은 따로 기록 (지연/시계 차이 지표용)
+              long receivedAt = System.currentTimeMillis();
+              Long tradeTimestamp = ticker.getTradeTimestamp();
+              emitter.offer(TickerSnapshot.builder()
+                      .exchangeId(getExchangeId())
+                      .marketCode(ticker.getMarketCode())
+                      .timestamp(Instant.ofEpochMilli(tradeTimestamp != null ? tradeTimestamp : receivedAt))
+                      .receivedAtMillis(receivedAt)
+                      .sequentialId(ticker.getSequentialId() != null ? ticker.getSequentialId() : 0L)
+                      .currentPrice(ticker.getTradePrice())
+                      .rolling24hVolume(ticker.getAccTradePrice24h())
+                      .build());
+            }), activeStreams);
+  }
+
+  @Override
+  public List<Map<String, Object>> getStreamStats() {
+    List<Map<String, Object>> stats = new ArrayList<>();
+    for (LatestPerMarketTickerEmitter stream : activeStreams) {
+      stats.add(stream.getStats());
+    }
+    stats.add(upbitWSC.getConnectionStats()); // ⭐ 소켓 상태/재연결
+    stats.addAll(upbitWSC.getTickBusStats()); // ⭐ 소켓 공유 소비자별 큐 (보드 포함)
+    return stats;
   }
 
 
@@ -86,6 +122,19 @@ public class UpbitClient implements ExchangeClient {
             .collectList();
   }
 
+  // ⭐ [신규 추가] to 시각 이전(미포함) 분봉 count개 (최신 → 과거 순, 끊김 구간 보충용)
+  public Mono<List<UpbitCandleResponse>> getMinuteCandles(String market, int unit, int count, Instant to) {
+    return webClient.get()
+            .uri(uriBuilder -> uriBuilder.path("/candles/minutes/{unit}")
+                    .queryParam("market", market)
+                    .queryParam("count", count)
+                    .queryParam("to", to.truncatedTo(ChronoUnit.SECONDS).toString()) // ISO 8601 UTC
+                    .build(unit))
+            .retrieve()
+            .bodyToFlux(UpbitCandleResponse.class)
+            .collectList();
+  }
+
   public Mono<List<UpbitCandleResponse>> getDayCandles(String market, int count){
     return webClient.get()
             .uri(uriBuilder -> uriBuilder.path("/candles/days") // 경로 변수 {unit} 사용
@@ -104,7 +153,7 @@ public class UpbitClient implements ExchangeClient {
 
       return webClient.get()
               .uri(uriBuilder -> uriBuilder.path(path) // 경로 변수 {unit} 사용
-                      .queryParam("market", market) // 쿼리 파라미터 market
+                      .queryParam("market", marketCode) // 쿼리 파라미터 market
                       .queryParam("count", count)   // 쿼리 파라미터 count
                       .build()) // {unit} 경로 변수에 실제 unit 값 바인딩
               .retrieve()
@@ -113,38 +162,25 @@ public class UpbitClient implements ExchangeClient {
               .collectList();
   }
 //20251023 *** [신규 추가] 시가총액 STR***
-  public Mono<List<CandleData>> getMarketCap(String marketCode){
-    retrun webClient.get()
-            .uri(uriBuilder -> uriBuilder.path("/ticker")
-                    .queryParam("markets", marketCode)
-                    .build())
-            .retrieve()
-            .bodyToFlux(UpbitTickerResponse.class)
-            .next()
-            .map(ticker -> {
-              //임시로 거래대금 기준으로 등급판정
-              double mockMarketCap = ticker.getAccTradePrice24h() * 100; //임시사용
-
-              return MarketCapInfo.builder()
-                      .marketCode(marketCode)
-                      .marketCap(mockMarketCap)
-                      .tier(MarketCapTier.fromMarketCap(mockMarketCap))
-                      .build();
-            })
+  //⭐ [변경] 시가총액은 LiveMarketCapTracker에서 계산 (REST 조회 없음)
+  @Override
+  @Deprecated
+  public Mono<MarketCapInfo> getMarketCap(String marketCode){
+    return Mono.empty();
   }
 //20251023 *** [신규 추가] 시가총액 END***
 
 //20251023 *** [신규 추가] 거래소ID를 공통 CandleData로 변환 STR***
   private CandleData convertToCandleData(UpbitCandleResponse upbitCandle){
       return CandleData.builder()
-              .exchangeId(getExchangeId())
-              .marketCode(upbitCandle.getMarketCode())
+              .marketCode(upbitCandle.getMarket())
               .timestamp(Instant.parse(upbitCandle.getCandleDateTimeUtc()+"Z"))
               .openPrice(upbitCandle.getOpeningPrice())
               .highPrice(upbitCandle.getHighPrice())
               .lowPrice(upbitCandle.getLowPrice())
               .closePrice(upbitCandle.getTradePrice())
-              .volume(upbitCandle.getCandleAccTradeVolume())
+              .accTradePrice(upbitCandle.getCandleAccTradePrice())
+              .accTradeVolume(upbitCandle.getCandleAccTradeVolume())
               .build();
   }
 //20251023 *** [신규 추가] 거래소ID를 공통 CandleData로 변환 END***
@@ -0,0 +1,68 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import java.util.Map;
+
+/**
+ * ⭐ [신규 추가] 업비트 웹소켓 응답 포맷 (구독 메시지의 {"format": ...})
+ *
+ * DEFAULT: 전체 키 (acc_trade_price_24h, highest_52_week_date ...)
+ * SIMPLE : 축약 키 (cd, tp, tv ...) → 프레임 크기/파싱 시간 감소
+ *
+ * 메시지를 읽는 쪽(UpbitWSC, ticker/orderbook 피드 핸들러)은 DEFAULT 키 이름으로 key()를 한 번 호출해
+ * 실제 키를 받아두고 씀 → 포맷이 바뀌어도 파싱 코드는 그대로
+ */
+public enum UpbitMessageFormat {
+  DEFAULT,
+  SIMPLE;
+
+  //DEFAULT 키 → SIMPLE 키 (이 프로젝트에서 읽는 키만, 업비트 문서 기준)
+  //주의: trade_date는 체결(trade) 메시지 기준 "td" (ticker 메시지에서는 "tdt")
+  private static final Map<String, String> SIMPLE_KEYS = Map.ofEntries(
+          Map.entry("type", "ty"),
+          Map.entry("code", "cd"),
+          Map.entry("timestamp", "tms"),
+          Map.entry("stream_type", "st"),
+          // 체결 (trade)
+          Map.entry("trade_price", "tp"),
+          Map.entry("trade_volume", "tv"),
+          Map.entry("ask_bid", "ab"),
+          Map.entry("prev_closing_price", "pcp"),
+          Map.entry("change", "c"),
+          Map.entry("change_price", "cp"),
+          Map.entry("trade_date", "td"),
+          Map.entry("trade_time", "ttm"),
+          Map.entry("trade_timestamp", "ttms"),
+          Map.entry("sequential_id", "sid"),
+          // 현재가 (ticker)
+          Map.entry("opening_price", "op"),
+          Map.entry("high_price", "hp"),
+          Map.entry("low_price", "lp"),
+          Map.entry("signed_change_price", "scp"),
+          Map.entry("change_rate", "cr"),
+          Map.entry("signed_change_rate", "scr"),
+          Map.entry("acc_trade_price", "atp"),
+          Map.entry("acc_trade_price_24h", "atp24h"),
+          Map.entry("acc_trade_volume", "atv"),
+          Map.entry("acc_trade_volume_24h", "atv24h"),
+          // 호가 (orderbook)
+          Map.entry("total_ask_size", "tas"),
+          Map.entry("total_bid_size", "tbs"),
+          Map.entry("orderbook_units", "obu"),
+          Map.entry("ask_price", "ap"),
+          Map.entry("bid_price", "bp"),
+          Map.entry("ask_size", "as"),
+          Map.entry("bid_size", "bs")
+  );
+
+  //DEFAULT 키 이름 → 이 포맷의 실제 키 (메시지마다 호출하지 말고 시작 시 받아둘 것)
+  public String key(String defaultKey) {
+    if (this == DEFAULT) {
+      return defaultKey;
+    }
+    String key = SIMPLE_KEYS.get(defaultKey);
+    if (key == null) {
+      throw new IllegalArgumentException("no SIMPLE key for " + defaultKey);
+    }
+    return key;
+  }
+}
@@ -0,0 +1,56 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import coinalarm.Coin_Alarm.codec.JsonScanner;
+
+/**
+ * ⭐ [신규 추가] SIMPLE 포맷 체결(trade) 메시지 파서
+ *
+ * ObjectMapper 대신 JsonScanner로 축약 키 값만 읽어 DEFAULT 포맷과 같은 UpbitTickerResponse를 만듦
+ * → 틱 버스 이후 소비자(보드, 거래소 스트림, 체결 흐름)는 포맷을 몰라도 됨
+ *
+ * 예: {"ty":"trade","cd":"KRW-BTC","tms":1700000000123,"td":"2023-11-14","ttm":"22:13:20","ttms":1700000000000,
+ *      "tp":50000000.0,"tv":0.01,"ab":"BID","pcp":49000000.0,"c":"RISE","cp":1000000.0,"sid":17000000000000000,"st":"REALTIME"}
+ */
+public final class UpbitSimpleParser {
+
+  private UpbitSimpleParser() {
+  }
+
+  //체결 메시지 → UpbitTickerResponse (없는 필드는 null, DEFAULT 포맷 역직렬화와 같은 규칙)
+  public static UpbitTickerResponse parseTrade(String json) {
+    UpbitTickerResponse ticker = new UpbitTickerResponse();
+    ticker.setType(string(json, "ty"));
+    ticker.setMarket(string(json, "cd"));
+    ticker.setTradeDate(string(json, "td"));
+    ticker.setTradeTime(string(json, "ttm"));
+    ticker.setTradeTimestamp(longValue(json, "ttms"));
+    ticker.setTimestamp(longValue(json, "tms"));
+    ticker.setTradePrice(doubleValue(json, "tp"));
+    ticker.setTradeVolume(doubleValue(json, "tv"));
+    ticker.setAskBid(string(json, "ab"));
+    ticker.setPrevClosingPrice(doubleValue(json, "pcp"));
+    ticker.setChange(string(json, "c"));
+    ticker.setChangePrice(doubleValue(json, "cp"));
+    ticker.setSequentialId(longValue(json, "sid"));
+    return ticker;
+  }
+
+  private static String string(String json, String key) {
+    int start = JsonScanner.stringStart(json, JsonScanner.valueIndex(json, 0, key));
+    if (start < 0) {
+      return null;
+    }
+    int end = JsonScanner.stringEnd(json, start);
+    return (end < 0) ? null : json.substring(start, end);
+  }
+
+  private static Double doubleValue(String json, String key) {
+    double value = JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, key), Double.NaN);
+    return Double.isNaN(value) ? null : value;
+  }
+
+  private static Long longValue(String json, String key) {
+    int index = JsonScanner.valueIndex(json, 0, key);
+    return (index < 0) ? null : JsonScanner.parseLong(json, index, 0L);
+  }
+}
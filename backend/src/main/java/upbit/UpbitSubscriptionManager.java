@@ -0,0 +1,170 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkhead;
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkheads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * ⭐ [신규 추가] 업비트 구독 관리 (재연결 없이 마켓/타입 추가·제거)
+ *
+ * 기존: MarketDataService.init()에서 받은 마켓 목록으로 onOpen에 한 번 구독 → 신규 상장/상장폐지/즐겨찾기 피드는
+ *       소켓을 다시 붙여야 반영 (그동안 모든 마켓 스트림 끊김)
+ * 변경:
+ * - 상장 목록: market-refresh-ms마다 /market/all(KRW) 조회 → 이전 목록과 비교
+ *   → 신규 상장은 전체 마켓 소비자에 추가, 상장폐지는 모든 소비자/피드에서 제거 (UpbitWSC.applyListedMarkets)
+ * - 추가 타입 피드: addFeed/removeFeed (예: 즐겨찾기 마켓만 ticker 타입 추가 구독)
+ * - 반영은 같은 소켓에 구독 메시지 재전송 → 계속 구독 중인 마켓은 공백 없음
+ *
+ * 업비트는 소켓 1개로 전 마켓 구독이 가능해서 소켓 간 마켓 이동(샤딩)은 하지 않음
+ */
+@Component
+public class UpbitSubscriptionManager {
+
+  private static final Logger log = LoggerFactory.getLogger(UpbitSubscriptionManager.class);
+
+  private static final Duration INITIAL_LOAD_TIMEOUT = Duration.ofSeconds(15);
+
+  private final UpbitWSC upbitWSC;
+  private final UpbitClient upbitClient;
+  private final ExchangeBulkhead upbitBulkhead;
+
+  private volatile List<String> listedMarkets = List.of();
+  private final Map<String, Set<String>> feeds = new TreeMap<>(); // 타입 → 마켓
+  private final List<Consumer<List<String>>> listingListeners = new CopyOnWriteArrayList<>();
+
+  private final AtomicLong refreshes = new AtomicLong();
+  private final AtomicLong refreshFailures = new AtomicLong();
+  private final AtomicLong listedTotal = new AtomicLong();
+  private final AtomicLong delistedTotal = new AtomicLong();
+  private volatile List<String> lastListed = List.of();
+  private volatile List<String> lastDelisted = List.of();
+
+  public UpbitSubscriptionManager(UpbitWSC upbitWSC, UpbitClient upbitClient, ExchangeBulkheads bulkheads) {
+    this.upbitWSC = upbitWSC;
+    this.upbitClient = upbitClient;
+    this.upbitBulkhead = bulkheads.forExchange("UPBIT");
+  }
+
+  /**
+   * 상장 마켓 목록 (아직 없으면 REST로 한 번 조회, 실패하면 빈 목록)
+   * 시작 시 보드 구독 전에 호출
+   */
+  public List<String> loadListedMarkets() {
+    if (listedMarkets.isEmpty()) {
+      try {
+        List<String> markets = upbitBulkhead.protect(upbitClient.getAllMarketCodes()).block(INITIAL_LOAD_TIMEOUT);
+        if (markets != null) {
+          applyListedMarkets(markets);
+        }
+      } catch (RuntimeException e) {
+        log.error("❌ 업비트 상장 마켓 조회 실패: {}", e.getMessage());
+      }
+    }
+    return listedMarkets;
+  }
+
+  //주기적으로 상장 목록 비교 (REST는 업비트 격벽 스레드, 실패해도 현재 구독 유지)
+  @Scheduled(fixedDelayString = "${coinalarm.upbit.market-refresh-ms:300000}",
+          initialDelayString = "${coinalarm.upbit.market-refresh-ms:300000}")
+  public void refreshListedMarkets() {
+    upbitBulkhead.protect(upbitClient.getAllMarketCodes())
+            .subscribe(this::applyListedMarkets, error -> {
+              refreshFailures.incrementAndGet();
+              log.warn("⚠️ 업비트 상장 마켓 갱신 실패: {}", error.getMessage());
+            });
+  }
+
+  /**
+   * ⭐ [핵심] 새 상장 목록 반영 (이전 목록과 비교 → 바뀐 마켓만 구독 변경)
+   * 체크포인트에서 복원한 목록도 여기로 (REST 없이 시작)
+   */
+  public synchronized void applyListedMarkets(List<String> markets) {
+    if (markets == null || markets.isEmpty()) {
+      return; // 빈 응답으로 전 마켓을 상장폐지 처리하지 않음
+    }
+    refreshes.incrementAndGet();
+    Set<String> previous = new TreeSet<>(listedMarkets);
+    Set<String> current = new TreeSet<>(markets);
+    List<String> listed = current.stream().filter(market -> !previous.contains(market)).toList();
+    List<String> delisted = previous.stream().filter(market -> !current.contains(market)).toList();
+    if (!previous.isEmpty() && listed.isEmpty() && delisted.isEmpty()) {
+      return;
+    }
+
+    List<String> snapshot = List.copyOf(current);
+    listedMarkets = snapshot;
+    if (!previous.isEmpty()) {
+      lastListed = listed;
+      lastDelisted = delisted;
+      listedTotal.addAndGet(listed.size());
+      delistedTotal.addAndGet(delisted.size());
+      log.info("🆕 업비트 상장 변경: 신규 {} / 폐지 {}", listed, delisted);
+    }
+    upbitWSC.applyListedMarkets(snapshot, listed, delisted);
+    for (Set<String> codes : feeds.values()) {
+      delisted.forEach(codes::remove);
+    }
+    feeds.values().removeIf(Set::isEmpty);
+    for (Consumer<List<String>> listener : listingListeners) {
+      listener.accept(snapshot);
+    }
+  }
+
+  //상장 목록이 바뀔 때마다 새 목록 전달 (예: 보드 캔들 라운드 로빈 대상)
+  public void addListingListener(Consumer<List<String>> listener) {
+    listingListeners.add(listener);
+  }
+
+  public List<String> getListedMarkets() {
+    return listedMarkets;
+  }
+
+  //⭐ 추가 타입 피드 구독 (같은 소켓, 재연결 없음)
+  public synchronized void addFeed(String type, String market) {
+    if (feeds.computeIfAbsent(type, key -> new TreeSet<>()).add(market)) {
+      upbitWSC.setFeed(type, feeds.get(type));
+    }
+  }
+
+  public synchronized void removeFeed(String type, String market) {
+    Set<String> codes = feeds.get(type);
+    if (codes == null || !codes.remove(market)) {
+      return;
+    }
+    upbitWSC.setFeed(type, codes);
+    if (codes.isEmpty()) {
+      feeds.remove(type);
+    }
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("listedMarkets", listedMarkets.size());
+    stats.put("refreshes", refreshes.get());
+    stats.put("refreshFailures", refreshFailures.get());
+    stats.put("listedTotal", listedTotal.get());
+    stats.put("delistedTotal", delistedTotal.get());
+    stats.put("lastListed", lastListed);
+    stats.put("lastDelisted", lastDelisted);
+    Map<String, List<String>> feedMarkets = new TreeMap<>();
+    feeds.forEach((type, codes) -> feedMarkets.put(type, new ArrayList<>(codes)));
+    stats.put("feeds", feedMarkets);
+    return stats;
+  }
+}
@@ -99,10 +99,18 @@ public class UpbitTickerResponse {
   @JsonProperty("timestamp")
   private Long timestamp; // 타임스탬프 (밀리초)
 
-  // *** [중요] getAskBid() 메소드 추가 (MarketDataService에서 호출되고 있었음) ***
-  // Ticker API에는 직접적인 "AskBid" 필드가 없으므로 null을 반환하거나, 필요에 따라 구현
-  public String getAskBid() {
-    return null; // Ticker API에서는 Ask/Bid 구분을 직접 제공하지 않음
+  // ⭐ [변경] 체결(trade) 메시지의 매수/매도 구분 (ASK: 매도 체결, BID: 매수 체결, ticker 메시지에는 없음)
+  // 기존: getAskBid()가 항상 null 반환 → 매수/매도 거래대금을 24h 거래대금 절반으로 채움
+  @JsonProperty("ask_bid")
+  private String askBid;
+
+  // ⭐ [신규 추가] 체결 번호 (체결마다 유일, 연속/순서 보장 없음) → 중복 체결 판정 (TradeSequenceTracker)
+  @JsonProperty("sequential_id")
+  private Long sequentialId;
+
+  //매수 체결(테이커가 매수)이면 true
+  public boolean isBuyTaker() {
+    return "BID".equals(askBid);
   }
 
   // *** [중요] MarketDataService에서 호출하는 "Normalized" Getter들 (추가됨) ***
@@ -1,20 +1,36 @@
 package coinalarm.Coin_Alarm.upbit;
 
+import coinalarm.Coin_Alarm.codec.JsonScanner;
+import coinalarm.Coin_Alarm.exchange.ReconnectBackoff;
+import coinalarm.Coin_Alarm.exchange.TickBus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import okhttp3.*;
 import okio.ByteString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map; // Map 임포트 추가 (필요한 경우)
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -22,60 +38,308 @@ import java.util.stream.Collectors;
 public class UpbitWSC {
 
   private static final Logger log = LoggerFactory.getLogger(UpbitWSC.class);
-  private static final String UPBIT_WS_URL = "wss://api.upbit.com/websocket/v1";
 
+  // 업비트 구독 타입 (체결은 틱 버스, 그 외 타입은 등록된 피드 핸들러로 원본 JSON 전달)
+  public static final String TRADE = "trade";
+  public static final String TICKER = "ticker";
+  public static final String ORDERBOOK = "orderbook";
+
+  private final String wsUrl; // ⭐ [변경] 설정값 (테스트에서는 로컬 mock 서버)
   private OkHttpClient client;
-  private WebSocket webSocket;
+  private WebSocket webSocket; // 현재 소켓 (이전 소켓의 늦은 콜백은 무시)
   private final ObjectMapper objectMapper;
-  private Consumer<UpbitTickerResponse> onTradeMessageReceived; // 콜백 함수
-  private List<String> marketsToSubscribe; // 구독할 시장 목록
-  private ScheduledExecutorService scheduler; // 재연결 스케줄러
+  // ⭐ [신규 추가] 응답 포맷 (SIMPLE이면 축약 키 + 전용 파서), typeKey는 포맷의 "type" 키
+  private final UpbitMessageFormat format;
+  private final String typeKey;
+  // ⭐ [변경] 콜백 필드 1개 → 틱 버스 (소비자마다 자기 큐/스레드, 소켓은 1개 공유)
+  private final TickBus<UpbitTickerResponse> tickBus = new TickBus<>("upbit");
+  private final int tickBusCapacity;
+  // ⭐ [변경] 소비자별 구독 마켓 → 소켓에는 합집합으로 구독
+  private final Map<TickBus<UpbitTickerResponse>.Subscription, ConsumerEntry> consumerMarkets = new LinkedHashMap<>();
+  private List<String> marketsToSubscribe = List.of(); // 구독할 시장 목록 (합집합)
+
+  // ⭐ [신규 추가] 구독 변경 (재연결 없이 같은 소켓에 구독 메시지 재전송)
+  private final Map<String, List<String>> extraFeeds = new TreeMap<>();          // 체결 외 타입 → 마켓
+  private final Map<String, Consumer<String>> feedHandlers = new ConcurrentHashMap<>();
+  private Map<String, List<String>> sentSpec = Map.of();                         // 현재 소켓에 보낸 구독
+  private Set<String> listedMarkets = Set.of();                                  // 상장 마켓 전체 (UpbitSubscriptionManager)
+  private final AtomicLong subscriptionUpdates = new AtomicLong();
+
+  /**
+   * ⭐ [변경] 연결 상태 관리
+   * 기존: 비volatile connected 플래그를 여러 스레드에서 읽고 쓰고, 고정 5초 재연결 + 연결될 때마다 스케줄러 재생성
+   * 변경: 상태 전이는 모두 이 객체 잠금 안에서, 재연결은 지수 백오프 + 지터 (스케줄러는 1개 고정)
+   * IDLE → CONNECTING → CONNECTED → (끊김) → BACKOFF → CONNECTING ... / 소비자가 모두 해제되면 CLOSED
+   */
+  public enum ConnectionState { IDLE, CONNECTING, CONNECTED, BACKOFF, CLOSED }
 
-  private boolean connected = false; // 현재 웹소켓 연결 상태
-  private static final long RECONNECT_INTERVAL_SECONDS = 5; // 재연결 시도 간격
+  private final ScheduledExecutorService scheduler; // 재연결 스케줄러 (데몬 스레드 1개)
+  private final ReconnectBackoff backoff;
+  private volatile ConnectionState state = ConnectionState.IDLE;
 
-  public UpbitWSC(ObjectMapper objectMapper) {
+  // ⭐ [신규 추가] 끊김 구간 (재연결 후 리스너가 이 구간의 틱을 REST로 보충)
+  private final List<Consumer<Outage>> reconnectListeners = new CopyOnWriteArrayList<>();
+  private long outageStartedAtMillis;     // 0이면 끊김 없음
+  private volatile long lastOutageMillis;
+  private final AtomicLong outages = new AtomicLong();
+  private final AtomicLong connectFailures = new AtomicLong();
+
+  // ⭐ [신규 추가] 체결 중복 제거 + 마켓별 끊김 구간 (sequential_id), 끊김 구간은 리스너로 전달
+  private final TradeSequenceTracker sequenceTracker;
+  private final List<Consumer<TradeSequenceTracker.TradeGap>> tradeGapListeners = new CopyOnWriteArrayList<>();
+
+  public UpbitWSC(ObjectMapper objectMapper,
+                  @Value("${coinalarm.upbit.ws-url:wss://api.upbit.com/websocket/v1}") String wsUrl,
+                  @Value("${coinalarm.upbit.tick-bus.capacity:8192}") int tickBusCapacity,
+                  @Value("${coinalarm.upbit.reconnect.base-ms:1000}") long reconnectBaseMillis,
+                  @Value("${coinalarm.upbit.reconnect.max-ms:60000}") long reconnectMaxMillis,
+                  @Value("${coinalarm.upbit.format:DEFAULT}") UpbitMessageFormat format,
+                  @Value("${coinalarm.upbit.dedup-window:256}") int dedupWindow) {
     this.objectMapper = objectMapper;
+    this.wsUrl = wsUrl;
+    this.format = format;
+    this.typeKey = format.key("type");
+    this.tickBusCapacity = tickBusCapacity;
     this.client = new OkHttpClient.Builder()
             .readTimeout(Duration.ZERO)
             .pingInterval(Duration.ofSeconds(20))
             .build();
-    this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    this.backoff = new ReconnectBackoff(reconnectBaseMillis, reconnectMaxMillis);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "upbit-ws-reconnect");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.sequenceTracker = new TradeSequenceTracker(dedupWindow, this::onTradeGap);
   }
 
-  // MarketDataService에서 호출하는 메소드. 이름, 인자 개수, 타입 일치시켜야 함.
-  // [핵심1] 이 메소드 이름과 시그니처를 `MarketDataService` 호출부와 일치시킴.
-  public void connectWebSocket(List<String> subscribeMarketCodes, Consumer<UpbitTickerResponse> onMessageCallback) {
-    this.marketsToSubscribe = subscribeMarketCodes;
-    this.onTradeMessageReceived = onMessageCallback; // 받아온 콜백 함수를 내부 필드에 설정
-    doConnect(); // 실제 연결 시작
+  /**
+   * ⭐ [변경] 체결 스트림 소비자 등록 (기존 connectWebSocket: 마지막 호출자가 콜백을 덮어씀)
+   * - 소비자마다 틱 버스에 자기 링 버퍼 + 전달 스레드 → 느린 소비자가 소켓/다른 소비자를 막지 않음
+   * - 처음 등록 시 연결, 이후 구독 마켓이 늘면 같은 소켓에 구독 메시지 재전송
+   * - 핸들러에는 자기가 요청한 마켓의 틱만 전달
+   *
+   * @param consumerName 지표/스레드 이름 (예: board, exchangeClient-1)
+   * @return 해제 핸들: 마지막 소비자가 해제되면 소켓 정상 종료
+   */
+  public synchronized Disposable subscribe(String consumerName, List<String> subscribeMarketCodes,
+                                           TickBus.DropPolicy dropPolicy, Consumer<UpbitTickerResponse> handler) {
+    ConsumerEntry entry = new ConsumerEntry(Set.copyOf(subscribeMarketCodes));
+    if (!listedMarkets.isEmpty()) {
+      entry.followsListings = entry.wanted.containsAll(listedMarkets);
+    }
+    TickBus<UpbitTickerResponse>.Subscription subscription = tickBus.subscribe(consumerName, tickBusCapacity, dropPolicy,
+            ticker -> {
+              if (entry.wanted.contains(ticker.getMarketCode())) {
+                handler.accept(ticker);
+              }
+            });
+    consumerMarkets.put(subscription, entry);
+    if (state == ConnectionState.CLOSED) {
+      state = ConnectionState.IDLE;
+    }
+    updateSubscription();
+    return () -> release(subscription);
   }
 
-  private void doConnect() {
-    if (connected) {
-      log.info("Upbit WebSocket is already connected.");
+  //소비자 해제 (여러 번 호출해도 한 번만)
+  private synchronized void release(TickBus<UpbitTickerResponse>.Subscription subscription) {
+    if (consumerMarkets.remove(subscription) == null) {
       return;
     }
-    if (marketsToSubscribe == null || marketsToSubscribe.isEmpty()) {
+    subscription.close();
+    if (consumerMarkets.isEmpty()) {
+      disconnectStream();
+    } else {
+      updateSubscription();
+    }
+  }
+
+  /**
+   * ⭐ [신규 추가] 상장/상장폐지 반영 (UpbitSubscriptionManager가 /market/all 비교 후 호출)
+   * - 상장폐지 마켓: 모든 소비자에서 제거
+   * - 신규 상장 마켓: 상장 마켓 전체를 구독한 소비자(보드, 전체 마켓 스트림)에만 추가
+   *   (전체 여부는 등록 시점에 판단, 상장 목록을 아직 모르면 첫 반영 때 판단)
+   * 구독 메시지만 다시 보내므로 계속 구독 중인 마켓은 끊김 없음
+   */
+  public synchronized void applyListedMarkets(Collection<String> allListed, Collection<String> listed, Collection<String> delisted) {
+    Set<String> universe = Set.copyOf(allListed);
+    for (ConsumerEntry entry : consumerMarkets.values()) {
+      if (entry.followsListings == null) {
+        // 시작 때 목록을 못 받아 빈 목록으로 등록한 전체 마켓 소비자(보드)도 따라가도록
+        entry.followsListings = entry.wanted.isEmpty() || entry.wanted.containsAll(universe);
+      }
+      Set<String> next = new HashSet<>(entry.wanted);
+      next.removeAll(delisted);
+      if (entry.followsListings) {
+        next.addAll(listed);
+      }
+      entry.wanted = Set.copyOf(next);
+    }
+    listedMarkets = universe;
+    for (Map.Entry<String, List<String>> feed : extraFeeds.entrySet()) {
+      List<String> remaining = feed.getValue().stream().filter(code -> !delisted.contains(code)).toList();
+      feed.setValue(remaining);
+    }
+    extraFeeds.values().removeIf(List::isEmpty);
+    updateSubscription();
+  }
+
+  /**
+   * ⭐ [신규 추가] 체결 외 타입 구독 (예: ticker, orderbook) - 빈 목록이면 그 타입 구독 해제
+   * 같은 소켓에 구독 메시지만 다시 보냄, 메시지는 addFeedHandler로 등록한 핸들러에 원본 JSON으로 전달
+   */
+  public synchronized void setFeed(String type, Collection<String> marketCodes) {
+    if (TRADE.equals(type)) {
+      throw new IllegalArgumentException("trade feed follows tick bus consumers");
+    }
+    if (marketCodes.isEmpty()) {
+      extraFeeds.remove(type);
+    } else {
+      extraFeeds.put(type, List.copyOf(new TreeSet<>(marketCodes)));
+    }
+    updateSubscription();
+  }
+
+  //응답 포맷 (피드 핸들러는 format.key()로 실제 키를 받아서 파싱)
+  public UpbitMessageFormat getFormat() {
+    return format;
+  }
+
+  //체결 외 타입 메시지 핸들러 (소켓 스레드에서 호출되므로 가볍게 처리)
+  public void addFeedHandler(String type, Consumer<String> rawJsonHandler) {
+    feedHandlers.put(type, rawJsonHandler);
+  }
+
+  //구독 내용(체결 합집합 + 추가 타입)이 바뀌면 연결 또는 구독 메시지 재전송 (업비트는 새 구독 메시지로 기존 구독을 대체)
+  private void updateSubscription() {
+    Set<String> union = new TreeSet<>();
+    consumerMarkets.values().forEach(entry -> union.addAll(entry.wanted));
+    marketsToSubscribe = List.copyOf(union);
+    switch (state) {
+      case CONNECTED -> {
+        if (!subscriptionSpec().equals(sentSpec)) {
+          sendSubscription(webSocket);
+          log.info("Upbit WebSocket subscription updated: {} markets, {} consumers, feeds {}",
+                  marketsToSubscribe.size(), consumerMarkets.size(), extraFeeds.keySet());
+        }
+      }
+      case IDLE -> doConnect();
+      default -> { } // CONNECTING/BACKOFF: 연결되면 onOpen에서 최신 구독으로 전송
+    }
+  }
+
+  //타입 → 마켓 (체결 먼저)
+  private Map<String, List<String>> subscriptionSpec() {
+    Map<String, List<String>> spec = new LinkedHashMap<>();
+    if (!marketsToSubscribe.isEmpty()) {
+      spec.put(TRADE, marketsToSubscribe);
+    }
+    spec.putAll(extraFeeds);
+    return spec;
+  }
+
+  private void sendSubscription(WebSocket ws) {
+    Map<String, List<String>> spec = subscriptionSpec();
+    ws.send(createSubscribeMessage(spec));
+    sentSpec = spec;
+    subscriptionUpdates.incrementAndGet();
+  }
+
+  /**
+   * ⭐ [신규 추가] 재연결 리스너 등록
+   * 연결이 끊겼다가 다시 붙을 때마다 끊김 구간(Outage)으로 호출 (재연결 스레드에서, 처음 연결은 제외)
+   */
+  public void addReconnectListener(Consumer<Outage> listener) {
+    reconnectListeners.add(listener);
+  }
+
+  /**
+   * ⭐ [신규 추가] 체결 끊김 구간 리스너 등록
+   * 끊긴 뒤 마켓별 첫 체결이 올 때 (끊기기 전 마지막 체결 ~ 첫 체결) 구간으로 호출 (재연결 스레드에서)
+   */
+  public void addTradeGapListener(Consumer<TradeSequenceTracker.TradeGap> listener) {
+    tradeGapListeners.add(listener);
+  }
+
+  //소켓 스레드 → 재연결 스케줄러로 넘겨 호출 (리스너가 느려도 메시지 처리는 계속)
+  private void onTradeGap(TradeSequenceTracker.TradeGap gap) {
+    for (Consumer<TradeSequenceTracker.TradeGap> listener : tradeGapListeners) {
+      try {
+        scheduler.execute(() -> listener.accept(gap));
+      } catch (RejectedExecutionException e) {
+        // 종료 중
+      }
+    }
+  }
+
+  //소비자별 틱 버스 지표 (대기 수, 버린 틱, 전달 지연)
+  public List<Map<String, Object>> getTickBusStats() {
+    return tickBus.getStats();
+  }
+
+  //⭐ [신규 추가] 연결 상태/재연결 지표
+  public synchronized Map<String, Object> getConnectionStats() {
+    Map<String, Object> stats = new HashMap<>();
+    stats.put("socket", "upbit");
+    stats.put("state", state);
+    stats.put("format", format);
+    stats.put("markets", marketsToSubscribe.size());
+    stats.put("listedMarkets", listedMarkets.size());
+    Map<String, Integer> feeds = new TreeMap<>();
+    extraFeeds.forEach((type, codes) -> feeds.put(type, codes.size()));
+    stats.put("feeds", feeds);
+    stats.put("subscriptionUpdates", subscriptionUpdates.get());
+    stats.put("outages", outages.get());
+    stats.put("connectFailures", connectFailures.get());
+    stats.put("backoffAttempts", backoff.getAttempts());
+    stats.put("lastOutageMs", lastOutageMillis);
+    stats.put("currentOutageMs", (outageStartedAtMillis > 0) ? System.currentTimeMillis() - outageStartedAtMillis : 0L);
+    stats.put("tradeSequence", sequenceTracker.getStats()); // ⭐ 중복 체결/끊김 구간
+    return stats;
+  }
+
+  public ConnectionState getState() {
+    return state;
+  }
+
+  /**
+   * 소켓 해제 (마지막 소비자 해제 시)
+   * 소켓을 정상 종료(1000), 예약된 재연결도 실행되지 않음
+   * 클라이언트/스케줄러는 유지 → 다시 subscribe 가능
+   */
+  private void disconnectStream() {
+    state = ConnectionState.CLOSED;
+    marketsToSubscribe = List.of();
+    sentSpec = Map.of();
+    outageStartedAtMillis = 0;
+    backoff.reset();
+    WebSocket current = webSocket;
+    webSocket = null;
+    if (current != null) {
+      current.close(1000, "Stream cancelled");
+    }
+    log.info("Upbit WebSocket stream released.");
+  }
+
+  private synchronized void doConnect() {
+    if (state == ConnectionState.CLOSED || state == ConnectionState.CONNECTING || state == ConnectionState.CONNECTED) {
+      return; // 해제됨 / 이미 연결 중 (예약돼 있던 재연결 포함)
+    }
+    if (marketsToSubscribe.isEmpty()) {
       log.warn("Cannot connect to Upbit WebSocket: No market codes to subscribe.");
       return;
     }
 
     Request request = new Request.Builder()
-            .url(UPBIT_WS_URL)
+            .url(wsUrl)
             .build();
 
+    state = ConnectionState.CONNECTING;
     webSocket = client.newWebSocket(request, new WebSocketListener() {
       @Override
       public void onOpen(WebSocket ws, Response response) {
-        log.info("Upbit WebSocket 연결 성공!");
-        connected = true;
-        // 연결 성공 시, 구독 메시지 전송
-        String subscribeMessage = createSubscribeMessage(marketsToSubscribe);
-        ws.send(subscribeMessage);
-        // 재연결 스케줄러가 있다면 종료 (연결되었으므로 더이상 필요 없음)
-        scheduler.shutdownNow();
-        scheduler = Executors.newSingleThreadScheduledExecutor(); // 새로운 스케줄러 인스턴스 생성
+        onConnected(ws);
       }
 
       @Override
@@ -87,9 +351,25 @@ public class UpbitWSC {
       public void onMessage(WebSocket ws, ByteString bytes) {
         try {
           // 체결 데이터는 바이너리로 옴: utf8 디코딩 후 UpbitTickerResponse로 파싱
-          UpbitTickerResponse ticker = objectMapper.readValue(bytes.utf8(), UpbitTickerResponse.class);
-          if (onTradeMessageReceived != null) {
-            onTradeMessageReceived.accept(ticker);
+          String json = bytes.utf8();
+          int typeStart = JsonScanner.stringStart(json, JsonScanner.valueIndex(json, 0, typeKey));
+          int typeEnd = (typeStart < 0) ? -1 : JsonScanner.stringEnd(json, typeStart);
+          if (typeStart < 0 || JsonScanner.regionEquals(json, typeStart, typeEnd, TRADE)) {
+            // ⭐ [변경] SIMPLE 포맷은 전용 파서 (결과는 같은 UpbitTickerResponse → 소비자 변경 없음)
+            UpbitTickerResponse ticker = (format == UpbitMessageFormat.SIMPLE)
+                    ? UpbitSimpleParser.parseTrade(json)
+                    : objectMapper.readValue(json, UpbitTickerResponse.class);
+            // ⭐ [신규 추가] 이미 받은 체결이면 버림 (모든 소비자가 한 번만 집계하도록 틱 버스 앞에서)
+            if (!sequenceTracker.accept(ticker.getMarketCode(), ticker.getSequentialId(), ticker.getTradeTimestamp())) {
+              return;
+            }
+            tickBus.publish(ticker); // ⭐ [변경] 소비자별 큐에 넣기만 함 (소켓 스레드는 바로 다음 메시지로)
+            return;
+          }
+          // ⭐ 체결 외 타입 (구독 피드) → 등록된 핸들러에 원본 그대로
+          Consumer<String> feedHandler = feedHandlers.get(json.substring(typeStart, typeEnd));
+          if (feedHandler != null) {
+            feedHandler.accept(json);
           }
         } catch (Exception e) {
           log.error("WebSocket message parsing error: {}", e.getMessage(), e);
@@ -99,67 +379,155 @@ public class UpbitWSC {
       @Override
       public void onClosing(WebSocket ws, int code, String reason) {
         log.warn("Upbit WebSocket is closing. Code: {}, Reason: {}", code, reason);
+        ws.close(1000, null); // 서버 종료 요청에 응답해야 onClosed가 옴
       }
 
       @Override
       public void onClosed(WebSocket ws, int code, String reason) {
         log.warn("Upbit WebSocket closed. Code: {}, Reason: {}", code, reason);
-        connected = false;
-        // 비정상 종료 (1000이 아님) 시 재연결 시도
-        if (code != 1000) {
-          log.info("Attempting to reconnect Upbit WebSocket in {} seconds...", RECONNECT_INTERVAL_SECONDS);
-          scheduleReconnect();
-        } else {
-          log.info("Upbit WebSocket closed normally.");
-        }
+        onDisconnected(ws);
       }
 
       @Override
       public void onFailure(WebSocket ws, Throwable t, Response response) {
         String responseInfo = (response != null) ? "Code: " + response.code() + ", Message: " + response.message() : "No HTTP Response";
-        log.error("Upbit WebSocket connection failed! Error: {}, Response: {}", t.getMessage(), responseInfo, t);
-        connected = false;
-        // 연결 실패 시 재연결 시도
-        log.info("Attempting to reconnect Upbit WebSocket in {} seconds due to failure...", RECONNECT_INTERVAL_SECONDS);
-        scheduleReconnect();
+        log.error("Upbit WebSocket connection failed! Error: {}, Response: {}", t.getMessage(), responseInfo);
+        connectFailures.incrementAndGet();
+        onDisconnected(ws);
       }
     });
   }
 
-  // [핵심2] 구독 메시지 JSON 생성: 롱터우님 오리지널 코드 로직으로 완벽 복원!
-  private String createSubscribeMessage(List<String> marketCodes) {
-    String uuid = UUID.randomUUID().toString();
-    // marketCodes 리스트를 JSON 배열 문자열로 변환 (예: "KRW-BTC","KRW-ETH")
-    String codesJson = marketCodes.stream().map(c -> "\"" + c + "\"").collect(Collectors.joining(","));
+  //연결 성공: 구독 전송, 백오프 초기화, 끊김 구간이 있었으면 리스너 호출
+  private void onConnected(WebSocket ws) {
+    Outage outage = null;
+    synchronized (this) {
+      if (ws != webSocket) {
+        ws.close(1000, "Stale connection"); // 연결 중에 해제됨 / 새 소켓으로 교체됨
+        return;
+      }
+      state = ConnectionState.CONNECTED;
+      backoff.reset();
+      sendSubscription(ws);
+      if (outageStartedAtMillis > 0) {
+        outage = new Outage(outageStartedAtMillis, System.currentTimeMillis(), marketsToSubscribe);
+        outageStartedAtMillis = 0;
+        lastOutageMillis = outage.getDurationMillis();
+        outages.incrementAndGet();
+      }
+    }
+    if (outage == null) {
+      log.info("Upbit WebSocket 연결 성공!");
+      return;
+    }
+    log.info("🔌 Upbit WebSocket 재연결 성공 (끊김 {}ms, 마켓 {}개)", outage.getDurationMillis(), outage.getMarkets().size());
+    Outage recovered = outage;
+    for (Consumer<Outage> listener : reconnectListeners) {
+      scheduler.execute(() -> listener.accept(recovered));
+    }
+  }
 
-    // 롱터우님 오리지널 코드의 구독 메시지 형식 그대로 사용
-    return String.format("[{\"ticket\":\"%s\"},{\"type\":\"trade\",\"codes\":[%s],\"isOnlyRealtime\":true},{\"format\":\"DEFAULT\"}]", uuid, codesJson);
+  //끊김/연결 실패: 해제된 게 아니면 백오프 후 재연결
+  private synchronized void onDisconnected(WebSocket ws) {
+    if (ws != webSocket || state == ConnectionState.CLOSED) {
+      return; // 이전 소켓의 늦은 콜백 / 의도적으로 닫음
+    }
+    if (state == ConnectionState.CONNECTED && outageStartedAtMillis == 0) {
+      outageStartedAtMillis = System.currentTimeMillis(); // 끊김 시작 (연결 실패가 이어져도 처음 시각 유지)
+      sequenceTracker.interrupted();
+    }
+    webSocket = null;
+    sentSpec = Map.of();
+    state = ConnectionState.BACKOFF;
+    long delay = backoff.nextDelayMillis();
+    log.info("Attempting to reconnect Upbit WebSocket in {}ms (attempt {})...", delay, backoff.getAttempts());
+    try {
+      scheduler.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // 종료 중
+    }
   }
 
-  // 재연결 스케줄링
-  private void scheduleReconnect() {
-    if (scheduler.isShutdown()) {
-      // 스케줄러가 종료되었으면 새로 시작 (shutdownNow 후 다시 사용 불가)
-      scheduler = Executors.newSingleThreadScheduledExecutor();
+  private synchronized void reconnect() {
+    if (state == ConnectionState.BACKOFF) {
+      state = ConnectionState.IDLE;
+      doConnect();
     }
-    scheduler.schedule(this::doConnect, RECONNECT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  // [핵심2] 구독 메시지 JSON 생성: 롱터우님 오리지널 코드 로직으로 완벽 복원!
+  // ⭐ [변경] 타입 여러 개를 한 메시지에 (업비트는 같은 소켓에 새 구독 메시지가 오면 기존 구독을 대체)
+  private String createSubscribeMessage(Map<String, List<String>> spec) {
+    String uuid = UUID.randomUUID().toString();
+    StringBuilder message = new StringBuilder("[{\"ticket\":\"").append(uuid).append("\"}");
+    spec.forEach((type, marketCodes) -> {
+      // marketCodes 리스트를 JSON 배열 문자열로 변환 (예: "KRW-BTC","KRW-ETH")
+      String codesJson = marketCodes.stream().map(c -> "\"" + c + "\"").collect(Collectors.joining(","));
+      message.append(",{\"type\":\"").append(type).append("\",\"codes\":[").append(codesJson).append("],\"isOnlyRealtime\":true}");
+    });
+    // 롱터우님 오리지널 코드의 구독 메시지 형식 그대로 사용
+    return message.append(",{\"format\":\"").append(format.name()).append("\"}]").toString(); // ⭐ [변경] 설정 포맷
   }
 
   @PreDestroy
   public void disconnect() {
-    if (webSocket != null) {
-      webSocket.close(1000, "Client disconnect");
+    synchronized (this) {
+      state = ConnectionState.CLOSED;
+      if (webSocket != null) {
+        webSocket.close(1000, "Client disconnect");
+        webSocket = null;
+      }
     }
     // OkHttpClient 내부 스레드 풀 및 스케줄러 종료
     if (client != null) {
       client.dispatcher().executorService().shutdown();
       client.connectionPool().evictAll();
     }
-    if (scheduler != null && !scheduler.isShutdown()) {
-      scheduler.shutdownNow();
-    }
+    scheduler.shutdownNow();
     log.info("Upbit WebSocket resources released.");
   }
+
+  //소비자 1개의 구독 마켓 (상장/폐지 반영 시 통째로 교체 → 틱 필터는 잠금 없이 읽음)
+  private static final class ConsumerEntry {
+    private volatile Set<String> wanted;
+    private Boolean followsListings; // 상장 마켓 전체 구독 여부 (null: 아직 모름)
+
+    private ConsumerEntry(Set<String> wanted) {
+      this.wanted = wanted;
+    }
+  }
+
+  /**
+   * ⭐ [신규 추가] 끊김 구간 (마지막 연결이 끊긴 시각 ~ 다시 연결된 시각, 그때 구독 중이던 마켓)
+   * 마켓별 실제 공백은 각 마켓의 마지막 틱부터 재연결까지 (리스너 쪽에서 측정)
+   */
+  public static final class Outage {
+    private final long disconnectedAtMillis;
+    private final long reconnectedAtMillis;
+    private final List<String> markets;
+
+    public Outage(long disconnectedAtMillis, long reconnectedAtMillis, List<String> markets) {
+      this.disconnectedAtMillis = disconnectedAtMillis;
+      this.reconnectedAtMillis = reconnectedAtMillis;
+      this.markets = markets;
+    }
+
+    public long getDisconnectedAtMillis() {
+      return disconnectedAtMillis;
+    }
+
+    public long getReconnectedAtMillis() {
+      return reconnectedAtMillis;
+    }
+
+    public List<String> getMarkets() {
+      return markets;
+    }
+
+    public long getDurationMillis() {
+      return reconnectedAtMillis - disconnectedAtMillis;
+    }
+  }
 }
 
 //upbit 주소지가 잘못되어있었음 음... 어떻게 찾아야했지?
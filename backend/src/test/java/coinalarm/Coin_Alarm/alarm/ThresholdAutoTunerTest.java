@@ -0,0 +1,107 @@
+package coinalarm.Coin_Alarm.alarm;
+
+import coinalarm.Coin_Alarm.storage.CandleStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThresholdAutoTunerTest {
+
+	private static final long END = 1_700_006_400_000L; // 분 경계
+	private static final long MINUTE = 60_000L;
+	private static final int DAY_MINUTES = 1440;
+
+	@TempDir
+	Path dir;
+
+	private CandleStore candleStore;
+
+	@BeforeEach
+	void setUp() {
+		candleStore = new CandleStore(dir.toString());
+	}
+
+	private ThresholdAutoTuner tuner(int minDays, double minCoverage, double minThreshold) {
+		return new ThresholdAutoTuner(candleStore, new AlarmThresholdManager(), true, "UPBIT",
+				14, minDays, minCoverage, 99.5, 5, minThreshold, 1);
+	}
+
+	//END 직전 minutes분 동안 1분봉 저장 (step분마다 1개, 거래대금 = value(i))
+	private void storeMinutes(int minutes, int step, IntToDoubleFunction value) {
+		for (int i = 0; i < minutes; i += step) {
+			long start = END - (long) (minutes - i) * MINUTE;
+			candleStore.append("UPBIT", "KRW-BTC", start, 1, 1, 1, 1, 1, value.applyAsDouble(i));
+		}
+	}
+
+	private double tune(ThresholdAutoTuner tuner) {
+		return tuner.tuneMarket("KRW-BTC", Instant.ofEpochMilli(END - 14L * DAY_MINUTES * MINUTE), Instant.ofEpochMilli(END));
+	}
+
+	@Test
+	void selectMatchesSortedOrder() {
+		Random random = new Random(3);
+		for (int round = 0; round < 200; round++) {
+			int n = 1 + random.nextInt(300);
+			double[] values = new double[n];
+			for (int i = 0; i < n; i++) {
+				values[i] = random.nextInt(20); // 중복 많음
+			}
+			double[] sorted = values.clone();
+			Arrays.sort(sorted);
+			int k = random.nextInt(n);
+			assertEquals(sorted[k], ThresholdAutoTuner.select(values.clone(), n, k), "n=" + n + " k=" + k);
+		}
+		assertEquals(7.0, ThresholdAutoTuner.select(new double[]{7.0}, 1, 0));
+		assertEquals(4.0, ThresholdAutoTuner.select(new double[]{1, 2, 3, 4, 5, 6}, 6, 3)); // 이미 정렬된 입력
+	}
+
+	@Test
+	void picksLargerOfPercentileAndTargetRate() {
+		ThresholdAutoTuner tuner = tuner(3, 0.8, 0);
+		storeMinutes(4 * DAY_MINUTES, 1, i -> i + 1.0); // 1 ~ 5760 (모두 다른 값)
+
+		//분위수 99.5% → 5732, 목표 빈도 하루 5번 × 4일 = 상위 20분 → 5741 → 둘 중 큰 값
+		assertEquals(5_741.0, tune(tuner));
+	}
+
+	@Test
+	void minThresholdIsFloor() {
+		ThresholdAutoTuner tuner = tuner(3, 0.8, 10_000_000);
+		storeMinutes(4 * DAY_MINUTES, 1, i -> 100.0);
+
+		assertEquals(10_000_000.0, tune(tuner));
+	}
+
+	@Test
+	void skipsSparseOrShortHistory() {
+		ThresholdAutoTuner tuner = tuner(3, 0.8, 0);
+		storeMinutes(8 * DAY_MINUTES, 2, i -> 1.0); // 커버리지 50%
+		assertTrue(Double.isNaN(tune(tuner)));
+
+		ThresholdAutoTuner lowCoverage = tuner(3, 0.4, 0);
+		assertEquals(1.0, tune(lowCoverage));
+
+		candleStore = new CandleStore(dir.resolve("short").toString());
+		ThresholdAutoTuner shortHistory = tuner(3, 0.8, 0);
+		storeMinutes(2 * DAY_MINUTES, 1, i -> 1.0); // 2일 < min-days
+		assertTrue(Double.isNaN(tune(shortHistory)));
+	}
+
+	@Test
+	void singleCandleUsesItAsBothRanks() {
+		ThresholdAutoTuner tuner = tuner(0, 0.8, 0);
+		storeMinutes(1, 1, i -> 42.0);
+
+		assertEquals(42.0, tune(tuner)); // count=1 → 두 순위 모두 0
+	}
+}
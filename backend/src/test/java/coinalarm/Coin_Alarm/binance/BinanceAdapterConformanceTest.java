@@ -0,0 +1,132 @@
+package coinalarm.Coin_Alarm.binance;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.ExchangeClient;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import coinalarm.Coin_Alarm.exchange.kit.ExchangeAdapterTestKit;
+import coinalarm.Coin_Alarm.market.TradeFlowWindows;
+import coinalarm.Coin_Alarm.storage.VolumeBaselineStore;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * BinanceClient를 공통 거래소 어댑터 테스트 킷으로 검증 (BINANCE_SPOT)
+ * - 구독: combined stream URL (?streams=btcusdt@ticker/...) → 핸드셰이크에서 마켓 목록을 읽음
+ * - 소켓당 스트림 20개 → 기능/성능 테스트 모두 여러 소켓으로 분할된 상태에서 측정
+ */
+class BinanceAdapterConformanceTest extends ExchangeAdapterTestKit {
+
+	private BinanceWSC binanceWSC;
+
+	@Override
+	protected String exchangeId() {
+		return BinanceClient.EXCHANGE_ID;
+	}
+
+	@Override
+	protected ExchangeClient createClient(String restBaseUrl, String wsBaseUrl) {
+		binanceWSC = new BinanceWSC(wsBaseUrl, 20, false, 100);
+		return new BinanceClient(WebClient.builder(), binanceWSC, new SymbolRegistry(), new TradeFlowWindows(),
+				new VolumeBaselineStore("build/tmp/rvol-conformance.bin", 14), restBaseUrl, "USDT");
+	}
+
+	@Override
+	protected void releaseClient(ExchangeClient client) {
+		binanceWSC.disconnect();
+	}
+
+	@Override
+	protected List<String> sampleMarkets(int count) {
+		List<String> markets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			markets.add("COIN" + i + "USDT");
+		}
+		return markets;
+	}
+
+	@Override
+	protected MockResponse marketListResponse(List<String> tradable, List<String> notTradable) {
+		StringBuilder body = new StringBuilder("{\"timezone\":\"UTC\",\"serverTime\":1700000000000,\"symbols\":[");
+		for (String symbol : tradable) {
+			appendSymbol(body, symbol, "TRADING");
+		}
+		for (String symbol : notTradable) {
+			appendSymbol(body, symbol, "BREAK");
+		}
+		body.setLength(body.length() - 1);
+		return json(body.append("]}").toString());
+	}
+
+	@Override
+	protected MockResponse candleResponse(String marketCode, List<CandleData> candles) {
+		//[시작시각, 시가, 고가, 저가, 종가, 거래량, 종료시각, 견적거래대금, 체결수, 매수거래량, 매수견적거래대금, 무시]
+		StringBuilder body = new StringBuilder("[");
+		for (CandleData candle : candles) {
+			long openTime = candle.getTimestamp().toEpochMilli();
+			body.append('[').append(openTime)
+					.append(",\"").append(decimal(candle.getOpenPrice()))
+					.append("\",\"").append(decimal(candle.getHighPrice()))
+					.append("\",\"").append(decimal(candle.getLowPrice()))
+					.append("\",\"").append(decimal(candle.getClosePrice()))
+					.append("\",\"").append(decimal(candle.getAccTradeVolume()))
+					.append("\",").append(openTime + 59_999)
+					.append(",\"").append(decimal(candle.getAccTradePrice()))
+					.append("\",42,\"0\",\"0\",\"0\"],");
+		}
+		if (!candles.isEmpty()) {
+			body.setLength(body.length() - 1);
+		}
+		return json(body.append(']').toString());
+	}
+
+	@Override
+	protected String tickerFrame(String marketCode, long eventTimeMillis, double price, double volume24h) {
+		String stream = marketCode.toLowerCase(Locale.ROOT) + "@ticker";
+		String last = decimal(price);
+		return "{\"stream\":\"" + stream + "\",\"data\":{\"e\":\"24hrTicker\",\"E\":" + eventTimeMillis
+				+ ",\"s\":\"" + marketCode + "\",\"p\":\"-12.50000000\",\"P\":\"-0.029\",\"w\":\"43120.51234567\""
+				+ ",\"x\":\"43012.60000000\",\"c\":\"" + last + "\",\"Q\":\"0.00120000\",\"b\":\"" + last + "\""
+				+ ",\"B\":\"3.21000000\",\"a\":\"" + last + "\",\"A\":\"0.51000000\",\"o\":\"43012.60000000\""
+				+ ",\"h\":\"43500.00000000\",\"l\":\"42800.00000000\",\"v\":\"34567.12345000\",\"q\":\"" + decimal(volume24h) + "\""
+				+ ",\"O\":" + (eventTimeMillis - 86_400_000L) + ",\"C\":" + eventTimeMillis
+				+ ",\"F\":3300000000,\"L\":3301234567,\"n\":1234568}}";
+	}
+
+	@Override
+	protected List<String> marketsFromHandshake(RecordedRequest handshake) {
+		String streams = handshake.getRequestUrl().queryParameter("streams");
+		List<String> markets = new ArrayList<>();
+		for (String stream : streams.split("/")) {
+			markets.add(stream.substring(0, stream.indexOf('@')).toUpperCase(Locale.ROOT));
+		}
+		return markets;
+	}
+
+	@Override
+	protected FrameDecoder frameDecoder(List<String> markets) {
+		BinanceStreamParser parser = new BinanceStreamParser(markets);
+		BinanceStreamParser.Handler discard = (symbol, eventTime, lastPrice, quoteVolume24h) -> { };
+		return frame -> parser.parse(frame, discard);
+	}
+
+	private static void appendSymbol(StringBuilder body, String symbol, String status) {
+		body.append("{\"symbol\":\"").append(symbol).append("\",\"status\":\"").append(status)
+				.append("\",\"baseAsset\":\"").append(symbol, 0, symbol.length() - 4)
+				.append("\",\"quoteAsset\":\"USDT\",\"filters\":[]},");
+	}
+
+	//바이낸스 숫자 문자열 형식 (지수 표기 없음)
+	private static String decimal(double value) {
+		return BigDecimal.valueOf(value).toPlainString();
+	}
+
+	private static MockResponse json(String body) {
+		return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+	}
+}
@@ -0,0 +1,216 @@
+package coinalarm.Coin_Alarm.binance;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import coinalarm.Coin_Alarm.market.TradeFlowWindows;
+import coinalarm.Coin_Alarm.storage.VolumeBaselineStore;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 로컬 MockWebServer로 REST/WebSocket을 흉내 내서 BinanceClient 검증 (외부 네트워크 없음)
+ */
+class BinanceClientTest {
+
+	private MockWebServer server;
+	private BinanceWSC binanceWSC;
+	private BinanceWSC aggTradeWSC;
+	private BinanceClient client;
+	private SymbolRegistry symbolRegistry;
+	private TradeFlowWindows tradeFlow;
+	private String restUrl;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new MockWebServer();
+		server.start();
+		restUrl = server.url("/").toString().replaceAll("/$", "");
+		symbolRegistry = new SymbolRegistry();
+		tradeFlow = new TradeFlowWindows();
+		binanceWSC = new BinanceWSC(restUrl.replaceFirst("^http", "ws"), 2, false, 100);
+		client = newClient(binanceWSC);
+	}
+
+	private BinanceClient newClient(BinanceWSC wsc) {
+		return new BinanceClient(WebClient.builder(), wsc, symbolRegistry, tradeFlow,
+				new VolumeBaselineStore("build/tmp/rvol-test.bin", 14), restUrl, "USDT");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		binanceWSC.disconnect();
+		if (aggTradeWSC != null) {
+			aggTradeWSC.disconnect();
+		}
+		server.shutdown();
+	}
+
+	@Test
+	void listsTradingUsdtMarkets() throws Exception {
+		server.enqueue(json("{\"timezone\":\"UTC\",\"symbols\":["
+				+ "{\"symbol\":\"BTCUSDT\",\"status\":\"TRADING\",\"baseAsset\":\"BTC\",\"quoteAsset\":\"USDT\"},"
+				+ "{\"symbol\":\"ETHBTC\",\"status\":\"TRADING\",\"baseAsset\":\"ETH\",\"quoteAsset\":\"BTC\"},"
+				+ "{\"symbol\":\"LUNAUSDT\",\"status\":\"BREAK\",\"baseAsset\":\"LUNA\",\"quoteAsset\":\"USDT\"},"
+				+ "{\"symbol\":\"ETHUSDT\",\"status\":\"TRADING\",\"baseAsset\":\"ETH\",\"quoteAsset\":\"USDT\"}]}"));
+
+		List<String> markets = client.getAllMarketCodes().block(Duration.ofSeconds(5));
+
+		assertEquals(List.of("BTCUSDT", "ETHUSDT"), markets);
+		assertEquals("/api/v3/exchangeInfo", server.takeRequest(1, TimeUnit.SECONDS).getPath());
+	}
+
+	@Test
+	void marketListFailurePropagatesError() {
+		//빈 목록으로 삼키지 않음 → 격벽 브레이커가 실패를 세고 호출 쪽에서 재시도
+		server.enqueue(new MockResponse().setResponseCode(503));
+		assertThrows(WebClientResponseException.class, () -> client.getAllMarketCodes().block(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	void convertsKlinesToCandleData() throws Exception {
+		server.enqueue(json("[[1700000040000,\"100.0\",\"110.5\",\"99.5\",\"105.25\",\"12.5\",1700000099999,\"1312.5\",42,\"6\",\"630\",\"0\"],"
+				+ "[1700000100000,\"105.25\",\"106\",\"104\",\"105\",\"1\",1700000159999,\"105\",3,\"0\",\"0\",\"0\"]]"));
+
+		List<CandleData> candles = client.getHistoricalCandles("BTCUSDT", 1, 2).block(Duration.ofSeconds(5));
+
+		assertNotNull(candles);
+		assertEquals(2, candles.size());
+		CandleData first = candles.get(0);
+		assertEquals("BTCUSDT", first.getMarketCode());
+		assertEquals(Instant.ofEpochMilli(1700000040000L), first.getTimestamp());
+		assertEquals(100.0, first.getOpenPrice());
+		assertEquals(110.5, first.getHighPrice());
+		assertEquals(99.5, first.getLowPrice());
+		assertEquals(105.25, first.getClosePrice());
+		assertEquals(12.5, first.getAccTradeVolume());
+		assertEquals(1312.5, first.getAccTradePrice());
+
+		RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+		assertEquals("/api/v3/klines?symbol=BTCUSDT&interval=1m&limit=2", request.getPath());
+	}
+
+	@Test
+	void streamsTickersAcrossShardedSockets() throws Exception {
+		List<String> symbols = List.of("BTCUSDT", "ETHUSDT", "XRPUSDT", "SOLUSDT", "ADAUSDT");
+		//소켓마다 요청 URL의 streams로 응답 (어느 소켓이 먼저 붙을지 모름 → 큐 대신 디스패처)
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				String streams = request.getRequestUrl().queryParameter("streams");
+				return new MockResponse().withWebSocketUpgrade(new ClosingListener() {
+					@Override
+					public void onOpen(WebSocket webSocket, Response response) {
+						for (String stream : streams.split("/")) {
+							String symbol = stream.substring(0, stream.indexOf('@')).toUpperCase();
+							webSocket.send("{\"stream\":\"" + stream + "\",\"data\":{\"e\":\"24hrTicker\",\"E\":1700000000000,"
+									+ "\"s\":\"" + symbol + "\",\"c\":\"1.5\",\"q\":\"1000\"}}");
+						}
+					}
+				});
+			}
+		});
+
+		List<TickerSnapshot> received = new CopyOnWriteArrayList<>();
+		Disposable subscription = client.subscribeTickerStream(symbols).subscribe(received::add);
+		int sockets;
+		try {
+			sockets = binanceWSC.getSocketCount();
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (received.size() < symbols.size() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+		} finally {
+			subscription.dispose();
+		}
+
+		assertEquals(3, sockets);
+		assertEquals(symbols.size(), received.size());
+		for (TickerSnapshot snapshot : received) {
+			assertEquals(BinanceClient.EXCHANGE_ID, snapshot.getExchangeId());
+			assertTrue(symbols.contains(snapshot.getMarketCode()));
+			assertEquals(1.5, snapshot.getCurrentPrice());
+			assertEquals(1000.0, snapshot.getRolling24hVolume());
+			assertEquals(Instant.ofEpochMilli(1700000000000L), snapshot.getTimestamp());
+		}
+
+		Set<String> paths = new HashSet<>();
+		for (int i = 0; i < 3; i++) {
+			paths.add(server.takeRequest(1, TimeUnit.SECONDS).getPath());
+		}
+		assertEquals(Set.of("/stream?streams=btcusdt@ticker/ethusdt@ticker",
+				"/stream?streams=xrpusdt@ticker/solusdt@ticker",
+				"/stream?streams=adausdt@ticker"), paths);
+	}
+
+	@Test
+	void aggTradesFeedTradeFlow() throws Exception {
+		long tradeTime = System.currentTimeMillis();
+		server.enqueue(new MockResponse().withWebSocketUpgrade(new ClosingListener() {
+			@Override
+			public void onOpen(WebSocket webSocket, Response response) {
+				webSocket.send("{\"stream\":\"btcusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"E\":" + tradeTime
+						+ ",\"s\":\"BTCUSDT\",\"a\":1,\"p\":\"100\",\"q\":\"2\",\"T\":" + tradeTime + ",\"m\":false}}");
+				webSocket.send("{\"stream\":\"btcusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"E\":" + tradeTime
+						+ ",\"s\":\"BTCUSDT\",\"a\":2,\"p\":\"100\",\"q\":\"0.5\",\"T\":" + tradeTime + ",\"m\":true}}");
+			}
+		}));
+		aggTradeWSC = new BinanceWSC(restUrl.replaceFirst("^http", "ws"), 2, true, 100);
+		BinanceClient aggTradeClient = newClient(aggTradeWSC);
+		int symbolId = symbolRegistry.idOf(BinanceClient.EXCHANGE_ID, "BTCUSDT");
+
+		Disposable subscription = aggTradeClient.subscribeTickerStream(List.of("BTCUSDT")).subscribe();
+		try {
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (tradeFlow.getTradeCount(symbolId, 1, false, System.currentTimeMillis()) == 0
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+		} finally {
+			subscription.dispose();
+		}
+
+		long now = System.currentTimeMillis();
+		assertEquals(200.0, tradeFlow.getTakerValue(symbolId, 1, true, now));  // m=false → 매수 체결
+		assertEquals(50.0, tradeFlow.getTakerValue(symbolId, 1, false, now));  // m=true → 매도 체결
+		assertEquals("/stream?streams=btcusdt@ticker/btcusdt@aggTrade", server.takeRequest(1, TimeUnit.SECONDS).getPath());
+	}
+
+	/**
+	 * 클라이언트 종료 요청에 서버 쪽도 close로 응답 (응답하지 않으면 소켓이 남아 server.shutdown()이 기다리다 실패)
+	 */
+	private static class ClosingListener extends WebSocketListener {
+		@Override
+		public void onClosing(WebSocket webSocket, int code, String reason) {
+			webSocket.close(1000, null);
+		}
+	}
+
+	private static MockResponse json(String body) {
+		return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+	}
+}
@@ -0,0 +1,81 @@
+package coinalarm.Coin_Alarm.binance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinanceStreamParserTest {
+
+	private static final String BTC = "BTCUSDT";
+
+	private final BinanceStreamParser parser = new BinanceStreamParser(List.of(BTC, "ETHUSDT"));
+
+	@Test
+	void parsesCombinedTicker() {
+		List<Object[]> tickers = new ArrayList<>();
+		String message = "{\"stream\":\"btcusdt@ticker\",\"data\":{\"e\":\"24hrTicker\",\"E\":1700000000123,\"s\":\"BTCUSDT\","
+				+ "\"p\":\"-12.5\",\"c\":\"43000.10\",\"Q\":\"0.01\",\"v\":\"1000\",\"q\":\"43000000.5\"}}";
+
+		BinanceStreamParser.Result result = parser.parse(message,
+				(symbol, eventTime, lastPrice, quoteVolume) -> tickers.add(new Object[]{symbol, eventTime, lastPrice, quoteVolume}));
+
+		assertEquals(BinanceStreamParser.Result.TICKER, result);
+		assertEquals(1, tickers.size());
+		assertSame(BTC, tickers.get(0)[0]); // 구독 심볼 인스턴스 재사용
+		assertEquals(1700000000123L, tickers.get(0)[1]);
+		assertEquals(43000.10, tickers.get(0)[2]);
+		assertEquals(43000000.5, tickers.get(0)[3]);
+	}
+
+	@Test
+	void parsesAggTrade() {
+		long[] ids = new long[1];
+		boolean[] buyerMaker = new boolean[1];
+		String message = "{\"stream\":\"ethusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"E\":1700000000200,\"s\":\"ETHUSDT\","
+				+ "\"a\":987654321,\"p\":\"2000.5\",\"q\":\"1.25\",\"f\":1,\"l\":2,\"T\":1700000000199,\"m\":true,\"M\":true}}";
+
+		BinanceStreamParser.Result result = parser.parse(message, new BinanceStreamParser.Handler() {
+			@Override
+			public void onTicker(String symbol, long eventTime, double lastPrice, double quoteVolume24h) {
+			}
+
+			@Override
+			public void onAggTrade(String symbol, long aggTradeId, long tradeTime, double price, double quantity, boolean maker) {
+				ids[0] = aggTradeId;
+				buyerMaker[0] = maker;
+				assertEquals(1700000000199L, tradeTime);
+				assertEquals(2000.5, price);
+				assertEquals(1.25, quantity);
+			}
+		});
+
+		assertEquals(BinanceStreamParser.Result.AGG_TRADE, result);
+		assertEquals(987654321L, ids[0]);
+		assertTrue(buyerMaker[0]);
+	}
+
+	@Test
+	void unknownSymbolStillParsed() {
+		String[] seen = new String[1];
+		String message = "{\"stream\":\"xrpusdt@ticker\",\"data\":{\"e\":\"24hrTicker\",\"E\":1,\"s\":\"XRPUSDT\",\"c\":\"0.5\",\"q\":\"10\"}}";
+		parser.parse(message, (symbol, eventTime, lastPrice, quoteVolume) -> seen[0] = symbol);
+		assertEquals("XRPUSDT", seen[0]);
+	}
+
+	@Test
+	void ignoresOtherEventsAndRejectsMalformed() {
+		BinanceStreamParser.Handler failing = (symbol, eventTime, lastPrice, quoteVolume) -> {
+			throw new AssertionError("호출되면 안 됨");
+		};
+		assertEquals(BinanceStreamParser.Result.IGNORED,
+				parser.parse("{\"stream\":\"btcusdt@kline_1m\",\"data\":{\"e\":\"kline\",\"E\":1,\"s\":\"BTCUSDT\"}}", failing));
+		assertEquals(BinanceStreamParser.Result.MALFORMED, parser.parse("{\"result\":null,\"id\":1}", failing));
+		assertEquals(BinanceStreamParser.Result.MALFORMED,
+				parser.parse("{\"data\":{\"e\":\"24hrTicker\",\"E\":1,\"s\":\"BTCUSDT\",\"c\":\"x\"}}", failing));
+	}
+}
@@ -0,0 +1,110 @@
+package coinalarm.Coin_Alarm.buffer;
+
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MarketSeriesTest {
+
+	private static final long T0 = 1_700_000_000_000L;
+	private static final long INTERVAL = 1_000L;
+	private static final long LATENESS = 5_000L;
+
+	private final MarketSeries series = new MarketSeries("UPBIT", "KRW-BTC");
+	private final DecodedBlockCache cache = new DecodedBlockCache(4);
+
+	private static TickerSnapshot tick(long millis, double rollingVolume) {
+		return TickerSnapshot.builder()
+				.exchangeId("UPBIT")
+				.marketCode("KRW-BTC")
+				.timestamp(Instant.ofEpochMilli(millis))
+				.currentPrice(100.0)
+				.rolling24hVolume(rollingVolume)
+				.build();
+	}
+
+	@Test
+	void lateTickWithinWatermarkIsInsertedAtItsEventTime() {
+		assertEquals(MarketSeries.APPENDED, series.add(tick(T0, 1_000.0), INTERVAL, LATENESS));
+		assertEquals(MarketSeries.APPENDED, series.add(tick(T0 + 4_000, 1_400.0), INTERVAL, LATENESS));
+
+		assertEquals(MarketSeries.LATE_INSERTED, series.add(tick(T0 + 2_000, 1_200.0), INTERVAL, LATENESS));
+
+		assertEquals(1_200.0, series.floor(T0 + 2_500, cache).getRolling24hVolume());
+		assertEquals(T0 + 4_000, series.latest(cache).getTimestamp().toEpochMilli()); // 최신 값은 그대로
+	}
+
+	@Test
+	void lateTickNextToExistingSnapshotIsMerged() {
+		series.add(tick(T0, 1_000.0), INTERVAL, LATENESS);
+		series.add(tick(T0 + 4_000, 1_400.0), INTERVAL, LATENESS);
+
+		assertEquals(MarketSeries.LATE_MERGED, series.add(tick(T0 + 500, 1_050.0), INTERVAL, LATENESS));
+		assertEquals(MarketSeries.SAMPLED_OUT, series.add(tick(T0 + 4_200, 1_420.0), INTERVAL, LATENESS));
+		assertEquals(2, series.hotSize());
+	}
+
+	@Test
+	void tickOlderThanWatermarkIsDropped() {
+		series.add(tick(T0, 1_000.0), INTERVAL, LATENESS);
+		series.add(tick(T0 + 10_000, 2_000.0), INTERVAL, LATENESS);
+
+		assertEquals(T0 + 5_000, series.watermark(LATENESS));
+		assertEquals(MarketSeries.TOO_LATE, series.add(tick(T0 + 3_000, 1_300.0), INTERVAL, LATENESS));
+		assertEquals(2, series.hotSize());
+	}
+
+	@Test
+	void sealedHistoryIsReadBackThroughFloorAndLatest() {
+		for (int i = 0; i < 2_500; i++) { // 블록 3개 (1024 + 1024 + 452)
+			series.put(tick(T0 + i * INTERVAL, 1_000.0 + i * 0.25));
+		}
+
+		assertEquals(2_000, series.seal(T0 + 2_000 * INTERVAL));
+		assertEquals(500, series.hotSize());
+		assertEquals(2, series.blockCount());
+		assertEquals(2_000, series.sealedPoints());
+
+		assertEquals(1_000.0 + 1_500 * 0.25, series.floor(T0 + 1_500 * INTERVAL + 300, cache).getRolling24hVolume());
+		assertEquals(T0 + 1_023 * INTERVAL, series.floor(T0 + 1_023 * INTERVAL + 999, cache).getTimestamp().toEpochMilli()); // 블록 경계
+		assertNull(series.floor(T0 - 1, cache));
+
+		series.seal(Long.MAX_VALUE);
+		assertEquals(0, series.hotSize());
+		assertEquals(T0 + 2_499 * INTERVAL, series.latest(cache).getTimestamp().toEpochMilli()); // hot이 비면 마지막 블록
+	}
+
+	@Test
+	void primingBehindSealedDataIsMergedIntoBlocks() {
+		for (int i = 10; i < 20; i++) {
+			series.put(tick(T0 + i * INTERVAL, 1_000.0 + i));
+		}
+		series.seal(Long.MAX_VALUE);
+
+		for (int i = 0; i < 15; i += 2) { // 봉인 구간보다 과거 + 겹치는 구간 (프라이밍)
+			series.put(tick(T0 + i * INTERVAL + 500, 2_000.0 + i));
+		}
+		series.seal(Long.MAX_VALUE);
+
+		assertEquals(18, series.sealedPoints());
+		assertEquals(1, series.blockCount());
+		assertEquals(2_012.0, series.floor(T0 + 12 * INTERVAL + 700, cache).getRolling24hVolume());
+		assertEquals(1_012.0, series.floor(T0 + 12 * INTERVAL + 100, cache).getRolling24hVolume());
+	}
+
+	@Test
+	void purgeDropsOnlyWholeBlocksBeforeCutoff() {
+		for (int i = 0; i < 2_048; i++) {
+			series.put(tick(T0 + i * INTERVAL, 1.0));
+		}
+		series.seal(Long.MAX_VALUE);
+
+		assertEquals(0, series.purge(T0 + 1_000 * INTERVAL)); // 첫 블록 일부만 지남 → 유지
+		assertEquals(1_024, series.purge(T0 + 1_024 * INTERVAL));
+		assertEquals(1, series.blockCount());
+	}
+}
@@ -0,0 +1,70 @@
+package coinalarm.Coin_Alarm.buffer;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MultiTieredSnapshotBufferTest {
+
+	private static final long M0 = 1_700_000_040_000L; // 분 경계
+	private static final long MINUTE = 60_000L;
+
+	private final MultiTieredSnapshotBuffer buffer = new MultiTieredSnapshotBuffer();
+
+	private static TickerSnapshot tick(long millis, double rollingVolume) {
+		return TickerSnapshot.builder()
+				.exchangeId("UPBIT")
+				.marketCode("KRW-BTC")
+				.timestamp(Instant.ofEpochMilli(millis))
+				.currentPrice(100.0)
+				.rolling24hVolume(rollingVolume)
+				.build();
+	}
+
+	private static CandleData candle(long startMillis, double accTradePrice) {
+		return CandleData.builder()
+				.marketCode("KRW-BTC")
+				.timestamp(Instant.ofEpochMilli(startMillis))
+				.closePrice(101.0)
+				.accTradePrice(accTradePrice)
+				.build();
+	}
+
+	private double rollingAt(long millis) {
+		return buffer.getSnapshotBefore("UPBIT", "KRW-BTC", Instant.ofEpochMilli(millis), 0)
+				.orElseThrow().getRolling24hVolume();
+	}
+
+	@Test
+	void backfillGapAccumulatesMinuteCandlesFromAnchor() {
+		buffer.addSnapshot(tick(M0 + 30_000, 1_000.0));
+		int symbolId = 0; // 자체 레지스트리의 첫 심볼
+		long gapEnd = M0 + 3 * MINUTE + 10_000;
+
+		int added = buffer.backfillGap(symbolId, M0 + 30_000, gapEnd, List.of(
+				candle(M0 + 3 * MINUTE, 999.0),   // 공백 끝에 걸친 분봉 → 무시
+				candle(M0 + MINUTE, 100.0),
+				candle(M0 - MINUTE, 500.0),       // 기준 이전 분봉 → 무시
+				candle(M0 + 2 * MINUTE, 200.0),
+				candle(M0, 60.0)));               // 기준이 걸친 분봉 → 남은 절반만
+
+		assertEquals(3, added);
+		assertEquals(1_030.0, rollingAt(M0 + MINUTE));
+		assertEquals(1_130.0, rollingAt(M0 + 2 * MINUTE));
+		assertEquals(1_330.0, rollingAt(M0 + 3 * MINUTE));
+		assertEquals(M0 + 3 * MINUTE, buffer.lastTimestampBefore(symbolId, gapEnd));
+	}
+
+	@Test
+	void backfillGapWithoutAnchorAddsNothing() {
+		buffer.addSnapshot(tick(M0 + 10 * MINUTE, 1_000.0));
+
+		assertEquals(0, buffer.backfillGap(0, M0, M0 + 5 * MINUTE, List.of(candle(M0, 10.0))));
+		assertEquals(-1L, buffer.lastTimestampBefore(0, M0 + 5 * MINUTE));
+	}
+}
@@ -0,0 +1,79 @@
+package coinalarm.Coin_Alarm.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GorillaCodecTest {
+
+	@Test
+	void doublesRoundTripBitExact() {
+		Random random = new Random(7);
+		double[] values = new double[5_000];
+		double price = 43_000.0;
+		for (int i = 0; i < values.length; i++) {
+			price += (random.nextInt(21) - 10) * 0.5;
+			values[i] = price;
+		}
+		//경계 값: 같은 값 반복, 부호/0/NaN/무한대, 비트 전부 다른 값
+		values[100] = values[99];
+		values[200] = -0.0;
+		values[201] = 0.0;
+		values[300] = Double.NaN;
+		values[301] = Double.POSITIVE_INFINITY;
+		values[302] = Double.longBitsToDouble(0x5555_5555_5555_5555L);
+		values[303] = Double.longBitsToDouble(0xAAAA_AAAA_AAAA_AAAAL);
+		values[400] = Double.MIN_VALUE;
+
+		BitWriter writer = new BitWriter();
+		GorillaCodec.DoubleEncoder encoder = new GorillaCodec.DoubleEncoder();
+		for (double value : values) {
+			encoder.encode(writer, value);
+		}
+
+		BitReader reader = new BitReader(writer.toByteArray());
+		GorillaCodec.DoubleDecoder decoder = new GorillaCodec.DoubleDecoder();
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(decoder.decode(reader)), "index " + i);
+		}
+	}
+
+	@Test
+	void timestampsRoundTripIncludingIrregularGaps() {
+		long[] times = new long[3_000];
+		Random random = new Random(11);
+		long t = 1_700_000_000_000L;
+		for (int i = 0; i < times.length; i++) {
+			t += (i % 500 == 0) ? random.nextInt(10_000_000) : 1_000; // 대부분 일정, 가끔 큰 간격
+			times[i] = t;
+		}
+		times[1_000] = times[999]; // 간격 0
+		times[1_001] = times[1_000] - 5_000; // 역행도 값은 보존
+
+		BitWriter writer = new BitWriter(16);
+		GorillaCodec.TimestampEncoder encoder = new GorillaCodec.TimestampEncoder();
+		for (long time : times) {
+			encoder.encode(writer, time);
+		}
+
+		BitReader reader = new BitReader(ByteBuffer.wrap(writer.toByteArray()), 0, writer.byteLength());
+		GorillaCodec.TimestampDecoder decoder = new GorillaCodec.TimestampDecoder();
+		for (int i = 0; i < times.length; i++) {
+			assertEquals(times[i], decoder.decode(reader), "index " + i);
+		}
+	}
+
+	@Test
+	void regularIntervalsCompressToAboutOneBitPerValue() {
+		BitWriter writer = new BitWriter();
+		GorillaCodec.TimestampEncoder encoder = new GorillaCodec.TimestampEncoder();
+		for (int i = 0; i < 1_024; i++) {
+			encoder.encode(writer, 28_333_333L + i); // 1분봉 (epoch 분)
+		}
+		assertTrue(writer.bitLength() < 1_024 + 200, "bits=" + writer.bitLength());
+	}
+}
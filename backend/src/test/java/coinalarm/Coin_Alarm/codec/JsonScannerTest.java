@@ -0,0 +1,48 @@
+package coinalarm.Coin_Alarm.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonScannerTest {
+
+	@Test
+	void findsValuesByExactKey() {
+		String json = "{\"stream\":\"btcusdt@ticker\",\"data\":{\"e\":\"24hrTicker\",\"E\":1700000000123,\"s\":\"BTCUSDT\",\"c\":\"43000.10\",\"q\":\"987654.5\",\"Q\":\"0.5\",\"m\": true}}";
+
+		assertEquals(1700000000123L, JsonScanner.parseLong(json, JsonScanner.valueIndex(json, 0, "E"), -1));
+		assertEquals(43000.10, JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, "c"), Double.NaN));
+		assertEquals(987654.5, JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, "q"), Double.NaN));
+		assertEquals(0.5, JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, "Q"), Double.NaN));
+		assertTrue(JsonScanner.parseBoolean(json, JsonScanner.valueIndex(json, 0, "m"), false));
+
+		int symbolStart = JsonScanner.stringStart(json, JsonScanner.valueIndex(json, 0, "s"));
+		assertTrue(JsonScanner.regionEquals(json, symbolStart, JsonScanner.stringEnd(json, symbolStart), "BTCUSDT"));
+		assertEquals(-1, JsonScanner.valueIndex(json, 0, "missing"));
+	}
+
+	@Test
+	void parseDoubleMatchesJdkParser() {
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			double value = random.nextDouble() * Math.pow(10, random.nextInt(12) - 4);
+			String text = (random.nextBoolean() ? "" : "-") + new java.math.BigDecimal(value)
+					.setScale(random.nextInt(10), java.math.RoundingMode.HALF_UP).toPlainString();
+			String json = "{\"p\":\"" + text + "\"}";
+			assertEquals(Double.parseDouble(text), JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, "p"), Double.NaN), text);
+		}
+	}
+
+	@Test
+	void fallsBackForLongMantissaAndExponent() {
+		String json = "{\"a\":\"0.12345678901234567890123\",\"b\":1.5e-7,\"c\":\"abc\"}";
+		assertEquals(0.12345678901234567890123, JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, "a"), Double.NaN));
+		assertEquals(1.5e-7, JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, "b"), Double.NaN));
+		assertTrue(Double.isNaN(JsonScanner.parseDouble(json, JsonScanner.valueIndex(json, 0, "c"), Double.NaN)));
+		assertFalse(JsonScanner.parseBoolean(json, JsonScanner.valueIndex(json, 0, "c"), false));
+	}
+}
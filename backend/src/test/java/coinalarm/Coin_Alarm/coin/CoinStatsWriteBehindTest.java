@@ -0,0 +1,113 @@
+package coinalarm.Coin_Alarm.coin;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoinStatsWriteBehindTest {
+
+	private final RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+	private final CoinStatsWriteBehind writeBehind = new CoinStatsWriteBehind(jdbc, 2);
+
+	@Test
+	void coalescesTicksIntoOneRowPerSymbol() {
+		for (int i = 1; i <= 1_000; i++) {
+			writeBehind.recordTicker("BTC", 0.01 * i / 1_000, 1_000.0 * i);
+		}
+		writeBehind.recordMarketCap("BTC", 5e12);
+
+		writeBehind.flush();
+
+		assertEquals(1, jdbc.batches.size());
+		assertArrayEquals(new Object[]{5_000_000_000_000L, "+1.00%", 1_000_000L, "BTC"}, jdbc.batches.get(0).get(0));
+		assertEquals(0, writeBehind.getStats().get("dirtySymbols"));
+	}
+
+	@Test
+	void missingFieldsAreSentAsNullToKeepDbValues() {
+		writeBehind.recordMarketCap("ETH", 1e11);
+
+		writeBehind.flush();
+
+		assertArrayEquals(new Object[]{100_000_000_000L, null, null, "ETH"}, jdbc.batches.get(0).get(0));
+	}
+
+	@Test
+	void recordDuringFlushGoesToNewEntry() {
+		writeBehind.recordTicker("BTC", 0.01, 100.0);
+		jdbc.duringBatch = () -> writeBehind.recordTicker("BTC", 0.02, 200.0); // 떼어낸 뒤 도착한 틱
+
+		writeBehind.flush();
+		jdbc.duringBatch = null;
+		writeBehind.flush();
+
+		assertEquals(2, jdbc.batches.size());
+		assertEquals("+1.00%", jdbc.batches.get(0).get(0)[1]);
+		assertEquals("+2.00%", jdbc.batches.get(1).get(0)[1]); // 유실 없음
+	}
+
+	@Test
+	void failedFlushIsRetriedWithoutOverwritingNewerValues() {
+		writeBehind.recordTicker("BTC", 0.01, 100.0);
+		writeBehind.recordMarketCap("BTC", 1e12);
+		jdbc.failNext = true;
+		jdbc.duringBatch = () -> writeBehind.recordTicker("BTC", 0.03, 300.0);
+
+		writeBehind.flush();
+		jdbc.duringBatch = null;
+		writeBehind.flush();
+
+		assertEquals(1L, writeBehind.getStats().get("failedFlushes"));
+		assertEquals(2, jdbc.batches.size());
+		//최신 틱 값은 유지, 실패분에만 있던 시가총액은 채워짐
+		assertArrayEquals(new Object[]{1_000_000_000_000L, "+3.00%", 300L, "BTC"}, jdbc.batches.get(1).get(0));
+	}
+
+	@Test
+	void newSymbolsBeyondBoundAreDroppedButExistingOnesCoalesce() {
+		writeBehind.recordTicker("BTC", 0.01, 1.0);
+		writeBehind.recordTicker("ETH", 0.01, 1.0);
+		writeBehind.recordTicker("XRP", 0.01, 1.0); // 상한 2 → 버림
+		writeBehind.recordTicker("BTC", 0.05, 5.0); // 기존 심볼은 덮어씀
+
+		writeBehind.flush();
+
+		List<Object[]> rows = new ArrayList<>(jdbc.batches.get(0));
+		rows.sort(Comparator.comparing(row -> (String) row[3]));
+		assertEquals(2, rows.size());
+		assertEquals("+5.00%", rows.get(0)[1]);
+		assertEquals(1L, writeBehind.getStats().get("droppedUpdates"));
+		assertTrue(rows.stream().noneMatch(row -> "XRP".equals(row[3])));
+	}
+
+	//batchUpdate만 가로채는 테스트용 JdbcTemplate (DB 없음)
+	private static final class RecordingJdbcTemplate extends JdbcTemplate {
+		private final List<List<Object[]>> batches = new ArrayList<>();
+		private Runnable duringBatch;
+		private boolean failNext;
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+			batches.add(new ArrayList<>(batchArgs));
+			if (duringBatch != null) {
+				duringBatch.run();
+			}
+			if (failNext) {
+				failNext = false;
+				throw new DataAccessResourceFailureException("connection refused");
+			}
+			int[] results = new int[batchArgs.size()];
+			Arrays.fill(results, 1);
+			return results;
+		}
+	}
+}
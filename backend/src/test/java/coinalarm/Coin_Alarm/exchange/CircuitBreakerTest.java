@@ -0,0 +1,72 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	private static final long OPEN_MILLIS = 30_000L;
+
+	private final CircuitBreaker breaker = new CircuitBreaker(3, OPEN_MILLIS);
+
+	@Test
+	void opensAfterConsecutiveFailuresOnly() {
+		breaker.onFailure(0);
+		breaker.onFailure(0);
+		breaker.onSuccess(); // 연속 실패 초기화
+		breaker.onFailure(0);
+		breaker.onFailure(0);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.onFailure(1_000);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(5, breaker.getTotalFailures());
+	}
+
+	@Test
+	void rejectsWhileOpenThenAllowsSingleTrial() {
+		open(0);
+
+		assertFalse(breaker.tryAcquire(OPEN_MILLIS - 1));
+		assertTrue(breaker.tryAcquire(OPEN_MILLIS)); // 시험 호출
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire(OPEN_MILLIS + 1)); // 시험 호출 중에는 1개만
+		assertEquals(2, breaker.getRejectedCalls());
+	}
+
+	@Test
+	void trialSuccessClosesAndTrialFailureReopens() {
+		open(0);
+		breaker.tryAcquire(OPEN_MILLIS);
+		breaker.onSuccess();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.getConsecutiveFailures());
+
+		open(100_000);
+		breaker.tryAcquire(100_000 + OPEN_MILLIS);
+		breaker.onFailure(100_000 + OPEN_MILLIS); // 1번 실패로 바로 OPEN (임계값 무관)
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire(100_000 + 2 * OPEN_MILLIS - 1)); // 다시 openMillis 대기
+	}
+
+	@Test
+	void cancelledTrialLetsNextCallTry() {
+		open(0);
+		assertTrue(breaker.tryAcquire(OPEN_MILLIS));
+
+		breaker.onCancel(); // 결과 없이 취소 (예: 429)
+
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquire(OPEN_MILLIS + 1));
+	}
+
+	private void open(long nowMillis) {
+		for (int i = 0; i < 3; i++) {
+			breaker.onFailure(nowMillis);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+}
@@ -0,0 +1,51 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExchangeBulkheadTest {
+
+	private final ExchangeBulkhead bulkhead = new ExchangeBulkhead("UPBIT", 16, 1, 16,
+			Duration.ofSeconds(1), 2, 60_000, 30_000);
+
+	@AfterEach
+	void tearDown() {
+		bulkhead.dispose();
+	}
+
+	@Test
+	void rateLimitedCallsDoNotOpenBreaker() {
+		for (int i = 0; i < 5; i++) {
+			assertThrows(WebClientResponseException.TooManyRequests.class,
+					() -> bulkhead.protect(Mono.error(status(429))).block(Duration.ofSeconds(5)));
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, bulkhead.getStatus().get("breakerState"));
+		assertEquals(5L, bulkhead.getStatus().get("rateLimitedCalls"));
+		assertEquals("ok", bulkhead.protect(Mono.just("ok")).block(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	void serverErrorsOpenBreaker() {
+		for (int i = 0; i < 2; i++) {
+			assertThrows(WebClientResponseException.class,
+					() -> bulkhead.protect(Mono.error(status(503))).block(Duration.ofSeconds(5)));
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, bulkhead.getStatus().get("breakerState"));
+		assertThrows(CircuitBreaker.OpenException.class,
+				() -> bulkhead.protect(Mono.just("ok")).block(Duration.ofSeconds(5)));
+	}
+
+	private static WebClientResponseException status(int code) {
+		return WebClientResponseException.create(code, "status " + code, HttpHeaders.EMPTY, new byte[0], null);
+	}
+}
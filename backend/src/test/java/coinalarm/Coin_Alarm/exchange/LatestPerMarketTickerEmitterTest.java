@@ -0,0 +1,170 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatestPerMarketTickerEmitterTest {
+
+	private final Set<LatestPerMarketTickerEmitter> activeStreams = new CopyOnWriteArraySet<>();
+	private final AtomicReference<LatestPerMarketTickerEmitter> emitterRef = new AtomicReference<>();
+	private final AtomicInteger released = new AtomicInteger();
+
+	private final Flux<TickerSnapshot> stream = LatestPerMarketTickerEmitter.create("TEST", emitter -> {
+		emitterRef.set(emitter);
+		return released::incrementAndGet;
+	}, activeStreams);
+
+	@Test
+	void coalescesToLatestPerMarketWhileConsumerLags() {
+		ManualSubscriber subscriber = new ManualSubscriber();
+		stream.subscribe(subscriber);
+		LatestPerMarketTickerEmitter emitter = emitterRef.get();
+
+		for (int i = 1; i <= 100; i++) {
+			emitter.offer(tick("KRW-BTC", i));
+			emitter.offer(tick("KRW-ETH", i));
+		}
+		assertEquals(0, subscriber.received.size());
+
+		subscriber.request(10);
+
+		// 밀린 동안 마켓별 최신 1개만 남고, 먼저 밀린 마켓부터 발행
+		assertEquals(2, subscriber.received.size());
+		assertEquals("KRW-BTC", subscriber.received.get(0).getMarketCode());
+		assertEquals(100.0, subscriber.received.get(0).getCurrentPrice());
+		assertEquals("KRW-ETH", subscriber.received.get(1).getMarketCode());
+		assertEquals(100.0, subscriber.received.get(1).getCurrentPrice());
+
+		Map<String, Object> stats = emitter.getStats();
+		assertEquals(200L, stats.get("offered"));
+		assertEquals(2L, stats.get("emitted"));
+		assertEquals(198L, stats.get("coalesced"));
+		assertEquals(0, stats.get("pendingMarkets"));
+	}
+
+	@Test
+	void lateTickDoesNotReplaceNewerPendingTick() {
+		ManualSubscriber subscriber = new ManualSubscriber();
+		stream.subscribe(subscriber);
+		LatestPerMarketTickerEmitter emitter = emitterRef.get();
+		Instant now = Instant.now();
+
+		emitter.offer(tick("KRW-BTC", 2, now));
+		emitter.offer(tick("KRW-BTC", 1, now.minusMillis(500))); // 순서가 뒤바뀐 늦은 틱
+		subscriber.request(10);
+
+		assertEquals(1, subscriber.received.size());
+		assertEquals(2.0, subscriber.received.get(0).getCurrentPrice());
+		assertEquals(1L, emitter.getStats().get("coalesced"));
+	}
+
+	@Test
+	void emitsOnlyRequestedAmount() {
+		ManualSubscriber subscriber = new ManualSubscriber();
+		stream.subscribe(subscriber);
+		LatestPerMarketTickerEmitter emitter = emitterRef.get();
+
+		subscriber.request(1);
+		emitter.offer(tick("KRW-BTC", 1));
+		emitter.offer(tick("KRW-ETH", 1));
+		emitter.offer(tick("KRW-XRP", 1));
+
+		assertEquals(1, subscriber.received.size());
+		assertEquals(2, emitter.getStats().get("pendingMarkets"));
+
+		subscriber.request(5);
+		assertEquals(3, subscriber.received.size());
+	}
+
+	@Test
+	void unboundedSubscriberReceivesEveryTickInOrder() {
+		List<TickerSnapshot> received = new ArrayList<>();
+		stream.subscribe(received::add);
+		LatestPerMarketTickerEmitter emitter = emitterRef.get();
+
+		for (int i = 1; i <= 50; i++) {
+			emitter.offer(tick("KRW-BTC", i));
+		}
+
+		assertEquals(50, received.size());
+		for (int i = 0; i < received.size(); i++) {
+			assertEquals(i + 1.0, received.get(i).getCurrentPrice());
+		}
+		assertEquals(0L, emitter.getStats().get("coalesced"));
+	}
+
+	@Test
+	void cancelReleasesConnectionOnce() {
+		ManualSubscriber subscriber = new ManualSubscriber();
+		stream.subscribe(subscriber);
+		assertEquals(1, activeStreams.size());
+
+		subscriber.cancel();
+		subscriber.cancel();
+		emitterRef.get().offer(tick("KRW-BTC", 1)); // 해제 후 도착한 틱은 무시
+
+		assertEquals(1, released.get());
+		assertTrue(activeStreams.isEmpty());
+		assertEquals(0, subscriber.received.size());
+	}
+
+	@Test
+	void sourceErrorTerminatesAndReleases() {
+		ManualSubscriber subscriber = new ManualSubscriber();
+		stream.subscribe(subscriber);
+
+		emitterRef.get().error(new IllegalStateException("socket closed"));
+
+		assertTrue(subscriber.error.get() instanceof IllegalStateException);
+		assertEquals(1, released.get());
+		assertTrue(activeStreams.isEmpty());
+	}
+
+	private static TickerSnapshot tick(String market, double price) {
+		return tick(market, price, Instant.now());
+	}
+
+	private static TickerSnapshot tick(String market, double price, Instant timestamp) {
+		return TickerSnapshot.builder()
+				.exchangeId("TEST")
+				.marketCode(market)
+				.timestamp(timestamp)
+				.currentPrice(price)
+				.rolling24hVolume(price * 10)
+				.build();
+	}
+
+	//요청을 직접 제어하는 구독자 (처음에는 요청 0)
+	private static final class ManualSubscriber extends BaseSubscriber<TickerSnapshot> {
+		private final List<TickerSnapshot> received = new ArrayList<>();
+		private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+		}
+
+		@Override
+		protected void hookOnNext(TickerSnapshot value) {
+			received.add(value);
+		}
+
+		@Override
+		protected void hookOnError(Throwable throwable) {
+			error.set(throwable);
+		}
+	}
+}
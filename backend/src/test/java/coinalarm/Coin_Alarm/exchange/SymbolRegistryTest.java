@@ -0,0 +1,103 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SymbolRegistryTest {
+
+	private final SymbolRegistry registry = new SymbolRegistry();
+
+	@Test
+	void normalizesExchangeNotations() {
+		assertArrayEquals(new String[]{"BTC", "KRW"}, SymbolRegistry.normalize("KRW-BTC"));
+		assertArrayEquals(new String[]{"BTC", "USDT"}, SymbolRegistry.normalize("btcusdt"));
+		assertArrayEquals(new String[]{"ETH", "FDUSD"}, SymbolRegistry.normalize("ETHFDUSD")); // USD로 잘리지 않음
+		assertArrayEquals(new String[]{"ETH", "BTC"}, SymbolRegistry.normalize("ETHBTC"));
+		assertArrayEquals(new String[]{"SOL", "USDC"}, SymbolRegistry.normalize("SOL/USDC"));
+		assertArrayEquals(new String[]{"XRP", "EUR"}, SymbolRegistry.normalize("xrp_eur"));
+		assertArrayEquals(new String[]{"USDT", ""}, SymbolRegistry.normalize("USDT")); // 견적 자산만 있으면 분해 안 함
+	}
+
+	@Test
+	void samePairOnDifferentExchangesSharesCanonicalId() {
+		int upbit = registry.idOf("UPBIT", "KRW-BTC");
+		int binance = registry.idOf("BINANCE_SPOT", "BTCUSDT");
+		int bithumb = registry.idOf("BITHUMB", "BTC_KRW");
+
+		assertNotEquals(upbit, bithumb);
+		assertEquals(registry.info(upbit).getCanonicalId(), registry.info(bithumb).getCanonicalId());
+		assertNotEquals(registry.info(upbit).getCanonicalId(), registry.info(binance).getCanonicalId());
+		assertEquals(upbit, registry.idOf("UPBIT", "KRW-BTC")); // 두 번째는 조회만
+		assertEquals(-1, registry.find("UPBIT", "KRW-ETH"));
+		assertEquals(3, registry.size());
+	}
+
+	@Test
+	void growsPastInitialCapacityWithDenseIds() {
+		List<SymbolRegistry.SymbolInfo> notified = new ArrayList<>();
+		registry.addListener(notified::add);
+
+		for (int i = 0; i < 1_000; i++) {
+			assertEquals(i, registry.idOf("UPBIT", "KRW-COIN" + i));
+		}
+
+		assertEquals(1_000, registry.size());
+		assertEquals(1_000, notified.size());
+		for (int i = 0; i < 1_000; i++) {
+			SymbolRegistry.SymbolInfo info = registry.info(i);
+			assertEquals("KRW-COIN" + i, info.getMarketCode());
+			assertEquals("COIN" + i, info.getBase());
+		}
+		assertNull(registry.info(1_000));
+		assertNull(registry.info(-1));
+	}
+
+	@Test
+	void concurrentRegistrationAssignsEachMarketOnce() throws InterruptedException {
+		int threads = 4;
+		int markets = 2_000;
+		CountDownLatch start = new CountDownLatch(1);
+		Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		AtomicInteger missingInfo = new AtomicInteger();
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < markets; i++) {
+					int id = registry.idOf("BINANCE_SPOT", "COIN" + i + "USDT");
+					ids.add(id);
+					if (registry.info(id) == null) {
+						missingInfo.incrementAndGet(); // 배열이 커지는 중에도 받은 ID는 바로 조회 가능
+					}
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertEquals(markets, registry.size());
+		assertEquals(markets, ids.size());
+		assertEquals(0, missingInfo.get());
+		assertNotNull(registry.info(markets - 1));
+	}
+}
@@ -0,0 +1,162 @@
+package coinalarm.Coin_Alarm.exchange;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickBusTest {
+
+	private final TickBus<Integer> bus = new TickBus<>("test");
+
+	@Test
+	void everyConsumerReceivesEveryTickInOrder() throws InterruptedException {
+		List<Integer> first = new CopyOnWriteArrayList<>();
+		List<Integer> second = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(2);
+		bus.subscribe("first", 64, TickBus.DropPolicy.DROP_OLDEST, collect(first, 10, done));
+		bus.subscribe("second", 64, TickBus.DropPolicy.DROP_OLDEST, collect(second, 10, done));
+
+		for (int i = 1; i <= 10; i++) {
+			bus.publish(i);
+		}
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), first);
+		assertEquals(first, second);
+	}
+
+	@Test
+	void slowConsumerDropsOnlyItsOwnTicks() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> slow = new CopyOnWriteArrayList<>();
+		List<Integer> fast = new CopyOnWriteArrayList<>();
+		CountDownLatch fastDone = new CountDownLatch(1);
+		CountDownLatch slowStarted = new CountDownLatch(1);
+		bus.subscribe("slow", 16, TickBus.DropPolicy.DROP_OLDEST, tick -> {
+			slowStarted.countDown();
+			await(release);
+			slow.add(tick);
+		});
+		bus.subscribe("fast", 1024, TickBus.DropPolicy.DROP_OLDEST, collect(fast, 100, fastDone));
+
+		bus.publish(0);
+		assertTrue(slowStarted.await(5, TimeUnit.SECONDS)); // 0번 틱을 잡고 멈춤
+		for (int i = 1; i < 100; i++) {
+			bus.publish(i);
+		}
+
+		assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+		assertEquals(100, fast.size());
+
+		release.countDown();
+		Map<String, Object> stats = statsOf("slow");
+		assertEquals(16, stats.get("capacity"));
+		assertEquals(83L, stats.get("dropped")); // 99개 중 링 16칸만 남음
+		waitUntil(() -> slow.size() == 17);
+		assertEquals(0, slow.get(0));
+		assertEquals(84, slow.get(1)); // 가장 오래된 것부터 버림
+		assertEquals(99, slow.get(16));
+	}
+
+	@Test
+	void dropNewestKeepsQueuedTicks() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		List<Integer> received = new CopyOnWriteArrayList<>();
+		bus.subscribe("journal", 16, TickBus.DropPolicy.DROP_NEWEST, tick -> {
+			started.countDown();
+			await(release);
+			received.add(tick);
+		});
+
+		bus.publish(0);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		for (int i = 1; i <= 20; i++) {
+			bus.publish(i);
+		}
+		release.countDown();
+
+		waitUntil(() -> received.size() == 17);
+		assertEquals(16, received.get(16)); // 17~20번은 버려짐
+		assertEquals(4L, statsOf("journal").get("dropped"));
+	}
+
+	@Test
+	void handlerErrorDoesNotStopDelivery() throws InterruptedException {
+		List<Integer> received = new CopyOnWriteArrayList<>();
+		bus.subscribe("flaky", 64, TickBus.DropPolicy.DROP_OLDEST, tick -> {
+			if (tick == 2) {
+				throw new IllegalStateException("boom");
+			}
+			received.add(tick);
+		});
+
+		for (int i = 1; i <= 3; i++) {
+			bus.publish(i);
+		}
+
+		waitUntil(() -> received.size() == 2);
+		assertEquals(List.of(1, 3), received);
+		waitUntil(() -> Long.valueOf(3L).equals(statsOf("flaky").get("delivered")));
+		assertEquals(1L, statsOf("flaky").get("handlerErrors"));
+	}
+
+	@Test
+	void closedConsumerStopsReceiving() throws InterruptedException {
+		List<Integer> received = new CopyOnWriteArrayList<>();
+		TickBus<Integer>.Subscription subscription =
+				bus.subscribe("closing", 64, TickBus.DropPolicy.DROP_OLDEST, received::add);
+
+		bus.publish(1);
+		waitUntil(() -> received.size() == 1);
+		subscription.close();
+		subscription.close();
+		bus.publish(2);
+
+		assertTrue(subscription.isClosed());
+		assertEquals(0, bus.consumerCount());
+		Thread.sleep(50);
+		assertEquals(List.of(1), received);
+	}
+
+	private Map<String, Object> statsOf(String consumer) {
+		return bus.getStats().stream()
+				.filter(stats -> consumer.equals(stats.get("consumer")))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private static Consumer<Integer> collect(List<Integer> sink, int expected, CountDownLatch done) {
+		return tick -> {
+			sink.add(tick);
+			if (sink.size() == expected) {
+				done.countDown();
+			}
+		};
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "timed out");
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,498 @@
+package coinalarm.Coin_Alarm.exchange.kit;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.ExchangeClient;
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 거래소 어댑터(ExchangeClient 구현체) 공통 적합성 + 성능 테스트 킷
+ *
+ * 어댑터마다 이 클래스를 상속하고 "거래소 형식"만 채우면 (REST 응답 / 스트림 프레임 / 구독 방식)
+ * 같은 계약을 로컬 MockWebServer(REST + WebSocket) 위에서 검증함 (외부 네트워크 없음)
+ *
+ * 기능 계약:
+ * - 마켓 목록: 거래 가능한 마켓만, 중복 없이
+ * - 스트림 순서: 마켓별로 보낸 순서 그대로 TickerSnapshot 발행 (가격/시각/거래소 ID 보존)
+ * - 재연결: 서버가 연결을 끊어도 다시 연결해서 이어서 수신
+ * - 캔들 변환: 거래소 응답 → CandleData 필드 값 보존
+ *
+ * 성능 (@Tag("perf"), build.gradle의 perfTest 태스크로 실행):
+ * - 지속 처리량 (초당 메시지 수, mock 서버 → TickerSnapshot 구독자까지)
+ * - 파싱 할당량 (메시지 1개 디코딩당 바이트, 현재 스레드 할당 카운터)
+ * - 지연 (서버 송신 → TickerSnapshot 수신, p50/p99/p99.9)
+ * → 어댑터별 기준치(src/test/resources/perf-baseline/{거래소ID}.properties)와 비교
+ */
+public abstract class ExchangeAdapterTestKit {
+
+	private static final Logger log = LoggerFactory.getLogger(ExchangeAdapterTestKit.class);
+
+	protected static final long BASE_EVENT_TIME = 1_700_000_000_000L;
+	private static final long OUTBOUND_QUEUE_LIMIT = 4L * 1024 * 1024; // mock 서버 송신 큐 상한 (OkHttp 한도 16MB 이전에 대기)
+	private static final long FUNCTIONAL_TIMEOUT_MILLIS = 10_000;
+
+	private MockWebServer server;
+	private final BlockingQueue<MockResponse> restResponses = new LinkedBlockingQueue<>();
+	private final List<RecordedRequest> restRequests = new CopyOnWriteArrayList<>();
+	private final AtomicInteger streamConnections = new AtomicInteger();
+	private volatile Feed feed = connection -> { };
+	private ExecutorService feedExecutor;
+	private ExchangeClient client;
+
+	// ==================== 어댑터가 채울 부분 ====================
+
+	//거래소 ID (TickerSnapshot.exchangeId, 기준치 파일 이름)
+	protected abstract String exchangeId();
+
+	//로컬 mock 서버 주소로 어댑터 생성 (restBaseUrl: http://127.0.0.1:port, wsBaseUrl: ws://127.0.0.1:port)
+	protected abstract ExchangeClient createClient(String restBaseUrl, String wsBaseUrl);
+
+	//어댑터 자원 해제 (소켓/스케줄러)
+	protected void releaseClient(ExchangeClient client) {
+	}
+
+	//거래소 형식에 맞는 마켓 코드 count개
+	protected abstract List<String> sampleMarkets(int count);
+
+	//마켓 목록 REST 응답 (tradable은 목록에 포함돼야 하고 notTradable은 빠져야 함)
+	protected abstract MockResponse marketListResponse(List<String> tradable, List<String> notTradable);
+
+	//1분봉 REST 응답 (candles는 시각 오름차순, 응답 순서는 거래소 형식대로)
+	protected abstract MockResponse candleResponse(String marketCode, List<CandleData> candles);
+
+	//Ticker 프레임 1개 (실제 거래소 메시지와 같은 필드 구성 → 성능 측정이 실제 파싱 비용을 반영)
+	protected abstract String tickerFrame(String marketCode, long eventTimeMillis, double price, double volume24h);
+
+	/**
+	 * 핸드셰이크 요청으로 구독 마켓이 정해지는 거래소(URL에 스트림 목록)는 그 목록,
+	 * 연결 후 구독 메시지를 보내는 거래소는 null → marketsFromSubscribeMessage 사용
+	 */
+	protected abstract List<String> marketsFromHandshake(RecordedRequest handshake);
+
+	//클라이언트 구독 메시지 → 구독 마켓 목록
+	protected List<String> marketsFromSubscribeMessage(String message) {
+		throw new UnsupportedOperationException(exchangeId() + ": 구독 메시지 방식이면 재정의 필요");
+	}
+
+	//프레임 송신 (바이너리 프레임을 쓰는 거래소는 재정의)
+	protected boolean sendFrame(WebSocket socket, String frame) {
+		return socket.send(frame);
+	}
+
+	//어댑터 파서를 소켓 없이 직접 호출 (할당 측정용, 결과는 버림)
+	protected abstract FrameDecoder frameDecoder(List<String> markets);
+
+	@FunctionalInterface
+	public interface FrameDecoder {
+		void decode(String frame);
+	}
+
+	// ==================== mock 서버 ====================
+
+	//연결 1개에 대한 서버 측 송신 스크립트 (feed 스레드에서 실행)
+	@FunctionalInterface
+	protected interface Feed {
+		void run(FeedConnection connection) throws Exception;
+	}
+
+	protected final class FeedConnection {
+		private final int index;         // 전체 연결 순번 (재연결 포함)
+		private final List<String> markets;
+		private final WebSocket socket;
+
+		private FeedConnection(int index, List<String> markets, WebSocket socket) {
+			this.index = index;
+			this.markets = markets;
+			this.socket = socket;
+		}
+
+		public int index() {
+			return index;
+		}
+
+		public List<String> markets() {
+			return markets;
+		}
+
+		//송신 큐가 차면 대기 (처리량 측정 시 mock 서버가 메모리를 무한정 쓰지 않도록)
+		public void send(String frame) throws InterruptedException {
+			while (socket.queueSize() > OUTBOUND_QUEUE_LIMIT) {
+				Thread.sleep(1);
+			}
+			if (!sendFrame(socket, frame)) {
+				throw new IllegalStateException("연결 #" + index + " 송신 실패 (닫힘)");
+			}
+		}
+
+		public void close(int code, String reason) {
+			socket.close(code, reason);
+		}
+	}
+
+	@BeforeEach
+	void startServer() throws Exception {
+		feedExecutor = Executors.newCachedThreadPool();
+		server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				if ("websocket".equalsIgnoreCase(request.getHeader("Upgrade"))) {
+					return new MockResponse().withWebSocketUpgrade(new FeedListener(request));
+				}
+				restRequests.add(request);
+				MockResponse response = restResponses.poll();
+				return (response != null) ? response : new MockResponse().setResponseCode(404);
+			}
+		});
+		server.start();
+		String restBaseUrl = server.url("/").toString().replaceAll("/$", "");
+		client = createClient(restBaseUrl, restBaseUrl.replaceFirst("^http", "ws"));
+	}
+
+	@AfterEach
+	void stopServer() throws Exception {
+		try {
+			releaseClient(client);
+		} finally {
+			feedExecutor.shutdownNow();
+			server.shutdown();
+		}
+	}
+
+	//서버 측 WebSocket: 구독 마켓이 정해지면 현재 feed를 별도 스레드에서 실행
+	private final class FeedListener extends WebSocketListener {
+		private final int index = streamConnections.getAndIncrement();
+		private final RecordedRequest handshake;
+		private volatile boolean started;
+
+		private FeedListener(RecordedRequest handshake) {
+			this.handshake = handshake;
+		}
+
+		@Override
+		public void onOpen(WebSocket socket, Response response) {
+			List<String> markets = marketsFromHandshake(handshake);
+			if (markets != null) {
+				start(socket, markets);
+			}
+		}
+
+		@Override
+		public void onMessage(WebSocket socket, String text) {
+			if (!started) {
+				start(socket, marketsFromSubscribeMessage(text));
+			}
+		}
+
+		@Override
+		public void onMessage(WebSocket socket, ByteString bytes) {
+			onMessage(socket, bytes.utf8());
+		}
+
+		@Override
+		public void onClosing(WebSocket socket, int code, String reason) {
+			socket.close(1000, null);
+		}
+
+		private void start(WebSocket socket, List<String> markets) {
+			started = true;
+			Feed current = feed;
+			FeedConnection connection = new FeedConnection(index, markets, socket);
+			feedExecutor.execute(() -> {
+				try {
+					current.run(connection);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (Exception e) {
+					log.warn("mock feed #{} 종료: {}", index, e.getMessage());
+				}
+			});
+		}
+	}
+
+	// ==================== 기능 계약 ====================
+
+	@Test
+	void listsOnlyTradableMarkets() throws Exception {
+		List<String> markets = sampleMarkets(5);
+		List<String> tradable = markets.subList(0, 3);
+		List<String> notTradable = markets.subList(3, 5);
+		restResponses.add(marketListResponse(tradable, notTradable));
+
+		List<String> listed = client.getAllMarketCodes().block(Duration.ofSeconds(5));
+
+		assertNotNull(listed);
+		assertEquals(listed.size(), new HashSet<>(listed).size(), "중복 마켓");
+		assertEquals(new HashSet<>(tradable), new HashSet<>(listed));
+		assertEquals(1, restRequests.size());
+	}
+
+	@Test
+	void convertsCandlesToCandleData() {
+		String market = sampleMarkets(1).get(0);
+		List<CandleData> expected = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			expected.add(CandleData.builder()
+					.marketCode(market)
+					.timestamp(Instant.ofEpochMilli(BASE_EVENT_TIME + i * 60_000L))
+					.openPrice(100.0 + i)
+					.highPrice(110.5 + i)
+					.lowPrice(99.25 + i)
+					.closePrice(105.125 + i)
+					.accTradeVolume(12.5 * (i + 1))
+					.accTradePrice(1312.5 * (i + 1))
+					.build());
+		}
+		restResponses.add(candleResponse(market, expected));
+
+		List<CandleData> candles = client.getHistoricalCandles(market, 1, expected.size()).block(Duration.ofSeconds(5));
+
+		assertNotNull(candles);
+		assertEquals(expected.size(), candles.size());
+		List<CandleData> sorted = new ArrayList<>(candles);
+		sorted.sort(Comparator.comparing(CandleData::getTimestamp)); // 응답 순서는 거래소마다 다름 → 시각 기준 비교
+		for (int i = 0; i < expected.size(); i++) {
+			CandleData want = expected.get(i);
+			CandleData got = sorted.get(i);
+			assertEquals(want.getMarketCode(), got.getMarketCode());
+			assertEquals(want.getTimestamp(), got.getTimestamp());
+			assertEquals(want.getOpenPrice(), got.getOpenPrice());
+			assertEquals(want.getHighPrice(), got.getHighPrice());
+			assertEquals(want.getLowPrice(), got.getLowPrice());
+			assertEquals(want.getClosePrice(), got.getClosePrice());
+			assertEquals(want.getAccTradeVolume(), got.getAccTradeVolume());
+			assertEquals(want.getAccTradePrice(), got.getAccTradePrice());
+		}
+	}
+
+	@Test
+	void preservesPerMarketOrder() throws Exception {
+		List<String> markets = sampleMarkets(6);
+		int ticksPerMarket = 200;
+		feed = connection -> {
+			for (int seq = 1; seq <= ticksPerMarket; seq++) {
+				for (String market : connection.markets()) {
+					connection.send(tickerFrame(market, BASE_EVENT_TIME + seq * 1_000L, seq, seq * 10.0));
+				}
+			}
+		};
+
+		List<TickerSnapshot> received = collect(markets, markets.size() * ticksPerMarket);
+
+		assertEquals(markets.size() * ticksPerMarket, received.size());
+		Map<String, List<TickerSnapshot>> byMarket = groupByMarket(received);
+		assertEquals(new HashSet<>(markets), byMarket.keySet());
+		for (List<TickerSnapshot> ticks : byMarket.values()) {
+			for (int i = 0; i < ticks.size(); i++) {
+				TickerSnapshot tick = ticks.get(i);
+				int seq = i + 1;
+				assertEquals(exchangeId(), tick.getExchangeId());
+				assertEquals((double) seq, tick.getCurrentPrice(), "순서 뒤바뀜: " + tick.getMarketCode());
+				assertEquals(seq * 10.0, tick.getRolling24hVolume());
+				assertEquals(Instant.ofEpochMilli(BASE_EVENT_TIME + seq * 1_000L), tick.getTimestamp());
+			}
+		}
+	}
+
+	@Test
+	void reconnectsAfterServerClose() throws Exception {
+		List<String> markets = sampleMarkets(1);
+		String market = markets.get(0);
+		//첫 연결: 1~10 송신 후 서버가 끊음, 재연결: 11~20
+		feed = connection -> {
+			int from = (connection.index() == 0) ? 1 : 11;
+			for (int seq = from; seq < from + 10; seq++) {
+				connection.send(tickerFrame(market, BASE_EVENT_TIME + seq * 1_000L, seq, seq));
+			}
+			if (connection.index() == 0) {
+				connection.close(1001, "going away");
+			}
+		};
+
+		List<TickerSnapshot> received = collect(markets, 20);
+
+		assertTrue(streamConnections.get() >= 2, "재연결 없음");
+		assertEquals(20, received.size());
+		for (int i = 0; i < received.size(); i++) {
+			assertEquals((double) (i + 1), received.get(i).getCurrentPrice());
+		}
+	}
+
+	// ==================== 성능 ====================
+
+	@Test
+	@Tag("perf")
+	void measuresParseAllocation() {
+		assumeTrue(allocationCounter() != null, "스레드 할당 카운터를 지원하지 않는 JVM");
+		List<String> markets = sampleMarkets(50);
+		String[] frames = new String[1_000];
+		for (int i = 0; i < frames.length; i++) {
+			frames[i] = tickerFrame(markets.get(i % markets.size()), BASE_EVENT_TIME + i, 43_000.1 + i, 1.5e9 + i);
+		}
+		FrameDecoder decoder = frameDecoder(markets);
+		int iterations = Integer.getInteger("kit.perf.decode-iterations", 1_000_000);
+
+		for (int i = 0; i < iterations / 5; i++) { // JIT 워밍업
+			decoder.decode(frames[i % frames.length]);
+		}
+		com.sun.management.ThreadMXBean counter = allocationCounter();
+		long threadId = Thread.currentThread().getId();
+		long before = counter.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < iterations; i++) {
+			decoder.decode(frames[i % frames.length]);
+		}
+		double bytesPerMessage = (counter.getThreadAllocatedBytes(threadId) - before) / (double) iterations;
+
+		log.info("📊 [{}] 파싱 할당량: {} bytes/msg", exchangeId(), String.format("%.1f", bytesPerMessage));
+		PerformanceBaseline.check(exchangeId(), Map.of(PerformanceBaseline.ALLOCATED_BYTES_PER_MESSAGE, bytesPerMessage));
+	}
+
+	@Test
+	@Tag("perf")
+	void measuresThroughputAndLatency() throws Exception {
+		List<String> markets = sampleMarkets(100);
+		int total = Integer.getInteger("kit.perf.messages", 200_000);
+		int warmup = total / 10;
+		long[] sentAt = new long[total];
+		long[] latencies = new long[total - warmup];
+		AtomicInteger nextSeq = new AtomicInteger();
+		AtomicInteger received = new AtomicInteger();
+		AtomicLong measureStart = new AtomicLong();
+		AtomicLong measureEnd = new AtomicLong();
+
+		//가격 = 순번 + 1 (2^53 이하 정수는 double로 정확) → 수신 측에서 송신 시각을 찾음
+		feed = connection -> {
+			List<String> own = connection.markets();
+			int seq;
+			int cursor = 0;
+			while ((seq = nextSeq.getAndIncrement()) < total) {
+				String frame = tickerFrame(own.get(cursor++ % own.size()), BASE_EVENT_TIME + seq, seq + 1, 1.0e9);
+				sentAt[seq] = System.nanoTime();
+				connection.send(frame);
+			}
+		};
+
+		Disposable subscription = client.subscribeTickerStream(markets).subscribe(snapshot -> {
+			long now = System.nanoTime();
+			int seq = (int) (snapshot.getCurrentPrice() - 1);
+			int count = received.incrementAndGet();
+			if (seq >= warmup) {
+				latencies[seq - warmup] = now - sentAt[seq];
+			}
+			if (count == warmup + 1) {
+				measureStart.set(now);
+			}
+			measureEnd.set(now);
+		});
+		try {
+			awaitUntil(() -> received.get() >= total, Long.getLong("kit.perf.timeout-ms", 120_000));
+		} finally {
+			subscription.dispose();
+		}
+
+		assertEquals(total, received.get(), "유실 메시지");
+		double seconds = (measureEnd.get() - measureStart.get()) / 1e9;
+		double messagesPerSecond = (total - warmup - 1) / seconds;
+		Arrays.sort(latencies);
+		double p50 = percentileMillis(latencies, 0.50);
+		double p99 = percentileMillis(latencies, 0.99);
+		double p999 = percentileMillis(latencies, 0.999);
+
+		log.info("📊 [{}] 처리량 {} msg/s, 지연 p50 {}ms / p99 {}ms / p99.9 {}ms (연결 {}개, 메시지 {}건)",
+				exchangeId(), String.format("%.0f", messagesPerSecond), String.format("%.3f", p50),
+				String.format("%.3f", p99), String.format("%.3f", p999), streamConnections.get(), total);
+
+		Map<String, Double> measured = new HashMap<>();
+		measured.put(PerformanceBaseline.MESSAGES_PER_SECOND, messagesPerSecond);
+		measured.put(PerformanceBaseline.LATENCY_P50_MILLIS, p50);
+		measured.put(PerformanceBaseline.LATENCY_P99_MILLIS, p99);
+		measured.put(PerformanceBaseline.LATENCY_P999_MILLIS, p999);
+		PerformanceBaseline.check(exchangeId(), measured);
+	}
+
+	// ==================== 공통 도우미 ====================
+
+	//구독 후 expected개 수신(또는 시간 초과)까지 모아서 반환
+	protected List<TickerSnapshot> collect(List<String> markets, int expected) throws InterruptedException {
+		List<TickerSnapshot> received = new CopyOnWriteArrayList<>();
+		Disposable subscription = client.subscribeTickerStream(markets).subscribe(received::add);
+		try {
+			awaitUntil(() -> received.size() >= expected, FUNCTIONAL_TIMEOUT_MILLIS);
+			Thread.sleep(50); // 초과 발행(중복) 확인용 여유
+		} finally {
+			subscription.dispose();
+		}
+		return new ArrayList<>(received);
+	}
+
+	protected ExchangeClient client() {
+		return client;
+	}
+
+	private static Map<String, List<TickerSnapshot>> groupByMarket(List<TickerSnapshot> ticks) {
+		Map<String, List<TickerSnapshot>> byMarket = new HashMap<>();
+		for (TickerSnapshot tick : ticks) {
+			byMarket.computeIfAbsent(tick.getMarketCode(), k -> new ArrayList<>()).add(tick);
+		}
+		return byMarket;
+	}
+
+	private static void awaitUntil(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static double percentileMillis(long[] sortedNanos, double percentile) {
+		int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+		return sortedNanos[Math.max(0, index)] / 1e6;
+	}
+
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean counter)
+				|| !counter.isThreadAllocatedMemorySupported()) {
+			return null;
+		}
+		counter.setThreadAllocatedMemoryEnabled(true);
+		return counter;
+	}
+}
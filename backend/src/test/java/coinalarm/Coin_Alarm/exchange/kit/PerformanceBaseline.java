@@ -0,0 +1,112 @@
+package coinalarm.Coin_Alarm.exchange.kit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 어댑터별 성능 기준치 (src/test/resources/perf-baseline/{거래소ID}.properties)
+ *
+ * 키 형식: {지표}.min (이상이어야 함) / {지표}.max (이하여야 함)
+ *   messages-per-second.min=50000
+ *   allocated-bytes-per-message.max=64
+ *   latency-p99-millis.max=20
+ * 기준치 파일에 없는 지표는 기록만 하고 비교하지 않음
+ * 기준치가 하나도 없는 파일(실측 전)이면 측정값만 로그로 남김 → 추정값으로 테스트를 깨뜨리지 않음
+ *
+ * 기록 모드 (-Dkit.perf.record=true): 비교하지 않고 측정값을 build/perf-baseline/{거래소ID}.properties에 씀
+ * → 여유를 둬서 기준치 파일에 옮기는 것은 사람이 검토 후 (측정 환경을 파일 주석에 남김)
+ */
+final class PerformanceBaseline {
+
+	private static final Logger log = LoggerFactory.getLogger(PerformanceBaseline.class);
+
+	static final String MESSAGES_PER_SECOND = "messages-per-second";
+	static final String ALLOCATED_BYTES_PER_MESSAGE = "allocated-bytes-per-message";
+	static final String LATENCY_P50_MILLIS = "latency-p50-millis";
+	static final String LATENCY_P99_MILLIS = "latency-p99-millis";
+	static final String LATENCY_P999_MILLIS = "latency-p999-millis";
+
+	private static final Path RECORD_DIR = Paths.get("build", "perf-baseline");
+
+	private PerformanceBaseline() {
+	}
+
+	//측정값을 기준치와 비교 (기록 모드면 파일에 추가 기록)
+	static void check(String exchangeId, Map<String, Double> measured) {
+		if (Boolean.getBoolean("kit.perf.record")) {
+			record(exchangeId, measured);
+			return;
+		}
+		Properties baseline = load(exchangeId);
+		if (baseline == null) {
+			fail("성능 기준치 파일 없음: perf-baseline/" + exchangeId + ".properties (-Dkit.perf.record=true로 측정 후 추가)");
+		}
+		if (baseline.stringPropertyNames().stream().noneMatch(key -> key.endsWith(".min") || key.endsWith(".max"))) {
+			log.warn("⚠️ [{}] 성능 기준치 미측정, 비교 생략 (측정값: {})", exchangeId, new TreeMap<>(measured));
+			return;
+		}
+		List<String> violations = new ArrayList<>();
+		measured.forEach((metric, value) -> {
+			String min = baseline.getProperty(metric + ".min");
+			if (min != null && value < Double.parseDouble(min)) {
+				violations.add(String.format("%s = %.3f < 기준 %s", metric, value, min));
+			}
+			String max = baseline.getProperty(metric + ".max");
+			if (max != null && value > Double.parseDouble(max)) {
+				violations.add(String.format("%s = %.3f > 기준 %s", metric, value, max));
+			}
+		});
+		if (!violations.isEmpty()) {
+			fail("[" + exchangeId + "] 성능 기준 미달: " + String.join(", ", violations));
+		}
+	}
+
+	private static Properties load(String exchangeId) {
+		try (InputStream in = PerformanceBaseline.class.getResourceAsStream("/perf-baseline/" + exchangeId + ".properties")) {
+			if (in == null) {
+				return null;
+			}
+			Properties properties = new Properties();
+			properties.load(in);
+			return properties;
+		} catch (IOException e) {
+			throw new IllegalStateException("기준치 파일 읽기 실패: " + exchangeId, e);
+		}
+	}
+
+	//같은 파일에 여러 테스트의 측정값을 합쳐서 기록
+	private static synchronized void record(String exchangeId, Map<String, Double> measured) {
+		Path file = RECORD_DIR.resolve(exchangeId + ".properties");
+		try {
+			Files.createDirectories(RECORD_DIR);
+			Properties properties = new Properties();
+			if (Files.exists(file)) {
+				try (InputStream in = Files.newInputStream(file)) {
+					properties.load(in);
+				}
+			}
+			new TreeMap<>(measured).forEach((metric, value) -> properties.setProperty(metric, String.format("%.3f", value)));
+			try (OutputStream out = Files.newOutputStream(file)) {
+				properties.store(out, exchangeId + " measured on " + System.getProperty("os.name") + " / "
+						+ Runtime.getRuntime().availableProcessors() + " cores / Java " + System.getProperty("java.version"));
+			}
+			log.info("📝 성능 측정값 기록: {}", file.toAbsolutePath());
+		} catch (IOException e) {
+			throw new IllegalStateException("측정값 기록 실패: " + file, e);
+		}
+	}
+}
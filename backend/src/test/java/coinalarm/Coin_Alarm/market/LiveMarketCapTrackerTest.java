@@ -0,0 +1,113 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.exchange.MarketCapTier;
+import coinalarm.Coin_Alarm.exchange.SymbolRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveMarketCapTrackerTest {
+
+	@TempDir
+	Path dir;
+
+	private CirculatingSupplyTable supplyTable;
+	private FxRateProvider fxRateProvider;
+	private LiveMarketCapTracker tracker;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Path file = dir.resolve("supply.csv");
+		Files.writeString(file, "# 테스트\nBTC,1000\neth,100\n");
+		supplyTable = new CirculatingSupplyTable(file.toString());
+		fxRateProvider = new FxRateProvider("UPBIT", "KRW-USDT", 60_000, 0);
+		tracker = new LiveMarketCapTracker(supplyTable, new SymbolRegistry(), fxRateProvider);
+	}
+
+	@Test
+	void retiersAndMovesBoardFilterWhenPriceCrossesBands() {
+		tracker.onPrice("UPBIT", "KRW-BTC", 6_000_000_000.0); // 6조
+		assertEquals(MarketCapTier.LARGE, tracker.getTier("UPBIT", "KRW-BTC"));
+		assertTrue(inFilter("KRW-BTC", LiveMarketCapTracker.BoardFilter.LARGE));
+
+		tracker.onPrice("UPBIT", "KRW-BTC", 1_000_000_000.0); // 1조 → 보드는 중형, 등급은 그대로
+		assertEquals(MarketCapTier.LARGE, tracker.getTier("UPBIT", "KRW-BTC"));
+		assertFalse(inFilter("KRW-BTC", LiveMarketCapTracker.BoardFilter.LARGE));
+		assertTrue(inFilter("KRW-BTC", LiveMarketCapTracker.BoardFilter.MID));
+
+		tracker.onPrice("UPBIT", "KRW-BTC", 500_000_000.0); // 5천억
+		assertEquals(MarketCapTier.MEDIUM, tracker.getTier("UPBIT", "KRW-BTC"));
+		assertTrue(inFilter("KRW-BTC", LiveMarketCapTracker.BoardFilter.SMALL));
+
+		tracker.onPrice("UPBIT", "KRW-BTC", 10_000_000.0); // 100억 → 어느 보드에도 없음
+		for (LiveMarketCapTracker.BoardFilter filter : LiveMarketCapTracker.BoardFilter.values()) {
+			assertFalse(inFilter("KRW-BTC", filter));
+		}
+		assertEquals(10_000_000_000.0, tracker.getMarketCap("UPBIT", "KRW-BTC"));
+	}
+
+	@Test
+	void unknownSupplyGetsDefaultTierOutsideBoards() {
+		tracker.onPrice("UPBIT", "KRW-FOO", 1_000.0);
+
+		assertEquals(LiveMarketCapTracker.DEFAULT_TIER, tracker.getTier("UPBIT", "KRW-FOO"));
+		assertFalse(tracker.hasSupply("UPBIT", "KRW-FOO")); // 보드는 DB 시가총액으로 보충
+		assertTrue(Double.isNaN(tracker.getMarketCap("UPBIT", "KRW-FOO")));
+		assertFalse(tracker.hasSupply("UPBIT", "KRW-ETH")); // 아직 틱을 못 받은 마켓도 보충 대상
+		tracker.onPrice("UPBIT", "KRW-ETH", 1.0);
+		assertTrue(tracker.hasSupply("UPBIT", "KRW-ETH"));
+	}
+
+	@Test
+	void supplyLookupIgnoresCase() {
+		assertEquals(1000.0, supplyTable.getSupply("btc"));
+		assertEquals(100.0, supplyTable.getSupply("ETH"));
+	}
+
+	@Test
+	void usdQuotedMarketsAreConvertedWithFxRate() {
+		tracker.onPrice("BINANCE", "BTCUSDT", 5_000_000.0);
+		assertNull(tracker.getTier("BINANCE", "BTCUSDT")); // 환율 전에는 등급 보류
+
+		fxRateProvider.onTicker("UPBIT", "KRW-USDT", 1_400.0, System.currentTimeMillis());
+		tracker.onPrice("BINANCE", "BTCUSDT", 5_000_000.0); // 70억 원 × 1000 = 7조
+
+		assertEquals(7_000_000_000_000.0, tracker.getMarketCap("BINANCE", "BTCUSDT"));
+		assertEquals(MarketCapTier.LARGE, tracker.getTier("BINANCE", "BTCUSDT"));
+		assertEquals(LiveMarketCapTracker.DEFAULT_TIER, tierAfterPrice("BINANCE", "ETHBTC", 0.05)); // BTC 견적은 대상 아님
+	}
+
+	@Test
+	void checkpointRestoresKrwPriceWithoutConvertingAgain() throws Exception {
+		fxRateProvider.onTicker("UPBIT", "KRW-USDT", 1_400.0, System.currentTimeMillis());
+		tracker.onPrice("BINANCE", "BTCUSDT", 5_000_000.0);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		tracker.writeCheckpoint(new DataOutputStream(bytes));
+
+		LiveMarketCapTracker restored = new LiveMarketCapTracker(supplyTable, new SymbolRegistry(), fxRateProvider);
+		restored.readCheckpoint(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertEquals(7_000_000_000_000.0, restored.getMarketCap("BINANCE", "BTCUSDT"));
+	}
+
+	private boolean inFilter(String marketCode, LiveMarketCapTracker.BoardFilter filter) {
+		return tracker.getMarketsInFilter("UPBIT", filter).contains(marketCode);
+	}
+
+	private MarketCapTier tierAfterPrice(String exchangeId, String marketCode, double price) {
+		tracker.onPrice(exchangeId, marketCode, price);
+		return tracker.getTier(exchangeId, marketCode);
+	}
+}
@@ -0,0 +1,89 @@
+package coinalarm.Coin_Alarm.market;
+
+import coinalarm.Coin_Alarm.codec.JsonScanner;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderBookTest {
+
+	private static final String MESSAGE = "{\"type\":\"orderbook\",\"code\":\"KRW-BTC\",\"timestamp\":1700000000000,"
+			+ "\"total_ask_size\":3.0,\"total_bid_size\":6.0,\"orderbook_units\":["
+			+ "{\"ask_price\":101.0,\"bid_price\":99.0,\"ask_size\":1.0,\"bid_size\":2.0},"
+			+ "{\"ask_price\":102.0,\"bid_price\":98.0,\"ask_size\":1.0,\"bid_size\":3.0},"
+			+ "{\"bid_size\":1.0,\"ask_size\":1.0,\"bid_price\":90.0,\"ask_price\":110.0}],"
+			+ "\"stream_type\":\"REALTIME\",\"level\":0}";
+
+	@Test
+	void appliesLevelsAndDerivesMetrics() {
+		OrderBook book = new OrderBook("KRW-BTC", 15, 5.0);
+
+		assertEquals(3, book.applyUpbitUnits(MESSAGE, units(MESSAGE), 1_700_000_000_000L));
+
+		assertEquals(99.0, book.getBestBid());
+		assertEquals(101.0, book.getBestAsk());
+		assertEquals(2.0, book.getSpread());
+		assertEquals(200.0, book.getSpreadBps()); // 2 / 100
+		assertEquals(99.0 * 2 + 98.0 * 3, book.getBidDepth()); // 90은 중간가 -5% 밖
+		assertEquals(101.0 + 102.0, book.getAskDepth());        // 110은 +5% 밖
+		double bid = 99.0 * 2 + 98.0 * 3;
+		double ask = 101.0 + 102.0;
+		assertEquals((bid - ask) / (bid + ask), book.getImbalance());
+		assertEquals(1L, book.getUpdates());
+	}
+
+	@Test
+	void dropsLevelsBeyondCapacity() {
+		OrderBook book = new OrderBook("KRW-BTC", 2, 50.0);
+
+		assertEquals(2, book.applyUpbitUnits(MESSAGE, units(MESSAGE), 0L));
+		assertEquals(2, book.toMap().get("levels"));
+		assertEquals(99.0 * 2 + 98.0 * 3, book.getBidDepth());
+	}
+
+	@Test
+	void emptyMessageKeepsPreviousBook() {
+		OrderBook book = new OrderBook("KRW-BTC", 15, 1.0);
+		book.applyUpbitUnits(MESSAGE, units(MESSAGE), 0L);
+
+		String empty = "{\"code\":\"KRW-BTC\",\"orderbook_units\":[]}";
+		assertEquals(0, book.applyUpbitUnits(empty, units(empty), 0L));
+		assertEquals(99.0, book.getBestBid());
+	}
+
+	@Test
+	void readersNeverSeeTornBook() throws InterruptedException {
+		OrderBook book = new OrderBook("KRW-BTC", 15, 100.0);
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<String> torn = new AtomicReference<>();
+		Thread reader = new Thread(() -> {
+			while (running.get()) {
+				Map<String, Object> snapshot = book.toMap(); // 한 번의 복사 안에서는 같은 메시지의 값이어야 함
+				double bestBid = (double) snapshot.get("bestBid");
+				double bestAsk = (double) snapshot.get("bestAsk");
+				if (!Double.isNaN(bestBid) && bestAsk - bestBid != 2.0) {
+					torn.set(bestBid + "/" + bestAsk);
+				}
+			}
+		});
+		reader.start();
+		for (int i = 0; i < 50_000; i++) {
+			double bid = 1000 + i;
+			String json = "{\"code\":\"KRW-BTC\",\"orderbook_units\":[{\"ask_price\":" + (bid + 2)
+					+ ",\"bid_price\":" + bid + ",\"ask_size\":1,\"bid_size\":1}]}";
+			book.applyUpbitUnits(json, units(json), i);
+		}
+		running.set(false);
+		reader.join();
+		assertNull(torn.get());
+	}
+
+	private static int units(String json) {
+		return JsonScanner.valueIndex(json, 0, "orderbook_units");
+	}
+}
@@ -0,0 +1,58 @@
+package coinalarm.Coin_Alarm.market;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TradeFlowWindowsTest {
+
+	private static final long T0 = 1_700_000_000_000L;
+
+	private final TradeFlowWindows windows = new TradeFlowWindows();
+
+	@Test
+	void splitsValueAndCountByAggressorSide() {
+		windows.onTrade(1, T0, true, 100.0);
+		windows.onTrade(1, T0 + 10, true, 50.0);
+		windows.onTrade(1, T0 + 20, false, 30.0);
+
+		assertEquals(150.0, windows.getTakerValue(1, 1, true, T0 + 20));
+		assertEquals(30.0, windows.getTakerValue(1, 1, false, T0 + 20));
+		assertEquals(2L, windows.getTradeCount(1, 1, true, T0 + 20));
+		assertEquals(1L, windows.getTradeCount(1, 1, false, T0 + 20));
+		assertEquals(0.0, windows.getTakerValue(2, 1, true, T0 + 20)); // 다른 마켓
+	}
+
+	@Test
+	void oldBucketsExpirePerWindow() {
+		windows.onTrade(1, T0, true, 100.0);
+		windows.onTrade(1, T0 + 90_000, true, 10.0);
+
+		assertEquals(10.0, windows.getTakerValue(1, 1, true, T0 + 90_000)); // 1분 창에서는 밀려남
+		assertEquals(110.0, windows.getTakerValue(1, 5, true, T0 + 90_000));
+		assertEquals(1L, windows.getTradeCount(1, 1, true, T0 + 90_000));
+		assertEquals(2L, windows.getTradeCount(1, 60, true, T0 + 90_000));
+	}
+
+	@Test
+	void readsExpireQuietMarkets() {
+		windows.onTrade(1, T0, false, 100.0);
+
+		assertEquals(100.0, windows.getTakerValue(1, 15, false, T0 + 14 * 60_000));
+		assertEquals(0.0, windows.getTakerValue(1, 15, false, T0 + 16 * 60_000));
+		assertEquals(0.0, windows.getTakerValue(1, 1, false, T0 + 3 * 60 * 60_000)); // 창 전체가 밀려남
+	}
+
+	@Test
+	void lateTradeLandsInItsOwnBucket() {
+		windows.onTrade(1, T0 + 30_000, true, 10.0);
+		windows.onTrade(1, T0, true, 5.0); // 30초 늦게 도착
+
+		assertEquals(15.0, windows.getTakerValue(1, 1, true, T0 + 30_000));
+		assertEquals(10.0, windows.getTakerValue(1, 1, true, T0 + 60_500)); // 늦은 체결 버킷만 밀려남
+		assertEquals(0L, windows.getStats().get("lateTrades"));
+
+		windows.onTrade(1, T0 - 2 * 60 * 60_000, true, 1.0); // 1시간 창보다 오래됨
+		assertEquals(1L, windows.getStats().get("lateTrades"));
+	}
+}
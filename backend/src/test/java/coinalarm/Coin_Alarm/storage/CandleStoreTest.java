@@ -0,0 +1,101 @@
+package coinalarm.Coin_Alarm.storage;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandleStoreTest {
+
+	private static final long T0 = 1_699_920_000_000L; // 2023-11-14 00:00 UTC
+	private static final long MINUTE = 60_000L;
+
+	@TempDir
+	Path dir;
+
+	private static CandleData candle(long millis, double close, Double volume) {
+		return CandleData.builder()
+				.marketCode("KRW-BTC")
+				.timestamp(Instant.ofEpochMilli(millis))
+				.openPrice(close - 1)
+				.highPrice(close + 2)
+				.lowPrice(close - 3)
+				.closePrice(close)
+				.accTradeVolume(volume)
+				.accTradePrice(close * 10)
+				.build();
+	}
+
+	@Test
+	void roundTripsThroughDayFileAcrossBlocks() {
+		CandleStore store = new CandleStore(dir.toString());
+		List<CandleData> candles = new ArrayList<>();
+		for (int i = 0; i < 200; i++) { // 블록(64행) 4개
+			candles.add(candle(T0 + i * MINUTE, 1_000.0 + i * 0.5, 1.25 * i));
+		}
+		store.append("UPBIT", "KRW-BTC", candles);
+		store.flush();
+
+		CandleStore reopened = new CandleStore(dir.toString()); // 메모리 없이 파일만 읽음
+		List<CandleData> read = reopened.query("UPBIT", "KRW-BTC",
+				Instant.ofEpochMilli(T0 + 100 * MINUTE), Instant.ofEpochMilli(T0 + 130 * MINUTE), 1);
+
+		assertEquals(30, read.size());
+		for (int i = 0; i < read.size(); i++) {
+			CandleData want = candles.get(100 + i);
+			CandleData got = read.get(i);
+			assertEquals(want.getTimestamp(), got.getTimestamp());
+			assertEquals(want.getOpenPrice(), got.getOpenPrice());
+			assertEquals(want.getHighPrice(), got.getHighPrice());
+			assertEquals(want.getLowPrice(), got.getLowPrice());
+			assertEquals(want.getClosePrice(), got.getClosePrice());
+			assertEquals(want.getAccTradeVolume(), got.getAccTradeVolume());
+			assertEquals(want.getAccTradePrice(), got.getAccTradePrice());
+		}
+	}
+
+	@Test
+	void aggregatesToCoarserResolution() {
+		CandleStore store = new CandleStore(dir.toString());
+		List<CandleData> candles = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			candles.add(candle(T0 + i * MINUTE, 100.0 + i, 1.0));
+		}
+		store.append("UPBIT", "KRW-BTC", candles);
+
+		List<CandleData> fiveMinute = store.query("UPBIT", "KRW-BTC",
+				Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + 10 * MINUTE), 5);
+
+		assertEquals(2, fiveMinute.size());
+		CandleData first = fiveMinute.get(0);
+		assertEquals(Instant.ofEpochMilli(T0), first.getTimestamp());
+		assertEquals(99.0, first.getOpenPrice()); // 첫 행 시가
+		assertEquals(104.0, first.getClosePrice()); // 마지막 행 종가
+		assertEquals(106.0, first.getHighPrice());
+		assertEquals(97.0, first.getLowPrice());
+		assertEquals(5.0, first.getAccTradeVolume());
+		assertEquals(Instant.ofEpochMilli(T0 + 5 * MINUTE), fiveMinute.get(1).getTimestamp());
+	}
+
+	@Test
+	void sameMinuteIsReplacedAndMissingVolumeIsStoredAsZero() {
+		CandleStore store = new CandleStore(dir.toString());
+		store.append("UPBIT", "KRW-BTC", List.of(candle(T0, 100.0, 3.0)));
+		store.append("UPBIT", "KRW-BTC", List.of(candle(T0 + 30_000, 101.0, null))); // 진행 중인 1분봉 갱신, 거래량 없음
+
+		List<CandleData> read = store.query("UPBIT", "KRW-BTC",
+				Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + MINUTE), 1);
+
+		assertEquals(1, read.size());
+		assertEquals(101.0, read.get(0).getClosePrice());
+		assertEquals(0.0, read.get(0).getAccTradeVolume());
+		assertTrue(store.query("UPBIT", "KRW-ETH", Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + MINUTE), 1).isEmpty());
+	}
+}
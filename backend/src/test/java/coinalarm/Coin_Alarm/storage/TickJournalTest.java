@@ -0,0 +1,107 @@
+package coinalarm.Coin_Alarm.storage;
+
+import coinalarm.Coin_Alarm.exchange.TickerSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TickJournalTest {
+
+	private static final long T0 = 1_700_000_000_000L; // 2023-11-14 22:13:20 UTC
+	private static final long DAY = 86_400_000L;
+
+	@TempDir
+	Path dir;
+
+	private TickJournal journal;
+
+	@BeforeEach
+	void setUp() {
+		journal = new TickJournal(true, dir.toString(), 1, 60_000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		journal.close();
+	}
+
+	private static TickerSnapshot tick(String exchangeId, String market, long millis, double price, long sequentialId) {
+		return TickerSnapshot.builder()
+				.exchangeId(exchangeId)
+				.marketCode(market)
+				.timestamp(Instant.ofEpochMilli(millis))
+				.sequentialId(sequentialId)
+				.currentPrice(price)
+				.rolling24hVolume(price * 10)
+				.build();
+	}
+
+	@Test
+	void replaysAppendedTicksWithinRange() {
+		journal.append(tick("UPBIT", "KRW-BTC", T0, 100.0, 17_000_000_001L));
+		journal.append(tick("BINANCE_SPOT", "BTCUSDT", T0 + 1_000, 200.0, 0L));
+		journal.append(tick("UPBIT", "KRW-ETH", T0 + 2_000, 300.0, 17_000_000_002L));
+
+		List<TickerSnapshot> replayed = new ArrayList<>();
+		long count = journal.replay(Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + 1_000), replayed::add);
+
+		assertEquals(2, count);
+		TickerSnapshot first = replayed.get(0);
+		assertEquals("UPBIT", first.getExchangeId());
+		assertEquals("KRW-BTC", first.getMarketCode());
+		assertEquals(T0, first.getTimestamp().toEpochMilli());
+		assertEquals(100.0, first.getCurrentPrice());
+		assertEquals(1_000.0, first.getRolling24hVolume());
+		assertEquals(17_000_000_001L, first.getSequentialId()); // 체결 번호도 그대로
+		assertEquals("BINANCE_SPOT", replayed.get(1).getExchangeId()); // 16바이트라 잘리지 않음
+	}
+
+	@Test
+	void rollsToNextSegmentWhenFull() throws IOException {
+		int perSegment = (1024 * 1024 - TickJournal.HEADER_SIZE) / TickJournal.RECORD_SIZE;
+		for (int i = 0; i <= perSegment; i++) {
+			journal.append(tick("UPBIT", "KRW-BTC", T0 + i, 100.0 + i, i + 1));
+		}
+
+		assertEquals(2, segmentCount());
+		long[] lastSequence = {0};
+		long[] count = {0};
+		journal.scan(LocalDate.of(2023, 11, 14), record -> {
+			assertEquals(lastSequence[0] + 1, record.sequenceId()); // 세그먼트를 넘어도 기록 순서 유지
+			lastSequence[0] = record.sequenceId();
+			count[0]++;
+		});
+		assertEquals(perSegment + 1, count[0]);
+	}
+
+	@Test
+	void rollsForwardOnNewDayAndKeepsLateTicksInNewSegment() throws IOException {
+		journal.append(tick("UPBIT", "KRW-BTC", T0, 100.0, 1));
+		journal.append(tick("UPBIT", "KRW-BTC", T0 + DAY, 101.0, 2));
+		journal.append(tick("UPBIT", "KRW-BTC", T0 + 500, 102.0, 3)); // 다음날 세그먼트 이후 늦게 온 전날 틱
+
+		assertEquals(2, segmentCount());
+		List<TickerSnapshot> replayed = new ArrayList<>();
+		journal.replay(Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + 1_000), replayed::add);
+		assertEquals(2, replayed.size()); // 전날 범위 재생은 다음날 세그먼트까지 스캔
+		assertEquals(3L, replayed.get(1).getSequentialId());
+	}
+
+	private long segmentCount() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(p -> p.getFileName().toString().endsWith(".seg")).count();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TradeSequenceTrackerTest {
+
+	private static final long T0 = 1_700_000_000_000L;
+
+	private final List<TradeSequenceTracker.TradeGap> gaps = new ArrayList<>();
+	private final TradeSequenceTracker tracker = new TradeSequenceTracker(4, gaps::add);
+
+	@Test
+	void rejectsRepeatedSequentialIdPerMarket() {
+		assertTrue(tracker.accept("KRW-BTC", 17000000000000001L, T0));
+		assertTrue(tracker.accept("KRW-BTC", 17000000000000005L, T0 + 1)); // 연속 번호가 아니어도 통과
+		assertFalse(tracker.accept("KRW-BTC", 17000000000000001L, T0));
+		assertTrue(tracker.accept("KRW-ETH", 17000000000000001L, T0)); // 다른 마켓
+
+		assertEquals(1L, tracker.getStats().get("duplicates"));
+	}
+
+	@Test
+	void remembersBetweenOneAndTwoWindowsOfIds() {
+		for (long id = 1; id <= 8; id++) {
+			assertTrue(tracker.accept("KRW-BTC", id, T0 + id));
+		}
+		assertFalse(tracker.accept("KRW-BTC", 5L, T0)); // 현재 세대(5~8)에 있는 번호 → 중복으로 거절
+		assertTrue(tracker.accept("KRW-BTC", 9L, T0 + 9)); // 세대 교체 → 1~4 잊음
+		assertTrue(tracker.accept("KRW-BTC", 1L, T0 + 1));
+		assertTrue(tracker.accept("KRW-BTC", null, T0)); // 번호 없음 → 판정 안 함
+	}
+
+	@Test
+	void reportsGapOnFirstTradeAfterInterruption() {
+		tracker.accept("KRW-BTC", 1L, T0);
+		tracker.accept("KRW-ETH", 2L, T0 + 500);
+		tracker.interrupted();
+
+		assertFalse(tracker.accept("KRW-BTC", 1L, T0)); // 끊긴 뒤 다시 온 같은 체결
+		assertTrue(tracker.accept("KRW-BTC", 3L, T0 + 30_000));
+		assertTrue(tracker.accept("KRW-BTC", 4L, T0 + 31_000)); // 두 번째 체결은 공백 아님
+
+		assertEquals(1, gaps.size());
+		assertEquals("KRW-BTC", gaps.get(0).getMarket());
+		assertEquals(T0, gaps.get(0).getLastTradeMillis());
+		assertEquals(30_000L, gaps.get(0).getDurationMillis());
+	}
+}
@@ -0,0 +1,157 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import coinalarm.Coin_Alarm.exchange.CandleData;
+import coinalarm.Coin_Alarm.exchange.ExchangeClient;
+import coinalarm.Coin_Alarm.exchange.kit.ExchangeAdapterTestKit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.WebSocket;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UpbitClient를 공통 거래소 어댑터 테스트 킷으로 검증 (UPBIT)
+ * - 구독: 연결 후 구독 메시지 ([{ticket},{type:trade, codes:[...]},{format}]) → 메시지에서 마켓 목록을 읽음
+ * - 프레임: 바이너리 (실제 업비트와 같음), 체결 타입 DEFAULT 포맷
+ * - 틱 버스 용량은 성능 측정 메시지 수보다 크게 (버림 없이 처리량만 측정)
+ */
+class UpbitAdapterConformanceTest extends ExchangeAdapterTestKit {
+
+	private static final DateTimeFormatter CANDLE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")
+			.withZone(ZoneOffset.UTC);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private UpbitWSC upbitWSC;
+
+	@Override
+	protected String exchangeId() {
+		return "UPBIT";
+	}
+
+	@Override
+	protected ExchangeClient createClient(String restBaseUrl, String wsBaseUrl) {
+		upbitWSC = new UpbitWSC(objectMapper, wsBaseUrl + "/websocket/v1", 1 << 18, 50, 200,
+				UpbitMessageFormat.DEFAULT, 256);
+		return new UpbitClient(WebClient.builder(), upbitWSC, restBaseUrl + "/v1");
+	}
+
+	@Override
+	protected void releaseClient(ExchangeClient client) {
+		upbitWSC.disconnect();
+	}
+
+	@Override
+	protected List<String> sampleMarkets(int count) {
+		List<String> markets = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			markets.add("KRW-COIN" + i);
+		}
+		return markets;
+	}
+
+	//업비트 /market/all에는 상태 필드가 없음 → 원화 마켓이 아닌 것(BTC 마켓)을 목록에서 빠져야 하는 마켓으로 사용
+	@Override
+	protected MockResponse marketListResponse(List<String> tradable, List<String> notTradable) {
+		StringBuilder body = new StringBuilder("[");
+		for (String market : tradable) {
+			appendMarket(body, market);
+		}
+		for (String market : notTradable) {
+			appendMarket(body, "BTC-" + market.substring(market.indexOf('-') + 1));
+		}
+		body.setLength(body.length() - 1);
+		return json(body.append(']').toString());
+	}
+
+	@Override
+	protected MockResponse candleResponse(String marketCode, List<CandleData> candles) {
+		//업비트 분봉은 최신 → 과거 순
+		StringBuilder body = new StringBuilder("[");
+		for (int i = candles.size() - 1; i >= 0; i--) {
+			CandleData candle = candles.get(i);
+			Instant start = candle.getTimestamp();
+			body.append("{\"market\":\"").append(marketCode)
+					.append("\",\"candle_date_time_utc\":\"").append(CANDLE_TIME.format(start))
+					.append("\",\"candle_date_time_kst\":\"").append(CANDLE_TIME.format(start.plusSeconds(9 * 3600)))
+					.append("\",\"opening_price\":").append(candle.getOpenPrice())
+					.append(",\"high_price\":").append(candle.getHighPrice())
+					.append(",\"low_price\":").append(candle.getLowPrice())
+					.append(",\"trade_price\":").append(candle.getClosePrice())
+					.append(",\"timestamp\":").append(start.toEpochMilli() + 59_000)
+					.append(",\"candle_acc_trade_price\":").append(candle.getAccTradePrice())
+					.append(",\"candle_acc_trade_volume\":").append(candle.getAccTradeVolume())
+					.append(",\"unit\":1},");
+		}
+		if (!candles.isEmpty()) {
+			body.setLength(body.length() - 1);
+		}
+		return json(body.append(']').toString());
+	}
+
+	//체결 1건 (sequential_id = 이벤트 시각 → 마켓별로 증가, 중복 제거에 걸리지 않음)
+	@Override
+	protected String tickerFrame(String marketCode, long eventTimeMillis, double price, double volume24h) {
+		return "{\"type\":\"trade\",\"code\":\"" + marketCode + "\",\"timestamp\":" + (eventTimeMillis + 3)
+				+ ",\"trade_date\":\"2023-11-14\",\"trade_time\":\"22:13:20\",\"trade_timestamp\":" + eventTimeMillis
+				+ ",\"trade_price\":" + price + ",\"trade_volume\":0.00123456,\"ask_bid\":\"BID\""
+				+ ",\"prev_closing_price\":51234000.0,\"change\":\"RISE\",\"change_price\":120000.0"
+				+ ",\"acc_trade_price_24h\":" + volume24h
+				+ ",\"sequential_id\":" + eventTimeMillis + ",\"best_ask_price\":" + price + ",\"best_ask_size\":0.5"
+				+ ",\"best_bid_price\":" + price + ",\"best_bid_size\":0.3,\"stream_type\":\"REALTIME\"}";
+	}
+
+	@Override
+	protected List<String> marketsFromHandshake(RecordedRequest handshake) {
+		return null; // 연결 후 구독 메시지
+	}
+
+	@Override
+	protected List<String> marketsFromSubscribeMessage(String message) {
+		try {
+			List<String> markets = new ArrayList<>();
+			for (JsonNode part : objectMapper.readTree(message)) {
+				if ("trade".equals(part.path("type").asText())) {
+					part.path("codes").forEach(code -> markets.add(code.asText()));
+				}
+			}
+			return markets;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected boolean sendFrame(WebSocket socket, String frame) {
+		return socket.send(ByteString.encodeUtf8(frame));
+	}
+
+	//UpbitWSC 소켓 스레드와 같은 경로 (DEFAULT 포맷 → Jackson)
+	@Override
+	protected FrameDecoder frameDecoder(List<String> markets) {
+		return frame -> {
+			try {
+				objectMapper.readValue(frame, UpbitTickerResponse.class);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		};
+	}
+
+	private static void appendMarket(StringBuilder body, String market) {
+		body.append("{\"market\":\"").append(market).append("\",\"korean_name\":\"코인\",\"english_name\":\"Coin\"},");
+	}
+
+	private static MockResponse json(String body) {
+		return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+	}
+}
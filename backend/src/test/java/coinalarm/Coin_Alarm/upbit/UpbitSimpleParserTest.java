@@ -0,0 +1,38 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpbitSimpleParserTest {
+
+	@Test
+	void mapsAbbreviatedTradeKeysOntoTicker() {
+		String json = "{\"ty\":\"trade\",\"cd\":\"KRW-BTC\",\"tms\":1700000000123,\"td\":\"2023-11-14\",\"ttm\":\"22:13:20\","
+				+ "\"ttms\":1700000000000,\"tp\":50000000.0,\"tv\":0.01,\"ab\":\"BID\",\"pcp\":49000000.0,\"c\":\"RISE\","
+				+ "\"cp\":1000000.0,\"sid\":17000000000000000,\"st\":\"REALTIME\"}";
+
+		UpbitTickerResponse ticker = UpbitSimpleParser.parseTrade(json);
+
+		assertEquals("trade", ticker.getType());
+		assertEquals("KRW-BTC", ticker.getMarketCode());
+		assertEquals(50000000.0, ticker.getTradePrice());
+		assertEquals(0.01, ticker.getTradeVolume());
+		assertEquals(1700000000000L, ticker.getTradeTimestamp());
+		assertEquals(1700000000123L, ticker.getTimestamp());
+		assertTrue(ticker.isBuyTaker());
+		assertEquals("RISE", ticker.getChange()); // "c"가 "cd"/"cp"와 섞이지 않음
+		assertEquals(1000000.0, ticker.getChangePrice());
+		assertEquals("2023-11-14", ticker.getTradeDate());
+		assertNull(ticker.getAccTradePrice24h()); // 체결 메시지에는 없음 (DEFAULT와 동일)
+	}
+
+	@Test
+	void formatKeysFollowDefaultNames() {
+		assertEquals("acc_trade_price_24h", UpbitMessageFormat.DEFAULT.key("acc_trade_price_24h"));
+		assertEquals("atp24h", UpbitMessageFormat.SIMPLE.key("acc_trade_price_24h"));
+		assertEquals("obu", UpbitMessageFormat.SIMPLE.key("orderbook_units"));
+	}
+}
@@ -0,0 +1,106 @@
+package coinalarm.Coin_Alarm.upbit;
+
+import coinalarm.Coin_Alarm.exchange.ExchangeBulkheads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpbitSubscriptionManagerTest {
+
+	private final RecordingUpbitWSC upbitWSC = new RecordingUpbitWSC();
+	private final ExchangeBulkheads bulkheads = new ExchangeBulkheads(16, 1, 16, 1_000, 5, 30_000, 30_000);
+	private final UpbitSubscriptionManager manager = new UpbitSubscriptionManager(upbitWSC,
+			new UpbitClient(WebClient.builder(), upbitWSC, "http://localhost:1"), bulkheads);
+
+	@AfterEach
+	void tearDown() {
+		bulkheads.shutdown();
+	}
+
+	@Test
+	void firstListIsAppliedWithoutCountingAsListingChange() {
+		List<List<String>> notified = new ArrayList<>();
+		manager.addListingListener(notified::add);
+
+		manager.applyListedMarkets(List.of("KRW-ETH", "KRW-BTC"));
+
+		assertEquals(List.of("KRW-BTC", "KRW-ETH"), manager.getListedMarkets());
+		assertEquals(1, upbitWSC.applied.size());
+		assertEquals(List.of(), upbitWSC.applied.get(0).delisted());
+		assertEquals(0L, manager.getStats().get("listedTotal"));
+		assertEquals(1, notified.size());
+	}
+
+	@Test
+	void onlyChangedMarketsArePassedToSocket() {
+		manager.applyListedMarkets(List.of("KRW-BTC", "KRW-ETH", "KRW-XRP"));
+
+		manager.applyListedMarkets(List.of("KRW-BTC", "KRW-XRP", "KRW-NEW"));
+
+		Applied change = upbitWSC.applied.get(1);
+		assertEquals(List.of("KRW-NEW"), change.listed());
+		assertEquals(List.of("KRW-ETH"), change.delisted());
+		assertEquals(List.of("KRW-BTC", "KRW-NEW", "KRW-XRP"), change.all());
+		Map<String, Object> stats = manager.getStats();
+		assertEquals(1L, stats.get("listedTotal"));
+		assertEquals(1L, stats.get("delistedTotal"));
+	}
+
+	@Test
+	void unchangedOrEmptyListDoesNotResubscribe() {
+		manager.applyListedMarkets(List.of("KRW-BTC"));
+
+		manager.applyListedMarkets(List.of("KRW-BTC"));
+		manager.applyListedMarkets(List.of()); // 빈 응답으로 전 마켓 폐지하지 않음
+
+		assertEquals(1, upbitWSC.applied.size());
+		assertEquals(List.of("KRW-BTC"), manager.getListedMarkets());
+	}
+
+	@Test
+	void delistedMarketIsRemovedFromFeeds() {
+		manager.applyListedMarkets(List.of("KRW-BTC", "KRW-ETH"));
+		manager.addFeed("ticker", "KRW-BTC");
+		manager.addFeed("orderbook", "KRW-ETH");
+
+		manager.applyListedMarkets(List.of("KRW-BTC"));
+
+		@SuppressWarnings("unchecked")
+		Map<String, List<String>> feeds = (Map<String, List<String>>) manager.getStats().get("feeds");
+		assertEquals(Map.of("ticker", List.of("KRW-BTC")), feeds);
+		assertTrue(upbitWSC.feedUpdates.contains("ticker:[KRW-BTC]"));
+	}
+
+	private record Applied(List<String> all, List<String> listed, List<String> delisted) {
+	}
+
+	//소켓 없이 구독 변경 호출만 기록
+	private static final class RecordingUpbitWSC extends UpbitWSC {
+		private final List<Applied> applied = new ArrayList<>();
+		private final List<String> feedUpdates = new ArrayList<>();
+
+		private RecordingUpbitWSC() {
+			super(new ObjectMapper(), "ws://localhost:1/websocket/v1", 16, 1_000, 1_000, UpbitMessageFormat.DEFAULT, 16);
+		}
+
+		@Override
+		public synchronized void applyListedMarkets(Collection<String> allListed, Collection<String> listed,
+				Collection<String> delisted) {
+			applied.add(new Applied(List.copyOf(allListed), List.copyOf(listed), List.copyOf(delisted)));
+		}
+
+		@Override
+		public synchronized void setFeed(String type, Collection<String> marketCodes) {
+			feedUpdates.add(type + ":" + marketCodes);
+		}
+	}
+}